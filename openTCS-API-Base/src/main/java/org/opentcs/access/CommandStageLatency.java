@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkInRange;
+
+/**
+ * Describes how long a vehicle's movement commands spent in a single stage of their processing,
+ * e.g. waiting for resources to be allocated or being executed by the vehicle.
+ * <p>
+ * The durations are aggregated in a histogram: The bucket at index <code>i</code> counts the
+ * durations not exceeding the upper bound at index <code>i</code> but exceeding the previous one.
+ * The last bucket, which does not have an upper bound, counts the durations exceeding all upper
+ * bounds.
+ * </p>
+ */
+public class CommandStageLatency
+    implements Serializable {
+
+  /**
+   * The name of the stage.
+   */
+  private final String stage;
+  /**
+   * The number of commands that passed the stage.
+   */
+  private final long count;
+  /**
+   * The total time commands spent in the stage (in ms).
+   */
+  private final long totalTime;
+  /**
+   * The maximum time a single command spent in the stage (in ms).
+   */
+  private final long maxTime;
+  /**
+   * The upper bounds of the histogram's buckets (in ms).
+   */
+  private final List<Long> bucketUpperBounds;
+  /**
+   * The number of durations in each of the histogram's buckets.
+   */
+  private final List<Long> bucketCounts;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param stage The name of the stage.
+   * @param count The number of commands that passed the stage.
+   * @param totalTime The total time commands spent in the stage (in ms).
+   * @param maxTime The maximum time a single command spent in the stage (in ms).
+   * @param bucketUpperBounds The upper bounds of the histogram's buckets (in ms).
+   * @param bucketCounts The number of durations in each of the histogram's buckets. Must contain
+   * one element more than the upper bounds.
+   */
+  public CommandStageLatency(@Nonnull String stage,
+                             long count,
+                             long totalTime,
+                             long maxTime,
+                             @Nonnull List<Long> bucketUpperBounds,
+                             @Nonnull List<Long> bucketCounts) {
+    this.stage = requireNonNull(stage, "stage");
+    this.count = checkInRange(count, 0, Long.MAX_VALUE, "count");
+    this.totalTime = checkInRange(totalTime, 0, Long.MAX_VALUE, "totalTime");
+    this.maxTime = checkInRange(maxTime, 0, Long.MAX_VALUE, "maxTime");
+    this.bucketUpperBounds = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNull(bucketUpperBounds, "bucketUpperBounds"))
+    );
+    this.bucketCounts = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNull(bucketCounts, "bucketCounts"))
+    );
+    checkArgument(bucketCounts.size() == bucketUpperBounds.size() + 1,
+                  "Expected %s bucket counts, got %s",
+                  bucketUpperBounds.size() + 1,
+                  bucketCounts.size());
+  }
+
+  /**
+   * Returns the name of the stage.
+   *
+   * @return The name of the stage.
+   */
+  @Nonnull
+  public String getStage() {
+    return stage;
+  }
+
+  /**
+   * Returns the number of commands that passed the stage.
+   *
+   * @return The number of commands that passed the stage.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the total time commands spent in the stage (in ms).
+   *
+   * @return The total time commands spent in the stage.
+   */
+  public long getTotalTime() {
+    return totalTime;
+  }
+
+  /**
+   * Returns the maximum time a single command spent in the stage (in ms).
+   *
+   * @return The maximum time a single command spent in the stage.
+   */
+  public long getMaxTime() {
+    return maxTime;
+  }
+
+  /**
+   * Returns the upper bounds of the histogram's buckets (in ms).
+   *
+   * @return The upper bounds of the histogram's buckets.
+   */
+  @Nonnull
+  public List<Long> getBucketUpperBounds() {
+    return bucketUpperBounds;
+  }
+
+  /**
+   * Returns the number of durations in each of the histogram's buckets.
+   *
+   * @return The number of durations in each of the histogram's buckets.
+   */
+  @Nonnull
+  public List<Long> getBucketCounts() {
+    return bucketCounts;
+  }
+
+  @Override
+  public String toString() {
+    return "CommandStageLatency{"
+        + "stage=" + stage
+        + ", count=" + count
+        + ", totalTime=" + totalTime
+        + ", maxTime=" + maxTime
+        + ", bucketUpperBounds=" + bucketUpperBounds
+        + ", bucketCounts=" + bucketCounts
+        + '}';
+  }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkInRange;
+
+/**
+ * Describes how much resource allocations had to wait for a single resource.
+ */
+public class ResourceContention
+    implements Serializable {
+
+  /**
+   * The name of the resource.
+   */
+  private final String resourceName;
+  /**
+   * The number of allocations deferred because the resource was allocated by another client.
+   */
+  private final long deferralCount;
+  /**
+   * The total time allocations waited for the resource (in ms).
+   */
+  private final long totalWaitTime;
+  /**
+   * The maximum time a single allocation waited for the resource (in ms).
+   */
+  private final long maxWaitTime;
+  /**
+   * The IDs of the clients that had to wait for the resource.
+   */
+  private final Set<String> waitingClients;
+  /**
+   * The IDs of the clients that held the resource while others were waiting for it.
+   */
+  private final Set<String> holdingClients;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param resourceName The name of the resource.
+   * @param deferralCount The number of allocations deferred because the resource was allocated by
+   * another client.
+   * @param totalWaitTime The total time allocations waited for the resource (in ms).
+   * @param maxWaitTime The maximum time a single allocation waited for the resource (in ms).
+   * @param waitingClients The IDs of the clients that had to wait for the resource.
+   * @param holdingClients The IDs of the clients that held the resource while others were waiting
+   * for it.
+   */
+  public ResourceContention(@Nonnull String resourceName,
+                            long deferralCount,
+                            long totalWaitTime,
+                            long maxWaitTime,
+                            @Nonnull Set<String> waitingClients,
+                            @Nonnull Set<String> holdingClients) {
+    this.resourceName = requireNonNull(resourceName, "resourceName");
+    this.deferralCount = checkInRange(deferralCount, 0, Long.MAX_VALUE, "deferralCount");
+    this.totalWaitTime = checkInRange(totalWaitTime, 0, Long.MAX_VALUE, "totalWaitTime");
+    this.maxWaitTime = checkInRange(maxWaitTime, 0, Long.MAX_VALUE, "maxWaitTime");
+    this.waitingClients = Collections.unmodifiableSet(
+        new HashSet<>(requireNonNull(waitingClients, "waitingClients"))
+    );
+    this.holdingClients = Collections.unmodifiableSet(
+        new HashSet<>(requireNonNull(holdingClients, "holdingClients"))
+    );
+  }
+
+  /**
+   * Returns the name of the resource.
+   *
+   * @return The name of the resource.
+   */
+  @Nonnull
+  public String getResourceName() {
+    return resourceName;
+  }
+
+  /**
+   * Returns the number of allocations deferred because the resource was allocated by another
+   * client.
+   * An allocation retried and deferred again because of the same resource is counted only once.
+   *
+   * @return The number of allocations deferred.
+   */
+  public long getDeferralCount() {
+    return deferralCount;
+  }
+
+  /**
+   * Returns the total time allocations waited for the resource (in ms).
+   *
+   * @return The total time allocations waited for the resource.
+   */
+  public long getTotalWaitTime() {
+    return totalWaitTime;
+  }
+
+  /**
+   * Returns the maximum time a single allocation waited for the resource (in ms).
+   *
+   * @return The maximum time a single allocation waited for the resource.
+   */
+  public long getMaxWaitTime() {
+    return maxWaitTime;
+  }
+
+  /**
+   * Returns the IDs of the clients that had to wait for the resource.
+   *
+   * @return The IDs of the clients that had to wait for the resource.
+   */
+  @Nonnull
+  public Set<String> getWaitingClients() {
+    return waitingClients;
+  }
+
+  /**
+   * Returns the IDs of the clients that held the resource while others were waiting for it.
+   *
+   * @return The IDs of the clients that held the resource while others were waiting for it.
+   */
+  @Nonnull
+  public Set<String> getHoldingClients() {
+    return holdingClients;
+  }
+
+  @Override
+  public String toString() {
+    return "ResourceContention{"
+        + "resourceName=" + resourceName
+        + ", deferralCount=" + deferralCount
+        + ", totalWaitTime=" + totalWaitTime
+        + ", maxWaitTime=" + maxWaitTime
+        + ", waitingClients=" + waitingClients
+        + ", holdingClients=" + holdingClients
+        + '}';
+  }
+}
@@ -9,6 +9,8 @@ package org.opentcs.access.rmi.services;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
+import org.opentcs.access.ResourceContention;
 import org.opentcs.access.SchedulerAllocationState;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.components.kernel.services.SchedulerService;
@@ -34,4 +36,7 @@ public interface RemoteSchedulerService
 
   public SchedulerAllocationState fetchSchedulerAllocations(ClientID clientId)
       throws RemoteException;
+
+  public List<ResourceContention> fetchHotResources(ClientID clientId, int count)
+      throws RemoteException;
 }
@@ -8,7 +8,9 @@
 package org.opentcs.access.rmi.services;
 
 import java.rmi.RemoteException;
+import java.util.List;
 import org.opentcs.access.KernelRuntimeException;
+import org.opentcs.access.ResourceContention;
 import org.opentcs.access.SchedulerAllocationState;
 import org.opentcs.components.kernel.services.SchedulerService;
 
@@ -34,4 +36,17 @@ class RemoteSchedulerServiceProxy
       throw findSuitableExceptionFor(ex);
     }
   }
+
+  @Override
+  public List<ResourceContention> fetchHotResources(int count)
+      throws KernelRuntimeException {
+    checkServiceAvailability();
+
+    try {
+      return getRemoteService().fetchHotResources(getClientId(), count);
+    }
+    catch (RemoteException ex) {
+      throw findSuitableExceptionFor(ex);
+    }
+  }
 }
@@ -9,7 +9,9 @@ package org.opentcs.access.rmi.services;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.Set;
+import org.opentcs.access.CommandStageLatency;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.components.kernel.services.VehicleService;
 import org.opentcs.data.TCSObjectReference;
@@ -83,4 +85,8 @@ public interface RemoteVehicleService
                                       TCSObjectReference<Vehicle> ref,
                                       Set<String> allowedOrderTypes)
       throws RemoteException;
+
+  List<CommandStageLatency> fetchCommandLatencies(ClientID clientId,
+                                                  TCSObjectReference<Vehicle> ref)
+      throws RemoteException;
 }
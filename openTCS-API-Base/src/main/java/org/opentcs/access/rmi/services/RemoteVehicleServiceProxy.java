@@ -8,7 +8,9 @@
 package org.opentcs.access.rmi.services;
 
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.Set;
+import org.opentcs.access.CommandStageLatency;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.components.kernel.services.VehicleService;
 import org.opentcs.data.ObjectUnknownException;
@@ -167,4 +169,17 @@ class RemoteVehicleServiceProxy
       throw findSuitableExceptionFor(ex);
     }
   }
+
+  @Override
+  public List<CommandStageLatency> fetchCommandLatencies(TCSObjectReference<Vehicle> ref)
+      throws ObjectUnknownException, KernelRuntimeException {
+    checkServiceAvailability();
+
+    try {
+      return getRemoteService().fetchCommandLatencies(getClientId(), ref);
+    }
+    catch (RemoteException ex) {
+      throw findSuitableExceptionFor(ex);
+    }
+  }
 }
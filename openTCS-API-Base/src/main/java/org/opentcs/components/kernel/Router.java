@@ -7,6 +7,7 @@
  */
 package org.opentcs.components.kernel;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -135,6 +136,32 @@ public interface Router
                 @Nonnull Point sourcePoint,
                 @Nonnull Point destinationPoint);
 
+  /**
+   * Returns the costs for travelling routes from one point to each of a set of other points with a
+   * given vehicle.
+   * <p>
+   * This default implementation computes the costs for each destination point separately.
+   * Implementations should compute them in a single search, if possible.
+   * </p>
+   *
+   * @param vehicle The vehicle for which the routes must be passable.
+   * @param sourcePoint The starting point of the routes.
+   * @param destinationPoints The end points of the routes.
+   * @return The costs of the routes, by end point. For end points that cannot be reached, the
+   * costs are <code>Long.MAX_VALUE</code>.
+   */
+  @Nonnull
+  @ScheduledApiChange(when = "5.0", details = "Default implementation will be removed.")
+  default Map<Point, Long> getCosts(@Nonnull Vehicle vehicle,
+                                    @Nonnull Point sourcePoint,
+                                    @Nonnull Set<Point> destinationPoints) {
+    Map<Point, Long> result = new HashMap<>();
+    for (Point destinationPoint : destinationPoints) {
+      result.put(destinationPoint, getCosts(vehicle, sourcePoint, destinationPoint));
+    }
+    return result;
+  }
+
   /**
    * Returns the costs for travelling a route from one point to another with a
    * given vehicle.
@@ -7,10 +7,12 @@
  */
 package org.opentcs.components.kernel;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import org.opentcs.access.ResourceContention;
 import org.opentcs.components.Lifecycle;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.util.annotations.ScheduledApiChange;
@@ -119,6 +121,20 @@ public interface Scheduler
   @Nonnull
   Map<String, Set<TCSResource<?>>> getAllocations();
 
+  /**
+   * Returns the resources allocations had to wait for most, i.e. with the longest total waiting
+   * time.
+   *
+   * @param count The maximum number of resources to return.
+   * @return The resources allocations had to wait for most, in descending order of their total
+   * waiting time.
+   */
+  @Nonnull
+  @ScheduledApiChange(when = "5.0", details = "Default implementation will be removed.")
+  default List<ResourceContention> getHotResources(int count) {
+    return Collections.emptyList();
+  }
+
   /**
    * Informs the scheduler that a set of resources was successfully prepared in order of allocating
    * them to a client.
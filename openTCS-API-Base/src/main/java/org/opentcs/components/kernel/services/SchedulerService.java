@@ -7,9 +7,13 @@
  */
 package org.opentcs.components.kernel.services;
 
+import java.util.Collections;
+import java.util.List;
 import org.opentcs.access.KernelRuntimeException;
+import org.opentcs.access.ResourceContention;
 import org.opentcs.access.SchedulerAllocationState;
 import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.util.annotations.ScheduledApiChange;
 
 /**
  * Provides methods concerning the {@link Scheduler}.
@@ -26,4 +30,19 @@ public interface SchedulerService {
    */
   SchedulerAllocationState fetchSchedulerAllocations()
       throws KernelRuntimeException;
+
+  /**
+   * Returns the resources allocations had to wait for most, i.e. with the longest total waiting
+   * time.
+   *
+   * @param count The maximum number of resources to return.
+   * @return The resources allocations had to wait for most, in descending order of their total
+   * waiting time.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   */
+  @ScheduledApiChange(when = "5.0", details = "Default implementation will be removed.")
+  default List<ResourceContention> fetchHotResources(int count)
+      throws KernelRuntimeException {
+    return Collections.emptyList();
+  }
 }
@@ -7,7 +7,10 @@
  */
 package org.opentcs.components.kernel.services;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import org.opentcs.access.CommandStageLatency;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
@@ -152,4 +155,19 @@ public interface VehicleService
   void updateVehicleAllowedOrderTypes(TCSObjectReference<Vehicle> ref,
                                       Set<String> allowedOrderTypes)
       throws ObjectUnknownException, KernelRuntimeException;
+
+  /**
+   * Returns how long the movement commands executed by the referenced vehicle spent in each stage
+   * of their processing.
+   *
+   * @param ref A reference to the vehicle.
+   * @return The latencies of the vehicle's movement commands, one per stage.
+   * @throws ObjectUnknownException If the referenced vehicle does not exist.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   */
+  @ScheduledApiChange(when = "5.0", details = "Default implementation will be removed.")
+  default List<CommandStageLatency> fetchCommandLatencies(TCSObjectReference<Vehicle> ref)
+      throws ObjectUnknownException, KernelRuntimeException {
+    return Collections.emptyList();
+  }
 }
@@ -154,6 +154,35 @@ public interface VehicleCommAdapter
    */
   void clearCommandQueue();
 
+  /**
+   * Indicates whether this communication adapter's vehicle can execute whole routes and restrict
+   * itself to the steps it is granted via {@link #updateGrantedRouteIndex(int)}.
+   * <p>
+   * If so, a vehicle controller may enqueue the movement commands of a drive order before the
+   * resources for them have been allocated.
+   * </p>
+   *
+   * @return <code>true</code> if, and only if, this adapter's vehicle supports route streaming.
+   */
+  @ScheduledApiChange(when = "5.0", details = "Default implementation will be removed.")
+  default boolean isRouteStreamingSupported() {
+    return false;
+  }
+
+  /**
+   * Notifies this communication adapter about the route index of the last step of the current
+   * drive order the resources have been allocated for.
+   * The vehicle may move up to that step's destination point, but must not move beyond it.
+   * This method is called only if route streaming is supported and used.
+   *
+   * @param routeIndex The route index of the last step granted, or
+   * {@link org.opentcs.data.model.Vehicle#ROUTE_INDEX_DEFAULT} if no step of the current drive
+   * order has been granted, yet.
+   */
+  @ScheduledApiChange(when = "5.0", details = "Default implementation will be removed.")
+  default void updateGrantedRouteIndex(int routeIndex) {
+  }
+
   /**
    * Returns a list of panels that this communication adapter offers for displaying or manipulating
    * its custom properties.
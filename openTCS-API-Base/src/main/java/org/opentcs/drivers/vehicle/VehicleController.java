@@ -7,12 +7,14 @@
  */
 package org.opentcs.drivers.vehicle;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.opentcs.access.CommandStageLatency;
 import org.opentcs.components.Lifecycle;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.data.order.DriveOrder;
@@ -126,4 +128,16 @@ public interface VehicleController
   default Queue<MovementCommand> getCommandsSent() {
     return new LinkedList<>();
   }
+
+  /**
+   * Returns how long the movement commands executed by the vehicle spent in each stage of their
+   * processing.
+   *
+   * @return The latencies of the movement commands, one per stage.
+   */
+  @ScheduledApiChange(details = "Default implementation will be removed.", when = "5.0")
+  @Nonnull
+  default List<CommandStageLatency> getCommandLatencies() {
+    return new ArrayList<>();
+  }
 }
@@ -74,6 +74,10 @@ public class VehicleProcessModel {
    * The vehicle's energy level.
    */
   private int energyLevel = 100;
+  /**
+   * The vehicle's current velocity (in mm/s).
+   */
+  private int velocity;
   /**
    * The vehicle's load handling devices (state).
    */
@@ -341,6 +345,30 @@ public class VehicleProcessModel {
                                                   newLevel);
   }
 
+  /**
+   * Returns the vehicle's current velocity.
+   *
+   * @return The vehicle's current velocity (in mm/s), or 0 if the vehicle is not moving or the
+   * communication adapter does not report it.
+   */
+  public int getVehicleVelocity() {
+    return velocity;
+  }
+
+  /**
+   * Sets the vehicle's current velocity.
+   *
+   * @param newVelocity The new velocity (in mm/s).
+   */
+  public void setVehicleVelocity(int newVelocity) {
+    int oldValue = this.velocity;
+    this.velocity = newVelocity;
+
+    getPropertyChangeSupport().firePropertyChange(Attribute.VELOCITY.name(),
+                                                  oldValue,
+                                                  newVelocity);
+  }
+
   /**
    * Returns the vehicle's load handling devices.
    *
@@ -671,6 +699,10 @@ public class VehicleProcessModel {
      * Indicates a change of the vehicle's energy level.
      */
     ENERGY_LEVEL,
+    /**
+     * Indicates a change of the vehicle's current velocity.
+     */
+    VELOCITY,
     /**
      * Indicates a change of the vehicle's load handling devices.
      */
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Singleton;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.opentcs.benchmarks.services.BenchmarkVehicleControllerPool;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.benchmarks.services.NullDispatcherService;
+import org.opentcs.benchmarks.services.NullNotificationService;
+import org.opentcs.components.kernel.services.DispatcherService;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.components.kernel.services.InternalTransportOrderService;
+import org.opentcs.components.kernel.services.InternalVehicleService;
+import org.opentcs.components.kernel.services.NotificationService;
+import org.opentcs.components.kernel.services.PlantModelService;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.components.kernel.services.TransportOrderService;
+import org.opentcs.components.kernel.services.VehicleService;
+import org.opentcs.configuration.ConfigurationBindingProvider;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.drivers.vehicle.VehicleControllerPool;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherModule;
+import org.opentcs.strategies.basic.routing.DefaultRouterModule;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerModule;
+import org.opentcs.util.event.EventBus;
+import org.opentcs.util.event.EventHandler;
+import org.opentcs.util.event.EventSource;
+import org.opentcs.util.event.SimpleEventBus;
+
+/**
+ * Configures a headless environment for running the default strategies outside of a kernel.
+ * <p>
+ * The kernel's services are replaced by an {@link InMemoryObjectService}, vehicle controllers by
+ * {@link BenchmarkVehicleControllerPool}'s stand-ins. The default dispatcher, router and scheduler
+ * are configured exactly as they would be in the kernel, using the given configuration.
+ * </p>
+ */
+public class BenchmarkInjectionModule
+    extends AbstractModule {
+
+  /**
+   * The configuration binding provider for the strategies' modules.
+   */
+  private final ConfigurationBindingProvider configBindingProvider;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configBindingProvider The configuration binding provider for the strategies' modules.
+   */
+  public BenchmarkInjectionModule(ConfigurationBindingProvider configBindingProvider) {
+    this.configBindingProvider = requireNonNull(configBindingProvider, "configBindingProvider");
+  }
+
+  @Override
+  protected void configure() {
+    configureKernelStandIns();
+
+    install(configured(new DefaultRouterModule()));
+    install(configured(new DefaultSchedulerModule()));
+    install(configured(new DefaultDispatcherModule()));
+  }
+
+  private void configureKernelStandIns() {
+    SimpleEventBus eventBus = new SimpleEventBus();
+    bind(EventSource.class)
+        .annotatedWith(ApplicationEventBus.class)
+        .toInstance(eventBus);
+    bind(EventHandler.class)
+        .annotatedWith(ApplicationEventBus.class)
+        .toInstance(eventBus);
+    bind(EventBus.class)
+        .annotatedWith(ApplicationEventBus.class)
+        .toInstance(eventBus);
+
+    bind(ScheduledExecutorService.class)
+        .annotatedWith(KernelExecutor.class)
+        .toInstance(Executors.newSingleThreadScheduledExecutor());
+    bind(Object.class)
+        .annotatedWith(GlobalSyncObject.class)
+        .toInstance(new Object());
+
+    bind(InMemoryObjectService.class)
+        .in(Singleton.class);
+    bind(TCSObjectService.class)
+        .to(InMemoryObjectService.class);
+    bind(PlantModelService.class)
+        .to(InMemoryObjectService.class);
+    bind(InternalPlantModelService.class)
+        .to(InMemoryObjectService.class);
+    bind(TransportOrderService.class)
+        .to(InMemoryObjectService.class);
+    bind(InternalTransportOrderService.class)
+        .to(InMemoryObjectService.class);
+    bind(VehicleService.class)
+        .to(InMemoryObjectService.class);
+    bind(InternalVehicleService.class)
+        .to(InMemoryObjectService.class);
+
+    bind(BenchmarkVehicleControllerPool.class)
+        .in(Singleton.class);
+    bind(VehicleControllerPool.class)
+        .to(BenchmarkVehicleControllerPool.class);
+
+    bind(DispatcherService.class)
+        .to(NullDispatcherService.class)
+        .in(Singleton.class);
+    bind(NotificationService.class)
+        .to(NullNotificationService.class)
+        .in(Singleton.class);
+  }
+
+  private KernelInjectionModule configured(KernelInjectionModule module) {
+    module.setConfigBindingProvider(configBindingProvider);
+    return module;
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes their results to a report directory.
+ * <p>
+ * The first argument is the path of the report directory. All following arguments are passed on
+ * to JMH, e.g. a regular expression selecting the benchmarks to run, or <code>-p
+ * vehicleCount=50</code> to restrict a parameter to a single value. (Run with <code>-h</code> for
+ * a list of all options.) Unless specified otherwise, results are written to
+ * <code>results.json</code> in the report directory, which can be visualized e.g. with
+ * <a href="https://jmh.morethan.io/">JMH Visualizer</a>.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+  /**
+   * Prevents instantiation.
+   */
+  private BenchmarkRunner() {
+  }
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args The arguments.
+   * @throws CommandLineOptionException If the arguments passed on to JMH could not be parsed.
+   * @throws RunnerException If running the benchmarks failed.
+   * @throws IOException If printing the help text failed.
+   */
+  public static void main(String[] args)
+      throws CommandLineOptionException, RunnerException, IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: BenchmarkRunner <report directory> [JMH options...]");
+      System.exit(1);
+    }
+
+    File reportDir = new File(args[0]);
+    CommandLineOptions jmhOptions
+        = new CommandLineOptions(Arrays.copyOfRange(args, 1, args.length));
+    if (jmhOptions.shouldHelp()) {
+      jmhOptions.showHelp();
+      return;
+    }
+    if (jmhOptions.shouldList()) {
+      new Runner(jmhOptions).list();
+      return;
+    }
+
+    reportDir.mkdirs();
+    Options options = new OptionsBuilder()
+        .parent(jmhOptions)
+        .resultFormat(jmhOptions.getResultFormat().orElse(ResultFormatType.JSON))
+        .result(jmhOptions.getResult()
+            .orElse(new File(reportDir, "results.json").getAbsolutePath()))
+        .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import java.time.Instant;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ScheduledExecutorService;
+import org.opentcs.benchmarks.plant.PlantGenerator;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.plant.WorkloadGenerator;
+import org.opentcs.benchmarks.services.BenchmarkVehicleControllerPool;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
+import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
+
+/**
+ * A plant model with vehicles and transport orders, set up in a headless environment for running
+ * the default strategies.
+ * <p>
+ * The state of the scenario can be saved and reset, so every benchmark invocation can start with
+ * exactly the same set of objects.
+ * </p>
+ */
+public class BenchmarkScenario {
+
+  /**
+   * The name of the resource containing the default configuration for benchmarks.
+   */
+  public static final String DEFAULT_CONFIGURATION
+      = "/org/opentcs/benchmarks/benchmark-defaults.properties";
+  /**
+   * The seed for generating the workload.
+   */
+  private static final long SEED = 4711;
+  /**
+   * The injector providing the strategies' components.
+   */
+  private final Injector injector;
+  /**
+   * The object service containing the scenario's objects.
+   */
+  private final InMemoryObjectService objectService;
+  /**
+   * The router.
+   */
+  private final Router router;
+  /**
+   * The saved state of the scenario's objects.
+   */
+  private Map<Class<?>, Map<String, TCSObject<?>>> savedState;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configBindingProvider Provides the configuration for the strategies.
+   * @param layout The layout of the plant.
+   * @param pointCount The (approximate) number of points in the plant.
+   * @param vehicleCount The number of vehicles.
+   * @param orderCount The number of transport orders.
+   */
+  public BenchmarkScenario(PropertiesConfigurationBindingProvider configBindingProvider,
+                           PlantLayout layout,
+                           int pointCount,
+                           int vehicleCount,
+                           int orderCount) {
+    requireNonNull(configBindingProvider, "configBindingProvider");
+    requireNonNull(layout, "layout");
+
+    injector = Guice.createInjector(new BenchmarkInjectionModule(configBindingProvider));
+    objectService = injector.getInstance(InMemoryObjectService.class);
+
+    new PlantGenerator(objectService).generate(layout, pointCount);
+    WorkloadGenerator workloadGenerator = new WorkloadGenerator(objectService, SEED);
+    workloadGenerator.createVehicles(vehicleCount);
+    workloadGenerator.createTransportOrders(orderCount, Instant.now());
+
+    router = injector.getInstance(Router.class);
+    router.initialize();
+    injector.getInstance(TransportOrderUtil.class).initialize();
+
+    saveState();
+  }
+
+  /**
+   * Creates a new instance using the default configuration.
+   *
+   * @param layout The layout of the plant.
+   * @param pointCount The (approximate) number of points in the plant.
+   * @param vehicleCount The number of vehicles.
+   * @param orderCount The number of transport orders.
+   */
+  public BenchmarkScenario(PlantLayout layout, int pointCount, int vehicleCount, int orderCount) {
+    this(PropertiesConfigurationBindingProvider.fromResource(DEFAULT_CONFIGURATION),
+         layout,
+         pointCount,
+         vehicleCount,
+         orderCount);
+  }
+
+  /**
+   * Returns an instance of the given class, provided by the scenario's injector.
+   *
+   * @param <T> The type of the instance.
+   * @param clazz The class of the instance.
+   * @return The instance.
+   */
+  public <T> T getInstance(Class<T> clazz) {
+    return injector.getInstance(clazz);
+  }
+
+  /**
+   * Returns the object service containing the scenario's objects.
+   *
+   * @return The object service.
+   */
+  public InMemoryObjectService getObjectService() {
+    return objectService;
+  }
+
+  /**
+   * Saves the current state of the scenario's objects, to be restored by {@link #reset()}.
+   */
+  public final void saveState() {
+    savedState = objectService.snapshot();
+  }
+
+  /**
+   * Resets the scenario to the last saved state.
+   * Besides the objects themselves, this also resets routes selected with the router, order
+   * reservations and the vehicle controllers' counters.
+   */
+  public void reset() {
+    objectService.restore(savedState);
+    for (Vehicle vehicle : router.getSelectedRoutes().keySet()) {
+      router.selectRoute(vehicle, null);
+    }
+    injector.getInstance(OrderReservationPool.class).clear();
+    injector.getInstance(BenchmarkVehicleControllerPool.class).resetCounters();
+  }
+
+  /**
+   * Terminates the components set up for the scenario.
+   */
+  public void terminate() {
+    injector.getInstance(TransportOrderUtil.class).terminate();
+    router.terminate();
+    injector.getInstance(Key.get(ScheduledExecutorService.class, KernelExecutor.class)).shutdown();
+  }
+}
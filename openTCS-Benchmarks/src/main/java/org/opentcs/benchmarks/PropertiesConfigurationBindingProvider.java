@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Properties;
+import javax.annotation.Nonnull;
+import org.opentcs.configuration.ConfigurationBindingProvider;
+
+/**
+ * Binds configuration interfaces to a set of properties, without any file system access or reload
+ * threads.
+ * <p>
+ * Values are looked up as <code>prefix.methodName</code>, with system properties taking precedence
+ * over the given properties. Supported return types are the primitive types and their wrappers,
+ * strings, enums and lists of strings or enums, with list elements separated by commas.
+ * </p>
+ */
+public class PropertiesConfigurationBindingProvider
+    implements ConfigurationBindingProvider {
+
+  /**
+   * The properties backing the configuration.
+   */
+  private final Properties properties;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param properties The properties backing the configuration.
+   */
+  public PropertiesConfigurationBindingProvider(@Nonnull Properties properties) {
+    this.properties = requireNonNull(properties, "properties");
+  }
+
+  /**
+   * Creates a new instance with properties loaded from the given class path resource.
+   *
+   * @param resourceName The name of the class path resource.
+   * @return The new instance.
+   */
+  public static PropertiesConfigurationBindingProvider fromResource(@Nonnull String resourceName) {
+    requireNonNull(resourceName, "resourceName");
+
+    Properties properties = new Properties();
+    try (InputStream in = PropertiesConfigurationBindingProvider.class
+        .getResourceAsStream(resourceName)) {
+      if (in == null) {
+        throw new IllegalArgumentException("Resource not found: " + resourceName);
+      }
+      properties.load(in);
+    }
+    catch (IOException exc) {
+      throw new UncheckedIOException(exc);
+    }
+    return new PropertiesConfigurationBindingProvider(properties);
+  }
+
+  /**
+   * Overrides a single configuration value.
+   *
+   * @param key The key, including the prefix.
+   * @param value The value.
+   * @return This instance.
+   */
+  public PropertiesConfigurationBindingProvider with(@Nonnull String key, @Nonnull String value) {
+    properties.setProperty(requireNonNull(key, "key"), requireNonNull(value, "value"));
+    return this;
+  }
+
+  @Override
+  public <T> T get(String prefix, Class<T> type) {
+    requireNonNull(prefix, "prefix");
+    requireNonNull(type, "type");
+
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+                                            new Class<?>[]{type},
+                                            (proxy, method, args) -> valueOf(prefix, method)));
+  }
+
+  private Object valueOf(String prefix, Method method) {
+    if (method.getDeclaringClass() == Object.class) {
+      throw new UnsupportedOperationException(method.getName());
+    }
+
+    String key = prefix + "." + method.getName();
+    String value = System.getProperty(key, properties.getProperty(key));
+    if (value == null) {
+      throw new IllegalStateException("No configuration value for key: " + key);
+    }
+    return parse(value.trim(), method.getGenericReturnType());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Object parse(String value, Type type) {
+    if (type instanceof ParameterizedType
+        && ((ParameterizedType) type).getRawType() == List.class) {
+      Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+      List<Object> result = new ArrayList<>();
+      for (String element : value.split(",")) {
+        if (!element.trim().isEmpty()) {
+          result.add(parse(element.trim(), elementType));
+        }
+      }
+      return result;
+    }
+    if (type == String.class) {
+      return value;
+    }
+    if (type == boolean.class || type == Boolean.class) {
+      return Boolean.parseBoolean(value);
+    }
+    if (type == int.class || type == Integer.class) {
+      return Integer.parseInt(value);
+    }
+    if (type == long.class || type == Long.class) {
+      return Long.parseLong(value);
+    }
+    if (type == double.class || type == Double.class) {
+      return Double.parseDouble(value);
+    }
+    if (type instanceof Class && ((Class<?>) type).isEnum()) {
+      return Enum.valueOf((Class<? extends Enum>) type, value);
+    }
+    throw new IllegalArgumentException("Unsupported configuration type: " + type);
+  }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.dispatching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.AssignmentCandidate;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderCandidateComparator;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderComparator;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeVehicleCandidateComparator;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeVehicleComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks sorting vehicles, transport orders and assignment candidates with the comparators
+ * configured for the default dispatcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ComparatorsBenchmark {
+
+  /**
+   * The layout of the plant.
+   */
+  @Param({"GRID"})
+  private PlantLayout layout;
+  /**
+   * The (approximate) number of points in the plant.
+   */
+  @Param({"1000"})
+  private int pointCount;
+  /**
+   * The number of vehicles.
+   */
+  @Param({"10", "50", "200"})
+  private int vehicleCount;
+  /**
+   * The number of transport orders.
+   */
+  @Param({"1000", "2000"})
+  private int orderCount;
+  /**
+   * The number of assignment candidates created per vehicle.
+   */
+  @Param({"20"})
+  private int candidatesPerVehicle;
+  /**
+   * The scenario.
+   */
+  private BenchmarkScenario scenario;
+  /**
+   * The vehicles to be sorted.
+   */
+  private List<Vehicle> vehicles;
+  /**
+   * The transport orders to be sorted.
+   */
+  private List<TransportOrder> orders;
+  /**
+   * The assignment candidates to be sorted.
+   */
+  private List<AssignmentCandidate> candidates;
+  /**
+   * The comparator for vehicles.
+   */
+  private CompositeVehicleComparator vehicleComparator;
+  /**
+   * The comparator for transport orders.
+   */
+  private CompositeOrderComparator orderComparator;
+  /**
+   * The comparator for assignment candidates, from the vehicles' point of view.
+   */
+  private CompositeVehicleCandidateComparator vehicleCandidateComparator;
+  /**
+   * The comparator for assignment candidates, from the transport orders' point of view.
+   */
+  private CompositeOrderCandidateComparator orderCandidateComparator;
+
+  @Setup(Level.Trial)
+  public void setUpScenario() {
+    scenario = new BenchmarkScenario(layout, pointCount, vehicleCount, orderCount);
+    InMemoryObjectService objectService = scenario.getObjectService();
+    Router router = scenario.getInstance(Router.class);
+
+    vehicles = new ArrayList<>(objectService.fetchObjects(Vehicle.class));
+    orders = new ArrayList<>(objectService.fetchObjects(TransportOrder.class));
+    candidates = new ArrayList<>();
+    for (int i = 0; i < vehicles.size(); i++) {
+      Vehicle vehicle = vehicles.get(i);
+      Point position = objectService.fetchObject(Point.class, vehicle.getCurrentPosition());
+      for (int j = 0; j < candidatesPerVehicle; j++) {
+        TransportOrder order = orders.get((i * candidatesPerVehicle + j) % orders.size());
+        Optional<List<DriveOrder>> driveOrders = router.getRoute(vehicle, position, order);
+        if (driveOrders.isPresent()) {
+          candidates.add(new AssignmentCandidate(vehicle, order, driveOrders.get()));
+        }
+      }
+    }
+
+    vehicleComparator = scenario.getInstance(CompositeVehicleComparator.class);
+    orderComparator = scenario.getInstance(CompositeOrderComparator.class);
+    vehicleCandidateComparator = scenario.getInstance(CompositeVehicleCandidateComparator.class);
+    orderCandidateComparator = scenario.getInstance(CompositeOrderCandidateComparator.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownScenario() {
+    scenario.terminate();
+  }
+
+  @Benchmark
+  public List<Vehicle> sortVehicles() {
+    List<Vehicle> result = new ArrayList<>(vehicles);
+    result.sort(vehicleComparator);
+    return result;
+  }
+
+  @Benchmark
+  public List<TransportOrder> sortTransportOrders() {
+    List<TransportOrder> result = new ArrayList<>(orders);
+    result.sort(orderComparator);
+    return result;
+  }
+
+  @Benchmark
+  public List<AssignmentCandidate> sortCandidatesForVehicles() {
+    List<AssignmentCandidate> result = new ArrayList<>(candidates);
+    result.sort(vehicleCandidateComparator);
+    return result;
+  }
+
+  @Benchmark
+  public List<AssignmentCandidate> sortCandidatesForOrders() {
+    List<AssignmentCandidate> result = new ArrayList<>(candidates);
+    result.sort(orderCandidateComparator);
+    return result;
+  }
+}
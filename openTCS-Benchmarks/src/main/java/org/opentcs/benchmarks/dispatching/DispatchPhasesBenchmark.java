@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.dispatching;
+
+import java.util.concurrent.TimeUnit;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.services.BenchmarkVehicleControllerPool;
+import org.opentcs.strategies.basic.dispatching.Phase;
+import org.opentcs.strategies.basic.dispatching.phase.CheckNewOrdersPhase;
+import org.opentcs.strategies.basic.dispatching.phase.assignment.AssignFreeOrdersPhase;
+import org.opentcs.strategies.basic.dispatching.phase.parking.ParkIdleVehiclesPhase;
+import org.opentcs.strategies.basic.dispatching.phase.recharging.RechargeIdleVehiclesPhase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks single phases of the default dispatcher in isolation.
+ * <p>
+ * Every invocation starts with the same fleet of idle vehicles. For all phases except
+ * {@link CheckNewOrdersPhase}, the transport orders have already been checked and are
+ * dispatchable.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class DispatchPhasesBenchmark {
+
+  /**
+   * The phase to be benchmarked.
+   */
+  @Param({"CHECK_NEW_ORDERS", "ASSIGN_FREE_ORDERS", "RECHARGE_IDLE_VEHICLES", "PARK_IDLE_VEHICLES"})
+  private PhaseType phaseType;
+  /**
+   * The layout of the plant.
+   */
+  @Param({"GRID", "AISLE", "LOOP"})
+  private PlantLayout layout;
+  /**
+   * The (approximate) number of points in the plant.
+   */
+  @Param({"1000"})
+  private int pointCount;
+  /**
+   * The number of vehicles.
+   */
+  @Param({"10", "50", "200"})
+  private int vehicleCount;
+  /**
+   * The number of transport orders.
+   */
+  @Param({"1000", "2000"})
+  private int orderCount;
+  /**
+   * The scenario.
+   */
+  private BenchmarkScenario scenario;
+  /**
+   * The phase to be benchmarked.
+   */
+  private Phase phase;
+  /**
+   * The pool of vehicle controllers, counting the drive orders sent to vehicles.
+   */
+  private BenchmarkVehicleControllerPool vehicleControllerPool;
+
+  @Setup(Level.Trial)
+  public void setUpScenario() {
+    scenario = new BenchmarkScenario(layout, pointCount, vehicleCount, orderCount);
+    vehicleControllerPool = scenario.getInstance(BenchmarkVehicleControllerPool.class);
+
+    if (phaseType != PhaseType.CHECK_NEW_ORDERS) {
+      Phase checkNewOrdersPhase = scenario.getInstance(CheckNewOrdersPhase.class);
+      checkNewOrdersPhase.initialize();
+      checkNewOrdersPhase.run();
+      checkNewOrdersPhase.terminate();
+      scenario.saveState();
+    }
+
+    phase = scenario.getInstance(phaseType.getPhaseClass());
+    phase.initialize();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownScenario() {
+    phase.terminate();
+    scenario.terminate();
+  }
+
+  @Setup(Level.Invocation)
+  public void resetScenario() {
+    scenario.reset();
+  }
+
+  @Benchmark
+  public long runPhase() {
+    phase.run();
+    return vehicleControllerPool.getDriveOrdersReceived();
+  }
+
+  /**
+   * The phases that can be benchmarked.
+   */
+  public enum PhaseType {
+
+    /**
+     * Checks raw transport orders and makes them dispatchable.
+     */
+    CHECK_NEW_ORDERS(CheckNewOrdersPhase.class),
+    /**
+     * Assigns dispatchable transport orders to idle vehicles.
+     */
+    ASSIGN_FREE_ORDERS(AssignFreeOrdersPhase.class),
+    /**
+     * Sends idle vehicles with degraded energy levels to recharge locations.
+     */
+    RECHARGE_IDLE_VEHICLES(RechargeIdleVehiclesPhase.class),
+    /**
+     * Sends idle vehicles to parking positions.
+     */
+    PARK_IDLE_VEHICLES(ParkIdleVehiclesPhase.class);
+
+    /**
+     * The phase's class.
+     */
+    private final Class<? extends Phase> phaseClass;
+
+    PhaseType(Class<? extends Phase> phaseClass) {
+      this.phaseClass = phaseClass;
+    }
+
+    /**
+     * Returns the phase's class.
+     *
+     * @return The phase's class.
+     */
+    public Class<? extends Phase> getPhaseClass() {
+      return phaseClass;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.dispatching;
+
+import java.util.concurrent.TimeUnit;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.services.BenchmarkVehicleControllerPool;
+import org.opentcs.strategies.basic.dispatching.FullDispatchTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a complete run of the default dispatcher's {@link FullDispatchTask}.
+ * <p>
+ * Every invocation starts with the same fleet of idle vehicles and the same set of raw transport
+ * orders, i.e. it covers checking the new orders, assigning them to vehicles as well as sending
+ * the remaining vehicles to recharge and parking positions.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class FullDispatchTaskBenchmark {
+
+  /**
+   * The layout of the plant.
+   */
+  @Param({"GRID", "AISLE", "LOOP"})
+  private PlantLayout layout;
+  /**
+   * The (approximate) number of points in the plant.
+   */
+  @Param({"1000"})
+  private int pointCount;
+  /**
+   * The number of vehicles.
+   */
+  @Param({"10", "50", "200"})
+  private int vehicleCount;
+  /**
+   * The number of transport orders.
+   */
+  @Param({"1000", "2000"})
+  private int orderCount;
+  /**
+   * The scenario.
+   */
+  private BenchmarkScenario scenario;
+  /**
+   * The task to be benchmarked.
+   */
+  private FullDispatchTask fullDispatchTask;
+  /**
+   * The pool of vehicle controllers, counting the drive orders sent to vehicles.
+   */
+  private BenchmarkVehicleControllerPool vehicleControllerPool;
+
+  @Setup(Level.Trial)
+  public void setUpScenario() {
+    scenario = new BenchmarkScenario(layout, pointCount, vehicleCount, orderCount);
+    fullDispatchTask = scenario.getInstance(FullDispatchTask.class);
+    fullDispatchTask.initialize();
+    vehicleControllerPool = scenario.getInstance(BenchmarkVehicleControllerPool.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownScenario() {
+    fullDispatchTask.terminate();
+    scenario.terminate();
+  }
+
+  @Setup(Level.Invocation)
+  public void resetScenario() {
+    scenario.reset();
+  }
+
+  @Benchmark
+  public long runFullDispatchTask() {
+    fullDispatchTask.run();
+    return vehicleControllerPool.getDriveOrdersReceived();
+  }
+}
@@ -0,0 +1,293 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.parking;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.plant.PlantGenerator;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.dispatching.phase.parking.DefaultParkingPositionSupplier;
+import org.opentcs.strategies.basic.dispatching.phase.parking.DemandPredictiveParkingPositionSupplier;
+import org.opentcs.strategies.basic.dispatching.phase.parking.ParkingPositionSupplier;
+import org.opentcs.strategies.basic.dispatching.phase.parking.PickupDemandStatistics;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Evaluates parking position suppliers by simulating the pick-ups following the parking of a
+ * fleet of idle vehicles.
+ * <p>
+ * The demand for pick-ups is skewed: Within the current time of day, most transport orders start
+ * at a few stations, while a few hours later, most of them start at a few other stations. A
+ * history of such pick-ups over the past week is fed to {@link PickupDemandStatistics}. In every
+ * trial, the vehicles are placed at random positions and sent to the parking positions selected by
+ * the supplier one after the other. Then pick-ups are sampled from the demand for the current time
+ * of day, and each of them is served by the closest parked vehicle. The resulting costs (i.e. the
+ * distances with the default configuration) to the pick-ups are the time-to-pickup reported for
+ * the supplier. All suppliers are evaluated with the same vehicle positions and pick-ups.
+ * </p>
+ */
+public class ParkingStrategyEvaluation {
+
+  /**
+   * The seed for the random number generators.
+   */
+  private static final long SEED = 4711;
+  /**
+   * The number of stations forming a demand hotspot.
+   */
+  private static final int HOTSPOT_STATION_COUNT = 4;
+  /**
+   * The share of pick-ups at hotspot stations (in percent).
+   */
+  private static final int HOTSPOT_SHARE = 80;
+  /**
+   * The number of past days for which a pick-up history is generated.
+   */
+  private static final int HISTORY_DAYS = 7;
+  /**
+   * The number of pick-ups generated per day and time window.
+   */
+  private static final int PICKUPS_PER_WINDOW = 40;
+  /**
+   * The number of pick-ups sampled per trial.
+   */
+  private static final int PICKUPS_PER_TRIAL = 50;
+  /**
+   * The length of the time window in which pick-ups are generated.
+   */
+  private static final Duration WINDOW = Duration.ofMinutes(30);
+  /**
+   * The offset of the time window with the other hotspot.
+   */
+  private static final Duration OTHER_WINDOW_OFFSET = Duration.ofHours(3);
+  /**
+   * The scenario.
+   */
+  private final BenchmarkScenario scenario;
+  /**
+   * The scenario's object service.
+   */
+  private final InMemoryObjectService objectService;
+  /**
+   * The router.
+   */
+  private final Router router;
+  /**
+   * All stations, sorted by name.
+   */
+  private final List<Location> stations;
+  /**
+   * The stations with most of the pick-ups at the current time of day.
+   */
+  private final List<Location> currentHotspot;
+  /**
+   * The stations with most of the pick-ups a few hours later.
+   */
+  private final List<Location> laterHotspot;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param scenario The scenario, containing the plant model and the vehicles.
+   */
+  public ParkingStrategyEvaluation(BenchmarkScenario scenario) {
+    this.scenario = requireNonNull(scenario, "scenario");
+    this.objectService = scenario.getObjectService();
+    this.router = scenario.getInstance(Router.class);
+    this.stations = objectService.fetchObjects(Location.class, location -> isStation(location))
+        .stream()
+        .sorted(Comparator.comparing(Location::getName))
+        .collect(Collectors.toList());
+    checkArgument(stations.size() >= 2 * HOTSPOT_STATION_COUNT,
+                  "Not enough stations in the plant: %s",
+                  stations.size());
+
+    List<Location> shuffledStations = new ArrayList<>(stations);
+    Collections.shuffle(shuffledStations, new Random(SEED));
+    this.currentHotspot = shuffledStations.subList(0, HOTSPOT_STATION_COUNT);
+    this.laterHotspot = shuffledStations.subList(HOTSPOT_STATION_COUNT,
+                                                 2 * HOTSPOT_STATION_COUNT);
+  }
+
+  /**
+   * Runs the evaluation with the given arguments:
+   * <code>[layout [pointCount [vehicleCount [trials]]]]</code>, defaulting to
+   * <code>GRID 400 10 10</code>.
+   *
+   * @param args The arguments.
+   */
+  public static void main(String[] args) {
+    PlantLayout layout = args.length > 0 ? PlantLayout.valueOf(args[0]) : PlantLayout.GRID;
+    int pointCount = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+    int vehicleCount = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    int trials = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+    BenchmarkScenario scenario = new BenchmarkScenario(layout, pointCount, vehicleCount, 0);
+    try {
+      ParkingStrategyEvaluation evaluation = new ParkingStrategyEvaluation(scenario);
+      evaluation.generatePickupHistory(Instant.now());
+
+      System.out.println(String.format("%s, %d points, %d vehicles, %d trials of %d pick-ups",
+                                       layout,
+                                       pointCount,
+                                       vehicleCount,
+                                       trials,
+                                       PICKUPS_PER_TRIAL));
+      System.out.println(String.format("%-20s %15s %15s %15s",
+                                       "Supplier",
+                                       "Mean costs",
+                                       "90th pct.",
+                                       "Mean time (s)"));
+      printResult("NEAREST",
+                  evaluation.evaluate(scenario.getInstance(DefaultParkingPositionSupplier.class),
+                                      trials));
+      printResult("DEMAND_PREDICTIVE",
+                  evaluation.evaluate(
+                      scenario.getInstance(DemandPredictiveParkingPositionSupplier.class),
+                      trials
+                  ));
+    }
+    finally {
+      scenario.terminate();
+    }
+  }
+
+  /**
+   * Generates a pick-up history for the past days and feeds it to the demand statistics.
+   *
+   * @param now The current point of time.
+   */
+  public void generatePickupHistory(Instant now) {
+    PickupDemandStatistics statistics = scenario.getInstance(PickupDemandStatistics.class);
+    statistics.initialize();
+
+    Random random = new Random(SEED);
+    for (int day = 1; day <= HISTORY_DAYS; day++) {
+      Instant windowStart = now.minus(Duration.ofDays(day));
+      for (int i = 0; i < PICKUPS_PER_WINDOW; i++) {
+        statistics.recordPickup(samplePickup(random, currentHotspot).getReference(),
+                                windowStart.plusMillis(randomOffset(random)));
+        statistics.recordPickup(samplePickup(random, laterHotspot).getReference(),
+                                windowStart.plus(OTHER_WINDOW_OFFSET)
+                                    .plusMillis(randomOffset(random)));
+      }
+    }
+  }
+
+  /**
+   * Evaluates the given parking position supplier.
+   *
+   * @param supplier The supplier.
+   * @param trials The number of trials.
+   * @return The costs from the serving vehicles' parking positions to all sampled pick-ups.
+   */
+  public List<Long> evaluate(ParkingPositionSupplier supplier, int trials) {
+    supplier.initialize();
+    List<Long> result = new ArrayList<>();
+    try {
+      for (int trial = 0; trial < trials; trial++) {
+        scenario.reset();
+        Random random = new Random(SEED + trial);
+        placeVehiclesRandomly(random);
+        parkVehicles(supplier);
+        for (int i = 0; i < PICKUPS_PER_TRIAL; i++) {
+          result.add(costsToPickup(samplePickup(random, currentHotspot)));
+        }
+      }
+    }
+    finally {
+      supplier.terminate();
+    }
+    return result;
+  }
+
+  private void placeVehiclesRandomly(Random random) {
+    List<Point> haltPositions = objectService.fetchObjects(Point.class,
+                                                           point -> point.isHaltingPosition()
+                                                           && point.getOccupyingVehicle() == null)
+        .stream()
+        .sorted(Comparator.comparing(Point::getName))
+        .collect(Collectors.toList());
+    for (Vehicle vehicle : sortedVehicles()) {
+      Point position = haltPositions.remove(random.nextInt(haltPositions.size()));
+      objectService.updateVehiclePosition(vehicle.getReference(), position.getReference());
+    }
+  }
+
+  private void parkVehicles(ParkingPositionSupplier supplier) {
+    for (Vehicle vehicle : sortedVehicles()) {
+      Optional<Point> parkingPosition = supplier.findParkingPosition(vehicle);
+      // Parking vehicles arrive at their parking positions right away.
+      parkingPosition.ifPresent(
+          point -> objectService.updateVehiclePosition(vehicle.getReference(), point.getReference())
+      );
+    }
+  }
+
+  private long costsToPickup(Location pickupLocation) {
+    long result = Long.MAX_VALUE;
+    for (Vehicle vehicle : sortedVehicles()) {
+      Point vehiclePosition = objectService.fetchObject(Point.class, vehicle.getCurrentPosition());
+      for (Location.Link link : pickupLocation.getAttachedLinks()) {
+        Point accessPoint = objectService.fetchObject(Point.class, link.getPoint());
+        result = Math.min(result, router.getCosts(vehicle, vehiclePosition, accessPoint));
+      }
+    }
+    return result;
+  }
+
+  private List<Vehicle> sortedVehicles() {
+    return objectService.fetchObjects(Vehicle.class).stream()
+        .sorted(Comparator.comparing(Vehicle::getName))
+        .collect(Collectors.toList());
+  }
+
+  private static boolean isStation(Location location) {
+    return location.getName().startsWith("Station-");
+  }
+
+  private Location samplePickup(Random random, List<Location> hotspot) {
+    if (random.nextInt(100) < HOTSPOT_SHARE) {
+      return hotspot.get(random.nextInt(hotspot.size()));
+    }
+    return stations.get(random.nextInt(stations.size()));
+  }
+
+  private long randomOffset(Random random) {
+    return (long) (random.nextDouble() * WINDOW.toMillis());
+  }
+
+  private static void printResult(String supplierName, List<Long> costs) {
+    List<Long> sortedCosts = costs.stream().sorted().collect(Collectors.toList());
+    double mean = sortedCosts.stream().mapToLong(Long::longValue).average().orElse(0);
+    long percentile90 = sortedCosts.isEmpty()
+        ? 0
+        : sortedCosts.get((int) Math.ceil(sortedCosts.size() * 0.9) - 1);
+    // With the default configuration, costs are distances (in mm).
+    double meanTime = mean / PlantGenerator.MAX_VELOCITY;
+    System.out.println(String.format("%-20s %15.0f %15d %15.1f",
+                                     supplierName,
+                                     mean,
+                                     percentile90,
+                                     meanTime));
+  }
+}
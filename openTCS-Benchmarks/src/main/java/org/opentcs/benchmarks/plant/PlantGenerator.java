@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.plant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Generates synthetic plant models and adds them to an {@link InMemoryObjectService}.
+ * <p>
+ * Every generated plant contains halt positions, a share of parking positions, stations (for
+ * {@link #OPERATION_LOAD} and {@link #OPERATION_UNLOAD}) and a few recharge locations (for
+ * {@link #OPERATION_RECHARGE}), all of which are reachable from every other point.
+ * A few points spread over the plant are marked as landmarks for the A* point router.
+ * </p>
+ */
+public class PlantGenerator {
+
+  /**
+   * The operation for loading cargo at stations.
+   */
+  public static final String OPERATION_LOAD = "Load cargo";
+  /**
+   * The operation for unloading cargo at stations.
+   */
+  public static final String OPERATION_UNLOAD = "Unload cargo";
+  /**
+   * The operation for recharging at recharge locations.
+   * (This is the default recharge operation of newly created vehicles.)
+   */
+  public static final String OPERATION_RECHARGE = "CHARGE";
+  /**
+   * The distance between two neighbouring points (in mm).
+   */
+  public static final long POINT_SPACING = 10000;
+  /**
+   * The maximum velocity on all paths (in mm/s).
+   */
+  public static final int MAX_VELOCITY = 1000;
+  /**
+   * Every n-th point gets a station attached.
+   */
+  private static final int STATION_INTERVAL = 5;
+  /**
+   * Every n-th point is a parking position.
+   */
+  private static final int PARKING_INTERVAL = 7;
+  /**
+   * The number of recharge locations in every plant.
+   */
+  private static final int RECHARGE_LOCATION_COUNT = 4;
+  /**
+   * The number of points marked as landmarks for the A* heuristic.
+   */
+  private static final int LANDMARK_COUNT = 8;
+  /**
+   * The key of the point property marking a landmark for the A* heuristic.
+   */
+  private static final String PROPKEY_ASTAR_LANDMARK = "astar";
+  /**
+   * The interval (in points) of the cross aisles in the aisle layout.
+   */
+  private static final int CROSS_AISLE_INTERVAL = 10;
+  /**
+   * The interval (in points) of the shortcut chords in the loop layout.
+   */
+  private static final int CHORD_INTERVAL = 8;
+  /**
+   * The object service the plant is added to.
+   */
+  private final InMemoryObjectService objectService;
+  /**
+   * The points created, in the order of their creation.
+   */
+  private final List<Point> points = new ArrayList<>();
+  /**
+   * The paths created.
+   */
+  private final List<Path> paths = new ArrayList<>();
+  /**
+   * Incoming paths, by point name.
+   */
+  private final Map<String, Set<TCSObjectReference<Path>>> incomingPaths = new HashMap<>();
+  /**
+   * Outgoing paths, by point name.
+   */
+  private final Map<String, Set<TCSObjectReference<Path>>> outgoingPaths = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service the generated plant is to be added to.
+   */
+  public PlantGenerator(InMemoryObjectService objectService) {
+    this.objectService = requireNonNull(objectService, "objectService");
+  }
+
+  /**
+   * Generates a plant with the given layout and adds it to the object service.
+   *
+   * @param layout The layout of the plant.
+   * @param pointCount The (approximate) number of points in the plant.
+   */
+  public void generate(PlantLayout layout, int pointCount) {
+    requireNonNull(layout, "layout");
+    checkArgument(pointCount >= 16, "pointCount < 16: %s", pointCount);
+
+    points.clear();
+    paths.clear();
+    incomingPaths.clear();
+    outgoingPaths.clear();
+
+    switch (layout) {
+      case GRID:
+        generateGrid(pointCount);
+        break;
+      case AISLE:
+        generateAisles(pointCount);
+        break;
+      case LOOP:
+        generateLoop(pointCount);
+        break;
+      default:
+        throw new IllegalArgumentException("Unhandled layout: " + layout);
+    }
+
+    objectService.setModelName("Benchmark-" + layout.name() + "-" + points.size());
+    addToObjectService();
+  }
+
+  private void generateGrid(int pointCount) {
+    int side = (int) Math.ceil(Math.sqrt(pointCount));
+    Point[][] grid = createPointMatrix(side, side);
+
+    for (int y = 0; y < side; y++) {
+      for (int x = 0; x < side; x++) {
+        if (x + 1 < side) {
+          createPath(grid[y][x], grid[y][x + 1], true);
+        }
+        if (y + 1 < side) {
+          createPath(grid[y][x], grid[y + 1][x], true);
+        }
+      }
+    }
+  }
+
+  private void generateAisles(int pointCount) {
+    int aisleLength = Math.max(CROSS_AISLE_INTERVAL, (int) Math.ceil(Math.sqrt(pointCount * 2)));
+    int aisleCount = Math.max(2, (int) Math.ceil((double) pointCount / aisleLength));
+    Point[][] grid = createPointMatrix(aisleCount, aisleLength);
+
+    // The aisles themselves are one-way, with alternating directions.
+    for (int y = 0; y < aisleCount; y++) {
+      for (int x = 0; x + 1 < aisleLength; x++) {
+        if (y % 2 == 0) {
+          createPath(grid[y][x], grid[y][x + 1], false);
+        }
+        else {
+          createPath(grid[y][x + 1], grid[y][x], false);
+        }
+      }
+    }
+    // Cross aisles are bidirectional.
+    for (int x = 0; x < aisleLength; x++) {
+      if (x % CROSS_AISLE_INTERVAL != 0 && x != aisleLength - 1) {
+        continue;
+      }
+      for (int y = 0; y + 1 < aisleCount; y++) {
+        createPath(grid[y][x], grid[y + 1][x], true);
+      }
+    }
+  }
+
+  private void generateLoop(int pointCount) {
+    Point[][] ring = createPointMatrix(1, pointCount);
+
+    for (int i = 0; i < pointCount; i++) {
+      createPath(ring[0][i], ring[0][(i + 1) % pointCount], false);
+    }
+    // Chords leading across the loop, allowing vehicles to skip parts of it.
+    for (int i = 0; i < pointCount; i += CHORD_INTERVAL) {
+      int target = (i + pointCount / 2) % pointCount;
+      if (target != (i + 1) % pointCount) {
+        createPath(ring[0][i], ring[0][target], false);
+      }
+    }
+  }
+
+  private Point[][] createPointMatrix(int rows, int columns) {
+    Point[][] result = new Point[rows][columns];
+    for (int y = 0; y < rows; y++) {
+      for (int x = 0; x < columns; x++) {
+        int index = points.size();
+        Point point = new Point(String.format("Point-%05d", index))
+            .withPosition(new Triple(x * POINT_SPACING, y * POINT_SPACING, 0))
+            .withType(index % PARKING_INTERVAL == PARKING_INTERVAL - 1
+                ? Point.Type.PARK_POSITION
+                : Point.Type.HALT_POSITION);
+        points.add(point);
+        result[y][x] = point;
+      }
+    }
+    return result;
+  }
+
+  private void createPath(Point source, Point destination, boolean bidirectional) {
+    Path path = new Path(source.getName() + " --- " + destination.getName(),
+                         source.getReference(),
+                         destination.getReference())
+        .withLength(POINT_SPACING)
+        .withMaxVelocity(MAX_VELOCITY)
+        .withMaxReverseVelocity(bidirectional ? MAX_VELOCITY : 0);
+    paths.add(path);
+    outgoingPaths.computeIfAbsent(source.getName(), name -> new HashSet<>())
+        .add(path.getReference());
+    incomingPaths.computeIfAbsent(destination.getName(), name -> new HashSet<>())
+        .add(path.getReference());
+    if (bidirectional) {
+      outgoingPaths.computeIfAbsent(destination.getName(), name -> new HashSet<>())
+          .add(path.getReference());
+      incomingPaths.computeIfAbsent(source.getName(), name -> new HashSet<>())
+          .add(path.getReference());
+    }
+  }
+
+  private void addToObjectService() {
+    LocationType stationType = new LocationType("Station")
+        .withAllowedOperations(Arrays.asList(OPERATION_LOAD, OPERATION_UNLOAD));
+    LocationType rechargeType = new LocationType("Recharge station")
+        .withAllowedOperations(Arrays.asList(OPERATION_RECHARGE));
+    objectService.addObject(stationType);
+    objectService.addObject(rechargeType);
+
+    int rechargeInterval = points.size() / RECHARGE_LOCATION_COUNT;
+    int landmarkInterval = points.size() / LANDMARK_COUNT;
+    List<Location> locations = new ArrayList<>();
+    for (int i = 0; i < points.size(); i++) {
+      Point point = points.get(i);
+      if (i % landmarkInterval == 0) {
+        point = point.withProperty(PROPKEY_ASTAR_LANDMARK, "true");
+        points.set(i, point);
+      }
+      if (point.isParkingPosition()) {
+        continue;
+      }
+
+      LocationType type;
+      String name;
+      if (i % rechargeInterval == rechargeInterval / 2) {
+        type = rechargeType;
+        name = String.format("Recharge-%05d", i);
+      }
+      else if (i % STATION_INTERVAL == 0) {
+        type = stationType;
+        name = String.format("Station-%05d", i);
+      }
+      else {
+        continue;
+      }
+
+      Location location = new Location(name, type.getReference())
+          .withPosition(new Triple(point.getPosition().getX() + POINT_SPACING / 4,
+                                   point.getPosition().getY() + POINT_SPACING / 4,
+                                   0));
+      Location.Link link = new Location.Link(location.getReference(), point.getReference());
+      locations.add(location.withAttachedLinks(new HashSet<>(Arrays.asList(link))));
+      points.set(i, point.withAttachedLinks(new HashSet<>(Arrays.asList(link))));
+    }
+
+    for (Point point : points) {
+      objectService.addObject(
+          point.withIncomingPaths(incomingPaths.getOrDefault(point.getName(), new HashSet<>()))
+              .withOutgoingPaths(outgoingPaths.getOrDefault(point.getName(), new HashSet<>()))
+      );
+    }
+    for (Path path : paths) {
+      objectService.addObject(path);
+    }
+    for (Location location : locations) {
+      objectService.addObject(location);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.plant;
+
+/**
+ * The synthetic plant layouts the {@link PlantGenerator} can create.
+ */
+public enum PlantLayout {
+
+  /**
+   * A rectangular grid of points with bidirectional paths between all horizontal and vertical
+   * neighbours.
+   * Offers many alternative routes of equal costs.
+   */
+  GRID,
+  /**
+   * Parallel aisles with alternating one-way directions, connected by bidirectional cross aisles
+   * at both ends and at regular intervals in between.
+   * Resembles a warehouse with narrow racking aisles.
+   */
+  AISLE,
+  /**
+   * A one-way loop with one-way shortcut chords.
+   * Resembles a production line with few alternative routes.
+   */
+  LOOP;
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.plant;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.opentcs.access.to.order.DestinationCreationTO;
+import org.opentcs.access.to.order.TransportOrderCreationTO;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Generates vehicles and transport orders for a plant created by a {@link PlantGenerator}.
+ * <p>
+ * All random choices are made using a seeded random number generator, so the same parameters
+ * always lead to the same workload.
+ * </p>
+ */
+public class WorkloadGenerator {
+
+  /**
+   * The object service the workload is added to.
+   */
+  private final InMemoryObjectService objectService;
+  /**
+   * The random number generator.
+   */
+  private final Random random;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service containing the plant model.
+   * @param seed The seed for the random number generator.
+   */
+  public WorkloadGenerator(InMemoryObjectService objectService, long seed) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Creates the given number of vehicles, idle and available for orders, distributed over
+   * randomly selected halt positions.
+   * Energy levels are randomly distributed, so a few of the vehicles will need recharging.
+   *
+   * @param count The number of vehicles to create.
+   * @return The names of the created vehicles.
+   */
+  public List<String> createVehicles(int count) {
+    List<Point> haltPositions = objectService.fetchObjects(Point.class,
+                                                           point -> point.isHaltingPosition())
+        .stream()
+        .sorted(Comparator.comparing(Point::getName))
+        .collect(Collectors.toList());
+    checkArgument(count <= haltPositions.size(),
+                  "Not enough halt positions (%s) for %s vehicles",
+                  haltPositions.size(),
+                  count);
+
+    List<String> result = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Point position = haltPositions.remove(random.nextInt(haltPositions.size()));
+      Vehicle vehicle = new Vehicle(String.format("Vehicle-%03d", i))
+          .withIntegrationLevel(Vehicle.IntegrationLevel.TO_BE_UTILIZED)
+          .withState(Vehicle.State.IDLE)
+          .withProcState(Vehicle.ProcState.IDLE)
+          .withEnergyLevel(20 + random.nextInt(81));
+      objectService.addObject(vehicle);
+      objectService.updateVehiclePosition(vehicle.getReference(), position.getReference());
+      objectService.updateVehiclePrecisePosition(vehicle.getReference(), position.getPosition());
+      result.add(vehicle.getName());
+    }
+    return result;
+  }
+
+  /**
+   * Creates the given number of raw transport orders, each one loading cargo at a random station
+   * and unloading it at another one.
+   * Deadlines are randomly distributed over the hour following the given point of time.
+   *
+   * @param count The number of transport orders to create.
+   * @param now The point of time the deadlines are relative to.
+   * @return The names of the created transport orders.
+   */
+  public List<String> createTransportOrders(int count, Instant now) {
+    List<Location> stations = objectService.fetchObjects(Location.class,
+                                                         location -> isStation(location))
+        .stream()
+        .sorted(Comparator.comparing(Location::getName))
+        .collect(Collectors.toList());
+    checkArgument(stations.size() >= 2, "Less than two stations in the plant");
+
+    List<String> result = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Location source = stations.get(random.nextInt(stations.size()));
+      Location destination = source;
+      while (destination.equals(source)) {
+        destination = stations.get(random.nextInt(stations.size()));
+      }
+
+      TransportOrderCreationTO to = new TransportOrderCreationTO(
+          String.format("TOrder-%07d", i),
+          Arrays.asList(
+              new DestinationCreationTO(source.getName(), PlantGenerator.OPERATION_LOAD),
+              new DestinationCreationTO(destination.getName(), PlantGenerator.OPERATION_UNLOAD)
+          ))
+          .withDeadline(now.plusSeconds(random.nextInt(3600)));
+      result.add(objectService.createTransportOrder(to).getName());
+    }
+    return result;
+  }
+
+  private boolean isStation(Location location) {
+    return location.getName().startsWith("Station-");
+  }
+}
@@ -0,0 +1,704 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.jgrapht.Graph;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.opentcs.strategies.basic.routing.spacetime.ReservationTable;
+import org.opentcs.strategies.basic.routing.spacetime.SpaceTimePlanner;
+import org.opentcs.strategies.basic.routing.spacetime.SpaceTimeRoute;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Evaluates the fleet's throughput with routes planned in isolation and with routes planned in
+ * space and time, by simulating a fleet of vehicles processing transport orders.
+ * <p>
+ * Every vehicle processes one transport order after the other, each one loading cargo at a random
+ * station and unloading it at another one. Routes are computed when a vehicle starts a transport
+ * order, either by the router (the shortest routes, each planned in isolation) or by the
+ * {@link SpaceTimePlanner} (the routes with the earliest expected arrival, avoiding the time
+ * windows reserved for the routes of the other vehicles).
+ * </p>
+ * <p>
+ * Vehicles move the way the default scheduler lets them: A vehicle travels to the next point only
+ * if no other vehicle occupies it, and it occupies the point it leaves until it arrives at the
+ * next one. Otherwise, it waits until the point is released. Vehicles do not follow the timing of
+ * the space-time planner, only its routes. When vehicles block each other in a cycle, one of them
+ * evades to the closest free point off the routes of the others and its route is computed anew
+ * from there, which is counted as a deadlock.
+ * </p>
+ * <p>
+ * The stations and transport orders are the same for both kinds of routing: The n-th transport
+ * order of every vehicle leads to the same stations.
+ * </p>
+ */
+public class FleetThroughputEvaluation {
+
+  /**
+   * The seed for the random number generators.
+   */
+  private static final long SEED = 4711;
+  /**
+   * The duration of loading and unloading cargo (in ms).
+   */
+  private static final long OPERATION_DURATION = 10000;
+  /**
+   * The time added before and after every reservation of the space-time planner (in ms).
+   */
+  private static final long CLEARANCE = 2000;
+  /**
+   * The scenario.
+   */
+  private final BenchmarkScenario scenario;
+  /**
+   * The scenario's object service.
+   */
+  private final InMemoryObjectService objectService;
+  /**
+   * The router.
+   */
+  private final Router router;
+  /**
+   * The graph of the plant model for the vehicles.
+   */
+  private final Graph<String, ModelEdge> graph;
+  /**
+   * The space-time planner.
+   */
+  private final SpaceTimePlanner planner;
+  /**
+   * The points, by name.
+   */
+  private final Map<String, Point> pointsByName = new HashMap<>();
+  /**
+   * The points at which cargo is (un)loaded at the stations, sorted by the stations' names.
+   */
+  private final List<Point> stationPoints;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param scenario The scenario, containing the plant model and the vehicles.
+   */
+  public FleetThroughputEvaluation(BenchmarkScenario scenario) {
+    this.scenario = requireNonNull(scenario, "scenario");
+    this.objectService = scenario.getObjectService();
+    this.router = scenario.getInstance(Router.class);
+
+    List<Point> points = objectService.fetchObjects(Point.class).stream()
+        .sorted(Comparator.comparing(Point::getName))
+        .collect(Collectors.toList());
+    Vehicle vehicle = sortedVehicles().get(0);
+    this.graph = scenario.getInstance(ModelGraphMapper.class)
+        .translateModel(points, objectService.fetchObjects(Path.class), vehicle);
+    this.planner = new SpaceTimePlanner(graph, points, vehicle);
+    for (Point point : points) {
+      pointsByName.put(point.getName(), point);
+    }
+
+    this.stationPoints = objectService.fetchObjects(Location.class, location -> isStation(location))
+        .stream()
+        .sorted(Comparator.comparing(Location::getName))
+        .map(location -> location.getAttachedLinks().iterator().next().getPoint())
+        .map(pointRef -> objectService.fetchObject(Point.class, pointRef))
+        .collect(Collectors.toList());
+    checkArgument(stationPoints.size() >= 2, "Less than two stations in the plant");
+  }
+
+  /**
+   * Runs the evaluation with the given arguments:
+   * <code>[layout [pointCount [vehicleCount [hours]]]]</code>, defaulting to
+   * <code>AISLE 400 20 1</code>.
+   *
+   * @param args The arguments.
+   */
+  public static void main(String[] args) {
+    PlantLayout layout = args.length > 0 ? PlantLayout.valueOf(args[0]) : PlantLayout.AISLE;
+    int pointCount = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+    int vehicleCount = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+    int hours = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+    BenchmarkScenario scenario = new BenchmarkScenario(layout, pointCount, vehicleCount, 0);
+    try {
+      FleetThroughputEvaluation evaluation = new FleetThroughputEvaluation(scenario);
+
+      System.out.println(String.format("%s, %d points, %d vehicles, %d simulated hour(s)",
+                                       layout,
+                                       pointCount,
+                                       vehicleCount,
+                                       hours));
+      System.out.println(String.format("%-15s %12s %14s %14s %10s %10s %14s",
+                                       "Routing",
+                                       "Orders/hour",
+                                       "Mean order (s)",
+                                       "Mean wait (s)",
+                                       "Deadlocks",
+                                       "Stuck",
+                                       "Planning (ms)"));
+      for (Routing routing : Routing.values()) {
+        printResult(routing, evaluation.simulate(routing, TimeUnit.HOURS.toMillis(hours)));
+      }
+    }
+    finally {
+      scenario.terminate();
+    }
+  }
+
+  /**
+   * Simulates the fleet processing transport orders for the given duration.
+   *
+   * @param routing The kind of routing.
+   * @param duration The simulated duration (in ms).
+   * @return The result of the simulation.
+   */
+  public Result simulate(Routing routing, long duration) {
+    requireNonNull(routing, "routing");
+
+    scenario.reset();
+    return new Simulation(routing).run(duration);
+  }
+
+  private List<Vehicle> sortedVehicles() {
+    return objectService.fetchObjects(Vehicle.class).stream()
+        .sorted(Comparator.comparing(Vehicle::getName))
+        .collect(Collectors.toList());
+  }
+
+  private static boolean isStation(Location location) {
+    return location.getName().startsWith("Station-");
+  }
+
+  private static void printResult(Routing routing, Result result) {
+    System.out.println(String.format("%-15s %12.1f %14.1f %14.1f %10d %10d %14.3f",
+                                     routing,
+                                     result.getCompletedOrders() * 3600000.0 / result.getDuration(),
+                                     result.getMeanOrderDuration() / 1000.0,
+                                     result.getMeanWaitingTime() / 1000.0,
+                                     result.getDeadlocks(),
+                                     result.getStuckVehicles(),
+                                     result.getMeanPlanningTime() / 1000000.0));
+  }
+
+  /**
+   * The kinds of routing evaluated.
+   */
+  public enum Routing {
+    /**
+     * The router's shortest routes, each planned in isolation.
+     */
+    SHORTEST_PATH,
+    /**
+     * The routes with the earliest expected arrival computed by the space-time planner.
+     */
+    SPACE_TIME;
+  }
+
+  /**
+   * The result of a simulation.
+   */
+  public static class Result {
+
+    private final long duration;
+    private final int completedOrders;
+    private final double meanOrderDuration;
+    private final double meanWaitingTime;
+    private final int deadlocks;
+    private final int stuckVehicles;
+    private final double meanPlanningTime;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param duration The simulated duration (in ms).
+     * @param completedOrders The number of transport orders completed.
+     * @param meanOrderDuration The mean duration of the completed transport orders (in ms).
+     * @param meanWaitingTime The mean time vehicles waited for points per completed transport order
+     * (in ms).
+     * @param deadlocks The number of deadlocks resolved by letting a vehicle evade.
+     * @param stuckVehicles The number of vehicles stuck in deadlocks at the end of the simulation.
+     * @param meanPlanningTime The mean (wall-clock) time for computing the routes of a transport
+     * order (in ns).
+     */
+    public Result(long duration,
+                  int completedOrders,
+                  double meanOrderDuration,
+                  double meanWaitingTime,
+                  int deadlocks,
+                  int stuckVehicles,
+                  double meanPlanningTime) {
+      this.duration = duration;
+      this.completedOrders = completedOrders;
+      this.meanOrderDuration = meanOrderDuration;
+      this.meanWaitingTime = meanWaitingTime;
+      this.deadlocks = deadlocks;
+      this.stuckVehicles = stuckVehicles;
+      this.meanPlanningTime = meanPlanningTime;
+    }
+
+    public long getDuration() {
+      return duration;
+    }
+
+    public int getCompletedOrders() {
+      return completedOrders;
+    }
+
+    public double getMeanOrderDuration() {
+      return meanOrderDuration;
+    }
+
+    public double getMeanWaitingTime() {
+      return meanWaitingTime;
+    }
+
+    public int getDeadlocks() {
+      return deadlocks;
+    }
+
+    public int getStuckVehicles() {
+      return stuckVehicles;
+    }
+
+    public double getMeanPlanningTime() {
+      return meanPlanningTime;
+    }
+  }
+
+  /**
+   * A single run of the simulation.
+   */
+  private class Simulation {
+
+    /**
+     * The kind of routing.
+     */
+    private final Routing routing;
+    /**
+     * The reservations of the space-time planner.
+     */
+    private final ReservationTable reservations = new ReservationTable();
+    /**
+     * The simulated vehicles.
+     */
+    private final List<SimulatedVehicle> vehicles = new ArrayList<>();
+    /**
+     * The vehicles occupying points, by point name.
+     */
+    private final Map<String, SimulatedVehicle> occupants = new HashMap<>();
+    /**
+     * The vehicles waiting for points, by point name.
+     */
+    private final Map<String, Deque<SimulatedVehicle>> waitingVehicles = new HashMap<>();
+    /**
+     * The pending events, ordered by time.
+     */
+    private final PriorityQueue<Event> events
+        = new PriorityQueue<>(Comparator.comparingLong((Event event) -> event.time)
+            .thenComparingLong(event -> event.sequence));
+    /**
+     * The number of events scheduled so far.
+     */
+    private long eventCount;
+    private int completedOrders;
+    private long totalOrderDuration;
+    private long totalWaitingTime;
+    private int deadlocks;
+    private int plannedOrders;
+    private long totalPlanningTime;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param routing The kind of routing.
+     */
+    Simulation(Routing routing) {
+      this.routing = routing;
+    }
+
+    Result run(long duration) {
+      List<Vehicle> sortedVehicles = sortedVehicles();
+      for (int i = 0; i < sortedVehicles.size(); i++) {
+        Vehicle vehicle = sortedVehicles.get(i);
+        SimulatedVehicle simVehicle
+            = new SimulatedVehicle(vehicle,
+                                   objectService.fetchObject(Point.class,
+                                                             vehicle.getCurrentPosition()),
+                                   new Random(SEED + i));
+        vehicles.add(simVehicle);
+        occupants.put(simVehicle.position.getName(), simVehicle);
+      }
+      for (SimulatedVehicle vehicle : vehicles) {
+        startOrder(vehicle, 0);
+      }
+
+      while (!events.isEmpty() && events.peek().time <= duration) {
+        Event event = events.poll();
+        if (event.arrival) {
+          arrive(event.vehicle, event.time);
+        }
+        else {
+          finishOperation(event.vehicle, event.time);
+        }
+      }
+
+      int stuckVehicles = (int) vehicles.stream()
+          .filter(vehicle -> vehicle.waitingFor != null && isDeadlocked(vehicle))
+          .count();
+      return new Result(duration,
+                        completedOrders,
+                        completedOrders == 0 ? 0 : (double) totalOrderDuration / completedOrders,
+                        completedOrders == 0 ? 0 : (double) totalWaitingTime / completedOrders,
+                        deadlocks,
+                        stuckVehicles,
+                        plannedOrders == 0 ? 0 : (double) totalPlanningTime / plannedOrders);
+    }
+
+    private void startOrder(SimulatedVehicle vehicle, long now) {
+      Point source = stationPoints.get(vehicle.random.nextInt(stationPoints.size()));
+      Point destination = source;
+      while (destination.equals(source)) {
+        destination = stationPoints.get(vehicle.random.nextInt(stationPoints.size()));
+      }
+      vehicle.destinations.clear();
+      vehicle.destinations.add(source);
+      vehicle.destinations.add(destination);
+      vehicle.orderStart = now;
+      planRoutes(vehicle, vehicle.position, now);
+      advance(vehicle, now);
+    }
+
+    /**
+     * Computes the routes from the given point to the vehicle's remaining destinations.
+     */
+    private void planRoutes(SimulatedVehicle vehicle, Point start, long departureTime) {
+      long timeStampBefore = System.nanoTime();
+
+      List<List<Route.Step>> routes = new ArrayList<>();
+      Point current = start;
+      long time = departureTime;
+      for (Point destination : vehicle.destinations) {
+        List<Route.Step> steps;
+        if (routing == Routing.SPACE_TIME) {
+          SpaceTimeRoute route = planner.computeRoute(current,
+                                                      destination,
+                                                      time,
+                                                      OPERATION_DURATION,
+                                                      reservations,
+                                                      vehicle.vehicle.getName());
+          steps = route == null ? computeShortestRoute(vehicle, current, destination)
+              : route.getSteps();
+          time = route == null ? time : route.getArrivalTime() + OPERATION_DURATION;
+        }
+        else {
+          steps = computeShortestRoute(vehicle, current, destination);
+        }
+        routes.add(steps);
+        current = destination;
+      }
+      if (routing == Routing.SPACE_TIME) {
+        reservations.releaseBefore(departureTime);
+        reservations.setReservations(vehicle.vehicle.getName(),
+                                     planner.computeReservations(vehicle.vehicle.getName(),
+                                                                 routes,
+                                                                 departureTime,
+                                                                 OPERATION_DURATION,
+                                                                 CLEARANCE));
+      }
+
+      vehicle.routes.clear();
+      for (List<Route.Step> steps : routes) {
+        vehicle.routes.add(new ArrayDeque<>(steps));
+      }
+      totalPlanningTime += System.nanoTime() - timeStampBefore;
+      plannedOrders++;
+    }
+
+    private List<Route.Step> computeShortestRoute(SimulatedVehicle vehicle,
+                                                  Point source,
+                                                  Point destination) {
+      Optional<Route> route = router.getRoute(vehicle.vehicle, source, destination);
+      checkArgument(route.isPresent(), "No route from %s to %s", source, destination);
+      return route.get().getSteps().stream()
+          .filter(step -> step.getPath() != null)
+          .collect(Collectors.toList());
+    }
+
+    /**
+     * Lets the vehicle travel to the next point of its current route or start the operation at
+     * the end of it.
+     */
+    private void advance(SimulatedVehicle vehicle, long now) {
+      Deque<Route.Step> steps = vehicle.routes.peekFirst();
+      if (steps.isEmpty()) {
+        schedule(vehicle, now + OPERATION_DURATION, false);
+        return;
+      }
+
+      Route.Step step = steps.peekFirst();
+      String nextPointName = step.getDestinationPoint().getName();
+      if (occupants.containsKey(nextPointName)) {
+        vehicle.waitingFor = nextPointName;
+        vehicle.waitingSince = now;
+        waitingVehicles.computeIfAbsent(nextPointName, name -> new ArrayDeque<>()).add(vehicle);
+        resolveDeadlock(vehicle, now);
+        return;
+      }
+
+      occupants.put(nextPointName, vehicle);
+      schedule(vehicle, now + travelTime(step, vehicle.vehicle), true);
+    }
+
+    private void arrive(SimulatedVehicle vehicle, long now) {
+      Route.Step step = vehicle.routes.peekFirst().pollFirst();
+      Point previousPosition = vehicle.position;
+      vehicle.position = step.getDestinationPoint();
+      occupants.remove(previousPosition.getName());
+      // Vehicles already waiting for the released point go first.
+      releasePoint(previousPosition.getName(), now);
+      advance(vehicle, now);
+    }
+
+    private void finishOperation(SimulatedVehicle vehicle, long now) {
+      vehicle.routes.pollFirst();
+      vehicle.destinations.remove(0);
+      if (!vehicle.routes.isEmpty()) {
+        advance(vehicle, now);
+        return;
+      }
+
+      completedOrders++;
+      totalOrderDuration += now - vehicle.orderStart;
+      totalWaitingTime += vehicle.waitingTime;
+      vehicle.waitingTime = 0;
+      startOrder(vehicle, now);
+    }
+
+    private void releasePoint(String pointName, long now) {
+      Deque<SimulatedVehicle> waiting = waitingVehicles.get(pointName);
+      if (waiting == null || waiting.isEmpty() || occupants.containsKey(pointName)) {
+        return;
+      }
+      SimulatedVehicle vehicle = waiting.pollFirst();
+      vehicle.waitingFor = null;
+      vehicle.waitingTime += now - vehicle.waitingSince;
+      advance(vehicle, now);
+    }
+
+    /**
+     * Checks whether the given waiting vehicle is part of a cycle of vehicles waiting for each
+     * other and lets one of them evade, if so.
+     */
+    private void resolveDeadlock(SimulatedVehicle vehicle, long now) {
+      List<SimulatedVehicle> cycle = findCycle(vehicle);
+      if (cycle.isEmpty()) {
+        return;
+      }
+      for (SimulatedVehicle candidate : cycle) {
+        if (evade(candidate, cycle, now)) {
+          deadlocks++;
+          return;
+        }
+      }
+    }
+
+    private boolean isDeadlocked(SimulatedVehicle vehicle) {
+      return !findCycle(vehicle).isEmpty();
+    }
+
+    private List<SimulatedVehicle> findCycle(SimulatedVehicle vehicle) {
+      List<SimulatedVehicle> result = new ArrayList<>();
+      SimulatedVehicle current = vehicle;
+      while (current != null && current.waitingFor != null && result.size() <= vehicles.size()) {
+        result.add(current);
+        current = occupants.get(current.waitingFor);
+        if (current == vehicle) {
+          return result;
+        }
+      }
+      return new ArrayList<>();
+    }
+
+    /**
+     * Lets the given vehicle evade to the closest point that is neither occupied nor on the routes
+     * of the other vehicles in the cycle.
+     */
+    private boolean evade(SimulatedVehicle vehicle, List<SimulatedVehicle> cycle, long now) {
+      Set<String> blockedPointNames = new HashSet<>();
+      for (SimulatedVehicle other : cycle) {
+        if (other != vehicle) {
+          blockedPointNames.add(other.position.getName());
+          for (Deque<Route.Step> steps : other.routes) {
+            for (Route.Step step : steps) {
+              blockedPointNames.add(step.getDestinationPoint().getName());
+            }
+          }
+        }
+      }
+
+      // A breadth-first search over free points, starting at the vehicle's position.
+      Map<String, ModelEdge> predecessorEdges = new HashMap<>();
+      Deque<String> queue = new ArrayDeque<>();
+      predecessorEdges.put(vehicle.position.getName(), null);
+      queue.add(vehicle.position.getName());
+      while (!queue.isEmpty()) {
+        String pointName = queue.pollFirst();
+        if (predecessorEdges.get(pointName) != null && !blockedPointNames.contains(pointName)) {
+          evadeTo(vehicle, pointName, predecessorEdges, now);
+          return true;
+        }
+        for (ModelEdge edge : graph.outgoingEdgesOf(pointName)) {
+          String nextPointName = graph.getEdgeTarget(edge);
+          if (!predecessorEdges.containsKey(nextPointName)
+              && !occupants.containsKey(nextPointName)
+              && SpaceTimePlanner.getTravelTime(edge.getModelPath(),
+                                                edge.isTravellingReverse(),
+                                                vehicle.vehicle) >= 0) {
+            predecessorEdges.put(nextPointName, edge);
+            queue.add(nextPointName);
+          }
+        }
+      }
+      return false;
+    }
+
+    private void evadeTo(SimulatedVehicle vehicle,
+                         String targetName,
+                         Map<String, ModelEdge> predecessorEdges,
+                         long now) {
+      waitingVehicles.get(vehicle.waitingFor).remove(vehicle);
+      vehicle.waitingFor = null;
+      vehicle.waitingTime += now - vehicle.waitingSince;
+
+      List<Route.Step> evasionSteps = new ArrayList<>();
+      long evasionDuration = 0;
+      for (ModelEdge edge = predecessorEdges.get(targetName);
+           edge != null;
+           edge = predecessorEdges.get(graph.getEdgeSource(edge))) {
+        evasionSteps.add(0, new Route.Step(edge.getModelPath(),
+                                           pointsByName.get(graph.getEdgeSource(edge)),
+                                           pointsByName.get(graph.getEdgeTarget(edge)),
+                                           edge.isTravellingReverse()
+                                               ? Vehicle.Orientation.BACKWARD
+                                               : Vehicle.Orientation.FORWARD,
+                                           0));
+        evasionDuration += SpaceTimePlanner.getTravelTime(edge.getModelPath(),
+                                                          edge.isTravellingReverse(),
+                                                          vehicle.vehicle);
+      }
+
+      planRoutes(vehicle, pointsByName.get(targetName), now + evasionDuration);
+      Deque<Route.Step> firstRoute = vehicle.routes.peekFirst();
+      for (int i = evasionSteps.size() - 1; i >= 0; i--) {
+        firstRoute.addFirst(evasionSteps.get(i));
+      }
+      advance(vehicle, now);
+    }
+
+    private long travelTime(Route.Step step, Vehicle vehicle) {
+      boolean reverse = !step.getPath().getSourcePoint().getName()
+          .equals(step.getSourcePoint().getName());
+      return SpaceTimePlanner.getTravelTime(step.getPath(), reverse, vehicle);
+    }
+
+    private void schedule(SimulatedVehicle vehicle, long time, boolean arrival) {
+      events.add(new Event(time, eventCount++, vehicle, arrival));
+    }
+  }
+
+  /**
+   * A vehicle in the simulation.
+   */
+  private static class SimulatedVehicle {
+
+    /**
+     * The vehicle.
+     */
+    private final Vehicle vehicle;
+    /**
+     * The random number generator for the vehicle's transport orders.
+     */
+    private final Random random;
+    /**
+     * The destinations of the current transport order not yet reached.
+     */
+    private final List<Point> destinations = new ArrayList<>(2);
+    /**
+     * The remaining steps of the routes to the destinations.
+     */
+    private final Deque<Deque<Route.Step>> routes = new ArrayDeque<>();
+    /**
+     * The point the vehicle is at, or travels away from.
+     */
+    private Point position;
+    /**
+     * The name of the point the vehicle waits for, or <code>null</code>.
+     */
+    private String waitingFor;
+    /**
+     * The point of time the vehicle started waiting.
+     */
+    private long waitingSince;
+    /**
+     * The time the vehicle waited for points during the current transport order.
+     */
+    private long waitingTime;
+    /**
+     * The point of time the vehicle started the current transport order.
+     */
+    private long orderStart;
+
+    SimulatedVehicle(Vehicle vehicle, Point position, Random random) {
+      this.vehicle = vehicle;
+      this.position = position;
+      this.random = random;
+    }
+  }
+
+  /**
+   * A vehicle arriving at a point or finishing an operation.
+   */
+  private static class Event {
+
+    private final long time;
+    private final long sequence;
+    private final SimulatedVehicle vehicle;
+    private final boolean arrival;
+
+    Event(long time, long sequence, SimulatedVehicle vehicle, boolean arrival) {
+      this.time = time;
+      this.sequence = sequence;
+      this.vehicle = vehicle;
+      this.arrival = arrival;
+    }
+  }
+}
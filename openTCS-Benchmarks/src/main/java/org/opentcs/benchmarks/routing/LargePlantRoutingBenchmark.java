@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.routing.PointRouterBenchmark.RouterType;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.PointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the point routers working on a compiled graph on very large plant models, covering
+ * the preprocessing when creating a point router as well as point-to-point queries.
+ * <p>
+ * The JGraphT-based point routers are left out, as they take too long on plants of this size.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LargePlantRoutingBenchmark {
+
+  /**
+   * The number of random pairs of points queried.
+   */
+  private static final int QUERY_COUNT = 1024;
+  /**
+   * The point router implementation.
+   */
+  @Param({"CSR_DIJKSTRA", "CSR_ASTAR", "CONTRACTION_HIERARCHY"})
+  private RouterType routerType;
+  /**
+   * The layout of the plant.
+   */
+  @Param({"GRID", "AISLE"})
+  private PlantLayout layout;
+  /**
+   * The (approximate) number of points in the plant.
+   */
+  @Param({"50000"})
+  private int pointCount;
+  /**
+   * The scenario.
+   */
+  private BenchmarkScenario scenario;
+  /**
+   * The factory creating the point router.
+   */
+  private PointRouterFactory pointRouterFactory;
+  /**
+   * The vehicle to create the point router for.
+   */
+  private Vehicle vehicle;
+  /**
+   * The point router to be benchmarked.
+   */
+  private PointRouter pointRouter;
+  /**
+   * The source points of the queries.
+   */
+  private Point[] sources;
+  /**
+   * The destination points of the queries.
+   */
+  private Point[] destinations;
+  /**
+   * The index of the next query.
+   */
+  private int queryIndex;
+
+  @Setup(Level.Trial)
+  public void setUpScenario() {
+    scenario = new BenchmarkScenario(layout, pointCount, 1, 0);
+    InMemoryObjectService objectService = scenario.getObjectService();
+    ModelGraphMapper mapper = scenario.getInstance(ModelGraphMapper.class);
+
+    vehicle = objectService.fetchObjects(Vehicle.class).iterator().next();
+    pointRouterFactory = routerType.createFactory(objectService, mapper);
+    pointRouter = pointRouterFactory.createPointRouter(vehicle);
+
+    List<Point> points = new ArrayList<>(objectService.fetchObjects(Point.class));
+    points.sort(Comparator.comparing(Point::getName));
+    Random random = new Random(4711);
+    sources = new Point[QUERY_COUNT];
+    destinations = new Point[QUERY_COUNT];
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      sources[i] = points.get(random.nextInt(points.size()));
+      destinations[i] = points.get(random.nextInt(points.size()));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownScenario() {
+    scenario.terminate();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 1)
+  @Measurement(iterations = 3)
+  public PointRouter createPointRouter() {
+    return pointRouterFactory.createPointRouter(vehicle);
+  }
+
+  @Benchmark
+  public List<Route.Step> getRouteSteps() {
+    int index = nextQueryIndex();
+    return pointRouter.getRouteSteps(sources[index], destinations[index]);
+  }
+
+  @Benchmark
+  public long getCosts() {
+    int index = nextQueryIndex();
+    return pointRouter.getCosts(sources[index], destinations[index]);
+  }
+
+  private int nextQueryIndex() {
+    queryIndex = (queryIndex + 1) % QUERY_COUNT;
+    return queryIndex;
+  }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.PropertiesConfigurationBindingProvider;
+import org.opentcs.benchmarks.plant.PlantGenerator;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the router computing routes for transport orders with several stops at locations
+ * linked to several points each.
+ * <p>
+ * The route cache is disabled, so every invocation queries the point router. The costs between the
+ * stops are evaluated in parallel with thread-safe point routers only, e.g. the ones working on a
+ * compiled graph.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiStopRoutingBenchmark {
+
+  /**
+   * The number of random transport orders routed.
+   */
+  private static final int ORDER_COUNT = 256;
+  /**
+   * The shortest path algorithm of the point router.
+   */
+  @Param({"ASTAR", "CSR_DIJKSTRA"})
+  private String algorithm;
+  /**
+   * The layout of the plant.
+   */
+  @Param({"GRID", "AISLE"})
+  private PlantLayout layout;
+  /**
+   * The (approximate) number of points in the plant.
+   */
+  @Param({"2000"})
+  private int pointCount;
+  /**
+   * The number of drive orders per transport order.
+   */
+  @Param({"2", "4", "8"})
+  private int stopCount;
+  /**
+   * The (maximum) number of points each location is linked to.
+   */
+  @Param({"1", "3"})
+  private int linksPerLocation;
+  /**
+   * The scenario.
+   */
+  private BenchmarkScenario scenario;
+  /**
+   * The router to be benchmarked.
+   */
+  private Router router;
+  /**
+   * The vehicle to compute the routes for.
+   */
+  private Vehicle vehicle;
+  /**
+   * The points the routes start at.
+   */
+  private Point[] sources;
+  /**
+   * The transport orders to compute the routes for.
+   */
+  private TransportOrder[] orders;
+  /**
+   * The index of the next transport order.
+   */
+  private int orderIndex;
+
+  @Setup(Level.Trial)
+  public void setUpScenario() {
+    scenario = new BenchmarkScenario(
+        PropertiesConfigurationBindingProvider.fromResource(BenchmarkScenario.DEFAULT_CONFIGURATION)
+            .with("defaultrouter.routeCacheSize", "0")
+            .with("defaultrouter.shortestpath.algorithm", algorithm),
+        layout,
+        pointCount,
+        1,
+        0
+    );
+    InMemoryObjectService objectService = scenario.getObjectService();
+    router = scenario.getInstance(Router.class);
+    vehicle = objectService.fetchObjects(Vehicle.class).iterator().next();
+    addLinks(objectService);
+
+    List<Point> points = new ArrayList<>(objectService.fetchObjects(Point.class));
+    points.sort(Comparator.comparing(Point::getName));
+    List<Location> stations = objectService.fetchObjects(Location.class).stream()
+        .filter(location -> location.getName().startsWith("Station-"))
+        .sorted(Comparator.comparing(Location::getName))
+        .collect(Collectors.toList());
+    Random random = new Random(4711);
+    sources = new Point[ORDER_COUNT];
+    orders = new TransportOrder[ORDER_COUNT];
+    for (int i = 0; i < ORDER_COUNT; i++) {
+      sources[i] = points.get(random.nextInt(points.size()));
+      List<DriveOrder> driveOrders = new ArrayList<>();
+      for (int j = 0; j < stopCount; j++) {
+        Location station = stations.get(random.nextInt(stations.size()));
+        driveOrders.add(new DriveOrder(
+            new DriveOrder.Destination(station.getReference())
+                .withOperation(j % 2 == 0
+                    ? PlantGenerator.OPERATION_LOAD
+                    : PlantGenerator.OPERATION_UNLOAD)
+        ));
+      }
+      orders[i] = new TransportOrder(String.format("TOrder-%07d", i), driveOrders);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownScenario() {
+    scenario.terminate();
+  }
+
+  @Benchmark
+  public Optional<List<DriveOrder>> getRoute() {
+    orderIndex = (orderIndex + 1) % ORDER_COUNT;
+    return router.getRoute(vehicle, sources[orderIndex], orders[orderIndex]);
+  }
+
+  /**
+   * Links every location to the points following the one it is linked to, up to the configured
+   * number of links per location.
+   *
+   * @param objectService The object service containing the locations.
+   */
+  private void addLinks(InMemoryObjectService objectService) {
+    for (Location location : objectService.fetchObjects(Location.class)) {
+      Set<Location.Link> links = new HashSet<>(location.getAttachedLinks());
+      Point point = objectService.fetchObject(Point.class,
+                                              links.iterator().next().getPoint());
+      for (TCSObjectReference<Path> pathRef : point.getOutgoingPaths()) {
+        if (links.size() >= linksPerLocation) {
+          break;
+        }
+        Point linkedPoint = objectService.fetchObject(
+            Point.class,
+            objectService.fetchObject(Path.class, pathRef).getDestinationPoint()
+        );
+        links.add(new Location.Link(location.getReference(), linkedPoint.getReference()));
+      }
+      objectService.replaceObject(location.withAttachedLinks(links));
+    }
+  }
+}
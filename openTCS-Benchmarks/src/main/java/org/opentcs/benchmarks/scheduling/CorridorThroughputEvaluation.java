@@ -0,0 +1,636 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.scheduling.ReservationPool;
+import org.opentcs.strategies.basic.scheduling.modules.PathTimeWindowModule;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.opentcs.util.event.SimpleEventBus;
+
+/**
+ * Evaluates the throughput of a single-lane corridor travelled in both directions, with vehicles
+ * only reserving points and paths and with the {@link PathTimeWindowModule} in addition, by
+ * simulating a fleet of vehicles shuttling through it.
+ * <p>
+ * Every vehicle has a station at each end of the corridor. It travels through the corridor to its
+ * station at the other end, performs an operation there and travels back, over and over again.
+ * Vehicles allocate resources the way the default scheduler lets them, one movement command
+ * ahead: A vehicle travels along the next path only if the path and the point it leads to are
+ * available and the scheduler's modules allow it. Like with the default vehicle controller, the
+ * resources of a step are released when the vehicle arrives at the end of the next one. The
+ * module learns about the vehicles' routes and progress like it does from the default scheduler.
+ * </p>
+ * <p>
+ * When vehicles block each other in a cycle or a vehicle waits for longer than a few minutes, the
+ * vehicle that has travelled the shortest distance on its current route is taken back to its
+ * start station after a penalty, like an operator would have to, which is counted as a deadlock.
+ * </p>
+ */
+public class CorridorThroughputEvaluation {
+
+  /**
+   * The seed for the random number generators.
+   */
+  private static final long SEED = 4711;
+  /**
+   * The time by which the simulation is advanced per step (in ms).
+   */
+  private static final long TIME_STEP = 100;
+  /**
+   * The length of every path (in mm).
+   */
+  private static final int PATH_LENGTH = 2000;
+  /**
+   * The vehicles' and paths' maximum velocity (in mm/s).
+   */
+  private static final int MAX_VELOCITY = 1000;
+  /**
+   * The minimum duration of an operation at a station (in ms).
+   */
+  private static final long MIN_OPERATION_DURATION = 10000;
+  /**
+   * The maximum duration of an operation at a station (in ms).
+   */
+  private static final long MAX_OPERATION_DURATION = 30000;
+  /**
+   * The time it takes to take a vehicle back to its start station after a deadlock (in ms).
+   */
+  private static final long DEADLOCK_PENALTY = 120000;
+  /**
+   * The waiting time after which a vehicle is considered stuck (in ms).
+   */
+  private static final long STALL_TIMEOUT = 300000;
+  /**
+   * The time span for which time windows are considered (in ms).
+   */
+  private static final long TIME_WINDOW_HORIZON = 60000;
+  /**
+   * The safety margin added before and after every time window (in ms).
+   */
+  private static final long TIME_WINDOW_MARGIN = 2000;
+  /**
+   * The maximum number of vehicles that may follow a vehicle while another one is waiting.
+   */
+  private static final int TIME_WINDOW_MAX_FOLLOWERS = 3;
+  /**
+   * The number of vehicles.
+   */
+  private final int vehicleCount;
+  /**
+   * The number of paths in the corridor.
+   */
+  private final int segmentCount;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param vehicleCount The number of vehicles.
+   * @param segmentCount The number of paths in the corridor.
+   */
+  public CorridorThroughputEvaluation(int vehicleCount, int segmentCount) {
+    checkArgument(vehicleCount > 0, "vehicleCount <= 0");
+    checkArgument(segmentCount > 0, "segmentCount <= 0");
+    this.vehicleCount = vehicleCount;
+    this.segmentCount = segmentCount;
+  }
+
+  /**
+   * Runs the evaluation with the given arguments:
+   * <code>[vehicleCount [segmentCount [hours]]]</code>, defaulting to <code>6 10 1</code>.
+   *
+   * @param args The arguments.
+   */
+  public static void main(String[] args) {
+    int vehicleCount = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+    int segmentCount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    int hours = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+    CorridorThroughputEvaluation evaluation
+        = new CorridorThroughputEvaluation(vehicleCount, segmentCount);
+
+    System.out.println(String.format("%d vehicles, %d corridor paths, %d simulated hour(s)",
+                                     vehicleCount,
+                                     segmentCount,
+                                     hours));
+    System.out.println(String.format("%-20s %12s %16s %16s %16s",
+                                     "Reservations",
+                                     "Trips/hour",
+                                     "Deadlocks/hour",
+                                     "Trip time (s)",
+                                     "Waiting (s)"));
+    for (Reservations reservations : Reservations.values()) {
+      printResult(reservations,
+                  evaluation.simulate(reservations, TimeUnit.HOURS.toMillis(hours)));
+    }
+  }
+
+  /**
+   * Simulates the fleet shuttling through the corridor for the given duration.
+   *
+   * @param reservations The kind of reservations.
+   * @param duration The simulated duration (in ms).
+   * @return The result of the simulation.
+   */
+  public Result simulate(Reservations reservations, long duration) {
+    requireNonNull(reservations, "reservations");
+
+    return new Simulation(reservations).run(duration);
+  }
+
+  private static void printResult(Reservations reservations, Result result) {
+    double hours = result.getDuration() / 3600000.0;
+    System.out.println(String.format("%-20s %12.1f %16.1f %16.1f %16.1f",
+                                     reservations,
+                                     result.getCompletedTrips() / hours,
+                                     result.getDeadlocks() / hours,
+                                     result.getMeanTripTime() / 1000.0,
+                                     result.getMeanWaitingTime() / 1000.0));
+  }
+
+  /**
+   * The kinds of reservations evaluated.
+   */
+  public enum Reservations {
+    /**
+     * Vehicles only reserve points and paths.
+     */
+    POINTS_AND_PATHS,
+    /**
+     * Vehicles reserve points and paths, and the {@link PathTimeWindowModule} keeps them from
+     * entering paths on which they would meet vehicles travelling in the opposite direction.
+     */
+    TIME_WINDOWS;
+  }
+
+  /**
+   * The result of a simulation.
+   */
+  public static class Result {
+
+    private final long duration;
+    private final int completedTrips;
+    private final int deadlocks;
+    private final double meanTripTime;
+    private final double meanWaitingTime;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param duration The simulated duration (in ms).
+     * @param completedTrips The number of trips through the corridor completed.
+     * @param deadlocks The number of times a vehicle had to be taken back to its start station.
+     * @param meanTripTime The mean duration of a completed trip (in ms).
+     * @param meanWaitingTime The mean time a vehicle waited for allocations per completed trip
+     * (in ms).
+     */
+    public Result(long duration,
+                  int completedTrips,
+                  int deadlocks,
+                  double meanTripTime,
+                  double meanWaitingTime) {
+      this.duration = duration;
+      this.completedTrips = completedTrips;
+      this.deadlocks = deadlocks;
+      this.meanTripTime = meanTripTime;
+      this.meanWaitingTime = meanWaitingTime;
+    }
+
+    public long getDuration() {
+      return duration;
+    }
+
+    public int getCompletedTrips() {
+      return completedTrips;
+    }
+
+    public int getDeadlocks() {
+      return deadlocks;
+    }
+
+    public double getMeanTripTime() {
+      return meanTripTime;
+    }
+
+    public double getMeanWaitingTime() {
+      return meanWaitingTime;
+    }
+  }
+
+  /**
+   * A single run of the simulation.
+   */
+  private class Simulation {
+
+    /**
+     * The plant model.
+     */
+    private final InMemoryObjectService objectService
+        = new InMemoryObjectService(new SimpleEventBus());
+    /**
+     * The reservation pool.
+     */
+    private final ReservationPool reservationPool = new ReservationPool();
+    /**
+     * The module, if time windows are evaluated.
+     */
+    private final Scheduler.Module module;
+    /**
+     * The points of the corridor, from its left to its right end.
+     */
+    private final List<Point> corridorPoints = new ArrayList<>();
+    /**
+     * The paths of the corridor, from its left to its right end.
+     */
+    private final List<Path> corridorPaths = new ArrayList<>();
+    /**
+     * The simulated vehicles.
+     */
+    private final List<SimulatedVehicle> vehicles = new ArrayList<>();
+    private int completedTrips;
+    private int deadlocks;
+    private long totalTripTime;
+    private long totalWaitingTime;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param reservations The kind of reservations.
+     */
+    Simulation(Reservations reservations) {
+      this.module = reservations == Reservations.TIME_WINDOWS
+          ? new PathTimeWindowModule(reservationPool,
+                                     objectService,
+                                     new Object(),
+                                     TIME_WINDOW_HORIZON,
+                                     TIME_WINDOW_MARGIN,
+                                     TIME_WINDOW_MAX_FOLLOWERS)
+          : null;
+    }
+
+    Result run(long duration) {
+      createModel();
+      if (module != null) {
+        module.initialize();
+      }
+
+      for (SimulatedVehicle vehicle : vehicles) {
+        vehicle.previousStep = setOf(vehicle.stations[vehicle.side]);
+        reservationPool.allocate(vehicle, vehicle.previousStep);
+        startOperation(vehicle, 0);
+      }
+
+      for (long now = 0; now < duration; now += TIME_STEP) {
+        for (SimulatedVehicle vehicle : vehicles) {
+          step(vehicle, now);
+        }
+        resolveDeadlocks(now);
+      }
+
+      return new Result(duration,
+                        completedTrips,
+                        deadlocks,
+                        completedTrips == 0 ? 0.0 : (double) totalTripTime / completedTrips,
+                        completedTrips == 0 ? 0.0 : (double) totalWaitingTime / completedTrips);
+    }
+
+    private void createModel() {
+      for (int i = 0; i <= segmentCount; i++) {
+        corridorPoints.add(addObject(new Point("Corridor-" + i)));
+      }
+      for (int i = 0; i < segmentCount; i++) {
+        corridorPaths.add(addPath(corridorPoints.get(i), corridorPoints.get(i + 1)));
+      }
+
+      Random random = new Random(SEED);
+      for (int i = 0; i < vehicleCount; i++) {
+        String name = String.format("Vehicle-%02d", i);
+        addObject(new Vehicle(name)
+            .withMaxVelocity(MAX_VELOCITY)
+            .withMaxReverseVelocity(MAX_VELOCITY));
+        Point left = addObject(new Point("Left-" + i));
+        Point right = addObject(new Point("Right-" + i));
+        SimulatedVehicle vehicle = new SimulatedVehicle(name,
+                                                        new Point[]{left, right},
+                                                        new Path[]{
+                                                          addPath(left, corridorPoints.get(0)),
+                                                          addPath(corridorPoints.get(segmentCount),
+                                                                  right)
+                                                        },
+                                                        i % 2,
+                                                        new Random(random.nextLong()));
+        vehicles.add(vehicle);
+      }
+    }
+
+    private <T extends Point> T addObject(T point) {
+      objectService.addObject(point);
+      return point;
+    }
+
+    private void addObject(Vehicle vehicle) {
+      objectService.addObject(vehicle);
+    }
+
+    private Path addPath(Point source, Point destination) {
+      Path path = new Path(source.getName() + " --- " + destination.getName(),
+                           source.getReference(),
+                           destination.getReference())
+          .withLength(PATH_LENGTH)
+          .withMaxVelocity(MAX_VELOCITY)
+          .withMaxReverseVelocity(MAX_VELOCITY);
+      objectService.addObject(path);
+      return path;
+    }
+
+    /**
+     * Returns the route from the given vehicle's station on its current side to the one on the
+     * other side, as a sequence of path/point pairs.
+     */
+    private List<Set<TCSResource<?>>> createRoute(SimulatedVehicle vehicle) {
+      List<Set<TCSResource<?>>> result = new ArrayList<>();
+      if (vehicle.side == 0) {
+        result.add(setOf(vehicle.stationPaths[0], corridorPoints.get(0)));
+        for (int i = 0; i < segmentCount; i++) {
+          result.add(setOf(corridorPaths.get(i), corridorPoints.get(i + 1)));
+        }
+        result.add(setOf(vehicle.stationPaths[1], vehicle.stations[1]));
+      }
+      else {
+        result.add(setOf(vehicle.stationPaths[1], corridorPoints.get(segmentCount)));
+        for (int i = segmentCount - 1; i >= 0; i--) {
+          result.add(setOf(corridorPaths.get(i), corridorPoints.get(i)));
+        }
+        result.add(setOf(vehicle.stationPaths[0], vehicle.stations[0]));
+      }
+      return result;
+    }
+
+    private void step(SimulatedVehicle vehicle, long now) {
+      if (vehicle.route == null) {
+        if (now < vehicle.operationEnd) {
+          return;
+        }
+        startTrip(vehicle, now);
+      }
+
+      if (vehicle.moving) {
+        if (now < vehicle.arrivalTime) {
+          return;
+        }
+        arrive(vehicle, now);
+        if (vehicle.route == null) {
+          return;
+        }
+      }
+
+      Set<TCSResource<?>> resources = vehicle.route.get(vehicle.routeIndex);
+      if (reservationPool.resourcesAvailableForUser(resources, vehicle)
+          && (module == null || module.mayAllocate(vehicle, resources))) {
+        if (module != null) {
+          module.prepareAllocation(vehicle, resources);
+        }
+        reservationPool.allocate(vehicle, resources);
+        if (vehicle.waitingSince >= 0) {
+          vehicle.waitingTime += now - vehicle.waitingSince;
+          vehicle.waitingSince = -1;
+        }
+        vehicle.moving = true;
+        vehicle.arrivalTime = now + PATH_LENGTH * 1000L / MAX_VELOCITY;
+      }
+      else if (vehicle.waitingSince < 0) {
+        vehicle.waitingSince = now;
+      }
+    }
+
+    private void startTrip(SimulatedVehicle vehicle, long now) {
+      vehicle.route = createRoute(vehicle);
+      vehicle.routeIndex = 0;
+      vehicle.tripStart = now;
+      vehicle.waitingTime = 0;
+      vehicle.waitingSince = -1;
+      if (module != null) {
+        module.claim(vehicle, vehicle.route);
+        module.setAllocationState(vehicle,
+                                  reservationPool.allocatedResources(vehicle),
+                                  vehicle.route);
+      }
+    }
+
+    private void arrive(SimulatedVehicle vehicle, long now) {
+      vehicle.moving = false;
+      release(vehicle, vehicle.previousStep);
+      vehicle.previousStep = vehicle.route.get(vehicle.routeIndex);
+
+      if (vehicle.routeIndex == vehicle.route.size() - 1) {
+        completedTrips++;
+        totalTripTime += now - vehicle.tripStart;
+        totalWaitingTime += vehicle.waitingTime;
+        // The path to the station does not matter for others, so release it right away.
+        release(vehicle, setOf(selectPath(vehicle.previousStep)));
+        vehicle.previousStep = setOf(vehicle.stations[1 - vehicle.side]);
+        endTrip(vehicle);
+        vehicle.side = 1 - vehicle.side;
+        startOperation(vehicle, now);
+        return;
+      }
+
+      // Mirror the default scheduler, which is informed about the index of the step reached.
+      if (module != null) {
+        module.setAllocationState(vehicle,
+                                  reservationPool.allocatedResources(vehicle),
+                                  vehicle.route.subList(vehicle.routeIndex, vehicle.route.size()));
+      }
+      vehicle.routeIndex++;
+    }
+
+    private void release(SimulatedVehicle vehicle, Set<TCSResource<?>> resources) {
+      reservationPool.free(vehicle, resources);
+      if (module != null) {
+        module.allocationReleased(vehicle, resources);
+      }
+    }
+
+    private void endTrip(SimulatedVehicle vehicle) {
+      if (module != null) {
+        module.setAllocationState(vehicle,
+                                  reservationPool.allocatedResources(vehicle),
+                                  new ArrayList<>());
+        module.unclaim(vehicle);
+      }
+      vehicle.route = null;
+      vehicle.moving = false;
+    }
+
+    private void startOperation(SimulatedVehicle vehicle, long now) {
+      long variation = MAX_OPERATION_DURATION - MIN_OPERATION_DURATION;
+      vehicle.operationEnd = now
+          + MIN_OPERATION_DURATION
+          + (long) (vehicle.random.nextDouble() * variation);
+    }
+
+    /**
+     * Takes a vehicle back to its start station if vehicles block each other in a cycle or a
+     * vehicle is stuck.
+     */
+    private void resolveDeadlocks(long now) {
+      Map<SimulatedVehicle, SimulatedVehicle> blockers = new HashMap<>();
+      for (SimulatedVehicle vehicle : vehicles) {
+        if (vehicle.waitingSince >= 0) {
+          SimulatedVehicle blocker = findBlocker(vehicle);
+          if (blocker != null) {
+            blockers.put(vehicle, blocker);
+          }
+        }
+      }
+
+      for (SimulatedVehicle vehicle : vehicles) {
+        if (vehicle.waitingSince < 0) {
+          continue;
+        }
+        List<SimulatedVehicle> cycle = findCycle(vehicle, blockers);
+        if (cycle.isEmpty() && now - vehicle.waitingSince >= STALL_TIMEOUT) {
+          cycle = Arrays.asList(vehicle);
+        }
+        if (!cycle.isEmpty()) {
+          SimulatedVehicle victim = cycle.stream()
+              .min((v1, v2) -> Integer.compare(v1.routeIndex, v2.routeIndex))
+              .get();
+          takeBack(victim, now);
+          deadlocks++;
+          return;
+        }
+      }
+    }
+
+    private SimulatedVehicle findBlocker(SimulatedVehicle vehicle) {
+      for (TCSResource<?> resource : vehicle.route.get(vehicle.routeIndex)) {
+        Scheduler.Client holder = reservationPool.getReservationEntry(resource).getClient();
+        if (holder != null && holder != vehicle) {
+          return (SimulatedVehicle) holder;
+        }
+      }
+      return null;
+    }
+
+    private List<SimulatedVehicle> findCycle(SimulatedVehicle start,
+                                             Map<SimulatedVehicle, SimulatedVehicle> blockers) {
+      List<SimulatedVehicle> chain = new ArrayList<>();
+      SimulatedVehicle current = start;
+      while (current != null && !chain.contains(current)) {
+        chain.add(current);
+        current = blockers.get(current);
+      }
+      return current == start ? chain : new ArrayList<>();
+    }
+
+    private void takeBack(SimulatedVehicle vehicle, long now) {
+      Set<TCSResource<?>> allocated = reservationPool.allocatedResources(vehicle);
+      reservationPool.freeAll(vehicle);
+      if (module != null) {
+        module.allocationReleased(vehicle, allocated);
+      }
+      endTrip(vehicle);
+      vehicle.previousStep = setOf(vehicle.stations[vehicle.side]);
+      reservationPool.allocate(vehicle, vehicle.previousStep);
+      vehicle.waitingSince = -1;
+      vehicle.operationEnd = now + DEADLOCK_PENALTY;
+    }
+
+    private Path selectPath(Set<TCSResource<?>> resources) {
+      for (TCSResource<?> resource : resources) {
+        if (resource instanceof Path) {
+          return (Path) resource;
+        }
+      }
+      throw new IllegalArgumentException("No path in " + resources);
+    }
+  }
+
+  private static Set<TCSResource<?>> setOf(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+
+  /**
+   * A simulated vehicle, acting as its own scheduler client.
+   */
+  private static class SimulatedVehicle
+      implements Scheduler.Client {
+
+    private final String name;
+    /**
+     * The vehicle's stations on the left and on the right side of the corridor.
+     */
+    private final Point[] stations;
+    /**
+     * The paths connecting the vehicle's stations with the corridor.
+     */
+    private final Path[] stationPaths;
+    private final Random random;
+    /**
+     * The side of the corridor the vehicle's current trip started at (0 = left, 1 = right).
+     */
+    private int side;
+    /**
+     * The route of the current trip, or <code>null</code>, if the vehicle is operating.
+     */
+    private List<Set<TCSResource<?>>> route;
+    /**
+     * The index of the route step the vehicle is travelling along or waiting for.
+     */
+    private int routeIndex;
+    /**
+     * The resources of the step the vehicle travelled along before the current one, or of its
+     * station, which are still allocated.
+     */
+    private Set<TCSResource<?>> previousStep;
+    private boolean moving;
+    private long arrivalTime;
+    private long operationEnd;
+    private long tripStart;
+    private long waitingSince = -1;
+    private long waitingTime;
+
+    SimulatedVehicle(String name, Point[] stations, Path[] stationPaths, int side, Random random) {
+      this.name = name;
+      this.stations = stations;
+      this.stationPaths = stationPaths;
+      this.side = side;
+      this.random = random;
+    }
+
+    @Override
+    public String getId() {
+      return name;
+    }
+
+    @Override
+    public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(Set<TCSResource<?>> resources) {
+    }
+  }
+}
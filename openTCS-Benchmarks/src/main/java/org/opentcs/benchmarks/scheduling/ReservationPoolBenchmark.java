@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.benchmarks.BenchmarkScenario;
+import org.opentcs.benchmarks.plant.PlantLayout;
+import org.opentcs.benchmarks.services.InMemoryObjectService;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.ReservationPool;
+import org.opentcs.strategies.basic.scheduling.ResourceIdSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the throughput of allocating, checking and freeing resources in the
+ * {@link ReservationPool}.
+ * <p>
+ * The pool is set up with all points, paths and locations of the plant model, like the scheduler
+ * does when a model is loaded. A number of other clients hold random resources while the
+ * benchmarked client requests the next one of a fixed sequence of random path/point pairs, i.e.
+ * the resources of a single movement command.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReservationPoolBenchmark {
+
+  /**
+   * The number of random resource sets requested.
+   */
+  private static final int REQUEST_COUNT = 1024;
+  /**
+   * The number of resources held by each of the other clients.
+   */
+  private static final int RESOURCES_PER_OTHER_CLIENT = 10;
+  /**
+   * The layout of the plant.
+   */
+  @Param({"GRID", "AISLE"})
+  private PlantLayout layout;
+  /**
+   * The (approximate) number of points in the plant.
+   */
+  @Param({"1000", "5000"})
+  private int pointCount;
+  /**
+   * The number of other clients holding resources.
+   */
+  @Param({"50"})
+  private int otherClientCount;
+  /**
+   * The scenario.
+   */
+  private BenchmarkScenario scenario;
+  /**
+   * The reservation pool to be benchmarked.
+   */
+  private ReservationPool pool;
+  /**
+   * The benchmarked client.
+   */
+  private Scheduler.Client client;
+  /**
+   * The requested resource sets.
+   */
+  private List<Set<TCSResource<?>>> requests;
+  /**
+   * The IDs of the requested resource sets.
+   */
+  private ResourceIdSet[] requestIds;
+  /**
+   * The index of the next request.
+   */
+  private int requestIndex;
+
+  @Setup(Level.Trial)
+  public void setUpScenario() {
+    scenario = new BenchmarkScenario(layout, pointCount, 1, 0);
+    InMemoryObjectService objectService = scenario.getObjectService();
+
+    Set<Point> points = objectService.fetchObjects(Point.class);
+    Set<Path> allPaths = objectService.fetchObjects(Path.class);
+    Set<Location> locations = objectService.fetchObjects(Location.class);
+    pool = new ReservationPool();
+    pool.addResources(points);
+    pool.addResources(allPaths);
+    pool.addResources(locations);
+
+    List<Path> paths = new ArrayList<>(allPaths);
+    paths.sort(Comparator.comparing(Path::getName));
+    Random random = new Random(4711);
+
+    for (int i = 0; i < otherClientCount; i++) {
+      Scheduler.Client otherClient = new BenchmarkClient("Other-" + i);
+      Set<TCSResource<?>> resources = new HashSet<>();
+      for (int j = 0; j < RESOURCES_PER_OTHER_CLIENT; j++) {
+        resources.add(paths.get(random.nextInt(paths.size())));
+      }
+      pool.allocate(otherClient, resources);
+    }
+
+    client = new BenchmarkClient("Benchmark");
+    requests = new ArrayList<>(REQUEST_COUNT);
+    requestIds = new ResourceIdSet[REQUEST_COUNT];
+    for (int i = 0; i < REQUEST_COUNT; i++) {
+      Path path = paths.get(random.nextInt(paths.size()));
+      Point destination = objectService.fetchObject(Point.class, path.getDestinationPoint());
+      Set<TCSResource<?>> resources = new HashSet<>(Arrays.asList(path, destination));
+      requests.add(resources);
+      requestIds[i] = pool.getResourceIds(resources);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownScenario() {
+    scenario.terminate();
+  }
+
+  @Benchmark
+  public boolean allocateAndFree() {
+    Set<TCSResource<?>> resources = requests.get(nextRequestIndex());
+    boolean available = pool.resourcesAvailableForUser(resources, client);
+    if (available) {
+      pool.allocate(client, resources);
+      pool.free(client, resources);
+    }
+    return available;
+  }
+
+  @Benchmark
+  public boolean checkAvailability() {
+    return pool.resourcesAvailableForUser(requests.get(nextRequestIndex()), client);
+  }
+
+  @Benchmark
+  public boolean checkAvailabilityByIds() {
+    return pool.resourcesAvailableForUser(requestIds[nextRequestIndex()], client);
+  }
+
+  private int nextRequestIndex() {
+    requestIndex = (requestIndex + 1) % REQUEST_COUNT;
+    return requestIndex;
+  }
+
+  /**
+   * A scheduler client that does nothing.
+   */
+  private static class BenchmarkClient
+      implements Scheduler.Client {
+
+    /**
+     * The client's ID.
+     */
+    private final String id;
+
+    BenchmarkClient(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(Set<TCSResource<?>> resources) {
+    }
+  }
+}
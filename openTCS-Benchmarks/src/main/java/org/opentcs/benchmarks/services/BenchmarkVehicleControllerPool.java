@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.services;
+
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.drivers.vehicle.VehicleController;
+import org.opentcs.drivers.vehicle.VehicleControllerPool;
+import org.opentcs.util.ExplainedBoolean;
+
+/**
+ * Provides vehicle controllers that accept every drive order and operation without actually
+ * driving anywhere.
+ * <p>
+ * The controllers only count the drive orders they receive, which allows benchmarks to check how
+ * many assignments a dispatch run produced.
+ * </p>
+ */
+public class BenchmarkVehicleControllerPool
+    implements VehicleControllerPool {
+
+  /**
+   * The controllers, by vehicle name.
+   */
+  private final Map<String, BenchmarkVehicleController> controllers = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance.
+   */
+  public BenchmarkVehicleControllerPool() {
+  }
+
+  @Override
+  public BenchmarkVehicleController getVehicleController(String vehicleName) {
+    requireNonNull(vehicleName, "vehicleName");
+    return controllers.computeIfAbsent(vehicleName, BenchmarkVehicleController::new);
+  }
+
+  @Override
+  @Deprecated
+  public double getSimulationTimeFactor() {
+    return 1.0;
+  }
+
+  @Override
+  @Deprecated
+  public void setSimulationTimeFactor(double factor) {
+  }
+
+  /**
+   * Returns the total number of drive orders received by all controllers.
+   *
+   * @return The total number of drive orders received by all controllers.
+   */
+  public long getDriveOrdersReceived() {
+    return controllers.values().stream()
+        .mapToLong(BenchmarkVehicleController::getDriveOrdersReceived)
+        .sum();
+  }
+
+  /**
+   * Resets the counters of all controllers.
+   */
+  public void resetCounters() {
+    controllers.values().forEach(BenchmarkVehicleController::resetCounters);
+  }
+
+  /**
+   * A vehicle controller that accepts everything.
+   */
+  public static class BenchmarkVehicleController
+      implements VehicleController {
+
+    /**
+     * The associated vehicle's name.
+     */
+    private final String vehicleName;
+    /**
+     * The number of drive orders received.
+     */
+    private long driveOrdersReceived;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param vehicleName The associated vehicle's name.
+     */
+    public BenchmarkVehicleController(@Nonnull String vehicleName) {
+      this.vehicleName = requireNonNull(vehicleName, "vehicleName");
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public boolean isInitialized() {
+      return true;
+    }
+
+    @Override
+    public void terminate() {
+    }
+
+    @Override
+    public void setDriveOrder(DriveOrder newOrder, Map<String, String> orderProperties) {
+      driveOrdersReceived++;
+    }
+
+    @Override
+    public void clearDriveOrder() {
+    }
+
+    @Override
+    public void abortDriveOrder() {
+    }
+
+    @Override
+    public void clearCommandQueue() {
+    }
+
+    @Override
+    @Deprecated
+    public void resetVehiclePosition() {
+    }
+
+    @Override
+    public ExplainedBoolean canProcess(List<String> operations) {
+      return new ExplainedBoolean(true, "");
+    }
+
+    @Override
+    public void sendCommAdapterMessage(Object message) {
+    }
+
+    @Override
+    public String getId() {
+      return vehicleName;
+    }
+
+    @Override
+    public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(Set<TCSResource<?>> resources) {
+    }
+
+    /**
+     * Returns the number of drive orders this controller received.
+     *
+     * @return The number of drive orders this controller received.
+     */
+    public long getDriveOrdersReceived() {
+      return driveOrdersReceived;
+    }
+
+    /**
+     * Resets this controller's counters.
+     */
+    public void resetCounters() {
+      driveOrdersReceived = 0;
+    }
+  }
+}
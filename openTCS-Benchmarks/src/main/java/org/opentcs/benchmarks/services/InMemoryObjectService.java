@@ -0,0 +1,611 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.opentcs.access.to.model.PlantModelCreationTO;
+import org.opentcs.access.to.order.DestinationCreationTO;
+import org.opentcs.access.to.order.OrderSequenceCreationTO;
+import org.opentcs.access.to.order.TransportOrderCreationTO;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.components.kernel.services.InternalTransportOrderService;
+import org.opentcs.components.kernel.services.InternalVehicleService;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.data.ObjectExistsException;
+import org.opentcs.data.ObjectHistory;
+import org.opentcs.data.ObjectUnknownException;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.TCSResourceReference;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.OrderSequence;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.drivers.vehicle.AdapterCommand;
+import org.opentcs.drivers.vehicle.LoadHandlingDevice;
+import org.opentcs.drivers.vehicle.VehicleCommAdapterDescription;
+import org.opentcs.drivers.vehicle.management.AttachmentInformation;
+import org.opentcs.drivers.vehicle.management.VehicleProcessModelTO;
+import org.opentcs.util.event.EventHandler;
+
+/**
+ * A heap-only stand-in for the kernel's object services, used to run strategies headless.
+ * <p>
+ * Objects are kept per class and by name, just like in the kernel's object pool. Modifications
+ * are applied to the immutable data objects via their <code>with...()</code> methods and are
+ * published as {@link TCSObjectEvent}s, so components relying on object events behave as they
+ * would in a running kernel. Operations that require a communication adapter or a persisted model
+ * are not supported.
+ * </p>
+ */
+public class InMemoryObjectService
+    implements InternalPlantModelService,
+               InternalTransportOrderService,
+               InternalVehicleService {
+
+  /**
+   * The objects, by class and name.
+   */
+  private final Map<Class<?>, Map<String, TCSObject<?>>> objects = new HashMap<>();
+  /**
+   * Where object events are published.
+   */
+  private final EventHandler eventHandler;
+  /**
+   * The model's name.
+   */
+  private String modelName = "";
+  /**
+   * Used for creating names of transport orders and order sequences.
+   */
+  private long nameCounter;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param eventHandler Where object events are published.
+   */
+  @Inject
+  public InMemoryObjectService(@ApplicationEventBus EventHandler eventHandler) {
+    this.eventHandler = requireNonNull(eventHandler, "eventHandler");
+  }
+
+  /**
+   * Adds the given object.
+   *
+   * @param object The object.
+   * @throws ObjectExistsException If an object of the same class and name already exists.
+   */
+  public void addObject(@Nonnull TCSObject<?> object)
+      throws ObjectExistsException {
+    requireNonNull(object, "object");
+
+    Map<String, TCSObject<?>> objectsOfClass = objectsOf(object.getClass());
+    if (objectsOfClass.containsKey(object.getName())) {
+      throw new ObjectExistsException("Object exists: " + object.getName());
+    }
+    objectsOfClass.put(object.getName(), object);
+    eventHandler.onEvent(new TCSObjectEvent(object, null, TCSObjectEvent.Type.OBJECT_CREATED));
+  }
+
+  /**
+   * Replaces an existing object with the given one.
+   *
+   * @param <T> The object's type.
+   * @param object The replacement.
+   * @return The given object.
+   * @throws ObjectUnknownException If there is no object of the same class and name.
+   */
+  public <T extends TCSObject<T>> T replaceObject(@Nonnull T object)
+      throws ObjectUnknownException {
+    requireNonNull(object, "object");
+
+    TCSObject<?> previous = objectsOf(object.getClass()).put(object.getName(), object);
+    if (previous == null) {
+      objectsOf(object.getClass()).remove(object.getName());
+      throw new ObjectUnknownException("Object unknown: " + object.getName());
+    }
+    eventHandler.onEvent(new TCSObjectEvent(object, previous, TCSObjectEvent.Type.OBJECT_MODIFIED));
+    return object;
+  }
+
+  /**
+   * Sets the model's name.
+   *
+   * @param modelName The model's name.
+   */
+  public void setModelName(@Nonnull String modelName) {
+    this.modelName = requireNonNull(modelName, "modelName");
+  }
+
+  /**
+   * Returns a copy of the current set of objects that can later be passed to
+   * {@link #restore(java.util.Map)}.
+   *
+   * @return A copy of the current set of objects.
+   */
+  public Map<Class<?>, Map<String, TCSObject<?>>> snapshot() {
+    Map<Class<?>, Map<String, TCSObject<?>>> result = new HashMap<>();
+    for (Map.Entry<Class<?>, Map<String, TCSObject<?>>> entry : objects.entrySet()) {
+      result.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+    }
+    return result;
+  }
+
+  /**
+   * Replaces the current set of objects with the given snapshot.
+   * Events are published for all objects that differ from their state in the snapshot, so
+   * components keeping track of objects via events stay consistent.
+   *
+   * @param snapshot The snapshot, as returned by {@link #snapshot()}.
+   */
+  public void restore(@Nonnull Map<Class<?>, Map<String, TCSObject<?>>> snapshot) {
+    requireNonNull(snapshot, "snapshot");
+
+    Map<Class<?>, Map<String, TCSObject<?>>> previousObjects = new HashMap<>(objects);
+    objects.clear();
+    for (Map.Entry<Class<?>, Map<String, TCSObject<?>>> entry : snapshot.entrySet()) {
+      objects.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+    }
+
+    for (Map.Entry<Class<?>, Map<String, TCSObject<?>>> entry : previousObjects.entrySet()) {
+      Map<String, TCSObject<?>> restoredObjects = objectsOf(entry.getKey());
+      for (TCSObject<?> previous : entry.getValue().values()) {
+        TCSObject<?> restored = restoredObjects.get(previous.getName());
+        if (restored == null) {
+          eventHandler.onEvent(new TCSObjectEvent(null,
+                                                  previous,
+                                                  TCSObjectEvent.Type.OBJECT_REMOVED));
+        }
+        else if (restored != previous) {
+          eventHandler.onEvent(new TCSObjectEvent(restored,
+                                                  previous,
+                                                  TCSObjectEvent.Type.OBJECT_MODIFIED));
+        }
+      }
+    }
+    for (Map.Entry<Class<?>, Map<String, TCSObject<?>>> entry : objects.entrySet()) {
+      Map<String, TCSObject<?>> previousOfClass
+          = previousObjects.getOrDefault(entry.getKey(), new HashMap<>());
+      for (TCSObject<?> restored : entry.getValue().values()) {
+        if (!previousOfClass.containsKey(restored.getName())) {
+          eventHandler.onEvent(new TCSObjectEvent(restored,
+                                                  null,
+                                                  TCSObjectEvent.Type.OBJECT_CREATED));
+        }
+      }
+    }
+  }
+
+  @Override
+  public <T extends TCSObject<T>> T fetchObject(Class<T> clazz, TCSObjectReference<T> ref) {
+    requireNonNull(ref, "ref");
+    return fetchObject(clazz, ref.getName());
+  }
+
+  @Override
+  public <T extends TCSObject<T>> T fetchObject(Class<T> clazz, String name) {
+    requireNonNull(clazz, "clazz");
+    return clazz.cast(objectsOf(clazz).get(name));
+  }
+
+  @Override
+  public <T extends TCSObject<T>> Set<T> fetchObjects(Class<T> clazz) {
+    requireNonNull(clazz, "clazz");
+    return objectsOf(clazz).values().stream()
+        .map(clazz::cast)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public <T extends TCSObject<T>> Set<T> fetchObjects(Class<T> clazz,
+                                                      Predicate<? super T> predicate) {
+    requireNonNull(clazz, "clazz");
+    requireNonNull(predicate, "predicate");
+    return objectsOf(clazz).values().stream()
+        .map(clazz::cast)
+        .filter(predicate)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void updateObjectProperty(TCSObjectReference<?> ref, String key, String value) {
+    requireNonNull(ref, "ref");
+    TCSObject<?> object = getObject(ref);
+    replaceRaw(object, (TCSObject<?>) object.withProperty(key, value));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void appendObjectHistoryEntry(TCSObjectReference<?> ref, ObjectHistory.Entry entry) {
+    requireNonNull(ref, "ref");
+    TCSObject<?> object = getObject(ref);
+    replaceRaw(object, (TCSObject<?>) object.withHistoryEntry(entry));
+  }
+
+  @Override
+  public Set<TCSResource<?>> expandResources(Set<TCSResourceReference<?>> resources) {
+    requireNonNull(resources, "resources");
+    Set<TCSResource<?>> result = new HashSet<>();
+    for (TCSResourceReference<?> ref : resources) {
+      result.add((TCSResource<?>) getObject(ref));
+    }
+    return result;
+  }
+
+  @Override
+  public void loadPlantModel() {
+    // Nothing to load - the model is kept in memory only.
+  }
+
+  @Override
+  public void savePlantModel() {
+    // Nothing to save - the model is kept in memory only.
+  }
+
+  @Override
+  public void createPlantModel(PlantModelCreationTO to) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  @Deprecated
+  public String getLoadedModelName() {
+    return modelName;
+  }
+
+  @Override
+  public String getModelName() {
+    return modelName;
+  }
+
+  @Override
+  public Map<String, String> getModelProperties() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  @Deprecated
+  public String getPersistentModelName() {
+    return modelName;
+  }
+
+  @Override
+  public void updateLocationLock(TCSObjectReference<Location> ref, boolean locked) {
+    replaceObject(getObject(Location.class, ref).withLocked(locked));
+  }
+
+  @Override
+  public OrderSequence createOrderSequence(OrderSequenceCreationTO to) {
+    requireNonNull(to, "to");
+    OrderSequence sequence = new OrderSequence(to.hasIncompleteName()
+        ? to.getName() + nextNameSuffix() : to.getName())
+        .withType(to.getType())
+        .withIntendedVehicle(vehicleReference(to.getIntendedVehicleName()))
+        .withFailureFatal(to.isFailureFatal())
+        .withProperties(to.getProperties());
+    addObject(sequence);
+    return sequence;
+  }
+
+  @Override
+  public TransportOrder createTransportOrder(TransportOrderCreationTO to) {
+    requireNonNull(to, "to");
+    List<DriveOrder> driveOrders = new ArrayList<>();
+    for (DestinationCreationTO destTo : to.getDestinations()) {
+      TCSObject<?> destObject = objectsOf(Location.class).get(destTo.getDestLocationName());
+      if (destObject == null) {
+        destObject = objectsOf(Point.class).get(destTo.getDestLocationName());
+      }
+      if (destObject == null) {
+        throw new ObjectUnknownException(destTo.getDestLocationName());
+      }
+      driveOrders.add(new DriveOrder(new DriveOrder.Destination(destObject.getReference())
+          .withOperation(destTo.getDestOperation())
+          .withProperties(destTo.getProperties())));
+    }
+
+    String name = to.hasIncompleteName() ? to.getName() + nextNameSuffix() : to.getName();
+    TransportOrder order = new TransportOrder(name, driveOrders)
+        .withCreationTime(Instant.now())
+        .withIntendedVehicle(vehicleReference(to.getIntendedVehicleName()))
+        .withType(to.getType())
+        .withDeadline(to.getDeadline().toInstant())
+        .withDispensable(to.isDispensable())
+        .withProperties(to.getProperties());
+    if (to.getWrappingSequence() != null) {
+      OrderSequence sequence = fetchObject(OrderSequence.class, to.getWrappingSequence());
+      if (sequence == null) {
+        throw new ObjectUnknownException(to.getWrappingSequence());
+      }
+      order = order.withWrappingSequence(sequence.getReference());
+      addObject(order);
+      replaceObject(sequence.withOrder(order.getReference()));
+    }
+    else {
+      addObject(order);
+    }
+    return order;
+  }
+
+  @Override
+  public void markOrderSequenceComplete(TCSObjectReference<OrderSequence> ref) {
+    replaceObject(getObject(OrderSequence.class, ref).withComplete(true));
+  }
+
+  @Override
+  public void markOrderSequenceFinished(TCSObjectReference<OrderSequence> ref) {
+    replaceObject(getObject(OrderSequence.class, ref).withFinished(true));
+  }
+
+  @Override
+  @Deprecated
+  public void registerTransportOrderRejection(TCSObjectReference<TransportOrder> ref,
+                                              org.opentcs.data.order.Rejection rejection) {
+    replaceObject(getObject(TransportOrder.class, ref).withRejection(rejection));
+  }
+
+  @Override
+  public void updateOrderSequenceFinishedIndex(TCSObjectReference<OrderSequence> ref, int index) {
+    replaceObject(getObject(OrderSequence.class, ref).withFinishedIndex(index));
+  }
+
+  @Override
+  public void updateOrderSequenceProcessingVehicle(TCSObjectReference<OrderSequence> seqRef,
+                                                   TCSObjectReference<Vehicle> vehicleRef) {
+    replaceObject(getObject(OrderSequence.class, seqRef).withProcessingVehicle(vehicleRef));
+  }
+
+  @Override
+  public void updateTransportOrderDriveOrders(TCSObjectReference<TransportOrder> ref,
+                                              List<DriveOrder> driveOrders) {
+    replaceObject(getObject(TransportOrder.class, ref).withDriveOrders(driveOrders));
+  }
+
+  @Override
+  public void updateTransportOrderNextDriveOrder(TCSObjectReference<TransportOrder> ref) {
+    TransportOrder order = getObject(TransportOrder.class, ref);
+    if (order.getCurrentDriveOrder() == null) {
+      return;
+    }
+    order = order.withCurrentDriveOrderState(DriveOrder.State.FINISHED);
+    order = order.withCurrentDriveOrderIndex(order.getCurrentDriveOrderIndex() + 1);
+    if (order.getCurrentDriveOrder() != null) {
+      order = order.withCurrentDriveOrderState(DriveOrder.State.TRAVELLING);
+    }
+    replaceObject(order);
+  }
+
+  @Override
+  public void updateTransportOrderProcessingVehicle(TCSObjectReference<TransportOrder> orderRef,
+                                                    TCSObjectReference<Vehicle> vehicleRef,
+                                                    List<DriveOrder> driveOrders) {
+    TransportOrder order = getObject(TransportOrder.class, orderRef);
+    if (vehicleRef == null) {
+      replaceObject(order.withProcessingVehicle(null));
+      return;
+    }
+    order = order.withProcessingVehicle(getObject(Vehicle.class, vehicleRef).getReference())
+        .withDriveOrders(driveOrders)
+        .withCurrentDriveOrderIndex(0);
+    if (order.getCurrentDriveOrder() != null) {
+      order = order.withCurrentDriveOrderState(DriveOrder.State.TRAVELLING);
+    }
+    replaceObject(order);
+  }
+
+  @Override
+  public void updateTransportOrderState(TCSObjectReference<TransportOrder> ref,
+                                        TransportOrder.State state) {
+    TransportOrder order = getObject(TransportOrder.class, ref).withState(state);
+    if (state.isFinalState()) {
+      order = order.withFinishedTime(Instant.now());
+    }
+    replaceObject(order);
+  }
+
+  @Override
+  public void attachCommAdapter(TCSObjectReference<Vehicle> ref,
+                                VehicleCommAdapterDescription description) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  public void disableCommAdapter(TCSObjectReference<Vehicle> ref) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  public void enableCommAdapter(TCSObjectReference<Vehicle> ref) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  public AttachmentInformation fetchAttachmentInformation(TCSObjectReference<Vehicle> ref) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  public VehicleProcessModelTO fetchProcessModel(TCSObjectReference<Vehicle> ref) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  public void sendCommAdapterCommand(TCSObjectReference<Vehicle> ref, AdapterCommand command) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  public void sendCommAdapterMessage(TCSObjectReference<Vehicle> ref, Object message) {
+    throw new UnsupportedOperationException("Not supported by this stand-in.");
+  }
+
+  @Override
+  public void updateVehicleIntegrationLevel(TCSObjectReference<Vehicle> ref,
+                                            Vehicle.IntegrationLevel integrationLevel) {
+    replaceObject(getObject(Vehicle.class, ref).withIntegrationLevel(integrationLevel));
+  }
+
+  @Override
+  @Deprecated
+  public void updateVehicleProcessableCategories(TCSObjectReference<Vehicle> ref,
+                                                 Set<String> processableCategories) {
+    replaceObject(getObject(Vehicle.class, ref).withProcessableCategories(processableCategories));
+  }
+
+  @Override
+  public void updateVehicleAllowedOrderTypes(TCSObjectReference<Vehicle> ref,
+                                             Set<String> allowedOrderTypes) {
+    replaceObject(getObject(Vehicle.class, ref).withAllowedOrderTypes(allowedOrderTypes));
+  }
+
+  @Override
+  public void updateVehicleEnergyLevel(TCSObjectReference<Vehicle> ref, int energyLevel) {
+    replaceObject(getObject(Vehicle.class, ref).withEnergyLevel(energyLevel));
+  }
+
+  @Override
+  public void updateVehicleLoadHandlingDevices(TCSObjectReference<Vehicle> ref,
+                                               List<LoadHandlingDevice> devices) {
+    replaceObject(getObject(Vehicle.class, ref).withLoadHandlingDevices(devices));
+  }
+
+  @Override
+  public void updateVehicleNextPosition(TCSObjectReference<Vehicle> vehicleRef,
+                                        TCSObjectReference<Point> pointRef) {
+    replaceObject(getObject(Vehicle.class, vehicleRef).withNextPosition(pointRef));
+  }
+
+  @Override
+  public void updateVehicleOrderSequence(TCSObjectReference<Vehicle> vehicleRef,
+                                         TCSObjectReference<OrderSequence> sequenceRef) {
+    replaceObject(getObject(Vehicle.class, vehicleRef).withOrderSequence(sequenceRef));
+  }
+
+  @Override
+  public void updateVehicleOrientationAngle(TCSObjectReference<Vehicle> ref, double angle) {
+    replaceObject(getObject(Vehicle.class, ref).withOrientationAngle(angle));
+  }
+
+  @Override
+  public void updateVehiclePosition(TCSObjectReference<Vehicle> vehicleRef,
+                                    TCSObjectReference<Point> pointRef) {
+    Vehicle vehicle = getObject(Vehicle.class, vehicleRef);
+    if (vehicle.getCurrentPosition() != null) {
+      Point oldPoint = getObject(Point.class, vehicle.getCurrentPosition());
+      replaceObject(oldPoint.withOccupyingVehicle(null));
+    }
+    if (pointRef != null) {
+      Point newPoint = getObject(Point.class, pointRef);
+      replaceObject(newPoint.withOccupyingVehicle(vehicleRef));
+    }
+    replaceObject(vehicle.withCurrentPosition(pointRef));
+  }
+
+  @Override
+  public void updateVehiclePrecisePosition(TCSObjectReference<Vehicle> ref, Triple position) {
+    replaceObject(getObject(Vehicle.class, ref).withPrecisePosition(position));
+  }
+
+  @Override
+  public void updateVehicleProcState(TCSObjectReference<Vehicle> ref, Vehicle.ProcState state) {
+    replaceObject(getObject(Vehicle.class, ref).withProcState(state));
+  }
+
+  @Override
+  public void updateVehicleRechargeOperation(TCSObjectReference<Vehicle> ref,
+                                             String rechargeOperation) {
+    replaceObject(getObject(Vehicle.class, ref).withRechargeOperation(rechargeOperation));
+  }
+
+  @Override
+  public void updateVehicleRouteProgressIndex(TCSObjectReference<Vehicle> ref, int index) {
+    replaceObject(getObject(Vehicle.class, ref).withRouteProgressIndex(index));
+  }
+
+  @Override
+  public void updateVehicleState(TCSObjectReference<Vehicle> ref, Vehicle.State state) {
+    replaceObject(getObject(Vehicle.class, ref).withState(state));
+  }
+
+  @Override
+  public void updateVehicleTransportOrder(TCSObjectReference<Vehicle> vehicleRef,
+                                          TCSObjectReference<TransportOrder> orderRef) {
+    replaceObject(getObject(Vehicle.class, vehicleRef).withTransportOrder(orderRef));
+  }
+
+  /**
+   * Returns the (mutable) map of objects of the given class.
+   *
+   * @param clazz The class.
+   * @return The map of objects of the given class.
+   */
+  private Map<String, TCSObject<?>> objectsOf(Class<?> clazz) {
+    return objects.computeIfAbsent(clazz, key -> new LinkedHashMap<>());
+  }
+
+  private <T extends TCSObject<T>> T getObject(Class<T> clazz, TCSObjectReference<T> ref)
+      throws ObjectUnknownException {
+    T object = fetchObject(clazz, ref);
+    if (object == null) {
+      throw new ObjectUnknownException(ref);
+    }
+    return object;
+  }
+
+  private TCSObject<?> getObject(TCSObjectReference<?> ref)
+      throws ObjectUnknownException {
+    TCSObject<?> object = objectsOf(ref.getReferentClass()).get(ref.getName());
+    if (object == null) {
+      throw new ObjectUnknownException(ref);
+    }
+    return object;
+  }
+
+  private void replaceRaw(TCSObject<?> previous, TCSObject<?> object) {
+    objectsOf(object.getClass()).put(object.getName(), object);
+    eventHandler.onEvent(new TCSObjectEvent(object, previous, TCSObjectEvent.Type.OBJECT_MODIFIED));
+  }
+
+  @Nullable
+  private TCSObjectReference<Vehicle> vehicleReference(@Nullable String vehicleName) {
+    if (vehicleName == null) {
+      return null;
+    }
+    Vehicle vehicle = fetchObject(Vehicle.class, vehicleName);
+    if (vehicle == null) {
+      throw new ObjectUnknownException(vehicleName);
+    }
+    return vehicle.getReference();
+  }
+
+  private String nextNameSuffix() {
+    nameCounter++;
+    return String.format("%07d", nameCounter);
+  }
+}
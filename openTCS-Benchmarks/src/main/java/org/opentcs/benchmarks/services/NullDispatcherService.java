@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.services;
+
+import org.opentcs.components.kernel.services.DispatcherService;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.TransportOrder;
+
+/**
+ * A dispatcher service that ignores all requests.
+ * Benchmarks trigger dispatch runs explicitly, so implicit triggers are not wanted.
+ */
+public class NullDispatcherService
+    implements DispatcherService {
+
+  /**
+   * Creates a new instance.
+   */
+  public NullDispatcherService() {
+  }
+
+  @Override
+  public void dispatch() {
+  }
+
+  @Override
+  @Deprecated
+  public void releaseVehicle(TCSObjectReference<Vehicle> ref) {
+  }
+
+  @Override
+  public void withdrawByVehicle(TCSObjectReference<Vehicle> ref, boolean immediateAbort) {
+  }
+
+  @Override
+  @Deprecated
+  public void withdrawByVehicle(TCSObjectReference<Vehicle> ref,
+                                boolean immediateAbort,
+                                boolean disableVehicle) {
+  }
+
+  @Override
+  public void withdrawByTransportOrder(TCSObjectReference<TransportOrder> ref,
+                                       boolean immediateAbort) {
+  }
+
+  @Override
+  @Deprecated
+  public void withdrawByTransportOrder(TCSObjectReference<TransportOrder> ref,
+                                       boolean immediateAbort,
+                                       boolean disableVehicle) {
+  }
+}
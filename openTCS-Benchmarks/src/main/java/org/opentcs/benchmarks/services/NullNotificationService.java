@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.opentcs.components.kernel.services.NotificationService;
+import org.opentcs.data.notification.UserNotification;
+
+/**
+ * A notification service that discards all notifications.
+ */
+public class NullNotificationService
+    implements NotificationService {
+
+  /**
+   * Creates a new instance.
+   */
+  public NullNotificationService() {
+  }
+
+  @Override
+  public List<UserNotification> fetchUserNotifications(Predicate<UserNotification> predicate) {
+    return new ArrayList<>();
+  }
+
+  @Override
+  public void publishUserNotification(UserNotification notification) {
+  }
+}
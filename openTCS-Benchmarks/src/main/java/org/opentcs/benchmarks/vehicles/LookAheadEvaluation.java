@@ -0,0 +1,499 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.vehicles;
+
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.kernel.vehicles.LookAheadWindow;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Evaluates how often vehicles have to slow down or stop for resource allocations with a fixed
+ * and with an adaptive look-ahead, by simulating a fleet of vehicles driving on a loop.
+ * <p>
+ * The loop consists of paths of random lengths and maximum velocities. Every vehicle processes one
+ * transport order after the other, each one leading to a random point a few points ahead, where
+ * the vehicle stops for an operation. Vehicles accelerate and decelerate uniformly and never drive
+ * beyond the points allocated for them, i.e. they brake in time to stop at the end of their
+ * allocated route. Allocations are answered after a round trip through the kernel, or as soon as
+ * the vehicle ahead releases the point requested.
+ * </p>
+ * <p>
+ * With a fixed look-ahead, resources are allocated for as many movement commands as a
+ * communication adapter with a command queue capacity of two accepts, i.e. one command ahead of
+ * the one being executed. With an adaptive look-ahead, resources are allocated as decided by the
+ * kernel's {@link LookAheadWindow}.
+ * </p>
+ */
+public class LookAheadEvaluation {
+
+  /**
+   * The seed for the random number generators.
+   */
+  private static final long SEED = 4711;
+  /**
+   * The time by which the simulation is advanced per step (in ms).
+   */
+  private static final long TIME_STEP = 50;
+  /**
+   * The duration of an operation at the end of a transport order (in ms).
+   */
+  private static final long OPERATION_DURATION = 10000;
+  /**
+   * The vehicles' maximum velocity (in mm/s).
+   */
+  private static final int MAX_VELOCITY = 2000;
+  /**
+   * The vehicles' acceleration (in mm/s²).
+   */
+  private static final int ACCELERATION = 500;
+  /**
+   * The vehicles' deceleration (in mm/s²).
+   */
+  private static final int DECELERATION = 500;
+  /**
+   * The command queue capacity of the vehicles' communication adapters with a fixed look-ahead.
+   */
+  private static final int COMMAND_QUEUE_CAPACITY = 2;
+  /**
+   * The maximum number of movement commands to allocate resources for in advance.
+   */
+  private static final int MAX_LOOK_AHEAD_COMMANDS = 5;
+  /**
+   * The waiting time for an allocation considered congestion (in ms).
+   */
+  private static final long CONGESTION_THRESHOLD = 1000;
+  /**
+   * The minimum number of points a transport order leads ahead.
+   */
+  private static final int MIN_ORDER_POINTS = 5;
+  /**
+   * The maximum number of points a transport order leads ahead.
+   */
+  private static final int MAX_ORDER_POINTS = 40;
+  /**
+   * The lengths of the paths leading from the point with the same index to the next one (in mm).
+   */
+  private final int[] pathLengths;
+  /**
+   * The maximum velocities on the paths leading from the point with the same index to the next
+   * one (in mm/s).
+   */
+  private final int[] pathVelocities;
+  /**
+   * The number of vehicles.
+   */
+  private final int vehicleCount;
+  /**
+   * The duration of an allocation's round trip through the kernel (in ms).
+   */
+  private final long allocationLatency;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param pointCount The number of points on the loop.
+   * @param vehicleCount The number of vehicles.
+   * @param allocationLatency The duration of an allocation's round trip through the kernel
+   * (in ms).
+   */
+  public LookAheadEvaluation(int pointCount, int vehicleCount, long allocationLatency) {
+    checkArgument(vehicleCount > 0, "vehicleCount <= 0");
+    checkArgument(pointCount > vehicleCount * (MAX_LOOK_AHEAD_COMMANDS + 1),
+                  "Too few points for %d vehicles",
+                  vehicleCount);
+    checkArgument(allocationLatency >= 0, "allocationLatency < 0");
+    this.vehicleCount = vehicleCount;
+    this.allocationLatency = allocationLatency;
+    this.pathLengths = new int[pointCount];
+    this.pathVelocities = new int[pointCount];
+
+    Random random = new Random(SEED);
+    for (int i = 0; i < pointCount; i++) {
+      pathLengths[i] = 1000 + random.nextInt(3001);
+      pathVelocities[i] = random.nextInt(4) == 0 ? 1000 : 2000;
+    }
+  }
+
+  /**
+   * Runs the evaluation with the given arguments:
+   * <code>[vehicleCount [pointCount [allocationLatency [hours]]]]</code>, defaulting to
+   * <code>10 200 300 1</code>.
+   *
+   * @param args The arguments.
+   */
+  public static void main(String[] args) {
+    int vehicleCount = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    int pointCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    long allocationLatency = args.length > 2 ? Long.parseLong(args[2]) : 300;
+    int hours = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+    LookAheadEvaluation evaluation
+        = new LookAheadEvaluation(pointCount, vehicleCount, allocationLatency);
+
+    System.out.println(String.format("%d points, %d vehicles, %d ms allocation latency, "
+        + "%d simulated hour(s)",
+                                     pointCount,
+                                     vehicleCount,
+                                     allocationLatency,
+                                     hours));
+    System.out.println(String.format("%-12s %12s %16s %12s %16s %14s",
+                                     "Look-ahead",
+                                     "Orders/hour",
+                                     "Slow-downs/hour",
+                                     "Stops/hour",
+                                     "Velocity (mm/s)",
+                                     "Points held"));
+    for (LookAhead lookAhead : LookAhead.values()) {
+      printResult(lookAhead, evaluation.simulate(lookAhead, TimeUnit.HOURS.toMillis(hours)));
+    }
+  }
+
+  /**
+   * Simulates the fleet processing transport orders for the given duration.
+   *
+   * @param lookAhead The kind of look-ahead.
+   * @param duration The simulated duration (in ms).
+   * @return The result of the simulation.
+   */
+  public Result simulate(LookAhead lookAhead, long duration) {
+    requireNonNull(lookAhead, "lookAhead");
+
+    return new Simulation(lookAhead).run(duration);
+  }
+
+  private static void printResult(LookAhead lookAhead, Result result) {
+    double hours = result.getDuration() / 3600000.0;
+    System.out.println(String.format("%-12s %12.1f %16.1f %12.1f %16.1f %14.2f",
+                                     lookAhead,
+                                     result.getCompletedOrders() / hours,
+                                     result.getSlowDowns() / hours,
+                                     result.getStops() / hours,
+                                     result.getMeanVelocity(),
+                                     result.getMeanPointsHeld()));
+  }
+
+  /**
+   * The kinds of look-ahead evaluated.
+   */
+  public enum LookAhead {
+    /**
+     * Resources are allocated for one movement command ahead of the one being executed.
+     */
+    FIXED,
+    /**
+     * Resources are allocated as decided by a {@link LookAheadWindow}.
+     */
+    ADAPTIVE;
+  }
+
+  /**
+   * The result of a simulation.
+   */
+  public static class Result {
+
+    private final long duration;
+    private final int completedOrders;
+    private final int slowDowns;
+    private final int stops;
+    private final double meanVelocity;
+    private final double meanPointsHeld;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param duration The simulated duration (in ms).
+     * @param completedOrders The number of transport orders completed.
+     * @param slowDowns The number of times vehicles had to brake for the end of their allocated
+     * route before reaching their destination.
+     * @param stops The number of times vehicles came to a stop before reaching their destination.
+     * @param meanVelocity The vehicles' mean velocity (in mm/s).
+     * @param meanPointsHeld The mean number of points allocated per vehicle.
+     */
+    public Result(long duration,
+                  int completedOrders,
+                  int slowDowns,
+                  int stops,
+                  double meanVelocity,
+                  double meanPointsHeld) {
+      this.duration = duration;
+      this.completedOrders = completedOrders;
+      this.slowDowns = slowDowns;
+      this.stops = stops;
+      this.meanVelocity = meanVelocity;
+      this.meanPointsHeld = meanPointsHeld;
+    }
+
+    public long getDuration() {
+      return duration;
+    }
+
+    public int getCompletedOrders() {
+      return completedOrders;
+    }
+
+    public int getSlowDowns() {
+      return slowDowns;
+    }
+
+    public int getStops() {
+      return stops;
+    }
+
+    public double getMeanVelocity() {
+      return meanVelocity;
+    }
+
+    public double getMeanPointsHeld() {
+      return meanPointsHeld;
+    }
+  }
+
+  /**
+   * A single run of the simulation.
+   */
+  private class Simulation {
+
+    /**
+     * The kind of look-ahead.
+     */
+    private final LookAhead lookAhead;
+    /**
+     * The simulated vehicles.
+     */
+    private final List<SimulatedVehicle> vehicles = new ArrayList<>();
+    /**
+     * The vehicles the points are allocated for, by point index.
+     */
+    private final SimulatedVehicle[] holders = new SimulatedVehicle[pathLengths.length];
+    private int completedOrders;
+    private int slowDowns;
+    private int stops;
+    private double totalDistance;
+    private long totalPointsHeld;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param lookAhead The kind of look-ahead.
+     */
+    Simulation(LookAhead lookAhead) {
+      this.lookAhead = lookAhead;
+    }
+
+    Result run(long duration) {
+      for (int i = 0; i < vehicleCount; i++) {
+        SimulatedVehicle vehicle
+            = new SimulatedVehicle(i * pathLengths.length / vehicleCount,
+                                   new Random(SEED + i),
+                                   new LookAheadWindow(DECELERATION,
+                                                       MAX_LOOK_AHEAD_COMMANDS,
+                                                       CONGESTION_THRESHOLD));
+        vehicles.add(vehicle);
+        holders[vehicle.position] = vehicle;
+      }
+
+      long steps = 0;
+      for (long now = 0; now < duration; now += TIME_STEP) {
+        grantAllocations(now);
+        for (SimulatedVehicle vehicle : vehicles) {
+          step(vehicle, now);
+          totalPointsHeld += vehicle.allocated + 1;
+        }
+        steps++;
+      }
+
+      double seconds = duration / 1000.0;
+      return new Result(duration,
+                        completedOrders,
+                        slowDowns,
+                        stops,
+                        totalDistance / seconds / vehicleCount,
+                        (double) totalPointsHeld / steps / vehicleCount);
+    }
+
+    /**
+     * Lets the scheduler grant the allocations that reached it, if the points requested are free.
+     * The vehicles learn about a granted allocation half a round trip later.
+     *
+     * @param now The current simulation time.
+     */
+    private void grantAllocations(long now) {
+      for (SimulatedVehicle vehicle : vehicles) {
+        if (vehicle.requestedPoint >= 0
+            && vehicle.grantTime < 0
+            && now >= vehicle.requestTime + allocationLatency / 2
+            && holders[vehicle.requestedPoint] == null) {
+          holders[vehicle.requestedPoint] = vehicle;
+          vehicle.grantTime = now + allocationLatency - allocationLatency / 2;
+        }
+      }
+    }
+
+    private void step(SimulatedVehicle vehicle, long now) {
+      if (vehicle.requestedPoint >= 0 && vehicle.grantTime >= 0 && now >= vehicle.grantTime) {
+        vehicle.allocated++;
+        vehicle.requestedPoint = -1;
+        vehicle.window.allocationGranted(vehicle.grantTime - vehicle.requestTime);
+      }
+
+      if (vehicle.remaining == 0) {
+        if (now < vehicle.operationEnd) {
+          return;
+        }
+        vehicle.remaining = MIN_ORDER_POINTS
+            + vehicle.random.nextInt(MAX_ORDER_POINTS - MIN_ORDER_POINTS + 1);
+      }
+
+      if (vehicle.requestedPoint < 0
+          && vehicle.allocated < vehicle.remaining
+          && isAllocationNeeded(vehicle)) {
+        vehicle.requestedPoint = pointAhead(vehicle, vehicle.allocated + 1);
+        vehicle.requestTime = now;
+        vehicle.grantTime = -1;
+      }
+
+      move(vehicle, now);
+    }
+
+    private boolean isAllocationNeeded(SimulatedVehicle vehicle) {
+      if (lookAhead == LookAhead.FIXED) {
+        return vehicle.allocated < COMMAND_QUEUE_CAPACITY;
+      }
+
+      // Mirror the vehicle controller: Consider the commands following the current one, and the
+      // velocity the vehicle is about to accelerate to, if it is standing still.
+      long distanceAhead = 0;
+      for (int i = 1; i < vehicle.allocated; i++) {
+        distanceAhead += pathLengths[pointAhead(vehicle, i)];
+      }
+      double velocity = vehicle.velocity > 0
+          ? vehicle.velocity
+          : Math.min(MAX_VELOCITY, pathVelocities[vehicle.position]);
+      return vehicle.window.isAllocationNeeded((long) velocity, vehicle.allocated, distanceAhead);
+    }
+
+    private void move(SimulatedVehicle vehicle, long now) {
+      double endDistance = -vehicle.offset;
+      for (int i = 0; i < vehicle.allocated; i++) {
+        endDistance += pathLengths[pointAhead(vehicle, i)];
+      }
+      endDistance = Math.max(0, endDistance);
+
+      double dt = TIME_STEP / 1000.0;
+      double unboundVelocity = Math.min(vehicle.velocity + ACCELERATION * dt,
+                                        Math.min(MAX_VELOCITY, pathVelocities[vehicle.position]));
+      double stoppingVelocity = Math.sqrt(2.0 * DECELERATION * endDistance);
+      double velocity = Math.min(unboundVelocity, stoppingVelocity);
+
+      // Count braking for the end of the allocated route only if it is not the destination.
+      boolean braking = stoppingVelocity < unboundVelocity
+          && vehicle.allocated < vehicle.remaining;
+      if (braking && !vehicle.braking) {
+        slowDowns++;
+      }
+      vehicle.braking = braking;
+      if (velocity == 0 && vehicle.velocity > 0 && vehicle.allocated < vehicle.remaining) {
+        stops++;
+      }
+
+      vehicle.velocity = velocity;
+      double distance = Math.min(velocity * dt, endDistance);
+      vehicle.offset += distance;
+      totalDistance += distance;
+      while (vehicle.allocated > 0 && vehicle.offset >= pathLengths[vehicle.position]) {
+        vehicle.offset -= pathLengths[vehicle.position];
+        arrive(vehicle, now);
+      }
+    }
+
+    private void arrive(SimulatedVehicle vehicle, long now) {
+      // The point left is released as soon as the vehicle arrives at the next one.
+      holders[vehicle.position] = null;
+      vehicle.position = pointAhead(vehicle, 1);
+      vehicle.allocated--;
+      vehicle.remaining--;
+      if (vehicle.remaining == 0) {
+        vehicle.offset = 0;
+        vehicle.velocity = 0;
+        vehicle.braking = false;
+        vehicle.operationEnd = now + OPERATION_DURATION;
+        completedOrders++;
+      }
+    }
+
+    private int pointAhead(SimulatedVehicle vehicle, int count) {
+      return (vehicle.position + count) % pathLengths.length;
+    }
+  }
+
+  /**
+   * A simulated vehicle.
+   */
+  private static class SimulatedVehicle {
+
+    /**
+     * The random number generator for the vehicle's transport orders.
+     */
+    private final Random random;
+    /**
+     * Decides for how many movement commands resources are allocated in advance, if adaptive.
+     */
+    private final LookAheadWindow window;
+    /**
+     * The index of the last point the vehicle arrived at.
+     */
+    private int position;
+    /**
+     * The distance travelled since the vehicle left its position (in mm).
+     */
+    private double offset;
+    /**
+     * The vehicle's velocity (in mm/s).
+     */
+    private double velocity;
+    /**
+     * Whether the vehicle is braking for the end of its allocated route.
+     */
+    private boolean braking;
+    /**
+     * The number of points ahead allocated for the vehicle.
+     */
+    private int allocated;
+    /**
+     * The number of points ahead up to the destination of the current transport order.
+     */
+    private int remaining;
+    /**
+     * The point of time at which the current operation ends.
+     */
+    private long operationEnd;
+    /**
+     * The index of the point requested, or -1.
+     */
+    private int requestedPoint = -1;
+    /**
+     * The point of time at which the pending allocation was requested.
+     */
+    private long requestTime;
+    /**
+     * The point of time at which the vehicle learns about the pending allocation being granted, or
+     * -1.
+     */
+    private long grantTime = -1;
+
+    SimulatedVehicle(int position, Random random, LookAheadWindow window) {
+      this.position = position;
+      this.random = random;
+      this.window = window;
+    }
+  }
+}
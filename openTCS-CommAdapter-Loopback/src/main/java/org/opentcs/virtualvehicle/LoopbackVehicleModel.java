@@ -257,6 +257,7 @@ public class LoopbackVehicleModel
     getPropertyChangeSupport().firePropertyChange(Attribute.VELOCITY_HISTORY.name(),
                                                   null,
                                                   velocityHistory);
+    setVehicleVelocity(velocityValue);
   }
 
   private int parseOperatingTime(Vehicle vehicle) {
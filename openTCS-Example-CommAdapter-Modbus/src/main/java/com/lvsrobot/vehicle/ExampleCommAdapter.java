@@ -66,6 +66,14 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
      * The time by which to advance the velocity controller per step (in ms).
      */
     private static final int ADVANCE_TIME = 100;
+    /**
+     * 估算制动距离时采用的车辆减速度（mm/s^2）。
+     */
+    private static final double BRAKING_DECELERATION = 500.0;
+    /**
+     * 暂停后车辆与最后一个已授权点之间保留的距离（mm），须小于判定到达点位的距离。
+     */
+    private static final double STOP_MARGIN = 100.0;
     /**
      * The adapter components factory.
      */
@@ -108,6 +116,32 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
 
     private MovementCommand previousCommand;
 
+    /**
+     * 内核已为其分配资源的最后一步的路径序号，车辆不得驶过该步的终点。
+     * 内核未启用路径流式下发时不会更新此值，车辆不受限制。
+     */
+    private volatile int grantedRouteIndex = Integer.MAX_VALUE;
+
+    /**
+     * 车辆在当前路径中最近到达的步骤序号。
+     */
+    private int reachedRouteIndex = Vehicle.ROUTE_INDEX_DEFAULT;
+
+    /**
+     * 车辆是否因前方步骤尚未授权而须暂停。
+     */
+    private boolean pausedForGrant;
+
+    /**
+     * 车辆是否被操作员暂停。
+     */
+    private boolean pausedByOperator;
+
+    /**
+     * 是否已向车辆发送暂停指令且尚未恢复。
+     */
+    private boolean pathPaused;
+
 //    private
 
 //    private  sendDriverOrder;
@@ -215,11 +249,20 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
         PublishEventCommand publishCommand = (PublishEventCommand) command;
         switch (publishCommand.getEventAppendix().toString()) {
             case "pausePath":
-                agv.pausePath();
+                synchronized (this) {
+                    pausedByOperator = true;
+                    updatePathPause();
+                }
                 getProcessModel().publishUserNotification(new UserNotification("send pause path command to vehicle", UserNotification.Level.INFORMATIONAL));
                 break;
             case "resumePath":
-                agv.resumePath();
+                synchronized (this) {
+                    pausedByOperator = false;
+                    // 执行路径时由仿真任务在下一周期重新检查授权后恢复，以免车辆驶入未授权的步骤
+                    if (sendDriveOrder == null) {
+                        updatePathPause();
+                    }
+                }
                 getProcessModel().publishUserNotification(new UserNotification("send resume path command to vehicle", UserNotification.Level.INFORMATIONAL));
                 break;
             case "abortPath":
@@ -375,6 +418,35 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
         agv.abortPath();
    }
 
+    @Override
+    public boolean isRouteStreamingSupported() {
+        // 整条路径一次性写入车辆，通过暂停/恢复路径将车辆限制在已授权的步骤内
+        return true;
+    }
+
+    @Override
+    public void updateGrantedRouteIndex(int routeIndex) {
+        grantedRouteIndex = routeIndex;
+    }
+
+    /**
+     * 根据操作员暂停和授权限制暂停或恢复车辆路径，二者均不再限制车辆时才恢复。
+     */
+    private synchronized void updatePathPause() {
+        boolean pause = pausedByOperator || pausedForGrant;
+        if (pause && !pathPaused) {
+            if (agv.pausePath()) {
+                pathPaused = true;
+                LOG.info("pause path at route index {}, granted: {}, by operator: {}", reachedRouteIndex, grantedRouteIndex, pausedByOperator);
+            }
+        } else if (!pause && pathPaused) {
+            if (agv.resumePath()) {
+                pathPaused = false;
+                LOG.info("resume path at route index {}, granted: {}", reachedRouteIndex, grantedRouteIndex);
+            }
+        }
+    }
+
     private class VehicleSimulationTask extends CyclicTask {
         private int simAdvanceTime;
 
@@ -438,6 +510,10 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
                     LOG.info("abort path :{}", currentDriveOrder.getRoute());
                     getProcessModel().publishUserNotification(new UserNotification(MessageFormatter.format("abort path to vehicle: {}", currentDriveOrder.getRoute()).getMessage(), UserNotification.Level.INFORMATIONAL));
                     agv.abortPath();
+                    synchronized (ExampleCommAdapter.this) {
+                        pausedForGrant = false;
+                        pathPaused = false;
+                    }
                     sendDriveOrder = null;
                     curCommand = null;
                     currentCommand = null;
@@ -459,12 +535,33 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
                     LOG.debug("Processing MovementCommand...");
 //                    final Route.Step curStep = curCommand.getStep();
                     if (sendDriveOrder != getcurrentDriveOrder()) {
-                        configRoute.setRoute(getcurrentDriveOrder());
-                        int[] path = configRoute.getPath(agvInfo.getPrecisePosition());
-                        if (agv.sendPath(path) != true) {
+                        if (grantedRouteIndex < 0) {
+                            // 第一步尚未授权，暂不下发路径，避免车辆在获得资源前启动
+                            Thread.sleep(200);
                             return;
                         }
-                        sendDriveOrder = getcurrentDriveOrder();
+                        DriveOrder driveOrder = getcurrentDriveOrder();
+                        // 换路时按车辆当前所在点确定其在新路径中的进度，并在新路径下发前重新检查授权限制
+                        int routeIndex = currentPoint == null
+                                ? Vehicle.ROUTE_INDEX_DEFAULT
+                                : routeIndexOf(driveOrder, currentPoint, Vehicle.ROUTE_INDEX_DEFAULT);
+                        boolean heldForGrant = isHeldForGrant(driveOrder, routeIndex, agvInfo);
+                        configRoute.setRoute(driveOrder);
+                        int[] path = configRoute.getPath(agvInfo.getPrecisePosition());
+                        synchronized (ExampleCommAdapter.this) {
+                            pausedForGrant = heldForGrant;
+                            updatePathPause();
+                            if (agv.sendPath(path) != true) {
+                                return;
+                            }
+                            if (pathPaused) {
+                                // 车辆收到新路径后不一定保持暂停，重新发送暂停指令
+                                pathPaused = false;
+                                updatePathPause();
+                            }
+                        }
+                        sendDriveOrder = driveOrder;
+                        reachedRouteIndex = routeIndex;
                         LOG.info("send path to vehicle : {}", path);
 //                        MessageFormatter.format(format, arg).getMessage()
 //                        UserNotification notif = new UserNotification(MessageFormatter.format("send path to vehicle: {}", path).getMessage(), UserNotification.Level.INFORMATIONAL);
@@ -484,6 +581,7 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
                     }
                     if (p != null && p != pathStartPosition && p != currentPoint) {
                         currentPoint = p;
+                        reachedRouteIndex = routeIndexOf(sendDriveOrder, p, reachedRouteIndex);
 //                        if( currentPoint == p)
                         getProcessModel().setVehiclePosition(p.getName());
                         if (getSentQueue().size() == 0) {
@@ -505,6 +603,7 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
                             curCommand = null;
                         }
                     }
+                    restrictToGrantedSteps(agvInfo);
                     // Simulate the movement.
 //                    simulateMovement(curStep);
 //                    if
@@ -544,6 +643,44 @@ public class ExampleCommAdapter extends BasicVehicleCommAdapter {
             }
         }
 
+        /**
+         * 按已授权的步骤限制车辆：须暂停时暂停路径，内核授权后续步骤后恢复。
+         */
+        private void restrictToGrantedSteps(AgvInfo agvInfo) {
+            synchronized (ExampleCommAdapter.this) {
+                pausedForGrant = isHeldForGrant(sendDriveOrder, reachedRouteIndex, agvInfo);
+                updatePathPause();
+            }
+        }
+
+        /**
+         * 车辆驶入最后一个已授权步骤后，一旦与该步终点的距离不超过制动距离加预留距离即须暂停，
+         * 使车辆停在已授权的资源内。
+         */
+        private boolean isHeldForGrant(DriveOrder driveOrder, int routeIndex, AgvInfo agvInfo) {
+            List<Step> steps = driveOrder.getRoute().getSteps();
+            int lastRouteIndex = steps.size() - 1;
+            if (grantedRouteIndex >= lastRouteIndex || routeIndex < grantedRouteIndex - 1) {
+                return false;
+            } else if (routeIndex >= grantedRouteIndex) {
+                return true;
+            }
+            Triple grantedEnd = steps.get(grantedRouteIndex).getDestinationPoint().getPosition();
+            Triple position = agvInfo.getPrecisePosition();
+            double distance = Math.hypot(grantedEnd.getX() - position.getX(), grantedEnd.getY() - position.getY());
+            double speed = Math.abs(agvInfo.getSpeed());
+            double brakingDistance = speed * speed / (2 * BRAKING_DECELERATION);
+            return distance <= brakingDistance + STOP_MARGIN;
+        }
+
+        private int routeIndexOf(DriveOrder driveOrder, Point point, int defaultIndex) {
+            return driveOrder.getRoute().getSteps().stream()
+                    .filter(step -> step.getDestinationPoint().equals(point))
+                    .mapToInt(Step::getRouteIndex)
+                    .findFirst()
+                    .orElse(defaultIndex);
+        }
+
         private void simulateMovement(Step step) throws Exception {
             if (step.getPath() == null) {
                 return;
@@ -105,6 +105,7 @@ public class V1RequestHandler
         service.get("/events", this::handleGetEvents);
         service.put("/vehicles/:NAME/integrationLevel", this::handlePutVehicleIntegrationLevel);
         service.post("/vehicles/:NAME/withdrawal", this::handlePostWithdrawalByVehicle);
+        service.get("/vehicles/:NAME/commandLatencies", this::handleGetCommandLatencies);
         service.get("/vehicles/:NAME", this::handleGetVehicleByName);
         service.get("/vehiclesbrief/:NAME", this::handleGetVehicleBriefByName);
         service.get("/vehicles", this::handleGetVehicles);
@@ -123,6 +124,7 @@ public class V1RequestHandler
         service.get("/vehicledetailsbrief", this::handleGetVehicleDetailsBrief);
         service.post("/command/:NAME", this::handlePostCommandByVehicle);
         service.get("/mapbrief", this::handleGetMapBrief);
+        service.get("/scheduler/hotResources", this::handleGetHotResources);
     }
 
     private Object handlePostCommandByVehicle(Request request, Response response) throws IllegalArgumentException, IllegalStateException {
@@ -183,6 +185,11 @@ public class V1RequestHandler
         return toJson(statusInformationProvider.getPaths());
     }
 
+    private Object handleGetHotResources(Request request, Response response) throws IllegalArgumentException, IllegalStateException {
+        response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
+        return toJson(statusInformationProvider.getHotResources(count(request)));
+    }
+
     private Object handleGetEvents(Request request, Response response) throws IllegalArgumentException, IllegalStateException {
         response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
         return toJson(statusEventDispatcher.fetchEvents(minSequenceNo(request), maxSequenceNo(request), timeout(request)));
@@ -240,6 +247,12 @@ public class V1RequestHandler
         response.type(HttpConstants.CONTENT_TYPE_TEXT_PLAIN_UTF8);
         return toJson(statusInformationProvider.getVehicleStateByName(request.params(":NAME")));
     }
+
+    private Object handleGetCommandLatencies(Request request, Response response) throws ObjectUnknownException {
+        response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
+        return toJson(statusInformationProvider.getCommandLatencies(request.params(":NAME")));
+    }
+
     private Object handleGetVehicleBriefByName(Request request, Response response) throws ObjectUnknownException {
         response.type(HttpConstants.CONTENT_TYPE_TEXT_PLAIN_UTF8);
         VehicleState vehicle = statusInformationProvider.getVehicleStateByName(request.params(":NAME"));
@@ -304,6 +317,19 @@ public class V1RequestHandler
         }
     }
 
+    private int count(Request request) throws IllegalArgumentException {
+        String param = request.queryParamOrDefault("count", "10");
+        try {
+            int count = Integer.parseInt(param);
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count: " + param);
+            }
+            return count;
+        } catch (NumberFormatException exc) {
+            throw new IllegalArgumentException("Malformed count: " + param);
+        }
+    }
+
     private boolean immediate(Request request) {
         return Boolean.parseBoolean(request.queryParamOrDefault("immediate", "false"));
     }
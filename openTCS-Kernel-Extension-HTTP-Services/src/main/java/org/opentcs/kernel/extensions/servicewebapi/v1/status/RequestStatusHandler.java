@@ -17,6 +17,9 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import org.opentcs.access.CommandStageLatency;
+import org.opentcs.access.ResourceContention;
+import org.opentcs.components.kernel.services.SchedulerService;
 import org.opentcs.components.kernel.services.TCSObjectService;
 import org.opentcs.components.kernel.services.TransportOrderService;
 import org.opentcs.components.kernel.services.VehicleService;
@@ -54,6 +57,10 @@ public class RequestStatusHandler {
     private final ExecutorService kernelExecutor;
 
     private final TCSObjectService objectService;
+    /**
+     * Provides the scheduler's contention statistics.
+     */
+    private final SchedulerService schedulerService;
 
     /**
      * Creates a new instance.
@@ -61,13 +68,16 @@ public class RequestStatusHandler {
      * @param orderService   The service we use to get the transport orders.
      * @param vehicleService Used to update vehicle instances.
      * @param kernelExecutor The kernel's executor service.
+     * @param objectService The service we use to fetch model elements.
+     * @param schedulerService Provides the scheduler's contention statistics.
      */
     @Inject
-    public RequestStatusHandler(TransportOrderService orderService, VehicleService vehicleService, @KernelExecutor ExecutorService kernelExecutor, @Nonnull TCSObjectService objectService) {
+    public RequestStatusHandler(TransportOrderService orderService, VehicleService vehicleService, @KernelExecutor ExecutorService kernelExecutor, @Nonnull TCSObjectService objectService, @Nonnull SchedulerService schedulerService) {
         this.orderService = requireNonNull(orderService, "orderService");
         this.vehicleService = requireNonNull(vehicleService, "vehicleService");
         this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
         this.objectService = requireNonNull(objectService, "objectService");
+        this.schedulerService = requireNonNull(schedulerService, "schedulerService");
     }
 
     public List<Point> getPoints() {
@@ -82,6 +92,36 @@ public class RequestStatusHandler {
         return objectService.fetchObjects(Path.class).stream().collect(Collectors.toList());
     }
 
+    /**
+     * Returns the resources allocations had to wait for most.
+     *
+     * @param count The maximum number of resources to return.
+     * @return The resources allocations had to wait for most, in descending order of their total
+     * waiting time.
+     */
+    public List<ResourceContention> getHotResources(int count) {
+        return schedulerService.fetchHotResources(count);
+    }
+
+    /**
+     * Returns how long the movement commands executed by the given vehicle spent in each stage of
+     * their processing.
+     *
+     * @param name The name of the vehicle.
+     * @return The latencies of the vehicle's movement commands, one per stage.
+     * @throws ObjectUnknownException If a vehicle with the given name does not exist.
+     */
+    public List<CommandStageLatency> getCommandLatencies(String name) throws ObjectUnknownException {
+        requireNonNull(name, "name");
+
+        Vehicle vehicle = vehicleService.fetchObject(Vehicle.class, name);
+        if (vehicle == null) {
+            throw new ObjectUnknownException("Unknown vehicle: " + name);
+        }
+
+        return vehicleService.fetchCommandLatencies(vehicle.getReference());
+    }
+
     public List<DriveOrder> getDriverOrder() {
 //        Vehicle vehicle = orderService.fetchObjects(Vehicle.class, )
         return orderService.fetchObjects(TransportOrder.class).stream().map(order -> order.getCurrentDriveOrder()).collect(Collectors.toList());
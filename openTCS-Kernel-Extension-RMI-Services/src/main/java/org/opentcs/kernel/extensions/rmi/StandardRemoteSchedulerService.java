@@ -11,8 +11,10 @@ import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
+import org.opentcs.access.ResourceContention;
 import org.opentcs.access.SchedulerAllocationState;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.access.rmi.factories.SocketFactoryProvider;
@@ -146,4 +148,11 @@ public class StandardRemoteSchedulerService
 
     return schedulerService.fetchSchedulerAllocations();
   }
+
+  @Override
+  public List<ResourceContention> fetchHotResources(ClientID clientId, int count) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return schedulerService.fetchHotResources(count);
+  }
 }
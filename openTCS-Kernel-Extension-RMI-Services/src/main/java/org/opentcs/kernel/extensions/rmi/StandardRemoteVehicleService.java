@@ -11,11 +11,13 @@ import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import javax.inject.Inject;
+import org.opentcs.access.CommandStageLatency;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.access.rmi.factories.SocketFactoryProvider;
 import org.opentcs.access.rmi.services.RegistrationName;
@@ -278,4 +280,12 @@ public class StandardRemoteVehicleService
       throw findSuitableExceptionFor(exc);
     }
   }
+
+  @Override
+  public List<CommandStageLatency> fetchCommandLatencies(ClientID clientId,
+                                                         TCSObjectReference<Vehicle> ref) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return vehicleService.fetchCommandLatencies(ref);
+  }
 }
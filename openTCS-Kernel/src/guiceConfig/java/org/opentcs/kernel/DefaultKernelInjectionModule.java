@@ -52,6 +52,7 @@ import org.opentcs.kernel.services.StandardVehicleService;
 import org.opentcs.kernel.vehicles.DefaultVehicleControllerPool;
 import org.opentcs.kernel.vehicles.LocalVehicleControllerPool;
 import org.opentcs.kernel.vehicles.VehicleCommAdapterRegistry;
+import org.opentcs.kernel.vehicles.VehicleControllerConfiguration;
 import org.opentcs.kernel.vehicles.VehicleControllerFactory;
 import org.opentcs.kernel.workingset.Model;
 import org.opentcs.kernel.workingset.NotificationBuffer;
@@ -159,6 +160,10 @@ public class DefaultKernelInjectionModule
   private void configureVehicleControllers() {
     install(new FactoryModuleBuilder().build(VehicleControllerFactory.class));
 
+    bind(VehicleControllerConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(VehicleControllerConfiguration.PREFIX,
+                                                   VehicleControllerConfiguration.class));
+
     bind(DefaultVehicleControllerPool.class)
         .in(Singleton.class);
     bind(VehicleControllerPool.class)
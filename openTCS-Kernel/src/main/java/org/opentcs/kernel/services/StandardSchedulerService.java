@@ -7,8 +7,10 @@
  */
 package org.opentcs.kernel.services;
 
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
+import org.opentcs.access.ResourceContention;
 import org.opentcs.access.SchedulerAllocationState;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.SchedulerService;
@@ -50,4 +52,9 @@ public class StandardSchedulerService
       return new SchedulerAllocationState(scheduler.getAllocations());
     }
   }
+
+  @Override
+  public List<ResourceContention> fetchHotResources(int count) {
+    return scheduler.getHotResources(count);
+  }
 }
@@ -11,6 +11,7 @@ import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import javax.inject.Inject;
+import org.opentcs.access.CommandStageLatency;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.components.kernel.services.InternalVehicleService;
 import org.opentcs.components.kernel.services.TCSObjectService;
@@ -329,4 +330,19 @@ public class StandardVehicleService
       model.setVehicleAllowedOrderTypes(ref, allowedOrderTypes);
     }
   }
+
+  @Override
+  public List<CommandStageLatency> fetchCommandLatencies(TCSObjectReference<Vehicle> ref)
+      throws ObjectUnknownException {
+    synchronized (globalSyncObject) {
+      Vehicle vehicle = fetchObject(Vehicle.class, ref);
+      if (vehicle == null) {
+        throw new ObjectUnknownException(ref);
+      }
+
+      return vehicleControllerPool
+          .getVehicleController(vehicle.getName())
+          .getCommandLatencies();
+    }
+  }
 }
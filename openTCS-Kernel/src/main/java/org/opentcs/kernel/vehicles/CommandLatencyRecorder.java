@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.opentcs.access.CommandStageLatency;
+import org.opentcs.drivers.vehicle.MovementCommand;
+
+/**
+ * Records how long a vehicle's movement commands spend in each stage of their processing and
+ * aggregates the durations in a histogram per stage.
+ * <p>
+ * A command's trace is started when it is created for a drive order and completed when the vehicle
+ * reports it as executed. Stages whose start or end has not been recorded for a command, e.g.
+ * because the communication adapter does not report sent commands, are skipped for it.
+ * </p>
+ */
+public class CommandLatencyRecorder {
+
+  /**
+   * The upper bounds of the histograms' buckets (in ms).
+   */
+  private static final List<Long> BUCKET_UPPER_BOUNDS
+      = Arrays.asList(10L, 20L, 50L, 100L, 200L, 500L, 1000L, 2000L, 5000L, 10000L, 20000L, 50000L);
+  /**
+   * The traces of the commands that have not been executed, yet, by command.
+   */
+  private final Map<MovementCommand, Trace> traces = new IdentityHashMap<>();
+  /**
+   * The histograms, by stage.
+   */
+  private final Map<Stage, Histogram> histograms = new EnumMap<>(Stage.class);
+
+  /**
+   * Creates a new instance.
+   */
+  public CommandLatencyRecorder() {
+    for (Stage stage : Stage.values()) {
+      histograms.put(stage, new Histogram());
+    }
+  }
+
+  /**
+   * Records the creation of a command for a drive order.
+   *
+   * @param command The command.
+   * @param time The point of time (in ms).
+   */
+  public synchronized void commandCreated(@Nonnull MovementCommand command, long time) {
+    requireNonNull(command, "command");
+
+    traces.computeIfAbsent(command, cmd -> new Trace()).created = time;
+  }
+
+  /**
+   * Records the request of the resources for a command.
+   *
+   * @param command The command.
+   * @param time The point of time (in ms).
+   */
+  public synchronized void allocationRequested(@Nonnull MovementCommand command, long time) {
+    Trace trace = traces.get(requireNonNull(command, "command"));
+    if (trace != null && trace.allocationRequested == 0) {
+      trace.allocationRequested = time;
+    }
+  }
+
+  /**
+   * Records the allocation of the resources for a command.
+   *
+   * @param command The command.
+   * @param time The point of time (in ms).
+   */
+  public synchronized void allocationGranted(@Nonnull MovementCommand command, long time) {
+    Trace trace = traces.get(requireNonNull(command, "command"));
+    if (trace != null) {
+      trace.allocationGranted = time;
+    }
+  }
+
+  /**
+   * Records the enqueuing of a command with the communication adapter.
+   *
+   * @param command The command.
+   * @param time The point of time (in ms).
+   */
+  public synchronized void commandEnqueued(@Nonnull MovementCommand command, long time) {
+    Trace trace = traces.get(requireNonNull(command, "command"));
+    if (trace != null && trace.enqueued == 0) {
+      trace.enqueued = time;
+    }
+  }
+
+  /**
+   * Records the sending of a command to the vehicle by the communication adapter.
+   *
+   * @param command The command.
+   * @param time The point of time (in ms).
+   */
+  public synchronized void commandSent(@Nonnull MovementCommand command, long time) {
+    Trace trace = traces.get(requireNonNull(command, "command"));
+    if (trace != null && trace.sent == 0) {
+      trace.sent = time;
+    }
+  }
+
+  /**
+   * Records the execution of a command and adds the durations of its stages to the histograms.
+   *
+   * @param command The command.
+   * @param time The point of time (in ms).
+   */
+  public synchronized void commandExecuted(@Nonnull MovementCommand command, long time) {
+    Trace trace = traces.remove(requireNonNull(command, "command"));
+    if (trace == null) {
+      return;
+    }
+
+    record(Stage.QUEUED, trace.created, trace.allocationRequested);
+    record(Stage.ALLOCATION, trace.allocationRequested, trace.allocationGranted);
+    record(Stage.ALLOCATED, trace.allocationGranted, trace.enqueued);
+    record(Stage.ADAPTER_QUEUE, trace.enqueued, trace.sent);
+    // A streamed command may be sent before its resources are allocated.
+    record(Stage.EXECUTION, Math.max(trace.sent, trace.allocationGranted), time);
+    record(Stage.TOTAL, trace.created, time);
+  }
+
+  /**
+   * Discards the traces of all commands except the given ones, e.g. because the other commands
+   * have been discarded.
+   *
+   * @param commands The commands whose traces are to be kept.
+   */
+  public synchronized void retainTraces(@Nonnull Collection<MovementCommand> commands) {
+    requireNonNull(commands, "commands");
+
+    Set<MovementCommand> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+    retained.addAll(commands);
+    traces.keySet().retainAll(retained);
+  }
+
+  /**
+   * Returns the latencies recorded so far, one per stage.
+   *
+   * @return The latencies recorded so far.
+   */
+  @Nonnull
+  public synchronized List<CommandStageLatency> getLatencies() {
+    return Arrays.stream(Stage.values())
+        .map(stage -> histograms.get(stage).toCommandStageLatency(stage))
+        .collect(Collectors.toList());
+  }
+
+  private void record(Stage stage, long start, long end) {
+    if (start == 0 || end == 0 || end < start) {
+      return;
+    }
+    histograms.get(stage).add(end - start);
+  }
+
+  /**
+   * The stages of a command's processing.
+   */
+  public enum Stage {
+    /**
+     * From the command's creation until its resources are requested.
+     */
+    QUEUED,
+    /**
+     * From the request of the command's resources until they are allocated.
+     */
+    ALLOCATION,
+    /**
+     * From the allocation of the command's resources until the command is enqueued with the
+     * communication adapter.
+     */
+    ALLOCATED,
+    /**
+     * From the command's enqueuing until the communication adapter sends it to the vehicle.
+     */
+    ADAPTER_QUEUE,
+    /**
+     * From the command's sending (and the allocation of its resources) until its execution.
+     */
+    EXECUTION,
+    /**
+     * From the command's creation until its execution.
+     */
+    TOTAL
+  }
+
+  /**
+   * The points of time (in ms) a command reached the stages at, or 0 if unknown.
+   */
+  private static class Trace {
+
+    private long created;
+    private long allocationRequested;
+    private long allocationGranted;
+    private long enqueued;
+    private long sent;
+  }
+
+  /**
+   * The durations recorded for a single stage.
+   */
+  private static class Histogram {
+
+    private long count;
+    private long totalTime;
+    private long maxTime;
+    private final long[] bucketCounts = new long[BUCKET_UPPER_BOUNDS.size() + 1];
+
+    void add(long duration) {
+      count++;
+      totalTime += duration;
+      maxTime = Math.max(maxTime, duration);
+      int bucket = 0;
+      while (bucket < BUCKET_UPPER_BOUNDS.size() && duration > BUCKET_UPPER_BOUNDS.get(bucket)) {
+        bucket++;
+      }
+      bucketCounts[bucket]++;
+    }
+
+    CommandStageLatency toCommandStageLatency(Stage stage) {
+      return new CommandStageLatency(stage.name(),
+                                     count,
+                                     totalTime,
+                                     maxTime,
+                                     BUCKET_UPPER_BOUNDS,
+                                     Arrays.stream(bucketCounts)
+                                         .boxed()
+                                         .collect(Collectors.toList()));
+    }
+  }
+}
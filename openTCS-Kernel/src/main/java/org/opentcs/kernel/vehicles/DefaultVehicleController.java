@@ -12,6 +12,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -22,10 +23,15 @@ import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import org.opentcs.access.CommandStageLatency;
 import org.opentcs.access.LocalKernel;
 import org.opentcs.components.kernel.ResourceAllocationException;
 import org.opentcs.components.kernel.Scheduler;
@@ -33,10 +39,12 @@ import org.opentcs.components.kernel.services.DispatcherService;
 import org.opentcs.components.kernel.services.InternalVehicleService;
 import org.opentcs.components.kernel.services.NotificationService;
 import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectEvent;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.data.model.Triple;
@@ -130,6 +138,11 @@ public class DefaultVehicleController
    * A list of commands that have been sent to the communication adapter.
    */
   private final Queue<MovementCommand> commandsSent = new LinkedList<>();
+  /**
+   * A list of commands for which resources have been allocated but which have not yet been sent to
+   * the communication adapter because its command queue was full.
+   */
+  private final Queue<MovementCommand> commandsAllocated = new LinkedList<>();
   /**
    * The last command that has been executed.
    */
@@ -137,7 +150,7 @@ public class DefaultVehicleController
   /**
    * The resources this controller has allocated for each command.
    */
-  private final Queue<Set<TCSResource<?>>> allocatedResources = new LinkedList<>();
+  private final Deque<Set<TCSResource<?>>> allocatedResources = new LinkedList<>();
   /**
    * The drive order that the vehicle currently has to process.
    */
@@ -153,6 +166,51 @@ public class DefaultVehicleController
    * resources at a time (which can cause deadlocks).
    */
   private volatile boolean waitingForAllocation;
+  /**
+   * The point of time at which the pending allocation was requested.
+   */
+  private long allocationRequestTime;
+  /**
+   * Whether to adapt the number of commands resources are allocated for in advance.
+   */
+  private final boolean adaptiveLookAhead;
+  /**
+   * Decides for how many commands resources are allocated in advance, if adaptive.
+   */
+  private final LookAheadWindow lookAheadWindow;
+  /**
+   * Whether to stream whole routes to the vehicle, if its communication adapter supports it.
+   */
+  private final boolean routeStreaming;
+  /**
+   * The number of commands granted to a streaming vehicle ahead of its last executed one.
+   */
+  private final int routeStreamingGrantWindow;
+  /**
+   * A list of commands of the current drive order that still need to be streamed to the
+   * communication adapter.
+   */
+  private final Queue<MovementCommand> commandsToStream = new LinkedList<>();
+  /**
+   * The route index of the last step a streaming vehicle has been granted.
+   */
+  private int grantedRouteIndex = Vehicle.ROUTE_INDEX_DEFAULT;
+  /**
+   * Decides which precise position and orientation angle reports are forwarded to the kernel.
+   */
+  private final PositionUpdateFilter positionUpdateFilter;
+  /**
+   * The kernel's executor, used for forwarding reports the position update filter held back.
+   */
+  private final ScheduledExecutorService kernelExecutor;
+  /**
+   * The task forwarding reports the position update filter held back.
+   */
+  private ScheduledFuture<?> pendingPositionUpdatesFuture;
+  /**
+   * Records how long movement commands spend in each stage of their processing.
+   */
+  private final CommandLatencyRecorder latencyRecorder = new CommandLatencyRecorder();
 
   /**
    * Creates a new instance associated with the given vehicle.
@@ -165,6 +223,8 @@ public class DefaultVehicleController
    * @param dispatcherService The kernel's dispatcher service.
    * @param scheduler The scheduler managing resource allocations.
    * @param eventBus The event bus this instance should register with and send events to.
+   * @param kernelExecutor The kernel's executor.
+   * @param configuration This class's configuration.
    */
   @Inject
   public DefaultVehicleController(@Assisted @Nonnull Vehicle vehicle,
@@ -174,7 +234,9 @@ public class DefaultVehicleController
                                   @Nonnull NotificationService notificationService,
                                   @Nonnull DispatcherService dispatcherService,
                                   @Nonnull Scheduler scheduler,
-                                  @Nonnull @ApplicationEventBus EventBus eventBus) {
+                                  @Nonnull @ApplicationEventBus EventBus eventBus,
+                                  @Nonnull @KernelExecutor ScheduledExecutorService kernelExecutor,
+                                  @Nonnull VehicleControllerConfiguration configuration) {
     this.vehicle = requireNonNull(vehicle, "vehicle");
     this.commAdapter = requireNonNull(adapter, "adapter");
     this.localKernel = requireNonNull(kernel, "kernel");
@@ -183,6 +245,13 @@ public class DefaultVehicleController
     this.dispatcherService = requireNonNull(dispatcherService, "dispatcherService");
     this.scheduler = requireNonNull(scheduler, "scheduler");
     this.eventBus = requireNonNull(eventBus, "eventBus");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    requireNonNull(configuration, "configuration");
+    this.adaptiveLookAhead = configuration.adaptiveLookAhead();
+    this.lookAheadWindow = new LookAheadWindow(configuration);
+    this.routeStreaming = configuration.routeStreaming();
+    this.routeStreamingGrantWindow = configuration.routeStreamingGrantWindow();
+    this.positionUpdateFilter = new PositionUpdateFilter(vehicle, configuration);
   }
 
   @Override
@@ -204,6 +273,7 @@ public class DefaultVehicleController
     commAdapter.getProcessModel().addPropertyChangeListener(this);
 
     // Initialize standard attributes once.
+    positionUpdateFilter.reset();
     setVehiclePosition(commAdapter.getProcessModel().getVehiclePosition());
     vehicleService.updateVehiclePrecisePosition(
             vehicle.getReference(),
@@ -222,6 +292,16 @@ public class DefaultVehicleController
     updateVehicleState(commAdapter.getProcessModel().getVehicleState());
     updateCommAdapterState(commAdapter.getProcessModel().getVehicleAdapterState());
 
+    // Reports held back because of the update interval are forwarded once it has elapsed, as the
+    // vehicle might not report them again.
+    if (positionUpdateFilter.getMinInterval() > 0) {
+      pendingPositionUpdatesFuture = kernelExecutor.scheduleWithFixedDelay(
+              this::forwardPendingPositionUpdates,
+              positionUpdateFilter.getMinInterval(),
+              positionUpdateFilter.getMinInterval(),
+              TimeUnit.MILLISECONDS);
+    }
+
     //设置适配器当前内核模型
 //    commAdapter.setKernel(this.localKernel);
     commAdapter.setPointLists(this.localKernel.getTCSObjects(Point.class).stream().collect(Collectors.toList()));
@@ -243,6 +323,10 @@ public class DefaultVehicleController
 
     //去除适配器监听器
     commAdapter.getProcessModel().removePropertyChangeListener(this);
+    if (pendingPositionUpdatesFuture != null) {
+      pendingPositionUpdatesFuture.cancel(false);
+      pendingPositionUpdatesFuture = null;
+    }
     // Reset the vehicle's position.
     updatePosition(null, null);
     vehicleService.updateVehiclePrecisePosition(vehicle.getReference(), null);
@@ -263,6 +347,9 @@ public class DefaultVehicleController
     if (evt.getSource() != commAdapter.getProcessModel()) {
       return;
     }
+    if (isFilteredOut(evt)) {
+      return;
+    }
 
     handleProcessModelEvent(evt);
   }
@@ -316,9 +403,17 @@ public class DefaultVehicleController
       lastCommandExecuted = null;
       vehicleService.updateVehicleRouteProgressIndex(vehicle.getReference(),
               Vehicle.ROUTE_INDEX_DEFAULT);
+      if (isRouteStreaming()) {
+        grantedRouteIndex = Vehicle.ROUTE_INDEX_DEFAULT;
+        commAdapter.updateGrantedRouteIndex(grantedRouteIndex);
+      }
       //设置驱动器当前订单
       commAdapter.setcurrentDriveOrder(newOrder);
       createFutureCommands(newOrder, orderProperties);
+      if (isRouteStreaming()) {
+        commandsToStream.addAll(futureCommands);
+        streamCommands();
+      }
 
       if (canSendNextCommand()) {
         allocateForNextCommand();
@@ -352,6 +447,10 @@ public class DefaultVehicleController
       // Update the current drive order and future commands
       currentDriveOrder = newOrder;
       commAdapter.setcurrentDriveOrder(newOrder);
+      if (isRouteStreaming()) {
+        // Withdraw the streamed commands first, while the pending command is still known.
+        withdrawUngrantedCommands();
+      }
       // There is a new drive order, so discard all the future/scheduled commands of the old one.
       discardFutureCommands();
 
@@ -359,6 +458,10 @@ public class DefaultVehicleController
       // The current drive order got updated but our queue of future commands now contains commands
       // that have already been processed, so discard these
       discardSentFutureCommands();
+      if (isRouteStreaming()) {
+        commandsToStream.addAll(futureCommands);
+        streamCommands();
+      }
 
       // Get an up-tp-date copy of the vehicle
       Vehicle updatedVehicle = vehicleService.fetchObject(Vehicle.class, vehicle.getReference());
@@ -400,6 +503,15 @@ public class DefaultVehicleController
 
   private void discardFutureCommands() {
     futureCommands.clear();
+    discardAllocatedCommands();
+    if (pendingCommand != null && commandsSent.contains(pendingCommand)) {
+      // The command has been streamed to the vehicle already, so keep waiting for its allocation
+      // to grant it.
+      LOG.debug("{}: Keeping streamed pending command still waiting for allocation: {}",
+              vehicle.getName(),
+              pendingCommand);
+      return;
+    }
     if (waitingForAllocation) {
       LOG.debug("{}: Discarding pending command but still waiting for allocation: {}",
               vehicle.getName(),
@@ -445,6 +557,8 @@ public class DefaultVehicleController
       // refuse them in allocationSuccessful().
       waitingForAllocation = false;
       pendingResources = null;
+      discardAllocatedCommands();
+      commandsToStream.clear();
 
       vehicleService.updateVehicleRouteProgressIndex(vehicle.getReference(),
               Vehicle.ROUTE_INDEX_DEFAULT);
@@ -462,6 +576,10 @@ public class DefaultVehicleController
       commAdapter.setcurrentDriveOrder(null);
       commAdapter.abortDriveOrder();
       futureCommands.clear();
+      discardAllocatedCommands();
+      if (isRouteStreaming()) {
+        withdrawUngrantedCommands();
+      }
     }
   }
 
@@ -470,7 +588,9 @@ public class DefaultVehicleController
     synchronized (commAdapter) {
       commAdapter.clearCommandQueue();
       commandsSent.clear();
+      commandsAllocated.clear();
       futureCommands.clear();
+      commandsToStream.clear();
       pendingCommand = null;
       // Free all resource sets that were reserved for future commands, except the current one...
       Set<TCSResource<?>> neededResources = allocatedResources.poll();
@@ -524,9 +644,20 @@ public class DefaultVehicleController
 
   @Override
   public Queue<MovementCommand> getCommandsSent() {
+    if (isRouteStreaming()) {
+      // Commands not granted, yet, may still be replaced, e.g. when the vehicle is rerouted.
+      return commandsSent.stream()
+              .filter(this::isGranted)
+              .collect(Collectors.toCollection(LinkedList::new));
+    }
     return new LinkedList<>(commandsSent);
   }
 
+  @Override
+  public List<CommandStageLatency> getCommandLatencies() {
+    return latencyRecorder.getLatencies();
+  }
+
   @Override
   @Nonnull
   public String getId() {
@@ -572,15 +703,25 @@ public class DefaultVehicleController
       }
       pendingCommand = null;
       pendingResources = null;
+      latencyRecorder.allocationGranted(command, System.currentTimeMillis());
 
       allocatedResources.add(resources);
-      // Send the command to the communication adapter.
-      checkState(commAdapter.enqueueCommand(command),
-              "Comm adapter did not accept command");
-      commandsSent.add(command);
+      if (isRouteStreaming()) {
+        // The command has been streamed already - let the vehicle move on to its destination.
+        grantedRouteIndex = command.getStep().getRouteIndex();
+        commAdapter.updateGrantedRouteIndex(grantedRouteIndex);
+      }
+      else {
+        // Send the command to the communication adapter, if it has capacity for it.
+        commandsAllocated.add(command);
+        sendAllocatedCommands();
+      }
 
       // Check if the communication adapter has capacity for another command.
       waitingForAllocation = false;
+      if (adaptiveLookAhead) {
+        lookAheadWindow.allocationGranted(System.currentTimeMillis() - allocationRequestTime);
+      }
       if (canSendNextCommand()) {
         allocateForNextCommand();
       }
@@ -592,7 +733,37 @@ public class DefaultVehicleController
   @Override
   public void allocationFailed(@Nonnull Set<TCSResource<?>> resources) {
     requireNonNull(resources, "resources");
-    throw new IllegalStateException("Failed to allocate: " + resources);
+
+    synchronized (commAdapter) {
+      if (!waitingForAllocation || !Objects.equals(resources, pendingResources)) {
+        LOG.warn("{}: Failed allocation ({}) != pending resources ({}), ignoring it",
+                vehicle.getName(),
+                resources,
+                pendingResources);
+        return;
+      }
+
+      // The scheduler withdrew the allocation, e.g. to resolve a deadlock.
+      if (pendingCommand != null) {
+        // The command is still to be executed - request its resources again.
+        LOG.debug("{}: Allocation failed, requesting resources again: {}",
+                vehicle.getName(),
+                resources);
+        scheduler.allocate(this, resources);
+        return;
+      }
+
+      // The pending command has been discarded in the meantime, e.g. because the vehicle was
+      // rerouted, so continue with the next command.
+      LOG.debug("{}: Allocation failed, no pending command any more: {}",
+              vehicle.getName(),
+              resources);
+      waitingForAllocation = false;
+      pendingResources = null;
+      if (canSendNextCommand()) {
+        allocateForNextCommand();
+      }
+    }
   }
 
   @Override
@@ -600,6 +771,49 @@ public class DefaultVehicleController
     return "DefaultVehicleController{" + "vehicleName=" + vehicle.getName() + '}';
   }
 
+  /**
+   * Checks if the given process model event reports a precise position or orientation angle that
+   * is not to be forwarded to the kernel, e.g. because it is just jitter of a standing vehicle.
+   *
+   * @param evt The process model event.
+   * @return <code>true</code> if, and only if, the event is to be ignored.
+   */
+  private boolean isFilteredOut(PropertyChangeEvent evt) {
+    if (Objects.equals(evt.getPropertyName(),
+            VehicleProcessModel.Attribute.PRECISE_POSITION.name())) {
+      return !positionUpdateFilter.acceptPrecisePosition((Triple) evt.getNewValue(),
+              System.currentTimeMillis());
+    }
+    else if (Objects.equals(evt.getPropertyName(),
+            VehicleProcessModel.Attribute.ORIENTATION_ANGLE.name())) {
+      return !positionUpdateFilter.acceptOrientationAngle((Double) evt.getNewValue(),
+              System.currentTimeMillis());
+    }
+    return false;
+  }
+
+  /**
+   * Forwards the precise position and orientation angle reports the position update filter held
+   * back because of the update interval, if the interval has elapsed in the meantime.
+   */
+  private void forwardPendingPositionUpdates() {
+    long now = System.currentTimeMillis();
+    Triple position = positionUpdateFilter.pollPendingPrecisePosition(now);
+    if (position != null) {
+      handleProcessModelEvent(new PropertyChangeEvent(commAdapter.getProcessModel(),
+              VehicleProcessModel.Attribute.PRECISE_POSITION.name(),
+              null,
+              position));
+    }
+    double angle = positionUpdateFilter.pollPendingOrientationAngle(now);
+    if (!Double.isNaN(angle)) {
+      handleProcessModelEvent(new PropertyChangeEvent(commAdapter.getProcessModel(),
+              VehicleProcessModel.Attribute.ORIENTATION_ANGLE.name(),
+              null,
+              angle));
+    }
+  }
+
   @SuppressWarnings({"unchecked", "deprecation"})
   //处理驱动器消息类型，调用不同的处理函数，如指令发送成功或位置变更
   private void handleProcessModelEvent(PropertyChangeEvent evt) {
@@ -622,6 +836,10 @@ public class DefaultVehicleController
             VehicleProcessModel.Attribute.ENERGY_LEVEL.name())) {
       vehicleService.updateVehicleEnergyLevel(vehicle.getReference(), (Integer) evt.getNewValue());
     }
+    else if (Objects.equals(evt.getPropertyName(),
+            VehicleProcessModel.Attribute.VELOCITY.name())) {
+      velocityChanged();
+    }
     else if (Objects.equals(evt.getPropertyName(),
             VehicleProcessModel.Attribute.LOAD_HANDLING_DEVICES.name())) {
       vehicleService.updateVehicleLoadHandlingDevices(vehicle.getReference(),
@@ -634,6 +852,10 @@ public class DefaultVehicleController
             VehicleProcessModel.Attribute.COMM_ADAPTER_STATE.name())) {
       updateCommAdapterState((VehicleCommAdapter.State) evt.getNewValue());
     }
+    else if (Objects.equals(evt.getPropertyName(),
+            VehicleProcessModel.Attribute.COMMAND_SENT.name())) {
+      latencyRecorder.commandSent((MovementCommand) evt.getNewValue(), System.currentTimeMillis());
+    }
     else if (Objects.equals(evt.getPropertyName(),
             VehicleProcessModel.Attribute.COMMAND_EXECUTED.name())) {
       commandExecuted((MovementCommand) evt.getNewValue());
@@ -745,6 +967,8 @@ public class DefaultVehicleController
   private void commandExecuted(MovementCommand executedCommand) {
     requireNonNull(executedCommand, "executedCommand");
 
+    latencyRecorder.commandExecuted(executedCommand, System.currentTimeMillis());
+
     synchronized (commAdapter) {
       // Check if the executed command is the one we expect at this point.
       MovementCommand expectedCommand = commandsSent.peek();
@@ -755,6 +979,11 @@ public class DefaultVehicleController
                 expectedCommand);
         // XXX The communication adapter executed an unexpected command. Do something!
       }
+      if (isRouteStreaming() && expectedCommand != null && !isGranted(expectedCommand)) {
+        LOG.warn("{}: Vehicle executed command it was not granted, yet: {}",
+                vehicle.getName(),
+                expectedCommand);
+      }
       // Remove the command from the queue, since it has been processed successfully.
       lastCommandExecuted = commandsSent.remove();
       // Free resources allocated for the command before the one now executed.
@@ -766,8 +995,14 @@ public class DefaultVehicleController
       else {
         LOG.debug("{}: Nothing to free.", vehicle.getName());
       }
+      // The communication adapter now has capacity for commands already allocated for.
+      sendAllocatedCommands();
+      streamCommands();
       // Check if there are more commands to be processed for the current drive order.
-      if (pendingCommand == null && futureCommands.isEmpty()) {
+      if (pendingCommand == null
+              && futureCommands.isEmpty()
+              && commandsAllocated.isEmpty()
+              && commandsToStream.isEmpty()) {
         LOG.debug("{}: No more commands in current drive order", vehicle.getName());
         // Check if there are still commands that have been sent to the communication adapter but
         // not yet executed. If not, the whole order has been executed completely - let the kernel
@@ -800,6 +1035,9 @@ public class DefaultVehicleController
             = vehicleService.fetchObject(Location.class,
             newOrder.getDestination().getDestination().getName());
     Map<String, String> destProperties = newOrder.getDestination().getProperties();
+    // Commands not sent to the communication adapter are discarded or replaced by the new ones.
+    latencyRecorder.retainTraces(commandsSent);
+    long creationTime = System.currentTimeMillis();
     Iterator<Step> stepIter = orderRoute.getSteps().iterator();
     while (stepIter.hasNext()) {
       Step curStep = stepIter.next();
@@ -810,15 +1048,16 @@ public class DefaultVehicleController
         String operation = isFinalMovement ? op : MovementCommand.NO_OPERATION;
         Location location = isFinalMovement ? finalDestinationLocation : null;
 
-        futureCommands.add(new MovementCommand(curStep,
+        MovementCommand command = new MovementCommand(curStep,
                 operation,
                 location,
                 isFinalMovement,
                 finalDestinationLocation,
                 finalDestination,
                 op,
-                mergeProperties(orderProperties, destProperties))
-        );
+                mergeProperties(orderProperties, destProperties));
+        futureCommands.add(command);
+        latencyRecorder.commandCreated(command, creationTime);
       }
     }
   }
@@ -846,20 +1085,49 @@ public class DefaultVehicleController
    * Checks if we can send another command to the communication adapter without
    * overflowing its capacity and with respect to the number of commands still
    * in our queue and allocation requests to the scheduler in progress.
+   * With an adaptive look-ahead, checks if we should allocate resources for
+   * another command instead, regardless of the communication adapter's capacity.
+   * With route streaming, checks if the vehicle's grant window has room for another command.
    *
    * @return <code>true</code> if, and only if, we can send another command.
    */
   private boolean canSendNextCommand() {
-    int sendableCommands = Math.min(commAdapter.getCommandQueueCapacity() - commandsSent.size(),
-            futureCommands.size());
-    if (sendableCommands <= 0) {
-      LOG.debug("{}: Cannot send, number of sendable commands: {} (commandQueueCapacity={}, commandsSent={}, futureCommandsSize={})",
-              vehicle.getName(),
-              sendableCommands,
-              commAdapter.getCommandQueueCapacity(),
-              commandsSent.size(),
+    if (isRouteStreaming()) {
+      long grantedCommands = Stream.concat(commandsSent.stream(), commandsToStream.stream())
+              .filter(this::isGranted)
+              .count();
+      if (futureCommands.isEmpty() || grantedCommands >= routeStreamingGrantWindow) {
+        LOG.debug("{}: Cannot grant, grant window covered "
+                + "(grantedCommands={}, futureCommandsSize={})",
+                vehicle.getName(),
+                grantedCommands,
+                futureCommands.size());
+        return false;
+      }
+    }
+    else if (adaptiveLookAhead) {
+      if (futureCommands.isEmpty() || !isLookAheadAllocationNeeded()) {
+        LOG.debug("{}: Cannot send, look-ahead covered "
+                + "(commandsSent={}, commandsAllocated={}, futureCommandsSize={})",
+                vehicle.getName(),
+                commandsSent.size(),
+                commandsAllocated.size(),
+                futureCommands.size());
+        return false;
+      }
+    }
+    else {
+      int sendableCommands = Math.min(commAdapter.getCommandQueueCapacity() - commandsSent.size(),
               futureCommands.size());
-      return false;
+      if (sendableCommands <= 0) {
+        LOG.debug("{}: Cannot send, number of sendable commands: {} (commandQueueCapacity={}, commandsSent={}, futureCommandsSize={})",
+                vehicle.getName(),
+                sendableCommands,
+                commAdapter.getCommandQueueCapacity(),
+                commandsSent.size(),
+                futureCommands.size());
+        return false;
+      }
     }
     if (!futureCommands.peek().getStep().isExecutionAllowed()) {
       LOG.debug("{}: Cannot send, movement execution is not allowed", vehicle.getName());
@@ -882,6 +1150,8 @@ public class DefaultVehicleController
     MovementCommand moveCmd = futureCommands.poll();
     pendingResources = getNeededResources(moveCmd);
     LOG.debug("{}: Allocating resources: {}", vehicle.getName(), pendingResources);
+    allocationRequestTime = System.currentTimeMillis();
+    latencyRecorder.allocationRequested(moveCmd, allocationRequestTime);
     scheduler.allocate(this, pendingResources);
     // Remember that we're waiting for an allocation. This ensures that we only
     // wait for one allocation at a time, and that we get the resources from the
@@ -890,6 +1160,171 @@ public class DefaultVehicleController
     pendingCommand = moveCmd;
   }
 
+  /**
+   * Checks if resources for another command are needed to cover the vehicle's braking distance.
+   *
+   * @return <code>true</code> if, and only if, resources for another command are needed.
+   */
+  private boolean isLookAheadAllocationNeeded() {
+    List<MovementCommand> commands = new ArrayList<>(commandsSent);
+    commands.addAll(commandsAllocated);
+    long distanceAhead = commands.stream()
+            .skip(1)
+            .mapToLong(cmd -> getLength(cmd.getStep()))
+            .sum();
+    return lookAheadWindow.isAllocationNeeded(estimateVelocity(commands),
+            commands.size(),
+            distanceAhead);
+  }
+
+  /**
+   * Returns the vehicle's velocity its braking distance is to be computed for.
+   * If the vehicle does not report its velocity or is standing still, it is about to accelerate
+   * to the maximum velocity allowed for its next step, so that one is used instead.
+   *
+   * @param commands The commands allocated for that have not been executed, yet.
+   * @return The vehicle's velocity (in mm/s).
+   */
+  private long estimateVelocity(List<MovementCommand> commands) {
+    int velocity = commAdapter.getProcessModel().getVehicleVelocity();
+    if (velocity > 0) {
+      return velocity;
+    }
+    MovementCommand nextCommand = commands.isEmpty() ? futureCommands.peek() : commands.get(0);
+    return nextCommand == null ? 0 : getMaxVelocity(nextCommand.getStep());
+  }
+
+  private long getMaxVelocity(Step step) {
+    Path path = step.getPath();
+    if (path == null) {
+      return 0;
+    }
+    int pathVelocity;
+    int vehicleVelocity;
+    if (step.getVehicleOrientation() == Vehicle.Orientation.BACKWARD) {
+      pathVelocity = path.getMaxReverseVelocity();
+      vehicleVelocity = vehicle.getMaxReverseVelocity();
+    }
+    else {
+      pathVelocity = path.getMaxVelocity();
+      vehicleVelocity = vehicle.getMaxVelocity();
+    }
+    return vehicleVelocity > 0 ? Math.min(pathVelocity, vehicleVelocity) : pathVelocity;
+  }
+
+  private static long getLength(Step step) {
+    return step.getPath() == null ? 0 : step.getPath().getLength();
+  }
+
+  /**
+   * Allocates resources for another command if the vehicle's braking distance is not covered any
+   * more at its new velocity.
+   */
+  private void velocityChanged() {
+    if (!adaptiveLookAhead) {
+      return;
+    }
+    synchronized (commAdapter) {
+      if (canSendNextCommand()) {
+        allocateForNextCommand();
+      }
+    }
+  }
+
+  /**
+   * Sends commands resources have been allocated for to the communication adapter, as long as its
+   * command queue has capacity for them.
+   */
+  private void sendAllocatedCommands() {
+    while (!commandsAllocated.isEmpty()
+            && commandsSent.size() < commAdapter.getCommandQueueCapacity()) {
+      MovementCommand command = commandsAllocated.poll();
+      checkState(commAdapter.enqueueCommand(command),
+              "Comm adapter did not accept command");
+      latencyRecorder.commandEnqueued(command, System.currentTimeMillis());
+      commandsSent.add(command);
+    }
+  }
+
+  /**
+   * Indicates whether whole routes are streamed to the vehicle.
+   *
+   * @return <code>true</code> if, and only if, route streaming is enabled and supported by the
+   * communication adapter.
+   */
+  private boolean isRouteStreaming() {
+    return routeStreaming && commAdapter.isRouteStreamingSupported();
+  }
+
+  /**
+   * Checks if the vehicle has been granted the given command, i.e. if the resources for it have
+   * been allocated.
+   *
+   * @param command The command.
+   * @return <code>true</code> if, and only if, the command has been granted.
+   */
+  private boolean isGranted(MovementCommand command) {
+    return command.getStep().getRouteIndex() <= grantedRouteIndex;
+  }
+
+  /**
+   * Streams commands of the current drive order to the communication adapter, regardless of
+   * whether their resources have been allocated, as long as its command queue has capacity for
+   * them and their execution is allowed.
+   */
+  private void streamCommands() {
+    while (!commandsToStream.isEmpty()
+            && commandsSent.size() < commAdapter.getCommandQueueCapacity()
+            && commandsToStream.peek().getStep().isExecutionAllowed()) {
+      MovementCommand command = commandsToStream.poll();
+      checkState(commAdapter.enqueueCommand(command),
+              "Comm adapter did not accept command");
+      latencyRecorder.commandEnqueued(command, System.currentTimeMillis());
+      commandsSent.add(command);
+    }
+  }
+
+  /**
+   * Withdraws the streamed commands the vehicle has not been granted, yet, except for a command
+   * resources are still being allocated for.
+   * Since the communication adapter's queue cannot be shortened, it is cleared and refilled with
+   * the remaining commands.
+   */
+  private void withdrawUngrantedCommands() {
+    commandsToStream.clear();
+    List<MovementCommand> grantedCommands = commandsSent.stream()
+            .filter(cmd -> isGranted(cmd) || Objects.equals(cmd, pendingCommand))
+            .collect(Collectors.toList());
+    if (grantedCommands.size() == commandsSent.size()) {
+      return;
+    }
+    LOG.debug("{}: Withdrawing ungranted commands beyond route index {}",
+            vehicle.getName(),
+            grantedRouteIndex);
+    commAdapter.clearCommandQueue();
+    commandsSent.clear();
+    for (MovementCommand command : grantedCommands) {
+      checkState(commAdapter.enqueueCommand(command),
+              "Comm adapter did not accept command");
+      latencyRecorder.commandEnqueued(command, System.currentTimeMillis());
+      commandsSent.add(command);
+    }
+  }
+
+  /**
+   * Discards the commands resources have been allocated for that have not been sent to the
+   * communication adapter, yet, and frees their resources.
+   */
+  private void discardAllocatedCommands() {
+    // The resources for these commands were allocated last.
+    for (int i = 0; i < commandsAllocated.size(); i++) {
+      Set<TCSResource<?>> resources = allocatedResources.pollLast();
+      LOG.debug("{}: Freeing resources of discarded command: {}", vehicle.getName(), resources);
+      scheduler.free(this, resources);
+    }
+    commandsAllocated.clear();
+  }
+
   /**
    * Returns a set of resources needed for executing the given command.
    *
@@ -913,6 +1348,7 @@ public class DefaultVehicleController
   private void freeAllResources() {
     scheduler.freeAll(this);
     allocatedResources.clear();
+    commandsAllocated.clear();
   }
 
   /**
@@ -927,6 +1363,10 @@ public class DefaultVehicleController
             .findFirst()
             .orElse(null);
 
+    if (nextCommand == null) {
+      nextCommand = commandsAllocated.peek();
+    }
+
     if (nextCommand == null) {
       nextCommand = pendingCommand;
     }
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import static org.opentcs.util.Assertions.checkInRange;
+
+/**
+ * Decides for how many movement commands a vehicle controller allocates resources in advance.
+ * <p>
+ * Resources are allocated for as many movement commands following the one being executed as
+ * needed to cover the vehicle's braking distance at its current velocity, but for at least one.
+ * This way, a vehicle does not have to slow down while waiting for an allocation as long as the
+ * allocation is granted before the vehicle would have to start braking.
+ * </p>
+ * <p>
+ * The number of commands allocated in advance is limited by a congestion window: Each allocation
+ * the vehicle had to wait for at least the congestion threshold halves the window, each allocation
+ * granted faster increases it by one again, up to the configured maximum. This way, vehicles in
+ * congested areas hold on to fewer resources that other vehicles may be waiting for.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ */
+public class LookAheadWindow {
+
+  /**
+   * The deceleration assumed for computing the braking distance (in mm/s²).
+   */
+  private final int deceleration;
+  /**
+   * The maximum number of movement commands to allocate resources for in advance.
+   */
+  private final int maxCommands;
+  /**
+   * The waiting time for an allocation from which on the vehicle is considered to be in a
+   * congested area (in ms).
+   */
+  private final long congestionThreshold;
+  /**
+   * The current number of movement commands to allocate resources for in advance at most.
+   */
+  private int congestionWindow;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param deceleration The deceleration assumed for computing the braking distance (in mm/s²).
+   * @param maxCommands The maximum number of movement commands to allocate resources for in
+   * advance.
+   * @param congestionThreshold The waiting time for an allocation from which on the vehicle is
+   * considered to be in a congested area (in ms).
+   */
+  public LookAheadWindow(int deceleration, int maxCommands, long congestionThreshold) {
+    this.deceleration = checkInRange(deceleration, 1, Integer.MAX_VALUE, "deceleration");
+    this.maxCommands = checkInRange(maxCommands, 1, Integer.MAX_VALUE, "maxCommands");
+    this.congestionThreshold = checkInRange(congestionThreshold,
+                                            0,
+                                            Long.MAX_VALUE,
+                                            "congestionThreshold");
+    this.congestionWindow = maxCommands;
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration The vehicle controller's configuration.
+   */
+  public LookAheadWindow(VehicleControllerConfiguration configuration) {
+    this(configuration.lookAheadDeceleration(),
+         configuration.lookAheadMaxCommands(),
+         configuration.lookAheadCongestionThreshold());
+  }
+
+  /**
+   * Checks whether resources for another movement command should be allocated.
+   *
+   * @param velocity The vehicle's velocity (in mm/s).
+   * @param commandCount The number of movement commands resources have been allocated for that
+   * have not been executed, yet.
+   * @param distanceAhead The length of the route covered by these movement commands except for
+   * the first one, i.e. the distance the vehicle may travel after the movement currently being
+   * executed (in mm).
+   * @return <code>true</code> if, and only if, resources for another movement command should be
+   * allocated.
+   */
+  public boolean isAllocationNeeded(long velocity, int commandCount, long distanceAhead) {
+    if (commandCount <= 1) {
+      return true;
+    }
+    if (commandCount - 1 >= congestionWindow) {
+      return false;
+    }
+    return distanceAhead < getBrakingDistance(velocity);
+  }
+
+  /**
+   * Adjusts the congestion window after an allocation has been granted.
+   *
+   * @param waitingTime The time the vehicle had to wait for the allocation (in ms).
+   */
+  public void allocationGranted(long waitingTime) {
+    if (waitingTime >= congestionThreshold) {
+      congestionWindow = Math.max(1, congestionWindow / 2);
+    }
+    else {
+      congestionWindow = Math.min(maxCommands, congestionWindow + 1);
+    }
+  }
+
+  /**
+   * Returns the current number of movement commands to allocate resources for in advance at most.
+   *
+   * @return The current number of movement commands to allocate resources for in advance at most.
+   */
+  public int getCongestionWindow() {
+    return congestionWindow;
+  }
+
+  /**
+   * Returns the braking distance at the given velocity.
+   *
+   * @param velocity The velocity (in mm/s).
+   * @return The braking distance (in mm).
+   */
+  public long getBrakingDistance(long velocity) {
+    return velocity * velocity / (2L * deceleration);
+  }
+}
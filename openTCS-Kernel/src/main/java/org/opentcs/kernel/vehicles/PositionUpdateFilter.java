@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nullable;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkInRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides which precise position and orientation angle reports of a vehicle are forwarded to the
+ * kernel.
+ * <p>
+ * A report is forwarded only if it differs from the last one forwarded by more than a deadband and
+ * if the minimum interval since the last forwarded report has elapsed. This way, jitter reported
+ * while a vehicle is standing still and reports at a high polling rate do not result in kernel
+ * updates and events. The last report suppressed only because of the interval is remembered and can
+ * be polled once the interval has elapsed, so that the kernel does not keep a stale value if the
+ * vehicle does not report again. Changes from or to unknown values are always forwarded.
+ * </p>
+ * <p>
+ * The deadbands and the interval default to the vehicle controller's configuration and can be
+ * overridden per vehicle via the properties {@link #PROPKEY_PRECISE_POSITION_DEADBAND},
+ * {@link #PROPKEY_ORIENTATION_ANGLE_DEADBAND} and {@link #PROPKEY_POSITION_UPDATE_INTERVAL}.
+ * </p>
+ */
+public class PositionUpdateFilter {
+
+  /**
+   * The key of a vehicle property defining the precise position deadband (in mm).
+   */
+  public static final String PROPKEY_PRECISE_POSITION_DEADBAND = "tcs:precisePositionDeadband";
+  /**
+   * The key of a vehicle property defining the orientation angle deadband (in degrees).
+   */
+  public static final String PROPKEY_ORIENTATION_ANGLE_DEADBAND = "tcs:orientationAngleDeadband";
+  /**
+   * The key of a vehicle property defining the minimum interval between forwarded precise position
+   * or orientation angle reports (in ms).
+   */
+  public static final String PROPKEY_POSITION_UPDATE_INTERVAL = "tcs:positionUpdateInterval";
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(PositionUpdateFilter.class);
+  /**
+   * The distance a precise position has to differ by from the last forwarded one (in mm).
+   */
+  private final long positionDeadband;
+  /**
+   * The angle an orientation angle has to differ by from the last forwarded one (in degrees).
+   */
+  private final double angleDeadband;
+  /**
+   * The minimum interval between two forwarded reports of the same kind (in ms).
+   */
+  private final long minInterval;
+  /**
+   * The last precise position forwarded.
+   */
+  private Triple lastPosition;
+  /**
+   * The point of time at which the last precise position was forwarded.
+   */
+  private long lastPositionTime;
+  /**
+   * Whether a precise position has been forwarded since the last reset.
+   */
+  private boolean positionForwarded;
+  /**
+   * The last precise position suppressed only because of the interval, or <code>null</code>.
+   */
+  private Triple pendingPosition;
+  /**
+   * The last orientation angle forwarded.
+   */
+  private double lastAngle = Double.NaN;
+  /**
+   * The point of time at which the last orientation angle was forwarded.
+   */
+  private long lastAngleTime;
+  /**
+   * Whether an orientation angle has been forwarded since the last reset.
+   */
+  private boolean angleForwarded;
+  /**
+   * The last orientation angle suppressed only because of the interval, or {@link Double#NaN}.
+   */
+  private double pendingAngle = Double.NaN;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param positionDeadband The distance a precise position has to differ by from the last
+   * forwarded one (in mm).
+   * @param angleDeadband The angle an orientation angle has to differ by from the last forwarded
+   * one (in degrees).
+   * @param minInterval The minimum interval between two forwarded reports of the same kind
+   * (in ms).
+   */
+  public PositionUpdateFilter(long positionDeadband, double angleDeadband, long minInterval) {
+    this.positionDeadband = checkInRange(positionDeadband,
+                                         0,
+                                         Long.MAX_VALUE,
+                                         "positionDeadband");
+    checkArgument(angleDeadband >= 0 && angleDeadband <= 180,
+                  "angleDeadband not in [0, 180]: %s",
+                  angleDeadband);
+    this.angleDeadband = angleDeadband;
+    this.minInterval = checkInRange(minInterval, 0, Long.MAX_VALUE, "minInterval");
+  }
+
+  /**
+   * Creates a new instance for the given vehicle.
+   *
+   * @param vehicle The vehicle, whose properties may override the configured values.
+   * @param configuration The vehicle controller's configuration.
+   */
+  public PositionUpdateFilter(Vehicle vehicle, VehicleControllerConfiguration configuration) {
+    this(longProperty(vehicle,
+                      PROPKEY_PRECISE_POSITION_DEADBAND,
+                      configuration.precisePositionDeadband()),
+         doubleProperty(vehicle,
+                        PROPKEY_ORIENTATION_ANGLE_DEADBAND,
+                        configuration.orientationAngleDeadband()),
+         longProperty(vehicle,
+                      PROPKEY_POSITION_UPDATE_INTERVAL,
+                      configuration.positionUpdateInterval()));
+  }
+
+  /**
+   * Checks if the given precise position report is to be forwarded and remembers it if so.
+   *
+   * @param position The reported precise position.
+   * @param now The current point of time (in ms).
+   * @return <code>true</code> if, and only if, the report is to be forwarded.
+   */
+  public synchronized boolean acceptPrecisePosition(@Nullable Triple position, long now) {
+    if (positionForwarded && isPositionSuppressed(position, now)) {
+      pendingPosition = isPositionWithinDeadband(position) ? null : position;
+      return false;
+    }
+    pendingPosition = null;
+    lastPosition = position;
+    lastPositionTime = now;
+    positionForwarded = true;
+    return true;
+  }
+
+  /**
+   * Checks if the given orientation angle report is to be forwarded and remembers it if so.
+   *
+   * @param angle The reported orientation angle (in degrees), or {@link Double#NaN} if unknown.
+   * @param now The current point of time (in ms).
+   * @return <code>true</code> if, and only if, the report is to be forwarded.
+   */
+  public synchronized boolean acceptOrientationAngle(double angle, long now) {
+    if (angleForwarded && isAngleSuppressed(angle, now)) {
+      pendingAngle = isAngleWithinDeadband(angle) ? Double.NaN : angle;
+      return false;
+    }
+    pendingAngle = Double.NaN;
+    lastAngle = angle;
+    lastAngleTime = now;
+    angleForwarded = true;
+    return true;
+  }
+
+  /**
+   * Returns the last precise position suppressed only because of the interval, if the interval has
+   * elapsed in the meantime, and remembers it as forwarded.
+   *
+   * @param now The current point of time (in ms).
+   * @return The precise position to be forwarded, or <code>null</code>, if there is none.
+   */
+  @Nullable
+  public synchronized Triple pollPendingPrecisePosition(long now) {
+    if (pendingPosition == null || now - lastPositionTime < minInterval) {
+      return null;
+    }
+    Triple position = pendingPosition;
+    pendingPosition = null;
+    lastPosition = position;
+    lastPositionTime = now;
+    return position;
+  }
+
+  /**
+   * Returns the last orientation angle suppressed only because of the interval, if the interval
+   * has elapsed in the meantime, and remembers it as forwarded.
+   *
+   * @param now The current point of time (in ms).
+   * @return The orientation angle to be forwarded, or {@link Double#NaN}, if there is none.
+   */
+  public synchronized double pollPendingOrientationAngle(long now) {
+    if (Double.isNaN(pendingAngle) || now - lastAngleTime < minInterval) {
+      return Double.NaN;
+    }
+    double angle = pendingAngle;
+    pendingAngle = Double.NaN;
+    lastAngle = angle;
+    lastAngleTime = now;
+    return angle;
+  }
+
+  /**
+   * Returns the minimum interval between two forwarded reports of the same kind.
+   *
+   * @return The minimum interval (in ms).
+   */
+  public long getMinInterval() {
+    return minInterval;
+  }
+
+  /**
+   * Forgets the reports forwarded so far, so that the next reports are forwarded in any case.
+   */
+  public synchronized void reset() {
+    positionForwarded = false;
+    pendingPosition = null;
+    angleForwarded = false;
+    pendingAngle = Double.NaN;
+  }
+
+  private boolean isPositionSuppressed(Triple position, long now) {
+    if (position == null || lastPosition == null) {
+      return position == lastPosition;
+    }
+    return isPositionWithinDeadband(position) || now - lastPositionTime < minInterval;
+  }
+
+  private boolean isPositionWithinDeadband(Triple position) {
+    if (position == null || lastPosition == null) {
+      return position == lastPosition;
+    }
+    double dx = position.getX() - lastPosition.getX();
+    double dy = position.getY() - lastPosition.getY();
+    double dz = position.getZ() - lastPosition.getZ();
+    return Math.sqrt(dx * dx + dy * dy + dz * dz) <= positionDeadband;
+  }
+
+  private boolean isAngleSuppressed(double angle, long now) {
+    if (Double.isNaN(angle) || Double.isNaN(lastAngle)) {
+      return Double.isNaN(angle) && Double.isNaN(lastAngle);
+    }
+    return isAngleWithinDeadband(angle) || now - lastAngleTime < minInterval;
+  }
+
+  private boolean isAngleWithinDeadband(double angle) {
+    if (Double.isNaN(angle) || Double.isNaN(lastAngle)) {
+      return Double.isNaN(angle) && Double.isNaN(lastAngle);
+    }
+    double difference = Math.abs(angle - lastAngle) % 360;
+    return Math.min(difference, 360 - difference) <= angleDeadband;
+  }
+
+  private static long longProperty(Vehicle vehicle, String key, long defaultValue) {
+    requireNonNull(vehicle, "vehicle");
+    String value = vehicle.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      return Long.parseLong(value.trim());
+    }
+    catch (NumberFormatException exc) {
+      LOG.warn("Ignoring invalid value of property {} for vehicle {}: {}",
+               key,
+               vehicle.getName(),
+               value);
+      return defaultValue;
+    }
+  }
+
+  private static double doubleProperty(Vehicle vehicle, String key, double defaultValue) {
+    requireNonNull(vehicle, "vehicle");
+    String value = vehicle.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      return Double.parseDouble(value.trim());
+    }
+    catch (NumberFormatException exc) {
+      LOG.warn("Ignoring invalid value of property {} for vehicle {}: {}",
+               key,
+               vehicle.getName(),
+               value);
+      return defaultValue;
+    }
+  }
+}
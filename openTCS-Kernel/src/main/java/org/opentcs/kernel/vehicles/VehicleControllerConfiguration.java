@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link DefaultVehicleController}.
+ */
+@ConfigurationPrefix(VehicleControllerConfiguration.PREFIX)
+public interface VehicleControllerConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "vehiclecontroller";
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to adapt the number of movement commands resources are allocated for in advance.",
+        "If 'true', resources are allocated for as many movement commands as needed to cover the "
+        + "vehicle's braking distance at its current velocity, and fewer in congested areas.",
+        "If 'false', resources are allocated for as many movement commands as the vehicle's "
+        + "communication adapter accepts."
+      },
+      orderKey = "0_lookahead_0")
+  boolean adaptiveLookAhead();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The deceleration assumed for computing a vehicle's braking distance "
+      + "(in mm/s²).",
+      orderKey = "0_lookahead_1")
+  int lookAheadDeceleration();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The maximum number of movement commands to allocate resources for in advance.",
+      orderKey = "0_lookahead_2")
+  int lookAheadMaxCommands();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The time waiting for an allocation (in ms) from which on the vehicle is considered to be "
+        + "in a congested area.",
+        "Each such allocation halves the number of movement commands to allocate resources for in "
+        + "advance; each faster allocation increases it by one again."
+      },
+      orderKey = "0_lookahead_3")
+  long lookAheadCongestionThreshold();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to stream whole routes to vehicles whose communication adapters support it.",
+        "If 'true', all movement commands of a drive order are sent to the communication adapter "
+        + "up front, and resources are allocated for a rolling window of steps ahead of the "
+        + "vehicle that is advanced whenever the vehicle reports an executed command."
+      },
+      orderKey = "1_streaming_0")
+  boolean routeStreaming();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The number of movement commands granted to a streaming vehicle ahead of its "
+      + "last executed one.",
+      orderKey = "1_streaming_1")
+  int routeStreamingGrantWindow();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The distance (in mm) a vehicle's reported precise position has to differ by from the last "
+        + "one forwarded to the kernel to be forwarded, too.",
+        "May be overridden per vehicle via the vehicle property 'tcs:precisePositionDeadband'."
+      },
+      orderKey = "2_position_0")
+  int precisePositionDeadband();
+
+  @ConfigurationEntry(
+      type = "Double",
+      description = {
+        "The angle (in degrees) a vehicle's reported orientation angle has to differ by from the "
+        + "last one forwarded to the kernel to be forwarded, too.",
+        "May be overridden per vehicle via the vehicle property 'tcs:orientationAngleDeadband'."
+      },
+      orderKey = "2_position_1")
+  double orientationAngleDeadband();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The minimum interval (in ms) between two precise positions or orientation angles of a "
+        + "vehicle forwarded to the kernel.",
+        "May be overridden per vehicle via the vehicle property 'tcs:positionUpdateInterval'."
+      },
+      orderKey = "2_position_2")
+  long positionUpdateInterval();
+}
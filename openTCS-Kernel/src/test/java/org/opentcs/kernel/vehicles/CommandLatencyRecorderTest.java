@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import java.util.Arrays;
+import java.util.List;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import org.opentcs.access.CommandStageLatency;
+import org.opentcs.drivers.vehicle.MovementCommand;
+
+/**
+ * Unit tests for {@link CommandLatencyRecorder}.
+ */
+public class CommandLatencyRecorderTest {
+
+  private CommandLatencyRecorder recorder;
+
+  private MovementCommand command;
+
+  @Before
+  public void setUp() {
+    recorder = new CommandLatencyRecorder();
+    command = mock(MovementCommand.class);
+  }
+
+  @Test
+  public void recordDurationsOfAllStages() {
+    recorder.commandCreated(command, 1000);
+    recorder.allocationRequested(command, 1005);
+    recorder.allocationGranted(command, 1305);
+    recorder.commandEnqueued(command, 1310);
+    recorder.commandSent(command, 1340);
+    recorder.commandExecuted(command, 4340);
+
+    assertThat(latency(CommandLatencyRecorder.Stage.QUEUED).getTotalTime(), is(5L));
+    assertThat(latency(CommandLatencyRecorder.Stage.ALLOCATION).getTotalTime(), is(300L));
+    assertThat(latency(CommandLatencyRecorder.Stage.ALLOCATED).getTotalTime(), is(5L));
+    assertThat(latency(CommandLatencyRecorder.Stage.ADAPTER_QUEUE).getTotalTime(), is(30L));
+    assertThat(latency(CommandLatencyRecorder.Stage.EXECUTION).getTotalTime(), is(3000L));
+    assertThat(latency(CommandLatencyRecorder.Stage.TOTAL).getTotalTime(), is(3340L));
+  }
+
+  @Test
+  public void aggregateDurationsInHistogram() {
+    MovementCommand otherCommand = mock(MovementCommand.class);
+    recorder.commandCreated(command, 1000);
+    recorder.allocationRequested(command, 1000);
+    recorder.allocationGranted(command, 1015);
+    recorder.commandExecuted(command, 2000);
+    recorder.commandCreated(otherCommand, 1000);
+    recorder.allocationRequested(otherCommand, 1000);
+    recorder.allocationGranted(otherCommand, 1700);
+    recorder.commandExecuted(otherCommand, 2000);
+
+    CommandStageLatency allocation = latency(CommandLatencyRecorder.Stage.ALLOCATION);
+    assertThat(allocation.getCount(), is(2L));
+    assertThat(allocation.getTotalTime(), is(715L));
+    assertThat(allocation.getMaxTime(), is(700L));
+    assertThat(allocation.getBucketCounts(),
+               is(Arrays.asList(0L, 1L, 0L, 0L, 0L, 0L, 1L, 0L, 0L, 0L, 0L, 0L, 0L)));
+  }
+
+  @Test
+  public void skipStagesNotReportedByCommAdapter() {
+    recorder.commandCreated(command, 1000);
+    recorder.allocationRequested(command, 1000);
+    recorder.allocationGranted(command, 1100);
+    recorder.commandEnqueued(command, 1100);
+    recorder.commandExecuted(command, 3100);
+
+    assertThat(latency(CommandLatencyRecorder.Stage.ADAPTER_QUEUE).getCount(), is(0L));
+    // Without a sent notification, execution is measured from the allocation on.
+    assertThat(latency(CommandLatencyRecorder.Stage.EXECUTION).getTotalTime(), is(2000L));
+  }
+
+  @Test
+  public void measureExecutionOfStreamedCommandFromAllocation() {
+    recorder.commandCreated(command, 1000);
+    recorder.commandEnqueued(command, 1000);
+    recorder.commandSent(command, 1010);
+    recorder.allocationRequested(command, 1500);
+    recorder.allocationGranted(command, 2000);
+    recorder.commandExecuted(command, 2500);
+
+    assertThat(latency(CommandLatencyRecorder.Stage.ALLOCATED).getCount(), is(0L));
+    assertThat(latency(CommandLatencyRecorder.Stage.EXECUTION).getTotalTime(), is(500L));
+  }
+
+  @Test
+  public void ignoreDiscardedCommands() {
+    MovementCommand otherCommand = mock(MovementCommand.class);
+    recorder.commandCreated(command, 1000);
+    recorder.commandCreated(otherCommand, 1000);
+    recorder.retainTraces(Arrays.asList(otherCommand));
+    recorder.commandExecuted(command, 2000);
+    recorder.commandExecuted(otherCommand, 3000);
+
+    CommandStageLatency total = latency(CommandLatencyRecorder.Stage.TOTAL);
+    assertThat(total.getCount(), is(1L));
+    assertThat(total.getTotalTime(), is(2000L));
+  }
+
+  private CommandStageLatency latency(CommandLatencyRecorder.Stage stage) {
+    List<CommandStageLatency> latencies = recorder.getLatencies();
+    return latencies.get(stage.ordinal());
+  }
+}
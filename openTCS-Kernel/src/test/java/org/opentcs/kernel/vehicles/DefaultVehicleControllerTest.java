@@ -11,17 +11,29 @@
  */
 package org.opentcs.kernel.vehicles;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.junit.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import org.opentcs.DataObjectFactory;
 import org.opentcs.access.LocalKernel;
 import org.opentcs.components.kernel.Scheduler;
@@ -31,6 +43,7 @@ import org.opentcs.components.kernel.services.NotificationService;
 import org.opentcs.data.model.Location;
 import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
 import org.opentcs.data.model.Triple;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
@@ -85,10 +98,18 @@ public class DefaultVehicleControllerTest {
    * The (mocked) vehicle service.
    */
   private InternalVehicleService vehicleService;
+  /**
+   * The (mocked) kernel executor.
+   */
+  private ScheduledExecutorService kernelExecutor;
   /**
    * A dummy scheduler.
    */
   private Scheduler scheduler;
+  /**
+   * The (mocked) vehicle controller configuration.
+   */
+  private VehicleControllerConfiguration configuration;
   /**
    * The instance we're testing.
    */
@@ -103,6 +124,7 @@ public class DefaultVehicleControllerTest {
     commAdapter = mock(VehicleCommAdapter.class);
     localKernel = mock(LocalKernel.class);
     vehicleService = mock(InternalVehicleService.class);
+    kernelExecutor = mock(ScheduledExecutorService.class);
 
     doReturn(RECHARGE_OP).when(commAdapter).getRechargeOperation();
     doReturn(vehicleModel).when(commAdapter).getProcessModel();
@@ -111,16 +133,14 @@ public class DefaultVehicleControllerTest {
     doReturn(vehicle).when(vehicleService).fetchObject(Vehicle.class, vehicle.getReference());
     doReturn(vehicle).when(vehicleService).fetchObject(Vehicle.class, vehicle.getName());
 
+    configuration = mock(VehicleControllerConfiguration.class);
+    when(configuration.lookAheadDeceleration()).thenReturn(500);
+    when(configuration.lookAheadMaxCommands()).thenReturn(5);
+    when(configuration.lookAheadCongestionThreshold()).thenReturn(1000L);
+
     scheduler = new DummyScheduler();
     scheduler.initialize();
-    stdVehicleController = new DefaultVehicleController(vehicle,
-                                                        commAdapter,
-                                                        localKernel,
-                                                        vehicleService,
-                                                        mock(NotificationService.class),
-                                                        mock(DispatcherService.class),
-                                                        scheduler,
-                                                        eventBus);
+    stdVehicleController = createController(scheduler);
     stdVehicleController.initialize();
   }
 
@@ -245,4 +265,230 @@ public class DefaultVehicleControllerTest {
     // Should result in an IllegalStateException:
     stdVehicleController.setDriveOrder(driveOrder, new HashMap<>());
   }
+
+  @Test
+  public void shouldAllocateOnlyForCommandQueueCapacityByDefault() {
+    Scheduler mockedScheduler = mock(Scheduler.class);
+    DefaultVehicleController controller = createController(mockedScheduler);
+    controller.initialize();
+    doReturn(1).when(commAdapter).getCommandQueueCapacity();
+    doReturn(true).when(commAdapter).enqueueCommand(any());
+    vehicleModel.setVehicleVelocity(2000);
+    List<Route.Step> steps = createSteps(3);
+
+    controller.setDriveOrder(createDriveOrder(steps), new HashMap<>());
+    controller.allocationSuccessful(resourcesOf(steps.get(0)));
+
+    verify(commAdapter, times(1)).enqueueCommand(any());
+    verify(mockedScheduler, never()).allocate(controller, resourcesOf(steps.get(1)));
+  }
+
+  @Test
+  public void shouldAllocateBeyondCommandQueueCapacityToCoverBrakingDistance() {
+    when(configuration.adaptiveLookAhead()).thenReturn(true);
+    Scheduler mockedScheduler = mock(Scheduler.class);
+    DefaultVehicleController controller = createController(mockedScheduler);
+    controller.initialize();
+    doReturn(1).when(commAdapter).getCommandQueueCapacity();
+    doReturn(true).when(commAdapter).enqueueCommand(any());
+    // Braking from 2000 mm/s takes 4000 mm, i.e. more than the next step's length.
+    vehicleModel.setVehicleVelocity(2000);
+    List<Route.Step> steps = createSteps(3);
+
+    controller.setDriveOrder(createDriveOrder(steps), new HashMap<>());
+    controller.allocationSuccessful(resourcesOf(steps.get(0)));
+    controller.allocationSuccessful(resourcesOf(steps.get(1)));
+
+    verify(commAdapter, times(1)).enqueueCommand(any());
+    verify(mockedScheduler).allocate(controller, resourcesOf(steps.get(2)));
+  }
+
+  @Test
+  public void shouldNotAllocateBeyondBrakingDistance() {
+    when(configuration.adaptiveLookAhead()).thenReturn(true);
+    Scheduler mockedScheduler = mock(Scheduler.class);
+    DefaultVehicleController controller = createController(mockedScheduler);
+    controller.initialize();
+    doReturn(1).when(commAdapter).getCommandQueueCapacity();
+    doReturn(true).when(commAdapter).enqueueCommand(any());
+    // Braking from 500 mm/s takes 250 mm, i.e. less than the next step's length.
+    vehicleModel.setVehicleVelocity(500);
+    List<Route.Step> steps = createSteps(3);
+
+    controller.setDriveOrder(createDriveOrder(steps), new HashMap<>());
+    controller.allocationSuccessful(resourcesOf(steps.get(0)));
+    controller.allocationSuccessful(resourcesOf(steps.get(1)));
+
+    verify(mockedScheduler, never()).allocate(controller, resourcesOf(steps.get(2)));
+
+    // Allocate for the last step as soon as the vehicle drives fast enough.
+    vehicleModel.setVehicleVelocity(2000);
+
+    verify(mockedScheduler).allocate(controller, resourcesOf(steps.get(2)));
+  }
+
+  @Test
+  public void shouldStreamWholeRouteAndGrantRollingWindow() {
+    when(configuration.routeStreaming()).thenReturn(true);
+    when(configuration.routeStreamingGrantWindow()).thenReturn(2);
+    // Only the controller being tested is to process the executed command reported below.
+    stdVehicleController.terminate();
+    Scheduler mockedScheduler = mock(Scheduler.class);
+    DefaultVehicleController controller = createController(mockedScheduler);
+    controller.initialize();
+    doReturn(true).when(commAdapter).isRouteStreamingSupported();
+    doReturn(10).when(commAdapter).getCommandQueueCapacity();
+    doReturn(true).when(commAdapter).enqueueCommand(any());
+    List<Route.Step> steps = createSteps(4);
+
+    controller.setDriveOrder(createDriveOrder(steps), new HashMap<>());
+
+    verify(commAdapter, times(4)).enqueueCommand(any());
+    assertTrue(controller.getCommandsSent().isEmpty());
+
+    controller.allocationSuccessful(resourcesOf(steps.get(0)));
+    controller.allocationSuccessful(resourcesOf(steps.get(1)));
+
+    verify(commAdapter).updateGrantedRouteIndex(0);
+    verify(commAdapter).updateGrantedRouteIndex(1);
+    assertEquals(2, controller.getCommandsSent().size());
+    verify(mockedScheduler, never()).allocate(controller, resourcesOf(steps.get(2)));
+
+    // Executing a command advances the grant window.
+    vehicleModel.commandExecuted(controller.getCommandsSent().peek());
+
+    verify(mockedScheduler).allocate(controller, resourcesOf(steps.get(2)));
+    verify(commAdapter, times(4)).enqueueCommand(any());
+  }
+
+  @Test
+  public void shouldKeepPendingStreamedCommandWhenUpdatingDriveOrder() {
+    when(configuration.routeStreaming()).thenReturn(true);
+    when(configuration.routeStreamingGrantWindow()).thenReturn(2);
+    Scheduler mockedScheduler = mock(Scheduler.class);
+    DefaultVehicleController controller = createController(mockedScheduler);
+    controller.initialize();
+    doReturn(true).when(commAdapter).isRouteStreamingSupported();
+    doReturn(10).when(commAdapter).getCommandQueueCapacity();
+    doReturn(true).when(commAdapter).enqueueCommand(any());
+    List<Route.Step> steps = createSteps(4);
+    DriveOrder driveOrder = createDriveOrder(steps);
+
+    controller.setDriveOrder(driveOrder, new HashMap<>());
+    controller.allocationSuccessful(resourcesOf(steps.get(0)));
+    verify(mockedScheduler).allocate(controller, resourcesOf(steps.get(1)));
+
+    controller.updateDriveOrder(driveOrder, new HashMap<>());
+
+    // The allocation requested before the update still grants the streamed command.
+    assertTrue(controller.allocationSuccessful(resourcesOf(steps.get(1))));
+    verify(commAdapter).updateGrantedRouteIndex(1);
+  }
+
+  @Test
+  public void shouldNotStreamRouteIfCommAdapterDoesNotSupportIt() {
+    when(configuration.routeStreaming()).thenReturn(true);
+    when(configuration.routeStreamingGrantWindow()).thenReturn(2);
+    Scheduler mockedScheduler = mock(Scheduler.class);
+    DefaultVehicleController controller = createController(mockedScheduler);
+    controller.initialize();
+    doReturn(1).when(commAdapter).getCommandQueueCapacity();
+    doReturn(true).when(commAdapter).enqueueCommand(any());
+    List<Route.Step> steps = createSteps(3);
+
+    controller.setDriveOrder(createDriveOrder(steps), new HashMap<>());
+
+    verify(commAdapter, never()).enqueueCommand(any());
+
+    controller.allocationSuccessful(resourcesOf(steps.get(0)));
+
+    verify(commAdapter, times(1)).enqueueCommand(any());
+    verify(commAdapter, never()).updateGrantedRouteIndex(anyInt());
+  }
+
+  @Test
+  public void shouldNotForwardPrecisePositionJitterToKernel() {
+    when(configuration.precisePositionDeadband()).thenReturn(50);
+    // Only the controller being tested is to process the positions reported below.
+    stdVehicleController.terminate();
+    DefaultVehicleController controller = createController(scheduler);
+    controller.initialize();
+    Triple position = new Triple(1000, 1000, 0);
+    Triple jitteredPosition = new Triple(1010, 995, 0);
+    Triple movedPosition = new Triple(1100, 1000, 0);
+
+    vehicleModel.setVehiclePrecisePosition(position);
+    vehicleModel.setVehiclePrecisePosition(jitteredPosition);
+    vehicleModel.setVehiclePrecisePosition(movedPosition);
+
+    verify(vehicleService).updateVehiclePrecisePosition(vehicle.getReference(), position);
+    verify(vehicleService, never()).updateVehiclePrecisePosition(vehicle.getReference(),
+                                                                 jitteredPosition);
+    verify(vehicleService).updateVehiclePrecisePosition(vehicle.getReference(), movedPosition);
+    controller.terminate();
+  }
+
+  @Test
+  public void shouldForwardPrecisePositionHeldBackByIntervalLater()
+      throws InterruptedException {
+    when(configuration.positionUpdateInterval()).thenReturn(200L);
+    stdVehicleController.terminate();
+    DefaultVehicleController controller = createController(scheduler);
+    controller.initialize();
+    ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(kernelExecutor).scheduleWithFixedDelay(taskCaptor.capture(),
+                                                  eq(200L),
+                                                  eq(200L),
+                                                  eq(TimeUnit.MILLISECONDS));
+    Triple position = new Triple(1000, 1000, 0);
+    Triple finalPosition = new Triple(2000, 1000, 0);
+
+    vehicleModel.setVehiclePrecisePosition(position);
+    vehicleModel.setVehiclePrecisePosition(finalPosition);
+    verify(vehicleService, never()).updateVehiclePrecisePosition(vehicle.getReference(),
+                                                                 finalPosition);
+
+    // The vehicle stops and does not report its final position again.
+    Thread.sleep(250);
+    taskCaptor.getValue().run();
+
+    verify(vehicleService).updateVehiclePrecisePosition(vehicle.getReference(), finalPosition);
+    controller.terminate();
+  }
+
+  private DefaultVehicleController createController(Scheduler scheduler) {
+    return new DefaultVehicleController(vehicle,
+                                        commAdapter,
+                                        localKernel,
+                                        vehicleService,
+                                        mock(NotificationService.class),
+                                        mock(DispatcherService.class),
+                                        scheduler,
+                                        eventBus,
+                                        kernelExecutor,
+                                        configuration);
+  }
+
+  private List<Route.Step> createSteps(int count) {
+    List<Route.Step> steps = new LinkedList<>();
+    Point srcPoint = dataObjectFactory.createPoint();
+    for (int i = 0; i < count; i++) {
+      Point dstPoint = dataObjectFactory.createPoint();
+      Path path = dataObjectFactory.createPath(srcPoint.getReference(), dstPoint.getReference())
+          .withLength(1000);
+      steps.add(new Route.Step(path, srcPoint, dstPoint, Vehicle.Orientation.FORWARD, i));
+      srcPoint = dstPoint;
+    }
+    return steps;
+  }
+
+  private DriveOrder createDriveOrder(List<Route.Step> steps) {
+    Location location = dataObjectFactory.createLocation();
+    return new DriveOrder(new DriveOrder.Destination(location.getReference()))
+        .withRoute(new Route(steps, steps.size()));
+  }
+
+  private Set<TCSResource<?>> resourcesOf(Route.Step step) {
+    return new HashSet<>(Arrays.asList(step.getDestinationPoint(), step.getPath()));
+  }
 }
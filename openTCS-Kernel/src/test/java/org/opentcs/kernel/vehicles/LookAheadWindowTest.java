@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link LookAheadWindow}.
+ */
+public class LookAheadWindowTest {
+
+  private LookAheadWindow window;
+
+  @Before
+  public void setUp() {
+    window = new LookAheadWindow(500, 4, 1000);
+  }
+
+  @Test
+  public void computeBrakingDistance() {
+    assertThat(window.getBrakingDistance(0), is(0L));
+    assertThat(window.getBrakingDistance(1000), is(1000L));
+    assertThat(window.getBrakingDistance(2000), is(4000L));
+  }
+
+  @Test
+  public void alwaysAllocateOneCommandInAdvance() {
+    assertTrue(window.isAllocationNeeded(0, 0, 0));
+    assertTrue(window.isAllocationNeeded(0, 1, 0));
+    assertFalse(window.isAllocationNeeded(0, 2, 0));
+  }
+
+  @Test
+  public void allocateUntilBrakingDistanceIsCovered() {
+    assertTrue(window.isAllocationNeeded(2000, 2, 1000));
+    assertTrue(window.isAllocationNeeded(2000, 4, 3000));
+    assertFalse(window.isAllocationNeeded(2000, 5, 4000));
+  }
+
+  @Test
+  public void limitNumberOfCommandsInAdvance() {
+    assertFalse(window.isAllocationNeeded(10000, 5, 4000));
+  }
+
+  @Test
+  public void shrinkWindowOnSlowAllocations() {
+    window.allocationGranted(1000);
+    assertThat(window.getCongestionWindow(), is(2));
+    assertFalse(window.isAllocationNeeded(2000, 3, 2000));
+
+    window.allocationGranted(5000);
+    window.allocationGranted(5000);
+    assertThat(window.getCongestionWindow(), is(1));
+    assertTrue(window.isAllocationNeeded(2000, 1, 0));
+  }
+
+  @Test
+  public void growWindowOnFastAllocations() {
+    window.allocationGranted(1000);
+    window.allocationGranted(1000);
+    assertThat(window.getCongestionWindow(), is(1));
+
+    window.allocationGranted(10);
+    window.allocationGranted(10);
+    assertThat(window.getCongestionWindow(), is(3));
+
+    window.allocationGranted(10);
+    window.allocationGranted(10);
+    assertThat(window.getCongestionWindow(), is(4));
+  }
+}
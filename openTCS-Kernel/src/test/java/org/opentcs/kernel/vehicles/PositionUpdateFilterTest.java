@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+
+/**
+ * Unit tests for {@link PositionUpdateFilter}.
+ */
+public class PositionUpdateFilterTest {
+
+  private PositionUpdateFilter filter;
+
+  @Before
+  public void setUp() {
+    filter = new PositionUpdateFilter(20, 1.0, 1000);
+  }
+
+  @Test
+  public void suppressPositionsWithinDeadband() {
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 0));
+    assertFalse(filter.acceptPrecisePosition(new Triple(1010, 990, 0), 5000));
+    assertTrue(filter.acceptPrecisePosition(new Triple(1030, 1000, 0), 5000));
+  }
+
+  @Test
+  public void limitRateOfForwardedPositions() {
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 0));
+    assertFalse(filter.acceptPrecisePosition(new Triple(2000, 1000, 0), 500));
+    // The suppressed movement is forwarded with the next report after the interval.
+    assertTrue(filter.acceptPrecisePosition(new Triple(2000, 1000, 0), 1000));
+  }
+
+  @Test
+  public void pollPositionSuppressedByIntervalOnceItHasElapsed() {
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 0));
+    assertFalse(filter.acceptPrecisePosition(new Triple(2000, 1000, 0), 500));
+    assertNull(filter.pollPendingPrecisePosition(900));
+    assertThat(filter.pollPendingPrecisePosition(1000), is(new Triple(2000, 1000, 0)));
+    // The polled position counts as forwarded.
+    assertNull(filter.pollPendingPrecisePosition(3000));
+    assertFalse(filter.acceptPrecisePosition(new Triple(2000, 1000, 0), 3000));
+  }
+
+  @Test
+  public void pollOrientationAngleSuppressedByIntervalOnceItHasElapsed() {
+    assertTrue(filter.acceptOrientationAngle(90.0, 0));
+    assertFalse(filter.acceptOrientationAngle(180.0, 500));
+    assertTrue(Double.isNaN(filter.pollPendingOrientationAngle(900)));
+    assertThat(filter.pollPendingOrientationAngle(1000), is(180.0));
+    assertTrue(Double.isNaN(filter.pollPendingOrientationAngle(3000)));
+  }
+
+  @Test
+  public void dropPendingReportWhenVehicleReturnsIntoDeadband() {
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 0));
+    assertFalse(filter.acceptPrecisePosition(new Triple(2000, 1000, 0), 500));
+    assertFalse(filter.acceptPrecisePosition(new Triple(1010, 1000, 0), 600));
+    assertNull(filter.pollPendingPrecisePosition(1000));
+  }
+
+  @Test
+  public void alwaysForwardChangesFromAndToUnknownValues() {
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 0));
+    assertTrue(filter.acceptPrecisePosition(null, 10));
+    assertFalse(filter.acceptPrecisePosition(null, 5000));
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 20));
+
+    assertTrue(filter.acceptOrientationAngle(90.0, 0));
+    assertTrue(filter.acceptOrientationAngle(Double.NaN, 10));
+    assertTrue(filter.acceptOrientationAngle(90.0, 20));
+  }
+
+  @Test
+  public void compareOrientationAnglesAcrossFullCircle() {
+    assertTrue(filter.acceptOrientationAngle(359.5, 0));
+    assertFalse(filter.acceptOrientationAngle(0.2, 5000));
+    assertTrue(filter.acceptOrientationAngle(2.0, 5000));
+  }
+
+  @Test
+  public void forwardNextReportsAfterReset() {
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 0));
+    assertFalse(filter.acceptPrecisePosition(new Triple(2000, 1000, 0), 5));
+    filter.reset();
+    assertNull(filter.pollPendingPrecisePosition(5000));
+    assertTrue(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 10));
+  }
+
+  @Test
+  public void preferVehiclePropertiesOverConfiguration() {
+    VehicleControllerConfiguration configuration = mock(VehicleControllerConfiguration.class);
+    when(configuration.precisePositionDeadband()).thenReturn(20);
+    Vehicle vehicle = new Vehicle("Vehicle")
+        .withProperty(PositionUpdateFilter.PROPKEY_PRECISE_POSITION_DEADBAND, "100")
+        .withProperty(PositionUpdateFilter.PROPKEY_POSITION_UPDATE_INTERVAL, "invalid");
+    filter = new PositionUpdateFilter(vehicle, configuration);
+
+    assertThat(filter.acceptPrecisePosition(new Triple(1000, 1000, 0), 0), is(true));
+    assertThat(filter.acceptPrecisePosition(new Triple(1050, 1000, 0), 0), is(false));
+    assertThat(filter.acceptPrecisePosition(new Triple(1200, 1000, 0), 0), is(true));
+  }
+}
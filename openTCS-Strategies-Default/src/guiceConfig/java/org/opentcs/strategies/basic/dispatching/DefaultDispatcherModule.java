@@ -16,7 +16,9 @@ import org.opentcs.customizations.kernel.KernelInjectionModule;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.strategies.basic.dispatching.phase.parking.DefaultParkingPositionSupplier;
-import org.opentcs.strategies.basic.dispatching.phase.recharging.DefaultRechargePositionSupplier;
+import org.opentcs.strategies.basic.dispatching.phase.parking.DemandPredictiveParkingPositionSupplier;
+import org.opentcs.strategies.basic.dispatching.phase.parking.PickupDemandStatistics;
+import org.opentcs.strategies.basic.dispatching.phase.recharging.CapacityAwareRechargePositionSupplier;
 import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderCandidateComparator;
 import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderComparator;
 import org.opentcs.strategies.basic.dispatching.priorization.CompositeVehicleCandidateComparator;
@@ -94,18 +96,34 @@ public class DefaultDispatcherModule
     bind(CompositeAssignmentCandidateSelectionFilter.class)
         .in(Singleton.class);
 
+    DefaultDispatcherConfiguration configuration
+        = getConfigBindingProvider().get(DefaultDispatcherConfiguration.PREFIX,
+                                         DefaultDispatcherConfiguration.class);
     bind(DefaultDispatcherConfiguration.class)
-        .toInstance(getConfigBindingProvider().get(DefaultDispatcherConfiguration.PREFIX,
-                                                   DefaultDispatcherConfiguration.class));
+        .toInstance(configuration);
 
     bind(OrderReservationPool.class)
         .in(Singleton.class);
+    bind(DispatchableOrderQueue.class)
+        .in(Singleton.class);
 
-    bind(org.opentcs.components.kernel.ParkingPositionSupplier.class)
-        .to(DefaultParkingPositionSupplier.class)
+    bind(PickupDemandStatistics.class)
         .in(Singleton.class);
+
+    switch (configuration.parkingPositionSupplier()) {
+      case DEMAND_PREDICTIVE:
+        bind(org.opentcs.components.kernel.ParkingPositionSupplier.class)
+            .to(DemandPredictiveParkingPositionSupplier.class)
+            .in(Singleton.class);
+        break;
+      case NEAREST:
+      default:
+        bind(org.opentcs.components.kernel.ParkingPositionSupplier.class)
+            .to(DefaultParkingPositionSupplier.class)
+            .in(Singleton.class);
+    }
     bind(org.opentcs.components.kernel.RechargePositionSupplier.class)
-        .to(DefaultRechargePositionSupplier.class)
+        .to(CapacityAwareRechargePositionSupplier.class)
         .in(Singleton.class);
 
     MapBinder<String, Comparator<Vehicle>> vehicleComparatorBinder
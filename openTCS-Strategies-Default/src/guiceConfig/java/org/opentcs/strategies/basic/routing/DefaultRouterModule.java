@@ -7,12 +7,19 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import com.google.inject.Provider;
+import javax.inject.Singleton;
+import org.opentcs.components.kernel.services.TCSObjectService;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.strategies.basic.routing.csr.ContractionHierarchyPointRouterFactory;
+import org.opentcs.strategies.basic.routing.csr.CostMatrixPointRouterFactory;
+import org.opentcs.strategies.basic.routing.csr.CsrPointRouterFactory;
 import org.opentcs.strategies.basic.routing.jgrapht.BellmanFordPointRouterFactory;
 import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
 import org.opentcs.strategies.basic.routing.jgrapht.DijkstraPointRouterFactory;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluator;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorComposite;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorCongestion;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorDistance;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorExplicitProperties;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorHops;
@@ -21,6 +28,7 @@ import org.opentcs.strategies.basic.routing.jgrapht.FloydWarshallPointRouterFact
 import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
 import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
 import org.opentcs.strategies.basic.routing.jgrapht.AStarPointRouterFactory;
+import static org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration.EvaluatorType.CONGESTION;
 import static org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration.EvaluatorType.EXPLICIT;
 import static org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration.EvaluatorType.TRAVELTIME;
 import org.slf4j.Logger;
@@ -42,6 +50,8 @@ public class DefaultRouterModule
   @Override
   protected void configure() {
     configureRouterDependencies();
+    bind(DefaultRouter.class)
+        .in(Singleton.class);
     bindRouter(DefaultRouter.class);
   }
 
@@ -76,6 +86,33 @@ public class DefaultRouterModule
         bind(PointRouterFactory.class)
             .to(FloydWarshallPointRouterFactory.class);
         break;
+      case CSR_DIJKSTRA:
+      case CSR_ASTAR:
+        bind(PointRouterFactory.class)
+            .to(CsrPointRouterFactory.class);
+        break;
+      case CSR_COST_MATRIX:
+        if (spConfiguration.edgeEvaluators().contains(CONGESTION)) {
+          // Every congestion refresh changes edge weights, which would trigger a recomputation
+          // of the whole cost matrix (and a new matrix file) each time.
+          LOG.warn("Cost matrix routing cannot be combined with the congestion evaluator, falling "
+              + "back to on-demand search using A* on the compiled graph.");
+          Provider<TCSObjectService> objectServiceProvider = getProvider(TCSObjectService.class);
+          Provider<ModelGraphMapper> mapperProvider = getProvider(ModelGraphMapper.class);
+          bind(PointRouterFactory.class)
+              .toProvider(() -> new CsrPointRouterFactory(objectServiceProvider.get(),
+                                                          mapperProvider.get(),
+                                                          true));
+        }
+        else {
+          bind(PointRouterFactory.class)
+              .to(CostMatrixPointRouterFactory.class);
+        }
+        break;
+      case CONTRACTION_HIERARCHY:
+        bind(PointRouterFactory.class)
+            .to(ContractionHierarchyPointRouterFactory.class);
+        break;
       default:
         LOG.warn("Unhandled algorithm selected ({}), falling back to Dijkstra's algorithm.",
                  spConfiguration.algorithm());
@@ -83,11 +120,13 @@ public class DefaultRouterModule
             .to(DijkstraPointRouterFactory.class);
     }
 
-    bind(EdgeEvaluator.class)
+    bind(EdgeEvaluatorComposite.class)
         .toProvider(() -> {
           EdgeEvaluatorComposite result = new EdgeEvaluatorComposite();
           for (ShortestPathConfiguration.EvaluatorType type : spConfiguration.edgeEvaluators()) {
-            result.getComponents().add(toEdgeEvaluator(type));
+            if (type != CONGESTION) {
+              result.getComponents().add(toEdgeEvaluator(type));
+            }
           }
           // Make sure at least one evaluator is used.
           if (result.getComponents().isEmpty()) {
@@ -96,6 +135,24 @@ public class DefaultRouterModule
           }
           return result;
         });
+
+    if (spConfiguration.edgeEvaluators().contains(CONGESTION)) {
+      Provider<EdgeEvaluatorComposite> compositeProvider
+          = getProvider(EdgeEvaluatorComposite.class);
+      bind(EdgeEvaluatorCongestion.class)
+          .toProvider(() -> new EdgeEvaluatorCongestion(compositeProvider.get(),
+                                                        spConfiguration.congestionPenaltyFactor()))
+          .in(Singleton.class);
+      bind(EdgeEvaluator.class)
+          .to(EdgeEvaluatorCongestion.class);
+      extensionsBinderOperating().addBinding()
+          .to(CongestionMonitor.class)
+          .in(Singleton.class);
+    }
+    else {
+      bind(EdgeEvaluator.class)
+          .to(EdgeEvaluatorComposite.class);
+    }
   }
 
   @SuppressWarnings("deprecation")
@@ -11,6 +11,7 @@ import com.google.inject.multibindings.Multibinder;
 import javax.inject.Singleton;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.strategies.basic.scheduling.modules.PathTimeWindowModule;
 import org.opentcs.strategies.basic.scheduling.modules.SameDirectionBlockModule;
 import org.opentcs.strategies.basic.scheduling.modules.SingleVehicleBlockModule;
 
@@ -30,10 +31,20 @@ public class DefaultSchedulerModule
 
   private void configureSchedulerDependencies() {
     bind(ReservationPool.class).in(Singleton.class);
+    bind(DeadlockResolver.class).in(Singleton.class);
+
+    DefaultSchedulerConfiguration configuration
+        = getConfigBindingProvider().get(DefaultSchedulerConfiguration.PREFIX,
+                                         DefaultSchedulerConfiguration.class);
+    bind(DefaultSchedulerConfiguration.class)
+        .toInstance(configuration);
 
     Multibinder<Scheduler.Module> moduleBinder = Multibinder.newSetBinder(binder(),
                                                                           Scheduler.Module.class);
     moduleBinder.addBinding().to(SingleVehicleBlockModule.class);
     moduleBinder.addBinding().to(SameDirectionBlockModule.class);
+    if (configuration.timeWindowReservations()) {
+      moduleBinder.addBinding().to(PathTimeWindowModule.class);
+    }
   }
 }
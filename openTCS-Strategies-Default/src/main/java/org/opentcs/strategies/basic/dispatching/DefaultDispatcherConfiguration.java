@@ -133,6 +133,38 @@ public interface DefaultDispatcherConfiguration {
       orderKey = "2_park_2")
   boolean reparkVehiclesToHigherPriorityPositions();
 
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "The strategy for selecting parking positions for idle vehicles.",
+        "Possible values:",
+        "NEAREST: Select the nearest unoccupied parking position.",
+        "DEMAND_PREDICTIVE: Select the unoccupied parking position closest to where transport "
+        + "orders are expected to start, learned from finished orders per time of day."
+      },
+      orderKey = "2_park_3")
+  ParkingPositionSupplierType parkingPositionSupplier();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The time window (in ms) for which pick-up demand is predicted for parking.",
+      orderKey = "2_park_4")
+  long demandPredictionWindow();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The number of past days (excluding the current one) from which pick-up demand "
+      + "is learned for parking.",
+      orderKey = "2_park_5")
+  int demandHistoryDays();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The maximum number of pick-up locations with the highest predicted demand that "
+      + "are considered for parking.",
+      orderKey = "2_park_6")
+  int demandPredictionHotspots();
+
   @ConfigurationEntry(
       type = "Boolean",
       description = "Whether to automatically create recharge orders for idle vehicles.",
@@ -146,6 +178,22 @@ public interface DefaultDispatcherConfiguration {
       orderKey = "3_recharge_1")
   boolean keepRechargingUntilFullyCharged();
 
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {"Whether to send idle vehicles that are not fully charged to recharge locations "
+                     + "while the predicted order load leaves enough vehicles available.",
+                     "Such opportunity charges are withdrawn as soon as the vehicle is needed."},
+      orderKey = "3_recharge_2")
+  boolean opportunityCharging();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The time window (in ms) for which the order load is predicted when deciding on "
+      + "opportunity charges. Vehicles predicted to finish their transport orders within this "
+      + "window (based on travel time only) count as available for that load.",
+      orderKey = "3_recharge_3")
+  long opportunityChargingWindow();
+
   @ConfigurationEntry(
       type = "Integer",
       description = "The interval between redispatching of vehicles.",
@@ -163,4 +211,9 @@ public interface DefaultDispatcherConfiguration {
     PAUSE_IMMEDIATELY,
     PAUSE_AT_PATH_LOCK;
   }
+
+  enum ParkingPositionSupplierType {
+    NEAREST,
+    DEMAND_PREDICTIVE;
+  }
 }
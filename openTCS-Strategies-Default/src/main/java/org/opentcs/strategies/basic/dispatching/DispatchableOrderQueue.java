@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderComparator;
+import org.opentcs.strategies.basic.dispatching.priorization.transportorder.TransportOrderComparatorDeadlineAtRiskFirst;
+import org.opentcs.util.event.EventHandler;
+import org.opentcs.util.event.EventSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps all dispatchable transport orders ordered by the configured order priorities.
+ * <p>
+ * The queue is updated incrementally with every transport order event, so retrieving the orders
+ * in the order of their priorities does not require sorting all of them again in every dispatch
+ * run. If the configured priorities depend on the current time (as with
+ * {@link TransportOrderComparatorDeadlineAtRiskFirst}), the relative order of the transport orders
+ * may change without any event, so the orders are sorted whenever they are retrieved, instead.
+ * </p>
+ */
+public class DispatchableOrderQueue
+    implements EventHandler,
+               Lifecycle {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(DispatchableOrderQueue.class);
+  /**
+   * The object service.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Where we register for application events.
+   */
+  private final EventSource eventSource;
+  /**
+   * Defines the order of the transport orders.
+   */
+  private final CompositeOrderComparator orderComparator;
+  /**
+   * Whether the order of the transport orders depends on the current time.
+   */
+  private final boolean orderingTimeDependent;
+  /**
+   * The dispatchable transport orders, ordered by their priorities.
+   * Not used if the order of the transport orders is time-dependent.
+   */
+  private final TreeSet<TransportOrder> orderedOrders;
+  /**
+   * The dispatchable transport orders, mapped by their names.
+   */
+  private final Map<String, TransportOrder> ordersByName = new HashMap<>();
+  /**
+   * Indicates whether this component is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service.
+   * @param eventSource Where this instance registers for application events.
+   * @param orderComparator Defines the order of the transport orders.
+   * @param configuration The default dispatcher's configuration.
+   */
+  @Inject
+  public DispatchableOrderQueue(TCSObjectService objectService,
+                                @ApplicationEventBus EventSource eventSource,
+                                CompositeOrderComparator orderComparator,
+                                DefaultDispatcherConfiguration configuration) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.eventSource = requireNonNull(eventSource, "eventSource");
+    this.orderComparator = requireNonNull(orderComparator, "orderComparator");
+    this.orderingTimeDependent = configuration.orderPriorities()
+        .contains(TransportOrderComparatorDeadlineAtRiskFirst.CONFIGURATION_KEY);
+    this.orderedOrders = new TreeSet<>(orderComparator);
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    // Register for events before fetching the orders, so no modifications get lost.
+    eventSource.subscribe(this);
+    synchronized (this) {
+      for (TransportOrder order : objectService.fetchObjects(TransportOrder.class,
+                                                             this::isDispatchable)) {
+        add(order);
+      }
+      LOG.debug("Initialized with {} dispatchable transport orders.", ordersByName.size());
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    eventSource.unsubscribe(this);
+    synchronized (this) {
+      orderedOrders.clear();
+      ordersByName.clear();
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    if (!(event instanceof TCSObjectEvent)) {
+      return;
+    }
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    if (!(objectEvent.getCurrentOrPreviousObjectState() instanceof TransportOrder)) {
+      return;
+    }
+
+    TransportOrder order = (TransportOrder) objectEvent.getCurrentOrPreviousObjectState();
+    synchronized (this) {
+      remove(order.getName());
+      if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_REMOVED && isDispatchable(order)) {
+        add(order);
+      }
+    }
+  }
+
+  /**
+   * Returns all dispatchable transport orders accepted by the given filter, ordered by their
+   * priorities.
+   *
+   * @param filter The filter the returned transport orders must pass.
+   * @return The dispatchable transport orders, ordered by their priorities.
+   */
+  @Nonnull
+  public synchronized List<TransportOrder> getOrders(
+      @Nonnull Predicate<? super TransportOrder> filter) {
+    requireNonNull(filter, "filter");
+
+    if (orderingTimeDependent) {
+      List<TransportOrder> result = filter(ordersByName.values(), filter);
+      result.sort(orderComparator);
+      return result;
+    }
+    return filter(orderedOrders, filter);
+  }
+
+  /**
+   * Checks whether the transport order with the given name is dispatchable.
+   *
+   * @param orderName The name of the transport order.
+   * @return <code>true</code> if, and only if, the transport order is dispatchable.
+   */
+  public synchronized boolean contains(@Nonnull String orderName) {
+    return ordersByName.containsKey(orderName);
+  }
+
+  /**
+   * Returns the number of dispatchable transport orders.
+   *
+   * @return The number of dispatchable transport orders.
+   */
+  public synchronized int size() {
+    return ordersByName.size();
+  }
+
+  private List<TransportOrder> filter(Collection<TransportOrder> orders,
+                                      Predicate<? super TransportOrder> filter) {
+    List<TransportOrder> result = new ArrayList<>();
+    for (TransportOrder order : orders) {
+      if (filter.test(order)) {
+        result.add(order);
+      }
+    }
+    return result;
+  }
+
+  private void add(TransportOrder order) {
+    ordersByName.put(order.getName(), order);
+    if (!orderingTimeDependent) {
+      orderedOrders.add(order);
+    }
+  }
+
+  private void remove(String orderName) {
+    TransportOrder oldOrder = ordersByName.remove(orderName);
+    if (oldOrder != null && !orderingTimeDependent) {
+      orderedOrders.remove(oldOrder);
+    }
+  }
+
+  private boolean isDispatchable(TransportOrder order) {
+    return order.hasState(TransportOrder.State.DISPATCHABLE);
+  }
+}
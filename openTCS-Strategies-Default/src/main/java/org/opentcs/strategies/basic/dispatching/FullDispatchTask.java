@@ -19,6 +19,7 @@ import org.opentcs.strategies.basic.dispatching.phase.assignment.AssignNextDrive
 import org.opentcs.strategies.basic.dispatching.phase.parking.ParkIdleVehiclesPhase;
 import org.opentcs.strategies.basic.dispatching.phase.parking.PrioritizedParkingPhase;
 import org.opentcs.strategies.basic.dispatching.phase.parking.PrioritizedReparkPhase;
+import org.opentcs.strategies.basic.dispatching.phase.recharging.OpportunityChargingPhase;
 import org.opentcs.strategies.basic.dispatching.phase.recharging.RechargeIdleVehiclesPhase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +45,7 @@ public class FullDispatchTask
   private final AssignSequenceSuccessorsPhase assignSequenceSuccessorsPhase;
   private final AssignFreeOrdersPhase assignFreeOrdersPhase;
   private final RechargeIdleVehiclesPhase rechargeIdleVehiclesPhase;
+  private final OpportunityChargingPhase opportunityChargingPhase;
   private final PrioritizedReparkPhase prioritizedReparkPhase;
   private final PrioritizedParkingPhase prioritizedParkingPhase;
   private final ParkIdleVehiclesPhase parkIdleVehiclesPhase;
@@ -60,6 +62,7 @@ public class FullDispatchTask
                           AssignSequenceSuccessorsPhase assignSequenceSuccessorsPhase,
                           AssignFreeOrdersPhase assignFreeOrdersPhase,
                           RechargeIdleVehiclesPhase rechargeIdleVehiclesPhase,
+                          OpportunityChargingPhase opportunityChargingPhase,
                           PrioritizedReparkPhase prioritizedReparkPhase,
                           PrioritizedParkingPhase prioritizedParkingPhase,
                           ParkIdleVehiclesPhase parkIdleVehiclesPhase) {
@@ -74,6 +77,8 @@ public class FullDispatchTask
     this.assignFreeOrdersPhase = requireNonNull(assignFreeOrdersPhase, "assignFreeOrdersPhase");
     this.rechargeIdleVehiclesPhase = requireNonNull(rechargeIdleVehiclesPhase,
                                                     "rechargeIdleVehiclesPhase");
+    this.opportunityChargingPhase = requireNonNull(opportunityChargingPhase,
+                                                   "opportunityChargingPhase");
     this.prioritizedReparkPhase = requireNonNull(prioritizedReparkPhase, "prioritizedReparkPhase");
     this.prioritizedParkingPhase = requireNonNull(prioritizedParkingPhase,
                                                   "prioritizedParkingPhase");
@@ -93,6 +98,7 @@ public class FullDispatchTask
     assignSequenceSuccessorsPhase.initialize();
     assignFreeOrdersPhase.initialize();
     rechargeIdleVehiclesPhase.initialize();
+    opportunityChargingPhase.initialize();
     prioritizedReparkPhase.initialize();
     prioritizedParkingPhase.initialize();
     parkIdleVehiclesPhase.initialize();
@@ -113,6 +119,7 @@ public class FullDispatchTask
     assignSequenceSuccessorsPhase.terminate();
     assignFreeOrdersPhase.terminate();
     rechargeIdleVehiclesPhase.terminate();
+    opportunityChargingPhase.terminate();
     prioritizedReparkPhase.terminate();
     prioritizedParkingPhase.terminate();
     parkIdleVehiclesPhase.terminate();
@@ -156,11 +163,13 @@ public class FullDispatchTask
   /**
    * Recharging of vehicles.
    * <p>
-   * Default: Sends idle vehicles with a degraded energy level to recharge locations.
+   * Default: Sends idle vehicles with a degraded energy level to recharge locations, then sends
+   * idle vehicles not needed for the expected order load to recharge locations (if enabled).
    * </p>
    */
   protected void rechargeVehicles() {
     rechargeIdleVehiclesPhase.run();
+    opportunityChargingPhase.run();
   }
 
   /**
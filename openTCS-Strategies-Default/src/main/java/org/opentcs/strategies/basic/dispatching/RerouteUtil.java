@@ -135,6 +135,71 @@ public class RerouteUtil {
     updateTransportOrder(originalOrder, newDriveOrders, vehicle);
   }
 
+  /**
+   * Reroutes the given vehicle via the given step, i.e. lets it first process the given step and
+   * continue to its destinations from the step's destination point.
+   *
+   * @param vehicle The vehicle to reroute.
+   * @param detour The step to process first. Its source point must be the point the vehicle will
+   * be at after processing the commands already sent to it.
+   * @return <code>true</code> if, and only if, the vehicle was rerouted.
+   */
+  public boolean rerouteVia(Vehicle vehicle, Step detour) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(detour, "detour");
+    LOG.debug("Trying to reroute vehicle '{}' via {}...", vehicle.getName(), detour);
+
+    if (!vehicle.isProcessingOrder()) {
+      LOG.warn("{} can't be rerouted without processing a transport order.", vehicle.getName());
+      return false;
+    }
+
+    TransportOrder originalOrder = transportOrderService.fetchObject(TransportOrder.class,
+                                                                     vehicle.getTransportOrder());
+    Point rerouteSource = getFutureOrCurrentPosition(vehicle);
+    if (!Objects.equals(detour.getSourcePoint(), rerouteSource)
+        || isPointDestinationOfOrder(rerouteSource, originalOrder.getCurrentDriveOrder())) {
+      LOG.debug("{} can't be rerouted via {} from point {}.",
+                vehicle.getName(),
+                detour,
+                rerouteSource.getName());
+      return false;
+    }
+
+    Optional<List<DriveOrder>> optOrders
+        = tryReroute(getUnfinishedDriveOrders(originalOrder),
+                     vehicle,
+                     detour.getDestinationPoint());
+    if (!optOrders.isPresent()) {
+      LOG.debug("Couldn't find a route for {} from point {}.",
+                vehicle.getName(),
+                detour.getDestinationPoint().getName());
+      return false;
+    }
+
+    List<DriveOrder> newDriveOrders = optOrders.get();
+    newDriveOrders.set(0, prependStep(newDriveOrders.get(0), detour, vehicle));
+
+    adjustFirstDriveOrder(newDriveOrders, vehicle, originalOrder, rerouteSource);
+
+    LOG.debug("Updating transport order {}...", originalOrder.getName());
+    updateTransportOrder(originalOrder, newDriveOrders, vehicle);
+    return true;
+  }
+
+  private DriveOrder prependStep(DriveOrder order, Step step, Vehicle vehicle) {
+    List<Step> steps = new ArrayList<>();
+    steps.add(step);
+    steps.addAll(order.getRoute().getSteps());
+    long costs = router.getCosts(vehicle, step.getSourcePoint(), step.getDestinationPoint())
+        + order.getRoute().getCosts();
+
+    return new DriveOrder(order.getDestination())
+        .withState(order.getState())
+        .withTransportOrder(order.getTransportOrder())
+        .withRoute(new Route(updateRouteIndices(steps), costs));
+  }
+
   private void adjustFirstDriveOrder(List<DriveOrder> newDriveOrders,
                                      Vehicle vehicle,
                                      TransportOrder originalOrder,
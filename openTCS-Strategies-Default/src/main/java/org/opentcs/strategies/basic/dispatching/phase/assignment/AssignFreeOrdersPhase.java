@@ -12,6 +12,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,7 +30,9 @@ import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_ASSIGNED_T
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHING_DEFERRED;
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHING_RESUMED;
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_RESERVED_FOR_VEHICLE;
+import org.opentcs.data.order.TransportOrderHistoryCodes;
 import org.opentcs.strategies.basic.dispatching.AssignmentCandidate;
+import org.opentcs.strategies.basic.dispatching.DispatchableOrderQueue;
 import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
 import org.opentcs.strategies.basic.dispatching.Phase;
 import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
@@ -38,7 +41,6 @@ import org.opentcs.strategies.basic.dispatching.phase.CandidateFilterResult;
 import org.opentcs.strategies.basic.dispatching.phase.OrderFilterResult;
 import org.opentcs.strategies.basic.dispatching.phase.VehicleFilterResult;
 import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderCandidateComparator;
-import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderComparator;
 import org.opentcs.strategies.basic.dispatching.priorization.CompositeVehicleCandidateComparator;
 import org.opentcs.strategies.basic.dispatching.priorization.CompositeVehicleComparator;
 import org.opentcs.strategies.basic.dispatching.selection.candidates.CompositeAssignmentCandidateSelectionFilter;
@@ -79,9 +81,10 @@ public class AssignFreeOrdersPhase
    */
   private final Comparator<Vehicle> vehicleComparator;
   /**
+   * Keeps the dispatchable transport orders, ordered by their priorities.
    * Defines the order of transport orders when there are less transport orders than vehicles.
    */
-  private final Comparator<TransportOrder> orderComparator;
+  private final DispatchableOrderQueue orderQueue;
   /**
    * Sorts candidates when looking for a transport order to be assigned to a vehicle.
    */
@@ -108,7 +111,13 @@ public class AssignFreeOrdersPhase
   private final CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter;
 
   private final TransportOrderUtil transportOrderUtil;
-
+  /**
+   * The reasons for which transport orders are currently marked as filtered, mapped by the orders'
+   * names.
+   * Mirrors the last relevant {@link TransportOrderHistoryCodes#ORDER_DISPATCHING_DEFERRED} history
+   * entries of the orders, so their histories do not have to be searched in every dispatch run.
+   */
+  private final Map<String, Collection<String>> filterReasonsByOrder = new HashMap<>();
   /**
    * Indicates whether this component is initialized.
    */
@@ -120,7 +129,7 @@ public class AssignFreeOrdersPhase
       Router router,
       OrderReservationPool orderReservationPool,
       CompositeVehicleComparator vehicleComparator,
-      CompositeOrderComparator orderComparator,
+      DispatchableOrderQueue orderQueue,
       CompositeOrderCandidateComparator orderCandidateComparator,
       CompositeVehicleCandidateComparator vehicleCandidateComparator,
       CompositeVehicleSelectionFilter vehicleSelectionFilter,
@@ -133,7 +142,7 @@ public class AssignFreeOrdersPhase
     this.objectService = requireNonNull(objectService, "objectService");
     this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
     this.vehicleComparator = requireNonNull(vehicleComparator, "vehicleComparator");
-    this.orderComparator = requireNonNull(orderComparator, "orderComparator");
+    this.orderQueue = requireNonNull(orderQueue, "orderQueue");
     this.orderCandidateComparator = requireNonNull(orderCandidateComparator,
                                                    "orderCandidateComparator");
     this.vehicleCandidateComparator = requireNonNull(vehicleCandidateComparator,
@@ -154,6 +163,11 @@ public class AssignFreeOrdersPhase
     if (isInitialized()) {
       return;
     }
+    orderQueue.initialize();
+    for (TransportOrder order : orderQueue.getOrders(order -> true)) {
+      lastRelevantDeferredHistoryEntry(order)
+          .ifPresent(entry -> filterReasonsByOrder.put(order.getName(), filterReasons(entry)));
+    }
     initialized = true;
   }
 
@@ -167,11 +181,16 @@ public class AssignFreeOrdersPhase
     if (!isInitialized()) {
       return;
     }
+    orderQueue.terminate();
+    filterReasonsByOrder.clear();
     initialized = false;
   }
 
   @Override
   public void run() {
+    // Forget about orders that have left the dispatchable state - they will not be dispatched again.
+    filterReasonsByOrder.keySet().removeIf(orderName -> !orderQueue.contains(orderName));
+
     Map<Boolean, List<VehicleFilterResult>> vehiclesSplitByFilter
         = objectService.fetchObjects(Vehicle.class, isAvailableForAnyOrder)
             .stream()
@@ -189,8 +208,10 @@ public class AssignFreeOrdersPhase
 
     // Select only dispatchable orders first, then apply the composite filter, handle
     // the orders that can be tried as usual and mark the others as filtered (if they aren't, yet).
+    // The orders retrieved from the queue are already ordered by their priorities, and the order
+    // is kept when partitioning them.
     Map<Boolean, List<OrderFilterResult>> ordersSplitByFilter
-        = objectService.fetchObjects(TransportOrder.class, isFreelyDispatchableToAnyVehicle)
+        = orderQueue.getOrders(isFreelyDispatchableToAnyVehicle)
             .stream()
             .map(order -> new OrderFilterResult(order, transportOrderSelectionFilter.apply(order)))
             .collect(Collectors.partitioningBy(filterResult -> !filterResult.isFiltered()));
@@ -216,8 +237,8 @@ public class AssignFreeOrdersPhase
           .forEach(vehicle -> tryAssignOrder(vehicle, availableOrders, assignmentState));
     }
     else {
-      availableOrders.stream()
-          .sorted(orderComparator)
+      // The available orders are already ordered by their priorities.
+      availableOrders
           .forEach(order -> tryAssignVehicle(order, availableVehicles, assignmentState));
     }
 
@@ -241,7 +262,7 @@ public class AssignFreeOrdersPhase
   }
 
   private boolean markedAsFiltered(TransportOrder order) {
-    return lastRelevantDeferredHistoryEntry(order).isPresent();
+    return filterReasonsByOrder.containsKey(order.getName());
   }
 
   private Optional<ObjectHistory.Entry> lastRelevantDeferredHistoryEntry(TransportOrder order) {
@@ -254,27 +275,33 @@ public class AssignFreeOrdersPhase
   }
 
   @SuppressWarnings("unchecked")
+  private Collection<String> filterReasons(ObjectHistory.Entry entry) {
+    return (Collection<String>) entry.getSupplement();
+  }
+
   private boolean filterReasonsChanged(OrderFilterResult filterResult) {
     Collection<String> newReasons = filterResult.getFilterReasons();
-    Collection<String> oldReasons = lastRelevantDeferredHistoryEntry(filterResult.getOrder())
-        .map(entry -> (Collection<String>) entry.getSupplement())
-        .orElse(new ArrayList<>());
+    Collection<String> oldReasons = filterReasonsByOrder.getOrDefault(
+        filterResult.getOrder().getName(),
+        Collections.emptyList()
+    );
 
     return newReasons.size() != oldReasons.size()
         || !newReasons.containsAll(oldReasons);
   }
 
   private void doMarkAsFiltered(OrderFilterResult filterResult) {
+    List<String> filterReasons
+        = Collections.unmodifiableList(new ArrayList<>(filterResult.getFilterReasons()));
+    filterReasonsByOrder.put(filterResult.getOrder().getName(), filterReasons);
     objectService.appendObjectHistoryEntry(
         filterResult.getOrder().getReference(),
-        new ObjectHistory.Entry(
-            ORDER_DISPATCHING_DEFERRED,
-            Collections.unmodifiableList(new ArrayList<>(filterResult.getFilterReasons()))
-        )
+        new ObjectHistory.Entry(ORDER_DISPATCHING_DEFERRED, filterReasons)
     );
   }
 
   private void doUnmarkAsFiltered(TransportOrder order) {
+    filterReasonsByOrder.remove(order.getName());
     objectService.appendObjectHistoryEntry(
         order.getReference(),
         new ObjectHistory.Entry(
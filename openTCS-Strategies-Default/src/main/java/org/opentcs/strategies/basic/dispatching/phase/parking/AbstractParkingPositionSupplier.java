@@ -8,7 +8,7 @@
 package org.opentcs.strategies.basic.dispatching.phase.parking;
 
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -129,11 +129,10 @@ public abstract class AbstractParkingPositionSupplier
 
     Point vehiclePos = plantModelService.fetchObject(Point.class, vehicle.getCurrentPosition());
 
-    return points.stream()
-        .map(point -> parkingPositionCandidate(vehicle, vehiclePos, point))
-        .filter(candidate -> candidate.costs < Long.MAX_VALUE)
-        .min(Comparator.comparingLong(candidate -> candidate.costs))
-        .map(candidate -> candidate.point)
+    return router.getCosts(vehicle, vehiclePos, points).entrySet().stream()
+        .filter(entry -> entry.getValue() < Long.MAX_VALUE)
+        .min(Map.Entry.comparingByValue())
+        .map(entry -> entry.getKey())
         .orElse(null);
   }
 
@@ -150,6 +149,21 @@ public abstract class AbstractParkingPositionSupplier
         .collect(Collectors.toSet());
   }
 
+  /**
+   * Returns from the given set of points the one with the given name.
+   *
+   * @param name The name of the point.
+   * @param points The set of points to select the point from.
+   * @return The point with the given name, or <code>null</code>, if the set does not contain it.
+   */
+  @Nullable
+  protected Point pickPointWithName(String name, Set<Point> points) {
+    return points.stream()
+        .filter(point -> name.equals(point.getName()))
+        .findAny()
+        .orElse(null);
+  }
+
   protected Set<Point> fetchAllParkingPositions() {
     return plantModelService.fetchObjects(Point.class, point -> point.isParkingPosition());
   }
@@ -185,21 +199,4 @@ public abstract class AbstractParkingPositionSupplier
     }
     return false;
   }
-
-  private PointCandidate parkingPositionCandidate(Vehicle vehicle,
-                                                  Point srcPosition,
-                                                  Point destPosition) {
-    return new PointCandidate(destPosition, router.getCosts(vehicle, srcPosition, destPosition));
-  }
-
-  private static class PointCandidate {
-
-    private final Point point;
-    private final long costs;
-
-    public PointCandidate(Point point, long costs) {
-      this.point = point;
-      this.costs = costs;
-    }
-  }
 }
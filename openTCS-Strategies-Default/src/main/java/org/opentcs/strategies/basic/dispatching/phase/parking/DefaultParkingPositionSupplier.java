@@ -10,7 +10,6 @@ package org.opentcs.strategies.basic.dispatching.phase.parking;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 import java.util.Set;
-import javax.annotation.Nullable;
 import javax.inject.Inject;
 import static org.opentcs.components.kernel.Dispatcher.PROPKEY_ASSIGNED_PARKING_POSITION;
 import static org.opentcs.components.kernel.Dispatcher.PROPKEY_PREFERRED_PARKING_POSITION;
@@ -88,12 +87,4 @@ public class DefaultParkingPositionSupplier
               parkingPosCandidates);
     return Optional.ofNullable(nearestPoint);
   }
-
-  @Nullable
-  private Point pickPointWithName(String name, Set<Point> points) {
-    return points.stream()
-        .filter(point -> name.equals(point.getName()))
-        .findAny()
-        .orElse(null);
-  }
 }
@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.parking;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import static org.opentcs.components.kernel.Dispatcher.PROPKEY_ASSIGNED_PARKING_POSITION;
+import static org.opentcs.components.kernel.Dispatcher.PROPKEY_PREFERRED_PARKING_POSITION;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A parking position supplier that pre-positions idle vehicles near the locations where transport
+ * orders are expected to start next.
+ * <p>
+ * The expected pick-up demand for the configured time window is taken from
+ * {@link PickupDemandStatistics}. Every pick-up location with a high demand is considered to be
+ * served by the closest idle vehicle, including vehicles already parking or on their way to a
+ * parking position. Of the parking positions that are unoccupied and not on the current route of
+ * any other vehicle, the one minimizing the demand-weighted average costs for serving the pick-ups
+ * is selected. This way, vehicles parked one after the other spread over the pick-up locations
+ * instead of gathering at the same one. If no demand is known for the time window, or if the
+ * vehicle would not serve any pick-ups better than the other vehicles, the nearest parking
+ * position is selected.
+ * </p>
+ */
+public class DemandPredictiveParkingPositionSupplier
+    extends AbstractParkingPositionSupplier {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG
+      = LoggerFactory.getLogger(DemandPredictiveParkingPositionSupplier.class);
+  /**
+   * Provides the expected pick-up demand.
+   */
+  private final PickupDemandStatistics demandStatistics;
+  /**
+   * The default dispatcher's configuration.
+   */
+  private final DefaultDispatcherConfiguration configuration;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param plantModelService The plant model service.
+   * @param router A router for computing travel costs to parking positions.
+   * @param demandStatistics Provides the expected pick-up demand.
+   * @param configuration The default dispatcher's configuration.
+   */
+  @Inject
+  public DemandPredictiveParkingPositionSupplier(InternalPlantModelService plantModelService,
+                                                 Router router,
+                                                 PickupDemandStatistics demandStatistics,
+                                                 DefaultDispatcherConfiguration configuration) {
+    super(plantModelService, router);
+    this.demandStatistics = requireNonNull(demandStatistics, "demandStatistics");
+    this.configuration = requireNonNull(configuration, "configuration");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    demandStatistics.initialize();
+    super.initialize();
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    demandStatistics.terminate();
+    super.terminate();
+  }
+
+  @Override
+  public Optional<Point> findParkingPosition(final Vehicle vehicle) {
+    requireNonNull(vehicle, "vehicle");
+
+    if (vehicle.getCurrentPosition() == null) {
+      return Optional.empty();
+    }
+
+    Set<Point> parkingPosCandidates = findUsableParkingPositions(vehicle);
+
+    if (parkingPosCandidates.isEmpty()) {
+      LOG.debug("{}: No parking position candidates found.", vehicle.getName());
+      return Optional.empty();
+    }
+
+    // Assigned and preferred parking positions take precedence, as with the default supplier.
+    String assignedParkingPosName = vehicle.getProperty(PROPKEY_ASSIGNED_PARKING_POSITION);
+    if (assignedParkingPosName != null) {
+      return Optional.ofNullable(pickPointWithName(assignedParkingPosName, parkingPosCandidates));
+    }
+
+    String preferredParkingPosName = vehicle.getProperty(PROPKEY_PREFERRED_PARKING_POSITION);
+    if (preferredParkingPosName != null) {
+      Point preferredPoint = pickPointWithName(preferredParkingPosName, parkingPosCandidates);
+      if (preferredPoint != null) {
+        return Optional.of(preferredPoint);
+      }
+    }
+
+    List<Hotspot> hotspots = expectedHotspots(vehicle);
+    if (hotspots.isEmpty()) {
+      LOG.debug("{}: No pick-up demand expected, selecting nearest parking position.",
+                vehicle.getName());
+      return Optional.ofNullable(nearestPoint(vehicle, parkingPosCandidates));
+    }
+
+    Point vehiclePos = getPlantModelService().fetchObject(Point.class,
+                                                          vehicle.getCurrentPosition());
+    Map<Point, Long> costsFromVehicle
+        = getRouter().getCosts(vehicle, vehiclePos, parkingPosCandidates);
+    Point parkingPos = parkingPosCandidates.stream()
+        .map(point -> parkingPositionCandidate(vehicle,
+                                               point,
+                                               costsFromVehicle.getOrDefault(point, Long.MAX_VALUE),
+                                               hotspots))
+        .filter(candidate -> candidate.costsFromVehicle < Long.MAX_VALUE)
+        .filter(candidate -> candidate.expectedPickupCosts < Double.POSITIVE_INFINITY)
+        .min(Comparator.<ParkingPositionCandidate>comparingDouble(c -> c.expectedPickupCosts)
+            .thenComparingLong(c -> c.costsFromVehicle))
+        .map(candidate -> candidate.point)
+        .orElse(null);
+
+    LOG.debug("{}: Selected parking position {} for expected pick-ups {}.",
+              vehicle.getName(),
+              parkingPos,
+              hotspots);
+    return Optional.ofNullable(parkingPos);
+  }
+
+  private List<Hotspot> expectedHotspots(Vehicle vehicle) {
+    Map<TCSObjectReference<Location>, Integer> demand
+        = demandStatistics.expectedDemand(Instant.now(), configuration.demandPredictionWindow());
+
+    List<Hotspot> hotspots = demand.entrySet().stream()
+        .sorted(Map.Entry.<TCSObjectReference<Location>, Integer>comparingByValue().reversed())
+        .limit(configuration.demandPredictionHotspots())
+        .map(entry -> new Hotspot(entry.getKey().getName(),
+                                 accessPoints(entry.getKey()),
+                                 entry.getValue()))
+        .filter(hotspot -> !hotspot.accessPoints.isEmpty())
+        .collect(Collectors.toList());
+
+    if (!hotspots.isEmpty()) {
+      for (Vehicle otherVehicle : getPlantModelService().fetchObjects(Vehicle.class)) {
+        if (!otherVehicle.equals(vehicle)) {
+          standbyPosition(otherVehicle).ifPresent(
+              position -> updateServingCosts(hotspots, otherVehicle, position)
+          );
+        }
+      }
+    }
+    return hotspots;
+  }
+
+  /**
+   * Returns the position at which the given vehicle will be waiting for transport orders, if it
+   * is (or will soon be) idle.
+   *
+   * @param vehicle The vehicle.
+   * @return The vehicle's current position, if it is idle, the parking position it is heading to,
+   * if it is processing a parking order, or an empty optional.
+   */
+  private Optional<Point> standbyPosition(Vehicle vehicle) {
+    if (vehicle.getIntegrationLevel() != Vehicle.IntegrationLevel.TO_BE_UTILIZED
+        || vehicle.getCurrentPosition() == null) {
+      return Optional.empty();
+    }
+    if (vehicle.getTransportOrder() == null) {
+      return vehicle.hasProcState(Vehicle.ProcState.IDLE)
+          ? Optional.of(getPlantModelService().fetchObject(Point.class,
+                                                           vehicle.getCurrentPosition()))
+          : Optional.empty();
+    }
+
+    TransportOrder order = getPlantModelService().fetchObject(TransportOrder.class,
+                                                              vehicle.getTransportOrder());
+    if (order == null || order.getAllDriveOrders().isEmpty()) {
+      return Optional.empty();
+    }
+    DriveOrder.Destination finalDestination
+        = order.getAllDriveOrders().get(order.getAllDriveOrders().size() - 1).getDestination();
+    if (!DriveOrder.Destination.OP_PARK.equals(finalDestination.getOperation())
+        || !Point.class.equals(finalDestination.getDestination().getReferentClass())) {
+      return Optional.empty();
+    }
+    String parkingPosName = finalDestination.getDestination().getName();
+    return Optional.ofNullable(getPlantModelService().fetchObject(Point.class, parkingPosName));
+  }
+
+  private void updateServingCosts(List<Hotspot> hotspots, Vehicle vehicle, Point position) {
+    Map<Point, Long> costs = costsToAccessPoints(vehicle, position, hotspots);
+    for (Hotspot hotspot : hotspots) {
+      hotspot.servingCosts = Math.min(hotspot.servingCosts, costsToHotspot(costs, hotspot));
+    }
+  }
+
+  /**
+   * Returns the costs from the given position to all access points of the given hotspots,
+   * computed in a single request to the router.
+   *
+   * @param vehicle The vehicle.
+   * @param position The position.
+   * @param hotspots The hotspots.
+   * @return The costs, by access point.
+   */
+  private Map<Point, Long> costsToAccessPoints(Vehicle vehicle,
+                                               Point position,
+                                               List<Hotspot> hotspots) {
+    return getRouter().getCosts(vehicle,
+                                position,
+                                hotspots.stream()
+                                    .flatMap(hotspot -> hotspot.accessPoints.stream())
+                                    .collect(Collectors.toSet()));
+  }
+
+  private long costsToHotspot(Map<Point, Long> costsToAccessPoints, Hotspot hotspot) {
+    return hotspot.accessPoints.stream()
+        .mapToLong(accessPoint -> costsToAccessPoints.getOrDefault(accessPoint, Long.MAX_VALUE))
+        .min()
+        .orElse(Long.MAX_VALUE);
+  }
+
+  private List<Point> accessPoints(TCSObjectReference<Location> locationRef) {
+    Location location = getPlantModelService().fetchObject(Location.class, locationRef);
+    if (location == null) {
+      return new ArrayList<>();
+    }
+    return location.getAttachedLinks().stream()
+        .map(link -> getPlantModelService().fetchObject(Point.class, link.getPoint()))
+        .collect(Collectors.toList());
+  }
+
+  private ParkingPositionCandidate parkingPositionCandidate(Vehicle vehicle,
+                                                            Point parkingPos,
+                                                            long costsFromVehicle,
+                                                            List<Hotspot> hotspots) {
+    if (costsFromVehicle == Long.MAX_VALUE) {
+      return new ParkingPositionCandidate(parkingPos, costsFromVehicle, Double.POSITIVE_INFINITY);
+    }
+
+    Map<Point, Long> costsToAccessPoints = costsToAccessPoints(vehicle, parkingPos, hotspots);
+    double weightedCosts = 0;
+    long reachableDemand = 0;
+    for (Hotspot hotspot : hotspots) {
+      long costs = Math.min(costsToHotspot(costsToAccessPoints, hotspot), hotspot.servingCosts);
+      if (costs < Long.MAX_VALUE) {
+        weightedCosts += (double) costs * hotspot.demand;
+        reachableDemand += hotspot.demand;
+      }
+    }
+
+    return new ParkingPositionCandidate(
+        parkingPos,
+        costsFromVehicle,
+        reachableDemand == 0 ? Double.POSITIVE_INFINITY : weightedCosts / reachableDemand
+    );
+  }
+
+  /**
+   * A pick-up location with its expected demand.
+   */
+  private static class Hotspot {
+
+    /**
+     * The name of the pick-up location.
+     */
+    private final String locationName;
+    /**
+     * The points the pick-up location can be reached from.
+     */
+    private final List<Point> accessPoints;
+    /**
+     * The expected number of pick-ups.
+     */
+    private final int demand;
+    /**
+     * The costs for serving the pick-ups by the closest of the other vehicles.
+     */
+    private long servingCosts = Long.MAX_VALUE;
+
+    Hotspot(String locationName, List<Point> accessPoints, int demand) {
+      this.locationName = locationName;
+      this.accessPoints = accessPoints;
+      this.demand = demand;
+    }
+
+    @Override
+    public String toString() {
+      return locationName + "=" + demand;
+    }
+  }
+
+  private static class ParkingPositionCandidate {
+
+    private final Point point;
+    private final long costsFromVehicle;
+    private final double expectedPickupCosts;
+
+    ParkingPositionCandidate(Point point, long costsFromVehicle, double expectedPickupCosts) {
+      this.point = point;
+      this.costsFromVehicle = costsFromVehicle;
+      this.expectedPickupCosts = expectedPickupCosts;
+    }
+  }
+}
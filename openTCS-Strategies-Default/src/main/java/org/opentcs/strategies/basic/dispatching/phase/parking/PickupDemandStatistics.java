@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.parking;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.opentcs.util.event.EventHandler;
+import org.opentcs.util.event.EventSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Learns where transport orders start, depending on the time of day.
+ * <p>
+ * For every finished transport order, the location of its first destination (its pick-up
+ * location) is counted in the time slot of the day in which the order was created. Counts are kept
+ * per calendar day for a configurable number of past days plus the current one, with the oldest day
+ * being dropped whenever a new one begins, so the statistics follow changes of the demand over time
+ * and their size is bounded by the number of pick-up locations.
+ * </p>
+ * <p>
+ * Predictions are based on the past days only, as the current day's upcoming time slots cannot
+ * contain any pick-ups, yet.
+ * </p>
+ * <p>
+ * Transport orders created by the dispatcher itself (i.e. dispensable orders, like parking and
+ * recharge orders) and orders whose first destination is not a location are ignored.
+ * </p>
+ */
+public class PickupDemandStatistics
+    implements EventHandler,
+               Lifecycle {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(PickupDemandStatistics.class);
+  /**
+   * The length of a time slot (in ms).
+   */
+  private static final long SLOT_LENGTH = TimeUnit.MINUTES.toMillis(5);
+  /**
+   * The number of time slots per day.
+   */
+  private static final int SLOTS_PER_DAY = (int) (TimeUnit.DAYS.toMillis(1) / SLOT_LENGTH);
+  /**
+   * The object service.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Where we register for application events.
+   */
+  private final EventSource eventSource;
+  /**
+   * The time zone defining the time of day.
+   */
+  private final ZoneId zoneId;
+  /**
+   * The number of past days for which counts are kept (in addition to the current day).
+   */
+  private final int historyDays;
+  /**
+   * The (epoch) day each row of the count tables currently holds counts for.
+   */
+  private final long[] dayOfRow;
+  /**
+   * The count tables ([day row][time slot]), mapped by pick-up location.
+   */
+  private final Map<TCSObjectReference<Location>, int[][]> countsByLocation = new HashMap<>();
+  /**
+   * Indicates whether this component is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service.
+   * @param eventSource Where this instance registers for application events.
+   * @param configuration The default dispatcher's configuration.
+   */
+  @Inject
+  public PickupDemandStatistics(TCSObjectService objectService,
+                                @ApplicationEventBus EventSource eventSource,
+                                DefaultDispatcherConfiguration configuration) {
+    this(objectService, eventSource, configuration.demandHistoryDays(), ZoneId.systemDefault());
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service.
+   * @param eventSource Where this instance registers for application events.
+   * @param historyDays The number of past days for which counts are kept.
+   * @param zoneId The time zone defining the time of day.
+   */
+  public PickupDemandStatistics(TCSObjectService objectService,
+                                EventSource eventSource,
+                                int historyDays,
+                                ZoneId zoneId) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.eventSource = requireNonNull(eventSource, "eventSource");
+    this.zoneId = requireNonNull(zoneId, "zoneId");
+    checkArgument(historyDays > 0, "historyDays <= 0: %s", historyDays);
+    this.historyDays = historyDays;
+    this.dayOfRow = new long[historyDays + 1];
+    Arrays.fill(dayOfRow, Long.MIN_VALUE);
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    eventSource.subscribe(this);
+    // Learn from the finished transport orders that are still known.
+    for (TransportOrder order : objectService.fetchObjects(TransportOrder.class,
+                                                           this::isFinishedPickupOrder)) {
+      recordPickup(order);
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    eventSource.unsubscribe(this);
+    synchronized (this) {
+      countsByLocation.clear();
+      Arrays.fill(dayOfRow, Long.MIN_VALUE);
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    if (!(event instanceof TCSObjectEvent)) {
+      return;
+    }
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+        || !(objectEvent.getCurrentObjectState() instanceof TransportOrder)) {
+      return;
+    }
+
+    TransportOrder current = (TransportOrder) objectEvent.getCurrentObjectState();
+    TransportOrder previous = (TransportOrder) objectEvent.getPreviousObjectState();
+    if (isFinishedPickupOrder(current) && !previous.hasState(TransportOrder.State.FINISHED)) {
+      recordPickup(current);
+    }
+  }
+
+  /**
+   * Records a pick-up at the given location.
+   *
+   * @param location The pick-up location.
+   * @param time The point of time at which the pick-up was requested.
+   */
+  public synchronized void recordPickup(@Nonnull TCSObjectReference<Location> location,
+                                        @Nonnull Instant time) {
+    requireNonNull(location, "location");
+    requireNonNull(time, "time");
+
+    LocalDateTime localTime = LocalDateTime.ofInstant(time, zoneId);
+    long day = localTime.toLocalDate().toEpochDay();
+    int row = (int) Math.floorMod(day, (long) dayOfRow.length);
+    if (day < dayOfRow[row]) {
+      LOG.debug("Ignoring pick-up at {} older than the kept history: {}", location.getName(), time);
+      return;
+    }
+    if (day > dayOfRow[row]) {
+      // A new day begins - drop the counts of the day previously kept in this row.
+      for (int[][] counts : countsByLocation.values()) {
+        Arrays.fill(counts[row], 0);
+      }
+      dayOfRow[row] = day;
+    }
+
+    countsByLocation.computeIfAbsent(location, loc -> new int[dayOfRow.length][SLOTS_PER_DAY])
+        [row][slotOf(localTime)]++;
+  }
+
+  /**
+   * Returns the expected pick-up demand per location for the given time window, i.e. the number
+   * of pick-ups recorded within the same time of day on the kept past days.
+   * Locations without any pick-ups in the time window are not contained in the result.
+   *
+   * @param start The start of the time window.
+   * @param windowLength The length of the time window (in ms).
+   * @return The expected pick-up demand, mapped by pick-up location.
+   */
+  @Nonnull
+  public synchronized Map<TCSObjectReference<Location>, Integer> expectedDemand(
+      @Nonnull Instant start,
+      long windowLength) {
+    requireNonNull(start, "start");
+    checkArgument(windowLength >= 0, "windowLength < 0: %s", windowLength);
+
+    LocalDateTime localStart = LocalDateTime.ofInstant(start, zoneId);
+    long today = localStart.toLocalDate().toEpochDay();
+    int firstSlot = slotOf(localStart);
+    int slotCount = (int) Math.min(SLOTS_PER_DAY, windowLength / SLOT_LENGTH + 1);
+
+    Map<TCSObjectReference<Location>, Integer> result = new HashMap<>();
+    for (Map.Entry<TCSObjectReference<Location>, int[][]> entry : countsByLocation.entrySet()) {
+      int demand = 0;
+      for (int row = 0; row < dayOfRow.length; row++) {
+        if (!isPastDayKept(row, today)) {
+          continue;
+        }
+        for (int i = 0; i < slotCount; i++) {
+          demand += entry.getValue()[row][(firstSlot + i) % SLOTS_PER_DAY];
+        }
+      }
+      if (demand > 0) {
+        result.put(entry.getKey(), demand);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the expected number of pick-ups at all locations for the given time window, i.e. the
+   * average number of pick-ups per day recorded within the same time of day on the kept past
+   * days.
+   *
+   * @param start The start of the time window.
+   * @param windowLength The length of the time window (in ms).
+   * @return The expected number of pick-ups.
+   */
+  public synchronized double expectedPickupCount(@Nonnull Instant start, long windowLength) {
+    requireNonNull(start, "start");
+
+    long today = LocalDateTime.ofInstant(start, zoneId).toLocalDate().toEpochDay();
+    long keptDays = IntStream.range(0, dayOfRow.length)
+        .filter(row -> isPastDayKept(row, today))
+        .count();
+    if (keptDays == 0) {
+      return 0;
+    }
+    long pickups = expectedDemand(start, windowLength).values().stream()
+        .mapToLong(Integer::longValue)
+        .sum();
+    return (double) pickups / keptDays;
+  }
+
+  private boolean isPastDayKept(int row, long today) {
+    return dayOfRow[row] >= today - historyDays && dayOfRow[row] < today;
+  }
+
+  private void recordPickup(TransportOrder order) {
+    recordPickup(pickupLocation(order), Instant.ofEpochMilli(order.getCreationTime()));
+  }
+
+  private int slotOf(LocalDateTime localTime) {
+    return (int) (TimeUnit.NANOSECONDS.toMillis(localTime.toLocalTime().toNanoOfDay())
+                  / SLOT_LENGTH);
+  }
+
+  private boolean isFinishedPickupOrder(TransportOrder order) {
+    return order.hasState(TransportOrder.State.FINISHED)
+        && !order.isDispensable()
+        && !order.getAllDriveOrders().isEmpty()
+        && Location.class.equals(firstDestination(order).getDestination().getReferentClass());
+  }
+
+  @SuppressWarnings("unchecked")
+  private TCSObjectReference<Location> pickupLocation(TransportOrder order) {
+    return (TCSObjectReference<Location>) firstDestination(order).getDestination();
+  }
+
+  private DriveOrder.Destination firstDestination(TransportOrder order) {
+    return order.getAllDriveOrders().get(0).getDestination();
+  }
+}
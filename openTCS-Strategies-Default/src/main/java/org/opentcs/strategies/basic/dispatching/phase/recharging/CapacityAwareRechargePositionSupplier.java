@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.recharging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds recharge locations like {@link DefaultRechargePositionSupplier}, but respects the number
+ * of charging slots of recharge locations.
+ * <p>
+ * The number of charging slots is read from the property {@link #PROPKEY_CHARGING_SLOTS} of the
+ * location or, if the location does not have it, of the location's type. A slot is in use by any
+ * other vehicle that is charging at one of the location's access points or that is still heading
+ * for the location to recharge there. Locations without the property have an unlimited number of
+ * slots.
+ * </p>
+ */
+public class CapacityAwareRechargePositionSupplier
+    extends DefaultRechargePositionSupplier {
+
+  /**
+   * The key of a location (type) property defining the number of vehicles that can recharge at a
+   * location at the same time.
+   */
+  public static final String PROPKEY_CHARGING_SLOTS = "tcs:chargingSlots";
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG
+      = LoggerFactory.getLogger(CapacityAwareRechargePositionSupplier.class);
+
+  /**
+   * Creates a new instance.
+   *
+   * @param plantModelService The plant model service.
+   * @param router The router to use.
+   */
+  @Inject
+  public CapacityAwareRechargePositionSupplier(InternalPlantModelService plantModelService,
+                                               Router router) {
+    super(plantModelService, router);
+  }
+
+  @Override
+  protected boolean isAvailableFor(Location location, Vehicle vehicle) {
+    Integer slots = chargingSlots(location);
+    if (slots == null) {
+      return true;
+    }
+
+    Set<TCSObjectReference<Point>> accessPoints = location.getAttachedLinks().stream()
+        .map(link -> link.getPoint())
+        .collect(Collectors.toSet());
+    long usedSlots = getPlantModelService().fetchObjects(Vehicle.class).stream()
+        .filter(otherVehicle -> !otherVehicle.getName().equals(vehicle.getName()))
+        .filter(otherVehicle -> isChargingAt(otherVehicle, accessPoints)
+            || isHeadingForRecharge(otherVehicle, location))
+        .count();
+    if (usedSlots >= slots) {
+      LOG.debug("{}: All {} charging slots of {} are in use.",
+                vehicle.getName(),
+                slots,
+                location.getName());
+      return false;
+    }
+    return true;
+  }
+
+  private Integer chargingSlots(Location location) {
+    String slots = location.getProperty(PROPKEY_CHARGING_SLOTS);
+    if (slots == null) {
+      LocationType locationType = getPlantModelService().fetchObject(LocationType.class,
+                                                                     location.getType());
+      slots = locationType.getProperty(PROPKEY_CHARGING_SLOTS);
+    }
+    if (slots == null) {
+      return null;
+    }
+
+    try {
+      return Integer.parseInt(slots.trim());
+    }
+    catch (NumberFormatException exc) {
+      LOG.warn("Ignoring invalid value of property {} for location {}: {}",
+               PROPKEY_CHARGING_SLOTS,
+               location.getName(),
+               slots);
+      return null;
+    }
+  }
+
+  private boolean isChargingAt(Vehicle vehicle, Set<TCSObjectReference<Point>> accessPoints) {
+    return vehicle.hasState(Vehicle.State.CHARGING)
+        && accessPoints.contains(vehicle.getCurrentPosition());
+  }
+
+  private boolean isHeadingForRecharge(Vehicle vehicle, Location location) {
+    if (vehicle.getTransportOrder() == null) {
+      return false;
+    }
+
+    TransportOrder order = getPlantModelService().fetchObject(TransportOrder.class,
+                                                              vehicle.getTransportOrder());
+    if (order == null) {
+      return false;
+    }
+    List<DriveOrder> unfinishedDriveOrders = new ArrayList<>();
+    if (order.getCurrentDriveOrder() != null) {
+      unfinishedDriveOrders.add(order.getCurrentDriveOrder());
+    }
+    unfinishedDriveOrders.addAll(order.getFutureDriveOrders());
+    return unfinishedDriveOrders.stream()
+        .map(driveOrder -> driveOrder.getDestination())
+        .anyMatch(dest -> isRechargeAt(dest, location, vehicle.getRechargeOperation()));
+  }
+
+  private boolean isRechargeAt(DriveOrder.Destination dest,
+                               Location location,
+                               String rechargeOperation) {
+    return dest.getDestination().equals(location.getReference())
+        && Objects.equals(dest.getOperation(), rechargeOperation);
+  }
+}
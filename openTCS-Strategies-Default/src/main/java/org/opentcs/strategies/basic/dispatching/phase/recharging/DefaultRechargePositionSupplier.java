@@ -129,12 +129,40 @@ public class DefaultRechargePositionSupplier
     return new ArrayList<>();
   }
 
+  /**
+   * Returns the plant model service.
+   *
+   * @return The plant model service.
+   */
+  protected InternalPlantModelService getPlantModelService() {
+    return plantModelService;
+  }
+
+  /**
+   * Checks whether the given recharge location may be used by the given vehicle.
+   * <p>
+   * This default implementation always returns <code>true</code>.
+   * </p>
+   *
+   * @param location The recharge location.
+   * @param vehicle The vehicle to be recharged.
+   * @return <code>true</code> if, and only if, the location may be used by the vehicle.
+   */
+  protected boolean isAvailableFor(Location location, Vehicle vehicle) {
+    return true;
+  }
+
   @Nullable
   private Location findCheapestLocation(Map<Location, Set<Point>> locations, Vehicle vehicle) {
     Point curPos = plantModelService.fetchObject(Point.class, vehicle.getCurrentPosition());
+    Map<Point, Long> costs = router.getCosts(vehicle,
+                                             curPos,
+                                             locations.values().stream()
+                                                 .flatMap(points -> points.stream())
+                                                 .collect(Collectors.toSet()));
 
     return locations.entrySet().stream()
-        .map(entry -> bestAccessPointCandidate(vehicle, curPos, entry.getKey(), entry.getValue()))
+        .map(entry -> bestAccessPointCandidate(entry.getKey(), entry.getValue(), costs))
         .filter(candidate -> candidate.isPresent())
         .map(candidate -> candidate.get())
         .min(Comparator.comparingLong(candidate -> candidate.costs))
@@ -172,7 +200,7 @@ public class DefaultRechargePositionSupplier
 
     for (Location curLoc : plantModelService.fetchObjects(Location.class)) {
       LocationType lType = plantModelService.fetchObject(LocationType.class, curLoc.getType());
-      if (lType.isAllowedOperation(operation)) {
+      if (lType.isAllowedOperation(operation) && isAvailableFor(curLoc, vehicle)) {
         Set<Point> points = findUnoccupiedAccessPointsForOperation(curLoc,
                                                                    operation,
                                                                    vehicle,
@@ -214,15 +242,11 @@ public class DefaultRechargePositionSupplier
     return link.getAllowedOperations().isEmpty() || link.hasAllowedOperation(operation);
   }
 
-  private Optional<LocationCandidate> bestAccessPointCandidate(Vehicle vehicle,
-                                                               Point srcPosition,
-                                                               Location location,
-                                                               Set<Point> destPositions) {
+  private Optional<LocationCandidate> bestAccessPointCandidate(Location location,
+                                                               Set<Point> destPositions,
+                                                               Map<Point, Long> costs) {
     return destPositions.stream()
-        .map(point -> new LocationCandidate(location,
-                                            router.getCostsByPointRef(vehicle,
-                                                                      srcPosition.getReference(),
-                                                                      point.getReference())))
+        .map(point -> new LocationCandidate(location, costs.getOrDefault(point, Long.MAX_VALUE)))
         .min(Comparator.comparingLong(candidate -> candidate.costs));
   }
 
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.recharging;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.InternalTransportOrderService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+import org.opentcs.strategies.basic.dispatching.DispatchableOrderQueue;
+import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
+import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
+import org.opentcs.strategies.basic.dispatching.phase.parking.PickupDemandStatistics;
+import org.opentcs.strategies.basic.dispatching.selection.candidates.CompositeAssignmentCandidateSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.vehicles.IsAvailableForAnyOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates recharging orders for idle vehicles that are not fully charged, as long as the order
+ * load leaves enough vehicles available.
+ * <p>
+ * The order load for the configured time window is estimated from the dispatchable transport
+ * orders not yet assigned and the number of pick-ups predicted by {@link PickupDemandStatistics}.
+ * It is covered by the vehicles available for transport orders and by the vehicles processing
+ * transport orders they are predicted to finish within the time window. The latter prediction is
+ * based on the travel time of the remaining route steps, taking the maximum velocities of the
+ * vehicle and the paths into account; the time spent on operations is not known in advance and is
+ * not included. Available vehicles in excess of the order load are sent to recharge locations,
+ * those with the lowest energy level first. Since these recharge orders are dispensable, the
+ * vehicles remain available for transport orders and the charges are withdrawn as soon as the
+ * vehicles are needed.
+ * </p>
+ */
+public class OpportunityChargingPhase
+    extends AbstractRechargePhase {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(OpportunityChargingPhase.class);
+  /**
+   * Checks whether vehicles are available for transport orders.
+   */
+  private final IsAvailableForAnyOrder isAvailableForAnyOrder;
+  /**
+   * The dispatchable transport orders.
+   */
+  private final DispatchableOrderQueue orderQueue;
+  /**
+   * Provides the predicted pick-up demand.
+   */
+  private final PickupDemandStatistics demandStatistics;
+  /**
+   * Stores reservations of orders for vehicles.
+   */
+  private final OrderReservationPool orderReservationPool;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param orderService The transport order service.
+   * @param rechargePosSupplier The strategy used for finding suitable recharge locations.
+   * @param router The router.
+   * @param assignmentCandidateSelectionFilter Filters assignment candidates.
+   * @param transportOrderUtil Provides service functions for working with transport orders.
+   * @param isAvailableForAnyOrder Checks whether vehicles are available for transport orders.
+   * @param orderQueue The dispatchable transport orders.
+   * @param demandStatistics Provides the predicted pick-up demand.
+   * @param orderReservationPool Stores reservations of orders for vehicles.
+   * @param configuration The default dispatcher's configuration.
+   */
+  @Inject
+  @SuppressWarnings("deprecation")
+  public OpportunityChargingPhase(
+      InternalTransportOrderService orderService,
+      org.opentcs.components.kernel.RechargePositionSupplier rechargePosSupplier,
+      Router router,
+      CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter,
+      TransportOrderUtil transportOrderUtil,
+      IsAvailableForAnyOrder isAvailableForAnyOrder,
+      DispatchableOrderQueue orderQueue,
+      PickupDemandStatistics demandStatistics,
+      OrderReservationPool orderReservationPool,
+      DefaultDispatcherConfiguration configuration) {
+    super(orderService,
+          rechargePosSupplier,
+          router,
+          assignmentCandidateSelectionFilter,
+          transportOrderUtil,
+          configuration);
+    this.isAvailableForAnyOrder = requireNonNull(isAvailableForAnyOrder, "isAvailableForAnyOrder");
+    this.orderQueue = requireNonNull(orderQueue, "orderQueue");
+    this.demandStatistics = requireNonNull(demandStatistics, "demandStatistics");
+    this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    orderQueue.initialize();
+    demandStatistics.initialize();
+    super.initialize();
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    demandStatistics.terminate();
+    orderQueue.terminate();
+    super.terminate();
+  }
+
+  @Override
+  public void run() {
+    if (!getConfiguration().rechargeIdleVehicles() || !getConfiguration().opportunityCharging()) {
+      return;
+    }
+
+    List<Vehicle> availableVehicles = getOrderService().fetchObjects(Vehicle.class,
+                                                                     isAvailableForAnyOrder)
+        .stream()
+        .sorted(Comparator.comparingInt(Vehicle::getEnergyLevel)
+            .thenComparing(Vehicle::getName))
+        .collect(Collectors.toList());
+    if (availableVehicles.isEmpty()) {
+      return;
+    }
+
+    long window = getConfiguration().opportunityChargingWindow();
+    double expectedOrders
+        = orderQueue.size() + demandStatistics.expectedPickupCount(Instant.now(), window);
+    // Vehicles already recharging are available, but not ready for transport orders right away.
+    long rechargingVehicles = availableVehicles.stream()
+        .filter(vehicle -> isRecharging(vehicle))
+        .count();
+    Set<String> availableVehicleNames = availableVehicles.stream()
+        .map(Vehicle::getName)
+        .collect(Collectors.toSet());
+    long soonAvailableVehicles = getOrderService().fetchObjects(Vehicle.class).stream()
+        .filter(vehicle -> !availableVehicleNames.contains(vehicle.getName()))
+        .filter(vehicle -> isExpectedAvailableWithin(vehicle, window))
+        .count();
+    long spareVehicles = (long) Math.floor(availableVehicles.size() - rechargingVehicles
+        + soonAvailableVehicles - expectedOrders);
+    LOG.debug("{} vehicles available ({} of them recharging) and {} expected to become available "
+        + "for {} expected transport orders.",
+              availableVehicles.size(),
+              rechargingVehicles,
+              soonAvailableVehicles,
+              expectedOrders);
+
+    for (Vehicle vehicle : availableVehicles) {
+      if (spareVehicles <= 0) {
+        return;
+      }
+      if (isOpportunityChargeCandidate(vehicle) && createRechargeOrder(vehicle)) {
+        spareVehicles--;
+      }
+    }
+  }
+
+  private boolean isRecharging(Vehicle vehicle) {
+    if (vehicle.hasState(Vehicle.State.CHARGING)) {
+      return true;
+    }
+    if (vehicle.getTransportOrder() == null) {
+      return false;
+    }
+    TransportOrder order = getOrderService().fetchObject(TransportOrder.class,
+                                                         vehicle.getTransportOrder());
+    return order != null
+        && order.getAllDriveOrders().stream()
+            .anyMatch(driveOrder -> Objects.equals(driveOrder.getDestination().getOperation(),
+                                                   vehicle.getRechargeOperation()));
+  }
+
+  /**
+   * Checks whether the given vehicle processes a transport order it is predicted to finish within
+   * the given time window, without any further orders lined up for it.
+   *
+   * @param vehicle The vehicle.
+   * @param window The time window (in ms).
+   * @return <code>true</code> if, and only if, the vehicle is expected to become available for
+   * transport orders within the time window.
+   */
+  private boolean isExpectedAvailableWithin(Vehicle vehicle, long window) {
+    if (vehicle.getIntegrationLevel() != Vehicle.IntegrationLevel.TO_BE_UTILIZED
+        || !vehicle.hasProcState(Vehicle.ProcState.PROCESSING_ORDER)
+        || vehicle.getTransportOrder() == null
+        || vehicle.getOrderSequence() != null
+        || vehicle.isEnergyLevelCritical()
+        || !orderReservationPool.findReservations(vehicle.getReference()).isEmpty()) {
+      return false;
+    }
+    TransportOrder order = getOrderService().fetchObject(TransportOrder.class,
+                                                         vehicle.getTransportOrder());
+    if (order == null || isRecharging(vehicle)) {
+      return false;
+    }
+
+    List<Route.Step> remainingSteps = new ArrayList<>();
+    DriveOrder currentDriveOrder = order.getCurrentDriveOrder();
+    if (currentDriveOrder != null && currentDriveOrder.getRoute() != null) {
+      currentDriveOrder.getRoute().getSteps().stream()
+          .filter(step -> step.getRouteIndex() > vehicle.getRouteProgressIndex())
+          .forEach(remainingSteps::add);
+    }
+    for (DriveOrder driveOrder : order.getFutureDriveOrders()) {
+      if (driveOrder.getRoute() == null) {
+        return false;
+      }
+      remainingSteps.addAll(driveOrder.getRoute().getSteps());
+    }
+
+    long remainingWindow = window;
+    for (Route.Step step : remainingSteps) {
+      long travelTime = travelTime(step, vehicle);
+      if (travelTime > remainingWindow) {
+        return false;
+      }
+      remainingWindow -= travelTime;
+    }
+    return true;
+  }
+
+  private long travelTime(Route.Step step, Vehicle vehicle) {
+    Path path = step.getPath();
+    if (path == null) {
+      return 0;
+    }
+    boolean forward = step.getVehicleOrientation() != Vehicle.Orientation.BACKWARD;
+    int velocity = forward ? path.getMaxVelocity() : path.getMaxReverseVelocity();
+    int vehicleVelocity = forward ? vehicle.getMaxVelocity() : vehicle.getMaxReverseVelocity();
+    if (vehicleVelocity > 0) {
+      velocity = velocity > 0 ? Math.min(velocity, vehicleVelocity) : vehicleVelocity;
+    }
+    if (velocity <= 0) {
+      // Without a known velocity, the vehicle is not expected to arrive any time soon.
+      return Long.MAX_VALUE;
+    }
+    return path.getLength() * 1000 / velocity;
+  }
+
+  private boolean isOpportunityChargeCandidate(Vehicle vehicle) {
+    return vehicle.getTransportOrder() == null
+        && vehicle.hasProcState(Vehicle.ProcState.IDLE)
+        && vehicle.hasState(Vehicle.State.IDLE)
+        && !vehicle.isEnergyLevelFullyRecharged();
+  }
+}
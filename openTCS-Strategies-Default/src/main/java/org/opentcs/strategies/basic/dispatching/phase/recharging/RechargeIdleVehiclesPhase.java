@@ -7,27 +7,15 @@
  */
 package org.opentcs.strategies.basic.dispatching.phase.recharging;
 
-import java.util.ArrayList;
-import java.util.List;
 import static java.util.Objects.requireNonNull;
-import java.util.Optional;
 import javax.inject.Inject;
-import org.opentcs.access.to.order.DestinationCreationTO;
-import org.opentcs.access.to.order.TransportOrderCreationTO;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.services.InternalTransportOrderService;
-import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
-import org.opentcs.data.order.DriveOrder;
-import org.opentcs.data.order.TransportOrder;
-import org.opentcs.strategies.basic.dispatching.AssignmentCandidate;
 import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
-import org.opentcs.strategies.basic.dispatching.Phase;
 import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
 import org.opentcs.strategies.basic.dispatching.selection.candidates.CompositeAssignmentCandidateSelectionFilter;
 import org.opentcs.strategies.basic.dispatching.selection.vehicles.CompositeRechargeVehicleSelectionFilter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Creates recharging orders for any vehicles with a degraded energy level.
@@ -35,42 +23,10 @@ import org.slf4j.LoggerFactory;
  * @author Stefan Walter (Fraunhofer IML)
  */
 public class RechargeIdleVehiclesPhase
-    implements Phase {
-
-  /**
-   * This class's Logger.
-   */
-  private static final Logger LOG = LoggerFactory.getLogger(RechargeIdleVehiclesPhase.class);
-  /**
-   * The transport order service.
-   */
-  private final InternalTransportOrderService orderService;
-  /**
-   * The strategy used for finding suitable recharge locations.
-   */
-  @SuppressWarnings("deprecation")
-  private final org.opentcs.components.kernel.RechargePositionSupplier rechargePosSupplier;
-  /**
-   * The Router instance calculating route costs.
-   */
-  private final Router router;
-  /**
-   * A collection of predicates for filtering assignment candidates.
-   */
-  private final CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter;
+    extends AbstractRechargePhase {
 
   private final CompositeRechargeVehicleSelectionFilter vehicleSelectionFilter;
 
-  private final TransportOrderUtil transportOrderUtil;
-  /**
-   * The dispatcher configuration.
-   */
-  private final DefaultDispatcherConfiguration configuration;
-  /**
-   * Indicates whether this component is initialized.
-   */
-  private boolean initialized;
-
   @Inject
   @SuppressWarnings("deprecation")
   public RechargeIdleVehiclesPhase(
@@ -81,101 +37,23 @@ public class RechargeIdleVehiclesPhase
       CompositeRechargeVehicleSelectionFilter vehicleSelectionFilter,
       TransportOrderUtil transportOrderUtil,
       DefaultDispatcherConfiguration configuration) {
-    this.router = requireNonNull(router, "router");
-    this.orderService = requireNonNull(orderService, "orderService");
-    this.rechargePosSupplier = requireNonNull(rechargePosSupplier, "rechargePosSupplier");
-    this.assignmentCandidateSelectionFilter = requireNonNull(assignmentCandidateSelectionFilter,
-                                                             "assignmentCandidateSelectionFilter");
+    super(orderService,
+          rechargePosSupplier,
+          router,
+          assignmentCandidateSelectionFilter,
+          transportOrderUtil,
+          configuration);
     this.vehicleSelectionFilter = requireNonNull(vehicleSelectionFilter, "vehicleSelectionFilter");
-    this.transportOrderUtil = requireNonNull(transportOrderUtil, "transportOrderUtil");
-    this.configuration = requireNonNull(configuration, "configuration");
-  }
-
-  @Override
-  public void initialize() {
-    if (isInitialized()) {
-      return;
-    }
-
-    rechargePosSupplier.initialize();
-
-    initialized = true;
-  }
-
-  @Override
-  public boolean isInitialized() {
-    return initialized;
-  }
-
-  @Override
-  public void terminate() {
-    if (!isInitialized()) {
-      return;
-    }
-
-    rechargePosSupplier.terminate();
-
-    initialized = false;
   }
 
   @Override
   public void run() {
-    if (!configuration.rechargeIdleVehicles()) {
+    if (!getConfiguration().rechargeIdleVehicles()) {
       return;
     }
 
-    orderService.fetchObjects(Vehicle.class).stream()
+    getOrderService().fetchObjects(Vehicle.class).stream()
         .filter(vehicle -> vehicleSelectionFilter.apply(vehicle).isEmpty())
         .forEach(vehicle -> createRechargeOrder(vehicle));
   }
-
-  private void createRechargeOrder(Vehicle vehicle) {
-    List<DriveOrder.Destination> rechargeDests = rechargePosSupplier.findRechargeSequence(vehicle);
-    LOG.debug("Recharge sequence for {}: {}", vehicle, rechargeDests);
-
-    if (rechargeDests.isEmpty()) {
-      LOG.info("{}: Did not find a suitable recharge sequence.", vehicle.getName());
-      return;
-    }
-
-    List<DestinationCreationTO> chargeDests = new ArrayList<>(rechargeDests.size());
-    for (DriveOrder.Destination dest : rechargeDests) {
-      chargeDests.add(
-          new DestinationCreationTO(dest.getDestination().getName(), dest.getOperation())
-              .withProperties(dest.getProperties())
-      );
-    }
-    // Create a transport order for recharging and verify its processability.
-    // The recharge order may be withdrawn unless its energy level is critical.
-    TransportOrder rechargeOrder = orderService.createTransportOrder(
-        new TransportOrderCreationTO("Recharge-", chargeDests)
-            .withIncompleteName(true)
-            .withIntendedVehicleName(vehicle.getName())
-            .withDispensable(!vehicle.isEnergyLevelCritical())
-    );
-
-    Point vehiclePosition = orderService.fetchObject(Point.class, vehicle.getCurrentPosition());
-    Optional<AssignmentCandidate> candidate = computeCandidate(vehicle,
-                                                               vehiclePosition,
-                                                               rechargeOrder)
-        .filter(c -> assignmentCandidateSelectionFilter.apply(c).isEmpty());
-    // XXX Change this to Optional.ifPresentOrElse() once we're at Java 9+.
-    if (candidate.isPresent()) {
-      transportOrderUtil.assignTransportOrder(candidate.get().getVehicle(),
-                                              candidate.get().getTransportOrder(),
-                                              candidate.get().getDriveOrders());
-    }
-    else {
-      // Mark the order as failed, since the vehicle cannot execute it.
-      orderService.updateTransportOrderState(rechargeOrder.getReference(),
-                                             TransportOrder.State.FAILED);
-    }
-  }
-
-  private Optional<AssignmentCandidate> computeCandidate(Vehicle vehicle,
-                                                         Point vehiclePosition,
-                                                         TransportOrder order) {
-    return router.getRoute(vehicle, vehiclePosition, order)
-        .map(driveOrders -> new AssignmentCandidate(vehicle, order, driveOrders));
-  }
 }
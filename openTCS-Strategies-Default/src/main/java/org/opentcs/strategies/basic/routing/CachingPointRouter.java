@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.order.Route;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A point router caching the costs and routes computed by another point router.
+ * <p>
+ * The cache holds at most a given number of pairs of source and destination points. If it is full,
+ * the least recently used pair is evicted. Since the routes of a point router do not change, the
+ * cache is never invalidated. Instead, it is replaced together with the point router it wraps.
+ * </p>
+ */
+public class CachingPointRouter
+    implements PointRouter {
+
+  /**
+   * Marks costs that have not been computed, yet.
+   */
+  private static final long UNKNOWN_COSTS = -1;
+  /**
+   * The point router computing costs and routes on cache misses.
+   */
+  private final PointRouter delegate;
+  /**
+   * The cached costs and routes, in access order.
+   */
+  private final Map<Key, Entry> entries;
+  /**
+   * The number of requests answered from the cache.
+   */
+  private long hitCount;
+  /**
+   * The number of requests passed on to the wrapped point router.
+   */
+  private long missCount;
+  /**
+   * The number of entries evicted from the cache.
+   */
+  private long evictionCount;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param delegate The point router computing costs and routes on cache misses.
+   * @param maxSize The maximum number of pairs of source and destination points cached.
+   */
+  public CachingPointRouter(PointRouter delegate, int maxSize) {
+    this.delegate = requireNonNull(delegate, "delegate");
+    checkArgument(maxSize > 0, "maxSize must be > 0, but is %s", maxSize);
+
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        if (size() > maxSize) {
+          evictionCount++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  @Override
+  public List<Route.Step> getRouteSteps(Point srcPoint, Point destPoint) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+
+    Key key = new Key(srcPoint.getName(), destPoint.getName());
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.stepsKnown) {
+        hitCount++;
+        return entry.steps == null ? null : new ArrayList<>(entry.steps);
+      }
+      missCount++;
+    }
+
+    List<Route.Step> steps = delegate.getRouteSteps(srcPoint, destPoint);
+    synchronized (entries) {
+      Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+      entry.stepsKnown = true;
+      entry.steps = steps == null ? null : Collections.unmodifiableList(new ArrayList<>(steps));
+    }
+    return steps;
+  }
+
+  @Override
+  public long getCosts(TCSObjectReference<Point> srcPointRef,
+                       TCSObjectReference<Point> destPointRef) {
+    requireNonNull(srcPointRef, "srcPointRef");
+    requireNonNull(destPointRef, "destPointRef");
+
+    Key key = new Key(srcPointRef.getName(), destPointRef.getName());
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.costs != UNKNOWN_COSTS) {
+        hitCount++;
+        return entry.costs;
+      }
+      missCount++;
+    }
+
+    long costs = delegate.getCosts(srcPointRef, destPointRef);
+    synchronized (entries) {
+      entries.computeIfAbsent(key, k -> new Entry()).costs = costs;
+    }
+    return costs;
+  }
+
+  @Override
+  public Map<Point, Long> getCosts(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    Map<Point, Long> result = new HashMap<>();
+    List<Point> missingDestPoints = new ArrayList<>();
+    synchronized (entries) {
+      for (Point destPoint : destPoints) {
+        Entry entry = entries.get(new Key(srcPoint.getName(), destPoint.getName()));
+        if (entry != null && entry.costs != UNKNOWN_COSTS) {
+          hitCount++;
+          result.put(destPoint, entry.costs);
+        }
+        else {
+          missCount++;
+          missingDestPoints.add(destPoint);
+        }
+      }
+    }
+    if (missingDestPoints.isEmpty()) {
+      return result;
+    }
+
+    Map<Point, Long> missingCosts = delegate.getCosts(srcPoint, missingDestPoints);
+    synchronized (entries) {
+      for (Map.Entry<Point, Long> costsEntry : missingCosts.entrySet()) {
+        entries.computeIfAbsent(new Key(srcPoint.getName(), costsEntry.getKey().getName()),
+                                k -> new Entry()).costs = costsEntry.getValue();
+      }
+    }
+    result.putAll(missingCosts);
+    return result;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return delegate.isThreadSafe();
+  }
+
+  /**
+   * Returns the point router computing costs and routes on cache misses.
+   *
+   * @return The point router computing costs and routes on cache misses.
+   */
+  public PointRouter getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Returns the number of requests answered from the cache.
+   *
+   * @return The number of requests answered from the cache.
+   */
+  public long getHitCount() {
+    synchronized (entries) {
+      return hitCount;
+    }
+  }
+
+  /**
+   * Returns the number of requests passed on to the wrapped point router.
+   *
+   * @return The number of requests passed on to the wrapped point router.
+   */
+  public long getMissCount() {
+    synchronized (entries) {
+      return missCount;
+    }
+  }
+
+  /**
+   * Returns the number of entries evicted from the cache.
+   *
+   * @return The number of entries evicted from the cache.
+   */
+  public long getEvictionCount() {
+    synchronized (entries) {
+      return evictionCount;
+    }
+  }
+
+  /**
+   * Returns the number of pairs of source and destination points currently cached.
+   *
+   * @return The number of pairs of source and destination points currently cached.
+   */
+  public int getSize() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public String toString() {
+    synchronized (entries) {
+      return "CachingPointRouter{"
+          + "size=" + entries.size()
+          + ", hitCount=" + hitCount
+          + ", missCount=" + missCount
+          + ", evictionCount=" + evictionCount
+          + '}';
+    }
+  }
+
+  /**
+   * A pair of source and destination point names.
+   */
+  private static final class Key {
+
+    private final String srcPointName;
+
+    private final String destPointName;
+
+    Key(String srcPointName, String destPointName) {
+      this.srcPointName = srcPointName;
+      this.destPointName = destPointName;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return srcPointName.equals(other.srcPointName) && destPointName.equals(other.destPointName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(srcPointName, destPointName);
+    }
+  }
+
+  /**
+   * The cached costs and route for a pair of source and destination points.
+   */
+  private static final class Entry {
+
+    /**
+     * The costs, or {@link #UNKNOWN_COSTS}.
+     */
+    private long costs = UNKNOWN_COSTS;
+    /**
+     * Whether the route has been computed.
+     */
+    private boolean stepsKnown;
+    /**
+     * The route's steps, or <code>null</code>, if there is no route.
+     */
+    private List<Route.Step> steps;
+  }
+}
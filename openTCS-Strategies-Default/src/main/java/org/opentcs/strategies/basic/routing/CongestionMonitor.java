@@ -0,0 +1,427 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.KernelExtension;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorCongestion;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.opentcs.strategies.basic.routing.spacetime.SpaceTimePlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically observes the congestion of paths and updates the router's weights for them.
+ * <p>
+ * The congestion of a path is expressed as a load, which is the sum of
+ * </p>
+ * <ul>
+ * <li>the number of vehicles the path is allocated to,</li>
+ * <li>the number of vehicles waiting for the path (or its destination point) to be freed by
+ * another vehicle and</li>
+ * <li>the relative delay measured when a vehicle last travelled along the path, compared to the
+ * travel time expected from the path's length and the velocities.</li>
+ * </ul>
+ * <p>
+ * A path's load rises as soon as a higher load is observed and decays with the configured
+ * half-life afterwards. Only paths whose load changed noticeably are updated in the routing tables.
+ * </p>
+ */
+public class CongestionMonitor
+    implements KernelExtension,
+               Runnable {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(CongestionMonitor.class);
+  /**
+   * The load below which a path is considered not congested.
+   */
+  private static final double MIN_LOAD = 0.05;
+  /**
+   * The minimum change of a path's load for it to be updated in the routing tables.
+   */
+  private static final double MIN_LOAD_CHANGE = 0.1;
+  /**
+   * The object service.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Provides the current allocations.
+   */
+  private final Scheduler scheduler;
+  /**
+   * The router whose routing tables are to be updated.
+   */
+  private final DefaultRouter router;
+  /**
+   * The evaluator applying the loads to the paths' weights.
+   */
+  private final EdgeEvaluatorCongestion edgeEvaluator;
+  /**
+   * Executes the periodic updates.
+   */
+  private final ScheduledExecutorService kernelExecutor;
+  /**
+   * The configuration.
+   */
+  private final ShortestPathConfiguration configuration;
+  /**
+   * The current loads of paths with any congestion, by path name.
+   */
+  private final Map<String, Double> loadsByPath = new HashMap<>();
+  /**
+   * The position of each vehicle when it was last observed, by vehicle name.
+   */
+  private final Map<String, PositionSample> positionsByVehicle = new HashMap<>();
+  /**
+   * The point of time of the last update (in ms).
+   */
+  private long lastUpdateTime;
+  /**
+   * The future for the periodic updates.
+   */
+  private ScheduledFuture<?> updateTaskFuture;
+  /**
+   * Whether this instance is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service.
+   * @param scheduler Provides the current allocations.
+   * @param router The router whose routing tables are to be updated.
+   * @param edgeEvaluator The evaluator applying the loads to the paths' weights.
+   * @param kernelExecutor Executes the periodic updates.
+   * @param configuration The configuration.
+   */
+  @Inject
+  public CongestionMonitor(@Nonnull TCSObjectService objectService,
+                           @Nonnull Scheduler scheduler,
+                           @Nonnull DefaultRouter router,
+                           @Nonnull EdgeEvaluatorCongestion edgeEvaluator,
+                           @Nonnull @KernelExecutor ScheduledExecutorService kernelExecutor,
+                           @Nonnull ShortestPathConfiguration configuration) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.scheduler = requireNonNull(scheduler, "scheduler");
+    this.router = requireNonNull(router, "router");
+    this.edgeEvaluator = requireNonNull(edgeEvaluator, "edgeEvaluator");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    this.configuration = requireNonNull(configuration, "configuration");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    loadsByPath.clear();
+    positionsByVehicle.clear();
+    edgeEvaluator.setLoads(Collections.emptyMap());
+    lastUpdateTime = System.currentTimeMillis();
+
+    LOG.debug("Scheduling congestion updates with interval of {} ms...",
+              configuration.congestionRefreshInterval());
+    updateTaskFuture = kernelExecutor.scheduleWithFixedDelay(
+        this,
+        configuration.congestionRefreshInterval(),
+        configuration.congestionRefreshInterval(),
+        TimeUnit.MILLISECONDS
+    );
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    updateTaskFuture.cancel(false);
+    updateTaskFuture = null;
+
+    initialized = false;
+  }
+
+  @Override
+  public void run() {
+    try {
+      update(System.currentTimeMillis());
+    }
+    catch (RuntimeException exc) {
+      LOG.warn("Exception updating congestion penalties", exc);
+    }
+  }
+
+  /**
+   * Observes the current congestion and updates the router's weights for all paths whose load
+   * has changed noticeably.
+   *
+   * @param now The current point of time (in ms).
+   */
+  void update(long now) {
+    Map<String, Double> observedLoads = observeLoads(now);
+
+    double decay = Math.pow(0.5,
+                            (double) (now - lastUpdateTime)
+                                / Math.max(1, configuration.congestionPenaltyHalfLife()));
+    lastUpdateTime = now;
+
+    Set<String> pathNames = new HashSet<>(loadsByPath.keySet());
+    pathNames.addAll(observedLoads.keySet());
+    for (String pathName : pathNames) {
+      double load = Math.max(observedLoads.getOrDefault(pathName, 0.0),
+                             loadsByPath.getOrDefault(pathName, 0.0) * decay);
+      if (load < MIN_LOAD) {
+        loadsByPath.remove(pathName);
+      }
+      else {
+        loadsByPath.put(pathName, load);
+      }
+    }
+
+    // Only apply changes that are worth updating the routing tables for, so the loads used for
+    // routing are always the ones the routing tables were updated with.
+    Map<String, Double> appliedLoads = new HashMap<>(edgeEvaluator.getLoads());
+    Set<String> changedPathNames = new HashSet<>();
+    pathNames.addAll(appliedLoads.keySet());
+    for (String pathName : pathNames) {
+      Double load = loadsByPath.get(pathName);
+      Double appliedLoad = appliedLoads.get(pathName);
+      if (load == null && appliedLoad != null) {
+        appliedLoads.remove(pathName);
+        changedPathNames.add(pathName);
+      }
+      else if (load != null
+          && (appliedLoad == null || Math.abs(load - appliedLoad) >= MIN_LOAD_CHANGE)) {
+        appliedLoads.put(pathName, load);
+        changedPathNames.add(pathName);
+      }
+    }
+
+    if (changedPathNames.isEmpty()) {
+      return;
+    }
+    LOG.debug("Congestion changed on {} paths, updating routing tables...",
+              changedPathNames.size());
+    edgeEvaluator.setLoads(appliedLoads);
+    router.updatePathWeights(changedPathNames);
+  }
+
+  private Map<String, Double> observeLoads(long now) {
+    Map<String, Double> result = new HashMap<>();
+    Map<String, Set<TCSResource<?>>> allocations = scheduler.getAllocations();
+    Map<String, String> allocatingVehicles = new HashMap<>();
+
+    for (Map.Entry<String, Set<TCSResource<?>>> entry : allocations.entrySet()) {
+      for (TCSResource<?> resource : entry.getValue()) {
+        allocatingVehicles.put(resource.getName(), entry.getKey());
+        if (resource instanceof Path) {
+          result.merge(resource.getName(), 1.0, Double::sum);
+        }
+      }
+    }
+
+    Set<Vehicle> vehicles = objectService.fetchObjects(Vehicle.class);
+    for (Vehicle vehicle : vehicles) {
+      TransportOrder order = vehicle.getTransportOrder() == null
+          ? null
+          : objectService.fetchObject(TransportOrder.class, vehicle.getTransportOrder());
+      Path awaitedPath = awaitedPath(vehicle, order, allocations, allocatingVehicles);
+      if (awaitedPath != null) {
+        result.merge(awaitedPath.getName(), 1.0, Double::sum);
+      }
+      observePosition(vehicle, order, now, result);
+    }
+    positionsByVehicle.keySet().retainAll(
+        vehicles.stream().map(Vehicle::getName).collect(Collectors.toSet())
+    );
+
+    return result;
+  }
+
+  /**
+   * Returns the path the given vehicle is waiting for because it or its destination point is
+   * allocated to another vehicle.
+   *
+   * @param vehicle The vehicle.
+   * @param order The vehicle's transport order, or <code>null</code>.
+   * @param allocations The current allocations, by vehicle name.
+   * @param allocatingVehicles The names of the vehicles resources are allocated to, by resource
+   * name.
+   * @return The path the vehicle is waiting for, or <code>null</code>.
+   */
+  @Nullable
+  private Path awaitedPath(Vehicle vehicle,
+                           @Nullable TransportOrder order,
+                           Map<String, Set<TCSResource<?>>> allocations,
+                           Map<String, String> allocatingVehicles) {
+    if (order == null
+        || order.getCurrentDriveOrder() == null
+        || order.getCurrentDriveOrder().getRoute() == null) {
+      return null;
+    }
+
+    Set<String> ownResourceNames
+        = allocations.getOrDefault(vehicle.getName(), Collections.emptySet()).stream()
+            .map(TCSResource::getName)
+            .collect(Collectors.toSet());
+    List<Route.Step> steps = order.getCurrentDriveOrder().getRoute().getSteps();
+    for (int i = Math.max(0, vehicle.getRouteProgressIndex() + 1); i < steps.size(); i++) {
+      Route.Step step = steps.get(i);
+      if (step.getPath() == null || ownResourceNames.contains(step.getPath().getName())) {
+        continue;
+      }
+      // This is the first step the vehicle has not been allocated the resources for, yet.
+      String pathOwner = allocatingVehicles.get(step.getPath().getName());
+      String pointOwner = allocatingVehicles.get(step.getDestinationPoint().getName());
+      if ((pathOwner != null && !pathOwner.equals(vehicle.getName()))
+          || (pointOwner != null && !pointOwner.equals(vehicle.getName()))) {
+        return step.getPath();
+      }
+      return null;
+    }
+    return null;
+  }
+
+  /**
+   * Remembers the given vehicle's current position and, if it has just travelled along a path,
+   * adds the relative delay measured for the path to the given loads.
+   * <p>
+   * Positions are only sampled with the refresh interval, so delays up to the refresh interval
+   * are ignored. Travelling is not measured if it started at a point where the vehicle executed
+   * an operation or if the vehicle was not executing a transport order.
+   * </p>
+   *
+   * @param vehicle The vehicle.
+   * @param order The vehicle's transport order, or <code>null</code>.
+   * @param now The current point of time (in ms).
+   * @param loads The loads to add the delay to.
+   */
+  private void observePosition(Vehicle vehicle,
+                               @Nullable TransportOrder order,
+                               long now,
+                               Map<String, Double> loads) {
+    String position = vehicle.getCurrentPosition() == null
+        ? null
+        : vehicle.getCurrentPosition().getName();
+    PositionSample previous = positionsByVehicle.get(vehicle.getName());
+    if (previous != null && Objects.equals(previous.pointName, position)) {
+      return;
+    }
+
+    positionsByVehicle.put(vehicle.getName(),
+                           new PositionSample(position,
+                                              now,
+                                              position != null
+                                              && order != null
+                                              && !isOperationPoint(order, position)));
+
+    if (previous == null || !previous.measurable || position == null || order == null) {
+      return;
+    }
+    Point previousPoint = objectService.fetchObject(Point.class, previous.pointName);
+    if (previousPoint == null) {
+      return;
+    }
+    long travelTime = -1;
+    Path travelledPath = null;
+    for (TCSObjectReference<Path> pathRef : previousPoint.getOutgoingPaths()) {
+      Path path = objectService.fetchObject(Path.class, pathRef);
+      if (path.getDestinationPoint().getName().equals(position)) {
+        travelledPath = path;
+        travelTime = SpaceTimePlanner.getTravelTime(path, false, vehicle);
+      }
+    }
+    for (TCSObjectReference<Path> pathRef : previousPoint.getIncomingPaths()) {
+      Path path = objectService.fetchObject(Path.class, pathRef);
+      if (travelledPath == null && path.getSourcePoint().getName().equals(position)) {
+        travelledPath = path;
+        travelTime = SpaceTimePlanner.getTravelTime(path, true, vehicle);
+      }
+    }
+    if (travelledPath == null || travelTime <= 0) {
+      return;
+    }
+
+    long delay = now - previous.time - travelTime - configuration.congestionRefreshInterval();
+    if (delay > 0) {
+      loads.merge(travelledPath.getName(), (double) delay / travelTime, Double::sum);
+    }
+  }
+
+  private boolean isOperationPoint(TransportOrder order, String pointName) {
+    for (DriveOrder driveOrder : order.getAllDriveOrders()) {
+      if (driveOrder.getRoute() != null
+          && driveOrder.getRoute().getFinalDestinationPoint().getName().equals(pointName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A vehicle's position observed at a point of time.
+   */
+  private static class PositionSample {
+
+    /**
+     * The name of the point the vehicle was at, or <code>null</code>.
+     */
+    private final String pointName;
+    /**
+     * The point of time the vehicle was first observed at the point (in ms).
+     */
+    private final long time;
+    /**
+     * Whether the vehicle's travelling from the point is to be measured.
+     */
+    private final boolean measurable;
+
+    PositionSample(String pointName, long time, boolean measurable) {
+      this.pointName = pointName;
+      this.time = time;
+      this.measurable = measurable;
+    }
+  }
+}
@@ -9,6 +9,8 @@ package org.opentcs.strategies.basic.routing;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -20,6 +22,9 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.services.TCSObjectService;
@@ -27,6 +32,7 @@ import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
 import org.opentcs.data.model.Location.Link;
 import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
@@ -36,6 +42,9 @@ import org.opentcs.data.order.TransportOrder;
 import static org.opentcs.strategies.basic.routing.PointRouter.INFINITE_COSTS;
 
 import org.opentcs.strategies.basic.routing.jgrapht.*;
+import org.opentcs.strategies.basic.routing.spacetime.ReservationTable;
+import org.opentcs.strategies.basic.routing.spacetime.SpaceTimePlanner;
+import org.opentcs.strategies.basic.routing.spacetime.SpaceTimeRoute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +64,11 @@ public class DefaultRouter
    * This class's Logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(DefaultRouter.class);
+  /**
+   * The minimum number of one-to-many cost queries required for a route along a list of drive
+   * orders for evaluating them in parallel.
+   */
+  private static final int PARALLEL_COST_QUERIES_THRESHOLD = 4;
   /**
    * This class's configuration.
    */
@@ -75,6 +89,34 @@ public class DefaultRouter
    * The point routers by vehicle routing group.
    */
   private final Map<String, PointRouter> pointRoutersByVehicleGroup = new ConcurrentHashMap<>();
+  /**
+   * The factories that created the point routers, by vehicle routing group.
+   */
+  private final Map<String, PointRouterFactory> pointRouterFactoriesByVehicleGroup
+      = new ConcurrentHashMap<>();
+  /**
+   * The reachability indices by vehicle routing group, built on demand for the current point
+   * routers.
+   */
+  private final Map<String, ReachabilityIndex> reachabilityIndicesByVehicleGroup
+      = new ConcurrentHashMap<>();
+  /**
+   * The names of the points the point routers were built for.
+   */
+  private final Set<String> routedPointNames = new HashSet<>();
+  /**
+   * The paths the point routers were built for (in the state they were built for), by name.
+   */
+  private final Map<String, Path> routedPaths = new HashMap<>();
+  /**
+   * The space-time planners by vehicle routing group, if space-time routing is enabled.
+   */
+  private final Map<String, SpaceTimePlanner> spaceTimePlannersByVehicleGroup
+      = new ConcurrentHashMap<>();
+  /**
+   * The time windows in which points and paths are expected to be occupied by the selected routes.
+   */
+  private final ReservationTable reservationTable = new ReservationTable();
   /**
    * Prevents reading from the routing tables and planned routes while updating them.
    */
@@ -120,6 +162,7 @@ public class DefaultRouter
     try {
       rwLock.writeLock().lock();
       routesByVehicle.clear();
+      reservationTable.clear();
       updateRoutingTables();
       initialized = true;
     }
@@ -142,6 +185,12 @@ public class DefaultRouter
       rwLock.writeLock().lock();
       routesByVehicle.clear();
       pointRoutersByVehicleGroup.clear();
+      pointRouterFactoriesByVehicleGroup.clear();
+      reachabilityIndicesByVehicleGroup.clear();
+      spaceTimePlannersByVehicleGroup.clear();
+      reservationTable.clear();
+      routedPointNames.clear();
+      routedPaths.clear();
       initialized = false;
     }
     finally {
@@ -149,53 +198,95 @@ public class DefaultRouter
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If points or paths were added to or removed from the model since the routing tables were
+   * built, they are rebuilt from scratch. Otherwise, only the paths modified since (e.g. by locking
+   * or unlocking them or by changing their routing costs) are updated in the existing routing
+   * tables. Routing tables are only created for routing groups that did not have any before.
+   * </p>
+   */
   @Override
-  @Deprecated
-  public void updateRoutingTables() {
+  public void topologyChanged() {
     try {
       rwLock.writeLock().lock();
-      pointRoutersByVehicleGroup.clear();
-      for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
-        String currentGroup = getRoutingGroupOfVehicle(curVehicle);
-        if (!pointRoutersByVehicleGroup.containsKey(currentGroup)) {
-//          pointRoutersByVehicleGroup.put(currentGroup,
-//                                         pointRouterFactory.createPointRouter(curVehicle));
-          String curVehicleRoute = curVehicle.getProperty("route");
-          if (curVehicleRoute == null) {
-            pointRoutersByVehicleGroup.put(currentGroup,
-                    pointRouterFactory.createPointRouter(curVehicle));
-          }
-          else if (curVehicleRoute.equals("astar")) {
-            pointRoutersByVehicleGroup.put(currentGroup,
-                    aStarPointRouterFactory.createPointRouter(curVehicle));
-          }
-          else if (curVehicleRoute.equals("dijkstra")) {
+      Set<Point> points = objectService.fetchObjects(Point.class);
+      Set<Path> paths = objectService.fetchObjects(Path.class);
+      if (!isRoutedTopology(points, paths)) {
+        LOG.debug("Points or paths were added or removed, rebuilding routing tables.");
+        rebuildRoutingTables(points, paths);
+        return;
+      }
 
-            pointRoutersByVehicleGroup.put(currentGroup,
-                    dijkstraPointRouterFactory.createPointRouter(curVehicle));
-          }
-          else if (curVehicleRoute.equals("bellman")) {
+      // Paths are immutable and replaced with a new instance whenever they are modified.
+      List<Path> changedPaths = paths.stream()
+          .filter(path -> routedPaths.get(path.getName()) != path)
+          .collect(Collectors.toList());
 
-            pointRoutersByVehicleGroup.put(currentGroup,
-                    bellmanFordPointRouterFactory.createPointRouter(curVehicle));
-          }
-          else if (curVehicleRoute.equals("floyd")) {
+      Map<String, PointRouter> pointRouters = updatePointRouters(changedPaths);
+      if (!changedPaths.isEmpty()
+          || !spaceTimePlannersByVehicleGroup.keySet().equals(pointRouters.keySet())) {
+        rebuildSpaceTimePlanners(points, paths);
+      }
+      rememberRoutedTopology(points, paths);
+      LOG.debug("Updated {} paths in {} point routers.", changedPaths.size(), pointRouters.size());
+    }
+    finally {
+      rwLock.writeLock().unlock();
+    }
+  }
 
-            pointRoutersByVehicleGroup.put(currentGroup,
-                    floydWarshallPointRouterFactory.createPointRouter(curVehicle));
-          }
-          else {
+  /**
+   * Updates the routing tables to reflect changed weights of the given paths, e.g. because the
+   * edge evaluator's weights for them depend on the state of the plant.
+   * Only the given paths are updated in the existing routing tables. The routing tables are not
+   * rebuilt from scratch.
+   *
+   * @param pathNames The names of the paths whose weights have changed.
+   */
+  public void updatePathWeights(@Nonnull Collection<String> pathNames) {
+    requireNonNull(pathNames, "pathNames");
 
-          }
-        }
+    try {
+      rwLock.writeLock().lock();
+      if (!isInitialized() || pathNames.isEmpty()) {
+        return;
       }
-      LOG.debug("Number of point routers created: {}", pointRoutersByVehicleGroup.size());
+      List<Path> changedPaths = pathNames.stream()
+          .map(pathName -> routedPaths.get(pathName))
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
+      Map<String, PointRouter> pointRouters = updatePointRouters(changedPaths);
+      LOG.debug("Updated weights of {} paths in {} point routers.",
+                changedPaths.size(),
+                pointRouters.size());
     }
     finally {
       rwLock.writeLock().unlock();
     }
   }
 
+  @Override
+  @Deprecated
+  public void updateRoutingTables() {
+    try {
+      rwLock.writeLock().lock();
+      rebuildRoutingTables(objectService.fetchObjects(Point.class),
+                           objectService.fetchObjects(Path.class));
+    }
+    finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Routability is checked with a reachability index per routing group, which is built on demand
+   * whenever the routing tables have changed. The check itself does not search for any routes.
+   * </p>
+   */
   @Override
   public Set<Vehicle> checkRoutability(TransportOrder order) {
     requireNonNull(order, "order");
@@ -203,18 +294,15 @@ public class DefaultRouter
     try {
       rwLock.readLock().lock();
       Set<Vehicle> result = new HashSet<>();
-      List<DriveOrder> driveOrderList = order.getFutureDriveOrders();
-      DriveOrder[] driveOrders
-          = driveOrderList.toArray(new DriveOrder[driveOrderList.size()]);
-      for (Map.Entry<String, PointRouter> curEntry : pointRoutersByVehicleGroup.entrySet()) {
-        // Get all points at the first location at which a vehicle of the current
-        // type can execute the desired operation and check if an acceptable route
-        // originating in one of them exists.
-        for (Point curStartPoint : getDestinationPoints(driveOrders[0])) {
-          if (isRoutable(curStartPoint, driveOrders, 1, curEntry.getValue())) {
-            result.addAll(getVehiclesByRoutingGroup(curEntry.getKey()));
-            break;
-          }
+      List<Set<Point>> destPointsByDriveOrder = order.getFutureDriveOrders().stream()
+          .map(driveOrder -> getDestinationPoints(driveOrder))
+          .collect(Collectors.toList());
+      for (String curGroup : pointRoutersByVehicleGroup.keySet()) {
+        Set<Vehicle> groupVehicles = getVehiclesByRoutingGroup(curGroup);
+        if (!groupVehicles.isEmpty()
+            && isRoutable(destPointsByDriveOrder,
+                          getReachabilityIndex(curGroup, groupVehicles.iterator().next()))) {
+          result.addAll(groupVehicles);
         }
       }
       return result;
@@ -239,7 +327,20 @@ public class DefaultRouter
       PointRouter pointRouter = pointRoutersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle));
       OrderRouteParameterStruct params = new OrderRouteParameterStruct(driveOrders, pointRouter);
       OrderRouteResultStruct resultStruct = new OrderRouteResultStruct(driveOrderList.size());
-      computeCheapestOrderRoute(sourcePoint, params, 0, resultStruct);
+      SpaceTimePlanner planner
+          = spaceTimePlannersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle));
+      if (planner != null) {
+        computeEarliestOrderRoute(vehicle,
+                                  sourcePoint,
+                                  driveOrders,
+                                  planner,
+                                  0,
+                                  System.currentTimeMillis(),
+                                  resultStruct);
+      }
+      else {
+        computeCheapestOrderRoute(sourcePoint, params, resultStruct);
+      }
       return (resultStruct.bestCosts == Long.MAX_VALUE)
           ? Optional.empty()
           : Optional.of(Arrays.asList(resultStruct.bestRoute));
@@ -259,6 +360,11 @@ public class DefaultRouter
 
     try {
       rwLock.readLock().lock();
+      SpaceTimePlanner planner
+          = spaceTimePlannersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle));
+      if (planner != null) {
+        return computeEarliestRoute(vehicle, sourcePoint, destinationPoint, planner);
+      }
       PointRouter pointRouter = pointRoutersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle));
       long costs = pointRouter.getCosts(sourcePoint, destinationPoint);
       if (costs == INFINITE_COSTS) {
@@ -295,6 +401,24 @@ public class DefaultRouter
     }
   }
 
+  @Override
+  public Map<Point, Long> getCosts(Vehicle vehicle,
+                                   Point sourcePoint,
+                                   Set<Point> destinationPoints) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(destinationPoints, "destinationPoints");
+
+    try {
+      rwLock.readLock().lock();
+      return pointRoutersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle))
+          .getCosts(sourcePoint, destinationPoints);
+    }
+    finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
   @Override
   public long getCostsByPointRef(Vehicle vehicle,
                                  TCSObjectReference<Point> srcPointRef,
@@ -329,12 +453,14 @@ public class DefaultRouter
       Set<Link> destLinks = objectService.fetchObject(Location.class, destRef).getAttachedLinks();
 
       // Find the cheapest destination link to be used
+      Set<Point> destPoints = destLinks.stream()
+          .map(destLink -> objectService.fetchObject(Point.class, destLink.getPoint()))
+          .collect(Collectors.toSet());
       long costs = Long.MAX_VALUE;
       for (Link srcLink : srcLinks) {
-        for (Link destLink : destLinks) {
-          long linkCosts = getCosts(vehicle,
-                                    objectService.fetchObject(Point.class, srcLink.getPoint()),
-                                    objectService.fetchObject(Point.class, destLink.getPoint()));
+        for (long linkCosts : getCosts(vehicle,
+                                       objectService.fetchObject(Point.class, srcLink.getPoint()),
+                                       destPoints).values()) {
           costs = Math.min(costs, linkCosts);
         }
       }
@@ -354,9 +480,11 @@ public class DefaultRouter
       if (driveOrders == null) {
         // XXX Should we remember the vehicle's current position, maybe?
         routesByVehicle.remove(vehicle);
+        reservationTable.release(vehicle.getName());
       }
       else {
         routesByVehicle.put(vehicle, driveOrders);
+        reserveRoute(vehicle, driveOrders);
       }
     }
     finally {
@@ -392,118 +520,527 @@ public class DefaultRouter
   }
 
   /**
-   * Checks if a route exists for a vehicle of a given type which allows the
-   * vehicle to process a given list of drive orders.
+   * Rebuilds the routing tables for all vehicle routing groups from scratch.
+   * Expects the caller to hold the write lock.
    *
-   * @param startPoint The point at which the route is supposed to start.
-   * @param driveOrders The list of drive orders, in the order they are to be
-   * processed.
-   * @param nextHopIndex The index of the next drive order in the list.
-   * @param pointRouter The point router to use.
-   * @return <code>true</code> if, and only if, at least one route exists which
-   * would allow a vehicle of the given type to process the whole list of drive
-   * orders.
-   */
-  private boolean isRoutable(Point startPoint,
-                             DriveOrder[] driveOrders,
-                             int nextHopIndex,
-                             PointRouter pointRouter) {
-    assert startPoint != null;
-    assert driveOrders != null;
-    assert pointRouter != null;
-
-    if (nextHopIndex < driveOrders.length) {
-      for (Point curPoint : getDestinationPoints(driveOrders[nextHopIndex])) {
-        // Check if there is a route from the starting point to the current
-        // point and if the rest of the orders are routable from there, too.
-        if (pointRouter.getCosts(startPoint, curPoint) != INFINITE_COSTS
-            && isRoutable(curPoint, driveOrders, nextHopIndex + 1, pointRouter)) {
-          // If it was possible to reach the end of the order list from here,
-          // propagate the result back to the caller.
-          return true;
+   * @param points The points in the model.
+   * @param paths The paths in the model.
+   */
+  private void rebuildRoutingTables(Set<Point> points, Set<Path> paths) {
+    logDiscardedCaches(Collections.emptyMap());
+    pointRoutersByVehicleGroup.clear();
+    pointRouterFactoriesByVehicleGroup.clear();
+    reachabilityIndicesByVehicleGroup.clear();
+    for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
+      String currentGroup = getRoutingGroupOfVehicle(curVehicle);
+      if (!pointRoutersByVehicleGroup.containsKey(currentGroup)) {
+        PointRouterFactory factory = selectPointRouterFactory(curVehicle);
+        if (factory != null) {
+          pointRoutersByVehicleGroup.put(currentGroup,
+                                         withCache(factory.createPointRouter(curVehicle)));
+          pointRouterFactoriesByVehicleGroup.put(currentGroup, factory);
         }
       }
-      // If we haven't found an acceptable route, return false.
-      return false;
     }
-    // If we have reached the end of the list, it seems we have found a route.
+    rebuildSpaceTimePlanners(points, paths);
+    rememberRoutedTopology(points, paths);
+    LOG.debug("Number of point routers created: {}", pointRoutersByVehicleGroup.size());
+  }
+
+  /**
+   * Updates the point routers of all vehicle routing groups to reflect changes to the given paths.
+   * Point routers are only created for routing groups that did not have any before.
+   * Expects the caller to hold the write lock.
+   *
+   * @param changedPaths The paths that have changed, in their current state.
+   * @return The point routers, by vehicle routing group.
+   */
+  private Map<String, PointRouter> updatePointRouters(List<Path> changedPaths) {
+    Map<String, PointRouter> pointRouters = new HashMap<>();
+    Map<String, PointRouterFactory> pointRouterFactories = new HashMap<>();
+    for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
+      String currentGroup = getRoutingGroupOfVehicle(curVehicle);
+      PointRouterFactory factory = selectPointRouterFactory(curVehicle);
+      if (pointRouters.containsKey(currentGroup) || factory == null) {
+        continue;
+      }
+
+      PointRouter pointRouter = pointRoutersByVehicleGroup.get(currentGroup);
+      if (pointRouter == null
+          || factory != pointRouterFactoriesByVehicleGroup.get(currentGroup)) {
+        pointRouter = withCache(factory.createPointRouter(curVehicle));
+      }
+      else if (!changedPaths.isEmpty()) {
+        pointRouter = withCache(factory.updatePointRouter(withoutCache(pointRouter),
+                                                          curVehicle,
+                                                          changedPaths));
+      }
+      pointRouters.put(currentGroup, pointRouter);
+      pointRouterFactories.put(currentGroup, factory);
+    }
+
+    logDiscardedCaches(pointRouters);
+    pointRoutersByVehicleGroup.clear();
+    pointRoutersByVehicleGroup.putAll(pointRouters);
+    pointRouterFactoriesByVehicleGroup.clear();
+    pointRouterFactoriesByVehicleGroup.putAll(pointRouterFactories);
+    reachabilityIndicesByVehicleGroup.clear();
+    return pointRouters;
+  }
+
+  /**
+   * Rebuilds the space-time planners for all vehicle routing groups that have a point router, if
+   * space-time routing is enabled.
+   * Expects the caller to hold the write lock.
+   *
+   * @param points The points in the model.
+   * @param paths The paths in the model.
+   */
+  private void rebuildSpaceTimePlanners(Set<Point> points, Set<Path> paths) {
+    spaceTimePlannersByVehicleGroup.clear();
+    if (!configuration.spaceTimeRouting()) {
+      return;
+    }
+    for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
+      String currentGroup = getRoutingGroupOfVehicle(curVehicle);
+      if (pointRoutersByVehicleGroup.containsKey(currentGroup)
+          && !spaceTimePlannersByVehicleGroup.containsKey(currentGroup)) {
+        spaceTimePlannersByVehicleGroup.put(
+            currentGroup,
+            new SpaceTimePlanner(modelGraphMapper.translateModel(points, paths, curVehicle),
+                                 points,
+                                 curVehicle)
+        );
+      }
+    }
+    LOG.debug("Number of space-time planners created: {}", spaceTimePlannersByVehicleGroup.size());
+  }
+
+  /**
+   * Reserves the points and paths along the given drive orders' routes for the given vehicle, if
+   * space-time routing is enabled, assuming the vehicle departs right away.
+   * Expects the caller to hold the write lock.
+   *
+   * @param vehicle The vehicle.
+   * @param driveOrders The drive orders.
+   */
+  private void reserveRoute(Vehicle vehicle, List<DriveOrder> driveOrders) {
+    SpaceTimePlanner planner
+        = spaceTimePlannersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle));
+    if (planner == null) {
+      reservationTable.release(vehicle.getName());
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    reservationTable.releaseBefore(now);
+    List<List<Route.Step>> routes = driveOrders.stream()
+        .map(DriveOrder::getRoute)
+        .filter(Objects::nonNull)
+        .map(Route::getSteps)
+        .collect(Collectors.toList());
+    reservationTable.setReservations(
+        vehicle.getName(),
+        planner.computeReservations(vehicle.getName(),
+                                    routes,
+                                    now,
+                                    configuration.spaceTimeOperationDuration(),
+                                    configuration.spaceTimeClearance())
+    );
+  }
+
+  /**
+   * Wraps the given point router with a cache, if caching is enabled.
+   *
+   * @param pointRouter The point router.
+   * @return The point router wrapped with a cache, or the given point router, if caching is
+   * disabled.
+   */
+  private PointRouter withCache(PointRouter pointRouter) {
+    return configuration.routeCacheSize() > 0
+        ? new CachingPointRouter(pointRouter, configuration.routeCacheSize())
+        : pointRouter;
+  }
+
+  /**
+   * Returns the point router wrapped by the given one, if it is a cache.
+   *
+   * @param pointRouter The point router.
+   * @return The point router wrapped by the given one, or the given point router, if it is not a
+   * cache.
+   */
+  private PointRouter withoutCache(PointRouter pointRouter) {
+    return pointRouter instanceof CachingPointRouter
+        ? ((CachingPointRouter) pointRouter).getDelegate()
+        : pointRouter;
+  }
+
+  /**
+   * Logs the statistics of caches that are discarded because they are not among the given point
+   * routers replacing the current ones.
+   *
+   * @param newPointRouters The point routers replacing the current ones, by vehicle routing group.
+   */
+  private void logDiscardedCaches(Map<String, PointRouter> newPointRouters) {
+    if (!LOG.isDebugEnabled()) {
+      return;
+    }
+    for (Map.Entry<String, PointRouter> entry : pointRoutersByVehicleGroup.entrySet()) {
+      if (entry.getValue() instanceof CachingPointRouter
+          && newPointRouters.get(entry.getKey()) != entry.getValue()) {
+        LOG.debug("Discarding route cache for routing group '{}': {}",
+                  entry.getKey(),
+                  entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Returns the factory to create the point router for the given vehicle with.
+   *
+   * @param vehicle The vehicle.
+   * @return The factory, or <code>null</code>, if the vehicle requests an unknown algorithm.
+   */
+  private PointRouterFactory selectPointRouterFactory(Vehicle vehicle) {
+    String curVehicleRoute = vehicle.getProperty("route");
+    if (curVehicleRoute == null) {
+      return pointRouterFactory;
+    }
+    else if (curVehicleRoute.equals("astar")) {
+      return aStarPointRouterFactory;
+    }
+    else if (curVehicleRoute.equals("dijkstra")) {
+      return dijkstraPointRouterFactory;
+    }
+    else if (curVehicleRoute.equals("bellman")) {
+      return bellmanFordPointRouterFactory;
+    }
+    else if (curVehicleRoute.equals("floyd")) {
+      return floydWarshallPointRouterFactory;
+    }
     else {
-      return true;
+      return null;
+    }
+  }
+
+  private boolean isRoutedTopology(Set<Point> points, Set<Path> paths) {
+    return points.size() == routedPointNames.size()
+        && paths.size() == routedPaths.size()
+        && points.stream().allMatch(point -> routedPointNames.contains(point.getName()))
+        && paths.stream().allMatch(path -> routedPaths.containsKey(path.getName()));
+  }
+
+  private void rememberRoutedTopology(Set<Point> points, Set<Path> paths) {
+    routedPointNames.clear();
+    for (Point point : points) {
+      routedPointNames.add(point.getName());
+    }
+    routedPaths.clear();
+    for (Path path : paths) {
+      routedPaths.put(path.getName(), path);
+    }
+  }
+
+  /**
+   * Returns the reachability index for the given vehicle routing group, building it if necessary.
+   * Expects the caller to hold (at least) the read lock.
+   *
+   * @param routingGroup The vehicle routing group.
+   * @param vehicle A vehicle of the routing group.
+   * @return The reachability index.
+   */
+  private ReachabilityIndex getReachabilityIndex(String routingGroup, Vehicle vehicle) {
+    return reachabilityIndicesByVehicleGroup.computeIfAbsent(routingGroup, group -> {
+      ReachabilityIndex index = new ReachabilityIndex(
+          modelGraphMapper.translateModel(objectService.fetchObjects(Point.class),
+                                          routedPaths.values(),
+                                          vehicle)
+      );
+      LOG.debug("Built reachability index for routing group '{}' with {} components.",
+                group,
+                index.getComponentCount());
+      return index;
+    });
+  }
+
+  /**
+   * Checks if a route exists which allows a vehicle to process a given list of drive orders.
+   * <p>
+   * Starting with the destination points of the first drive order, the set of destination points
+   * of the next drive order that can be reached from any of the points reached before is computed,
+   * until the end of the list.
+   * </p>
+   *
+   * @param destPointsByDriveOrder The acceptable destination points of each drive order, in the
+   * order the drive orders are to be processed.
+   * @param reachabilityIndex The reachability index for the vehicle's routing group.
+   * @return <code>true</code> if, and only if, at least one route exists which would allow a
+   * vehicle to process the whole list of drive orders.
+   */
+  private boolean isRoutable(List<Set<Point>> destPointsByDriveOrder,
+                             ReachabilityIndex reachabilityIndex) {
+    assert destPointsByDriveOrder != null;
+    assert reachabilityIndex != null;
+
+    if (destPointsByDriveOrder.isEmpty()) {
+      return false;
     }
+    Set<Point> reachedPoints = destPointsByDriveOrder.get(0);
+    for (int i = 1; i < destPointsByDriveOrder.size() && !reachedPoints.isEmpty(); i++) {
+      Set<Point> nextReachedPoints = new HashSet<>();
+      for (Point curDestPoint : destPointsByDriveOrder.get(i)) {
+        for (Point curReachedPoint : reachedPoints) {
+          if (reachabilityIndex.isReachable(curReachedPoint.getName(), curDestPoint.getName())) {
+            nextReachedPoints.add(curDestPoint);
+            break;
+          }
+        }
+      }
+      reachedPoints = nextReachedPoints;
+    }
+    return !reachedPoints.isEmpty();
   }
 
   /**
    * Compute the cheapest route along a list of drive orders/checkpoints.
+   * <p>
+   * The start point and the acceptable destination points of the drive orders form consecutive
+   * layers. For every point, the costs of the cheapest route from it to the end of the list are
+   * computed layer by layer, starting with the last one. This way, every pair of points in
+   * consecutive layers is considered only once, instead of every combination of destination
+   * points. The costs between consecutive layers are requested from the point router with one
+   * one-to-many query per point, evaluated in parallel for larger lists if the point router is
+   * thread-safe. Route steps are only computed for the hops of the selected route.
+   * </p>
+   * <p>
+   * Of several routes with the same costs, the one with the first destination points in the
+   * iteration order of the drive orders' destination points is selected.
+   * </p>
    *
    * @param startPoint The current checkpoint which to start at.
    * @param params A struct describing parameters for the route to be computed.
-   * @param hopIndex The current index in the list of drive orders/checkpoints.
-   * @param result A struct for keeping the (partial) result in.
+   * @param result A struct for keeping the result in.
    */
   private void computeCheapestOrderRoute(Point startPoint,
                                          OrderRouteParameterStruct params,
-                                         int hopIndex,
                                          OrderRouteResultStruct result) {
     assert startPoint != null;
     assert params != null;
     assert result != null;
-    // If we haven't reached the final drive order in the list, yet...
-    if (hopIndex < params.driveOrders.length) {
-      // ...try every possible destination point of the current drive order as
-      // the next checkpoint and recursively route from there.
-      final long currentRouteCosts = result.currentCosts;
-      Set<Point> destPoints = getDestinationPoints(params.driveOrders[hopIndex]);
-      // If the set of destination points contains the starting point, keep only
-      // that one. This is just a shortcut - it is the cheapest way to go.
-      if (!configuration.routeToCurrentPosition() && destPoints.contains(startPoint)) {
-        LOG.debug("Shortcutting route to {}", startPoint);
-        destPoints.clear();
-        destPoints.add(startPoint);
+
+    DriveOrder[] driveOrders = params.driveOrders;
+    List<Set<Point>> destPointsByDriveOrder = Arrays.stream(driveOrders)
+        .map(driveOrder -> getDestinationPoints(driveOrder))
+        .collect(Collectors.toList());
+    List<List<LayerPoint>> layers = new ArrayList<>(driveOrders.length + 1);
+    layers.add(Collections.singletonList(
+        new LayerPoint(startPoint, getHopTargets(startPoint, destPointsByDriveOrder, 0))
+    ));
+    for (int hopIndex = 0; hopIndex < driveOrders.length; hopIndex++) {
+      List<LayerPoint> layer = new ArrayList<>();
+      for (Point destPoint : destPointsByDriveOrder.get(hopIndex)) {
+        layer.add(new LayerPoint(destPoint,
+                                 getHopTargets(destPoint, destPointsByDriveOrder, hopIndex + 1)));
       }
-      boolean routable = false;
-      for (Point curDestPoint : destPoints) {
-        final long hopCosts = params.pointRouter.getCosts(startPoint, curDestPoint);
-        if (hopCosts == INFINITE_COSTS) {
-          continue;
-        }
-        // Get the list of steps for the route of the current drive order.
-        List<Route.Step> steps = params.pointRouter.getRouteSteps(startPoint, curDestPoint);
-        if (steps.isEmpty()) {
-          // If the list of steps returned is empty, we're already at the
-          // destination point of the drive order - create a single step
-          // without a path.
-          steps = new ArrayList<>(1);
-          steps.add(new Route.Step(null,
-                                   null,
-                                   startPoint,
-                                   Vehicle.Orientation.UNDEFINED,
-                                   0));
+      layers.add(layer);
+    }
+
+    // Get the costs between all points of consecutive layers.
+    List<LayerPoint> hopSources = layers.subList(0, driveOrders.length).stream()
+        .flatMap(layer -> layer.stream())
+        .collect(Collectors.toList());
+    Stream<LayerPoint> hopSourceStream
+        = params.pointRouter.isThreadSafe()
+        && hopSources.size() >= PARALLEL_COST_QUERIES_THRESHOLD
+        ? hopSources.parallelStream()
+        : hopSources.stream();
+    hopSourceStream.forEach(
+        source -> source.hopCosts = params.pointRouter.getCosts(source.point, source.hopTargets)
+    );
+
+    // Compute the costs to the end of the list, from the last layer to the first one.
+    for (LayerPoint lastPoint : layers.get(driveOrders.length)) {
+      lastPoint.remainingCosts = 0;
+    }
+    for (int hopIndex = driveOrders.length - 1; hopIndex >= 0; hopIndex--) {
+      Map<Point, LayerPoint> nextLayer = layers.get(hopIndex + 1).stream()
+          .collect(Collectors.toMap(layerPoint -> layerPoint.point, layerPoint -> layerPoint));
+      for (LayerPoint curPoint : layers.get(hopIndex)) {
+        for (Point target : curPoint.hopTargets) {
+          long hopCosts = curPoint.hopCosts.getOrDefault(target, INFINITE_COSTS);
+          LayerPoint targetPoint = nextLayer.get(target);
+          if (hopCosts == INFINITE_COSTS || targetPoint.remainingCosts == Long.MAX_VALUE) {
+            continue;
+          }
+          long costs = hopCosts + targetPoint.remainingCosts;
+          if (costs < curPoint.remainingCosts) {
+            curPoint.remainingCosts = costs;
+            curPoint.next = targetPoint;
+          }
         }
-        // Create a route from the list of steps gathered.
-        Route hopRoute = new Route(steps, hopCosts);
-        // Copy the current drive order, add the computed route to it and
-        // place it in the result struct.
-        DriveOrder hopOrder = params.driveOrders[hopIndex].withRoute(hopRoute);
-        result.currentRoute[hopIndex] = hopOrder;
-        // Calculate the costs for the route so far, too.
-        result.currentCosts = currentRouteCosts + hopRoute.getCosts();
-        computeCheapestOrderRoute(curDestPoint, params, hopIndex + 1, result);
-        // Remember that we did find at least one route that works.
-        routable = true;
       }
-      if (!routable) {
-        // Setting currentCosts is not strictly necessary for this algorithm,
-        // but might help with debugging.
-        result.currentCosts = Long.MAX_VALUE;
+    }
+
+    LayerPoint curPoint = layers.get(0).get(0);
+    if (curPoint.remainingCosts == Long.MAX_VALUE) {
+      return;
+    }
+    result.bestCosts = curPoint.remainingCosts;
+    for (int hopIndex = 0; hopIndex < driveOrders.length; hopIndex++) {
+      LayerPoint nextPoint = curPoint.next;
+      // Get the list of steps for the route of the current drive order.
+      List<Route.Step> steps = params.pointRouter.getRouteSteps(curPoint.point, nextPoint.point);
+      if (steps.isEmpty()) {
+        // If the list of steps returned is empty, we're already at the
+        // destination point of the drive order - create a single step
+        // without a path.
+        steps = new ArrayList<>(1);
+        steps.add(new Route.Step(null,
+                                 null,
+                                 curPoint.point,
+                                 Vehicle.Orientation.UNDEFINED,
+                                 0));
       }
+      result.bestRoute[hopIndex] = driveOrders[hopIndex].withRoute(
+          new Route(steps, curPoint.hopCosts.get(nextPoint.point))
+      );
+      curPoint = nextPoint;
     }
-    // If we have reached the final drive order, ...
-    else // If the route computed is cheaper than the best route found so far,
-    // replace the latter.
-    if (result.currentCosts < result.bestCosts) {
-      System.arraycopy(result.currentRoute, 0, result.bestRoute, 0, result.currentRoute.length);
-      result.bestCosts = result.currentCosts;
+  }
+
+  /**
+   * Returns the points a vehicle coming from the given point could process the drive order with
+   * the given index at.
+   *
+   * @param startPoint The point the vehicle starts at.
+   * @param destPointsByDriveOrder The acceptable destination points of each drive order.
+   * @param hopIndex The index of the drive order.
+   * @return The acceptable destination points, in their iteration order. If the vehicle could
+   * process the drive order at the point it starts at and routing to the current position is
+   * disabled, only that point. If there is no drive order with the given index, an empty list.
+   */
+  private List<Point> getHopTargets(Point startPoint,
+                                    List<Set<Point>> destPointsByDriveOrder,
+                                    int hopIndex) {
+    if (hopIndex >= destPointsByDriveOrder.size()) {
+      return Collections.emptyList();
+    }
+    Set<Point> destPoints = destPointsByDriveOrder.get(hopIndex);
+    // If the set of destination points contains the starting point, keep only
+    // that one. This is just a shortcut - it is the cheapest way to go.
+    if (!configuration.routeToCurrentPosition() && destPoints.contains(startPoint)) {
+      LOG.debug("Shortcutting route to {}", startPoint);
+      return Collections.singletonList(startPoint);
     }
+    return new ArrayList<>(destPoints);
+  }
+
+  /**
+   * Compute the route along a list of drive orders/checkpoints with the earliest expected time of
+   * arrival at the final destination, taking into account the expected waiting for other vehicles
+   * along the route.
+   * The costs of the routes computed are their expected durations.
+   *
+   * @param vehicle The vehicle to compute the route for.
+   * @param startPoint The current checkpoint which to start at.
+   * @param driveOrders The drive orders containing the route's checkpoints.
+   * @param planner The space-time planner for the vehicle's routing group.
+   * @param hopIndex The current index in the list of drive orders/checkpoints.
+   * @param startTime The point of time the vehicle departs from the current checkpoint.
+   * @param result A struct for keeping the (partial) result in.
+   */
+  private void computeEarliestOrderRoute(Vehicle vehicle,
+                                         Point startPoint,
+                                         DriveOrder[] driveOrders,
+                                         SpaceTimePlanner planner,
+                                         int hopIndex,
+                                         long startTime,
+                                         OrderRouteResultStruct result) {
+    if (hopIndex >= driveOrders.length) {
+      if (result.currentCosts < result.bestCosts) {
+        System.arraycopy(result.currentRoute, 0, result.bestRoute, 0, result.currentRoute.length);
+        result.bestCosts = result.currentCosts;
+      }
+      return;
+    }
+
+    final long currentRouteCosts = result.currentCosts;
+    for (Point curDestPoint : getHopDestinationPoints(startPoint, driveOrders[hopIndex])) {
+      SpaceTimeRoute hopRoute = planner.computeRoute(startPoint,
+                                                     curDestPoint,
+                                                     startTime,
+                                                     configuration.spaceTimeOperationDuration(),
+                                                     reservationTable,
+                                                     vehicle.getName());
+      if (hopRoute == null) {
+        continue;
+      }
+      result.currentRoute[hopIndex]
+          = driveOrders[hopIndex].withRoute(toRoute(startPoint, hopRoute));
+      result.currentCosts = currentRouteCosts + hopRoute.getDuration();
+      computeEarliestOrderRoute(vehicle,
+                                curDestPoint,
+                                driveOrders,
+                                planner,
+                                hopIndex + 1,
+                                hopRoute.getArrivalTime()
+                                    + configuration.spaceTimeOperationDuration(),
+                                result);
+    }
+    result.currentCosts = currentRouteCosts;
+  }
+
+  /**
+   * Computes the route between the given points with the earliest expected time of arrival.
+   *
+   * @param vehicle The vehicle to compute the route for.
+   * @param sourcePoint The source point.
+   * @param destinationPoint The destination point.
+   * @param planner The space-time planner for the vehicle's routing group.
+   * @return The route, with its expected duration as its costs.
+   */
+  private Optional<Route> computeEarliestRoute(Vehicle vehicle,
+                                               Point sourcePoint,
+                                               Point destinationPoint,
+                                               SpaceTimePlanner planner) {
+    SpaceTimeRoute route = planner.computeRoute(sourcePoint,
+                                                destinationPoint,
+                                                System.currentTimeMillis(),
+                                                0,
+                                                reservationTable,
+                                                vehicle.getName());
+    return route == null ? Optional.empty() : Optional.of(toRoute(sourcePoint, route));
+  }
+
+  private Route toRoute(Point sourcePoint, SpaceTimeRoute spaceTimeRoute) {
+    List<Route.Step> steps = spaceTimeRoute.getSteps();
+    if (steps.isEmpty()) {
+      // If the list of steps is empty, we're already at the destination point
+      // Create a single step without a path.
+      steps.add(new Route.Step(null, null, sourcePoint, Vehicle.Orientation.UNDEFINED, 0));
+    }
+    return new Route(steps, spaceTimeRoute.getDuration());
+  }
+
+  /**
+   * Returns the points at which a vehicle coming from the given point could process the given
+   * drive order.
+   *
+   * @param startPoint The point the vehicle starts at.
+   * @param driveOrder The drive order to be processed.
+   * @return The acceptable destination points. If the vehicle could process the drive order at the
+   * point it starts at and routing to the current position is disabled, only that point.
+   */
+  private Set<Point> getHopDestinationPoints(Point startPoint, DriveOrder driveOrder) {
+    Set<Point> destPoints = getDestinationPoints(driveOrder);
+    // If the set of destination points contains the starting point, keep only
+    // that one. This is just a shortcut - it is the cheapest way to go.
+    if (!configuration.routeToCurrentPosition() && destPoints.contains(startPoint)) {
+      LOG.debug("Shortcutting route to {}", startPoint);
+      destPoints.clear();
+      destPoints.add(startPoint);
+    }
+    return destPoints;
   }
 
   /**
@@ -619,6 +1156,45 @@ public class DefaultRouter
     }
   }
 
+  /**
+   * A point in a layer of the cheapest route calculation.
+   */
+  private static final class LayerPoint {
+
+    /**
+     * The point.
+     */
+    private final Point point;
+    /**
+     * The points in the next layer the route may continue with.
+     */
+    private final List<Point> hopTargets;
+    /**
+     * The costs to the points in the next layer, by point.
+     */
+    private Map<Point, Long> hopCosts = Collections.emptyMap();
+    /**
+     * The costs of the cheapest route from this point to the end of the list of drive orders, or
+     * <code>Long.MAX_VALUE</code>, if there is none.
+     */
+    private long remainingCosts = Long.MAX_VALUE;
+    /**
+     * The point in the next layer the cheapest route continues with.
+     */
+    private LayerPoint next;
+
+    /**
+     * Creates a new LayerPoint.
+     *
+     * @param point The point.
+     * @param hopTargets The points in the next layer the route may continue with.
+     */
+    public LayerPoint(Point point, List<Point> hopTargets) {
+      this.point = requireNonNull(point, "point");
+      this.hopTargets = requireNonNull(hopTargets, "hopTargets");
+    }
+  }
+
   /**
    * A struct supporting cheapest route calculation.
    */
@@ -28,4 +28,35 @@ public interface DefaultRouterConfiguration {
       description = "Whether to compute a route even if the vehicle is already at the destination.")
   boolean routeToCurrentPosition();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of pairs of source and destination points for which routing costs and",
+        "routes are cached per routing group. Caches are discarded when the routing tables change.",
+        "0 disables caching."})
+  int routeCacheSize();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to plan routes in space and time, avoiding the time windows in which points and",
+        "paths are expected to be occupied by the routes selected for other vehicles.",
+        "The costs of routes for transport orders are then their expected durations (in ms),",
+        "including the expected waiting."})
+  boolean spaceTimeRouting();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The expected duration of an operation at a destination (in ms), for which space-time",
+        "routing considers the destination point occupied."})
+  int spaceTimeOperationDuration();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The time (in ms) space-time routing adds before and after every expected occupation of",
+        "a point or path, to allow for deviations from the expected travel times."})
+  int spaceTimeClearance();
+
 }
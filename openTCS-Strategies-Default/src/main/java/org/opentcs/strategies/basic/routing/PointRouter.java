@@ -7,7 +7,10 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Point;
@@ -69,4 +72,43 @@ public interface PointRouter {
 
     return getCosts(srcPoint.getReference(), destPoint.getReference());
   }
+
+  /**
+   * Returns the costs for travelling the shortest routes from one point to each of a set of other
+   * points.
+   * <p>
+   * This default implementation computes the costs for each destination point separately.
+   * Implementations should compute them in a single search, if possible.
+   * </p>
+   *
+   * @param srcPoint The starting point.
+   * @param destPoints The destination points.
+   * @return The costs for travelling the shortest routes from the starting point to the destination
+   * points, by destination point.
+   * For destination points that cannot be reached, {@link #INFINITE_COSTS INFINITE_COSTS} will be
+   * contained.
+   */
+  default Map<Point, Long> getCosts(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    Map<Point, Long> result = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      result.put(destPoint, getCosts(srcPoint, destPoint));
+    }
+    return result;
+  }
+
+  /**
+   * Indicates whether this point router may be queried by multiple threads concurrently.
+   * <p>
+   * This default implementation returns <code>false</code>.
+   * </p>
+   *
+   * @return <code>true</code> if, and only if, this point router may be queried by multiple threads
+   * concurrently.
+   */
+  default boolean isThreadSafe() {
+    return false;
+  }
 }
@@ -7,6 +7,8 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.Collection;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Vehicle;
 
 /**
@@ -23,4 +25,24 @@ public interface PointRouterFactory {
    * @return The point router.
    */
   PointRouter createPointRouter(Vehicle vehicle);
+
+  /**
+   * Provides a point router for the given vehicle reflecting changes to the given paths (e.g. of
+   * their lock states or routing costs), based on a point router previously provided for it.
+   * The set of points and paths in the model must not have changed since.
+   * <p>
+   * This default implementation creates a new point router from scratch.
+   * </p>
+   *
+   * @param pointRouter The point router previously provided for the vehicle. After this method
+   * returns, it may not be used any more.
+   * @param vehicle The vehicle.
+   * @param changedPaths The paths that have changed, in their current state.
+   * @return The point router reflecting the changes.
+   */
+  default PointRouter updatePointRouter(PointRouter pointRouter,
+                                        Vehicle vehicle,
+                                        Collection<Path> changedPaths) {
+    return createPointRouter(vehicle);
+  }
 }
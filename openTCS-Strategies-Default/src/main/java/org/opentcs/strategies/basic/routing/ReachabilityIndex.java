@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import org.jgrapht.Graph;
+import static org.opentcs.strategies.basic.routing.PointRouter.INFINITE_COSTS;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * An immutable index answering whether a point can be reached from another one in a routing graph,
+ * without searching for a route.
+ * <p>
+ * The graph's vertices are grouped into strongly connected components, in which every vertex can
+ * reach every other one. For every component, the set of components reachable from it is kept as
+ * a bit set over the components of the condensed, acyclic graph. A query is thus answered with two
+ * lookups. Edges with infinite weights are considered impassable.
+ * </p>
+ */
+final class ReachabilityIndex {
+
+  /**
+   * The indices of the components, by point name.
+   */
+  private final Map<String, Integer> componentsByPoint;
+  /**
+   * The sets of components reachable from a component (including itself), by component index.
+   */
+  private final BitSet[] reachableComponents;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param graph The routing graph.
+   */
+  ReachabilityIndex(Graph<String, ModelEdge> graph) {
+    requireNonNull(graph, "graph");
+
+    String[] vertices = graph.vertexSet().toArray(new String[0]);
+    Map<String, Integer> vertexIndices = new HashMap<>();
+    for (int i = 0; i < vertices.length; i++) {
+      vertexIndices.put(vertices[i], i);
+    }
+
+    // Keep the passable edges in compressed sparse row format.
+    int[] offsets = new int[vertices.length + 1];
+    int[] targets = new int[graph.edgeSet().size()];
+    int edgeCount = 0;
+    for (int v = 0; v < vertices.length; v++) {
+      offsets[v] = edgeCount;
+      for (ModelEdge edge : graph.outgoingEdgesOf(vertices[v])) {
+        if (graph.getEdgeWeight(edge) < INFINITE_COSTS) {
+          targets[edgeCount] = vertexIndices.get(graph.getEdgeTarget(edge));
+          edgeCount++;
+        }
+      }
+    }
+    offsets[vertices.length] = edgeCount;
+
+    int[] components = computeComponents(offsets, targets);
+    int componentCount = Arrays.stream(components).max().orElse(-1) + 1;
+
+    componentsByPoint = new HashMap<>();
+    for (int v = 0; v < vertices.length; v++) {
+      componentsByPoint.put(vertices[v], components[v]);
+    }
+    reachableComponents = computeReachableComponents(offsets, targets, components, componentCount);
+  }
+
+  /**
+   * Checks whether the given destination point can be reached from the given source point.
+   *
+   * @param srcPointName The name of the source point.
+   * @param destPointName The name of the destination point.
+   * @return <code>true</code> if, and only if, a sequence of passable edges leads from the source
+   * point to the destination point, or both are the same point.
+   * Points not contained in the graph are considered unreachable.
+   */
+  boolean isReachable(String srcPointName, String destPointName) {
+    Integer srcComponent = componentsByPoint.get(srcPointName);
+    Integer destComponent = componentsByPoint.get(destPointName);
+    if (srcComponent == null || destComponent == null) {
+      return false;
+    }
+    return reachableComponents[srcComponent].get(destComponent);
+  }
+
+  /**
+   * Returns the number of strongly connected components in the graph.
+   *
+   * @return The number of strongly connected components in the graph.
+   */
+  int getComponentCount() {
+    return reachableComponents.length;
+  }
+
+  /**
+   * Computes the strongly connected components of the given graph with Tarjan's algorithm.
+   * The components are numbered in the order they are completed, which is a reverse topological
+   * order of the condensed graph: Every component reachable from another one has a smaller index.
+   *
+   * @param offsets The offsets of the outgoing edges, by vertex index.
+   * @param targets The target vertices, by edge index.
+   * @return The component indices, by vertex index.
+   */
+  private static int[] computeComponents(int[] offsets, int[] targets) {
+    int vertexCount = offsets.length - 1;
+    int[] components = new int[vertexCount];
+    int[] order = new int[vertexCount];
+    int[] lowLinks = new int[vertexCount];
+    boolean[] onStack = new boolean[vertexCount];
+    int[] stack = new int[vertexCount];
+    int stackSize = 0;
+    // The vertices currently being visited and the next of their edges to follow.
+    int[] callStack = new int[vertexCount];
+    int[] nextEdges = new int[vertexCount];
+    int callStackSize = 0;
+    int visitCount = 0;
+    int componentCount = 0;
+
+    Arrays.fill(order, -1);
+    for (int root = 0; root < vertexCount; root++) {
+      if (order[root] >= 0) {
+        continue;
+      }
+      order[root] = lowLinks[root] = visitCount++;
+      stack[stackSize++] = root;
+      onStack[root] = true;
+      callStack[callStackSize] = root;
+      nextEdges[callStackSize] = offsets[root];
+      callStackSize++;
+
+      while (callStackSize > 0) {
+        int v = callStack[callStackSize - 1];
+        int edge = nextEdges[callStackSize - 1];
+        if (edge < offsets[v + 1]) {
+          nextEdges[callStackSize - 1]++;
+          int w = targets[edge];
+          if (order[w] < 0) {
+            order[w] = lowLinks[w] = visitCount++;
+            stack[stackSize++] = w;
+            onStack[w] = true;
+            callStack[callStackSize] = w;
+            nextEdges[callStackSize] = offsets[w];
+            callStackSize++;
+          }
+          else if (onStack[w]) {
+            lowLinks[v] = Math.min(lowLinks[v], order[w]);
+          }
+          continue;
+        }
+
+        // All edges of v have been followed.
+        callStackSize--;
+        if (lowLinks[v] == order[v]) {
+          int w;
+          do {
+            w = stack[--stackSize];
+            onStack[w] = false;
+            components[w] = componentCount;
+          }
+          while (w != v);
+          componentCount++;
+        }
+        if (callStackSize > 0) {
+          int parent = callStack[callStackSize - 1];
+          lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[v]);
+        }
+      }
+    }
+    return components;
+  }
+
+  /**
+   * Computes the sets of components reachable from each component.
+   *
+   * @param offsets The offsets of the outgoing edges, by vertex index.
+   * @param targets The target vertices, by edge index.
+   * @param components The component indices, by vertex index, in reverse topological order.
+   * @param componentCount The number of components.
+   * @return The sets of reachable components, by component index.
+   */
+  private static BitSet[] computeReachableComponents(int[] offsets,
+                                                     int[] targets,
+                                                     int[] components,
+                                                     int componentCount) {
+    // Group the vertices by component.
+    int[] componentOffsets = new int[componentCount + 1];
+    for (int component : components) {
+      componentOffsets[component + 1]++;
+    }
+    for (int c = 0; c < componentCount; c++) {
+      componentOffsets[c + 1] += componentOffsets[c];
+    }
+    int[] verticesByComponent = new int[components.length];
+    int[] fillPositions = Arrays.copyOf(componentOffsets, componentCount);
+    for (int v = 0; v < components.length; v++) {
+      verticesByComponent[fillPositions[components[v]]++] = v;
+    }
+
+    // Components reachable from a component have smaller indices and are thus complete already.
+    BitSet[] result = new BitSet[componentCount];
+    for (int c = 0; c < componentCount; c++) {
+      BitSet reachable = new BitSet(componentCount);
+      reachable.set(c);
+      for (int i = componentOffsets[c]; i < componentOffsets[c + 1]; i++) {
+        int v = verticesByComponent[i];
+        for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+          int targetComponent = components[targets[edge]];
+          if (!reachable.get(targetComponent)) {
+            reachable.or(result[targetComponent]);
+          }
+        }
+      }
+      result[c] = reachable;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,665 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nullable;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A contraction hierarchy of a {@link CsrGraph}.
+ * <p>
+ * The vertices are contracted one after the other, ordered by their importance. Contracting a
+ * vertex removes it from the remaining graph and adds shortcut arcs between its remaining
+ * neighbours wherever the shortest path between them leads via the vertex. Every shortest path in
+ * the original graph is thus also represented by a path that first ascends and then descends in
+ * the contraction order, which can be found by two small searches that only follow upward arcs
+ * from the source and downward arcs to the target.
+ * </p>
+ * <p>
+ * Arcs are either edges of the original graph or shortcuts, which are made up of two other arcs
+ * and can be unpacked recursively to edges of the original graph.
+ * </p>
+ */
+final class ContractionHierarchy {
+
+  /**
+   * The maximum number of vertices settled by a witness search when contracting a vertex.
+   */
+  private static final int CONTRACTION_SETTLE_LIMIT = 500;
+  /**
+   * The maximum number of vertices settled by a witness search when estimating the importance of
+   * a vertex.
+   */
+  private static final int ESTIMATION_SETTLE_LIMIT = 50;
+  /**
+   * The compiled graph.
+   */
+  private final CsrGraph graph;
+  /**
+   * The vertices, in the order they were contracted.
+   */
+  private final int[] order;
+  /**
+   * The ranks of the vertices in the contraction order, by vertex index.
+   */
+  private final int[] ranks;
+  /**
+   * The source vertices, by arc index.
+   */
+  private final int[] arcSources;
+  /**
+   * The target vertices, by arc index.
+   */
+  private final int[] arcTargets;
+  /**
+   * The edges of the original graph, by arc index, or -1 for shortcuts.
+   */
+  private final int[] arcEdges;
+  /**
+   * The first arc a shortcut is made up of, by arc index.
+   */
+  private final int[] arcFirsts;
+  /**
+   * The second arc a shortcut is made up of, by arc index.
+   */
+  private final int[] arcSeconds;
+  /**
+   * The offsets of the upward arcs in {@link #upArcs}, by source vertex index.
+   */
+  private final int[] upOffsets;
+  /**
+   * The upward arcs, grouped by source vertex.
+   */
+  private final int[] upArcs;
+  /**
+   * The targets of the upward arcs, in the order of {@link #upArcs}.
+   */
+  private final int[] upTargets;
+  /**
+   * The weights of the upward arcs, in the order of {@link #upArcs}.
+   */
+  private final double[] upWeights;
+  /**
+   * The offsets of the downward arcs in {@link #downArcs}, by target vertex index.
+   */
+  private final int[] downOffsets;
+  /**
+   * The downward arcs, grouped by target vertex.
+   */
+  private final int[] downArcs;
+  /**
+   * The sources of the downward arcs, in the order of {@link #downArcs}.
+   */
+  private final int[] downSources;
+  /**
+   * The weights of the downward arcs, in the order of {@link #downArcs}.
+   */
+  private final double[] downWeights;
+
+  /**
+   * Contracts the given graph.
+   *
+   * @param graph The graph.
+   * @param order The order in which to contract the vertices, e.g. the one of a hierarchy for a
+   * previous version of the graph. If <code>null</code>, the order is determined by the vertices'
+   * importance.
+   */
+  ContractionHierarchy(CsrGraph graph, @Nullable int[] order) {
+    this.graph = requireNonNull(graph, "graph");
+    checkArgument(order == null || order.length == graph.getVertexCount(),
+                  "order has length %s, but graph has %s vertices",
+                  order == null ? 0 : order.length,
+                  graph.getVertexCount());
+
+    Contraction contraction = new Contraction(graph);
+    if (order == null) {
+      contraction.contractByImportance();
+    }
+    else {
+      contraction.contractInOrder(order);
+    }
+
+    int vertexCount = graph.getVertexCount();
+    int arcCount = contraction.arcCount;
+    this.order = contraction.order;
+    this.ranks = contraction.ranks;
+    this.arcSources = Arrays.copyOf(contraction.arcSources, arcCount);
+    this.arcTargets = Arrays.copyOf(contraction.arcTargets, arcCount);
+    this.arcEdges = Arrays.copyOf(contraction.arcEdges, arcCount);
+    this.arcFirsts = Arrays.copyOf(contraction.arcFirsts, arcCount);
+    this.arcSeconds = Arrays.copyOf(contraction.arcSeconds, arcCount);
+    double[] arcWeights = contraction.arcWeights;
+    boolean[] removed = contraction.removed;
+
+    upOffsets = new int[vertexCount + 1];
+    downOffsets = new int[vertexCount + 1];
+    for (int arc = 0; arc < arcCount; arc++) {
+      if (removed[arc]) {
+        continue;
+      }
+      if (ranks[arcSources[arc]] < ranks[arcTargets[arc]]) {
+        upOffsets[arcSources[arc] + 1]++;
+      }
+      else {
+        downOffsets[arcTargets[arc] + 1]++;
+      }
+    }
+    for (int v = 0; v < vertexCount; v++) {
+      upOffsets[v + 1] += upOffsets[v];
+      downOffsets[v + 1] += downOffsets[v];
+    }
+
+    upArcs = new int[upOffsets[vertexCount]];
+    upTargets = new int[upArcs.length];
+    upWeights = new double[upArcs.length];
+    downArcs = new int[downOffsets[vertexCount]];
+    downSources = new int[downArcs.length];
+    downWeights = new double[downArcs.length];
+    int[] upFill = Arrays.copyOf(upOffsets, vertexCount);
+    int[] downFill = Arrays.copyOf(downOffsets, vertexCount);
+    for (int arc = 0; arc < arcCount; arc++) {
+      if (removed[arc]) {
+        continue;
+      }
+      int source = arcSources[arc];
+      int target = arcTargets[arc];
+      if (ranks[source] < ranks[target]) {
+        int index = upFill[source]++;
+        upArcs[index] = arc;
+        upTargets[index] = target;
+        upWeights[index] = arcWeights[arc];
+      }
+      else {
+        int index = downFill[target]++;
+        downArcs[index] = arc;
+        downSources[index] = source;
+        downWeights[index] = arcWeights[arc];
+      }
+    }
+  }
+
+  /**
+   * Returns the compiled graph.
+   *
+   * @return The compiled graph.
+   */
+  CsrGraph getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the vertices in the order they were contracted.
+   *
+   * @return The vertices in the order they were contracted.
+   */
+  int[] getOrder() {
+    return order.clone();
+  }
+
+  /**
+   * Returns the number of arcs, including shortcuts.
+   *
+   * @return The number of arcs.
+   */
+  int getArcCount() {
+    return arcSources.length;
+  }
+
+  int getArcSource(int arc) {
+    return arcSources[arc];
+  }
+
+  int getArcTarget(int arc) {
+    return arcTargets[arc];
+  }
+
+  /**
+   * Returns the edge of the original graph an arc represents.
+   *
+   * @param arc The arc.
+   * @return The edge, or -1, if the arc is a shortcut.
+   */
+  int getArcEdge(int arc) {
+    return arcEdges[arc];
+  }
+
+  int getArcFirst(int arc) {
+    return arcFirsts[arc];
+  }
+
+  int getArcSecond(int arc) {
+    return arcSeconds[arc];
+  }
+
+  int getUpArcsStart(int vertex) {
+    return upOffsets[vertex];
+  }
+
+  int getUpArcsEnd(int vertex) {
+    return upOffsets[vertex + 1];
+  }
+
+  int getUpArc(int position) {
+    return upArcs[position];
+  }
+
+  int getUpTarget(int position) {
+    return upTargets[position];
+  }
+
+  double getUpWeight(int position) {
+    return upWeights[position];
+  }
+
+  int getDownArcsStart(int vertex) {
+    return downOffsets[vertex];
+  }
+
+  int getDownArcsEnd(int vertex) {
+    return downOffsets[vertex + 1];
+  }
+
+  int getDownArc(int position) {
+    return downArcs[position];
+  }
+
+  int getDownSource(int position) {
+    return downSources[position];
+  }
+
+  double getDownWeight(int position) {
+    return downWeights[position];
+  }
+
+  /**
+   * The state of the contraction, discarded once the hierarchy is built.
+   */
+  private static final class Contraction {
+
+    /**
+     * The number of vertices.
+     */
+    private final int vertexCount;
+    /**
+     * The vertices, in the order they were contracted.
+     */
+    private final int[] order;
+    /**
+     * The ranks of the vertices in the contraction order, by vertex index.
+     */
+    private final int[] ranks;
+    /**
+     * Whether a vertex has been contracted, by vertex index.
+     */
+    private final boolean[] contracted;
+    /**
+     * The depths of the vertices in the hierarchy, by vertex index.
+     */
+    private final int[] depths;
+    /**
+     * The outgoing arcs, by vertex index.
+     */
+    private final int[][] outArcs;
+    /**
+     * The numbers of outgoing arcs, by vertex index.
+     */
+    private final int[] outArcCounts;
+    /**
+     * The incoming arcs, by vertex index.
+     */
+    private final int[][] inArcs;
+    /**
+     * The numbers of incoming arcs, by vertex index.
+     */
+    private final int[] inArcCounts;
+    /**
+     * The tentative distances of the witness search, by vertex index.
+     */
+    private final double[] witnessDistances;
+    /**
+     * The stamps of the witness searches that reached vertices, by vertex index.
+     */
+    private final int[] witnessStamps;
+    /**
+     * The queue of the witness search.
+     */
+    private final VertexHeap witnessHeap;
+    /**
+     * The current witness search's stamp.
+     */
+    private int witnessStamp;
+    /**
+     * The marks of the witness searches' targets, by vertex index.
+     */
+    private final int[] targetMarks;
+    /**
+     * The current witness search targets' mark.
+     */
+    private int targetMark;
+    /**
+     * The source vertices, by arc index.
+     */
+    private int[] arcSources = new int[16];
+    /**
+     * The target vertices, by arc index.
+     */
+    private int[] arcTargets = new int[16];
+    /**
+     * The edges of the original graph, by arc index, or -1 for shortcuts.
+     */
+    private int[] arcEdges = new int[16];
+    /**
+     * The first arc a shortcut is made up of, by arc index.
+     */
+    private int[] arcFirsts = new int[16];
+    /**
+     * The second arc a shortcut is made up of, by arc index.
+     */
+    private int[] arcSeconds = new int[16];
+    /**
+     * The weights, by arc index.
+     */
+    private double[] arcWeights = new double[16];
+    /**
+     * Whether an arc has been replaced by a cheaper parallel one, by arc index.
+     */
+    private boolean[] removed = new boolean[16];
+    /**
+     * The number of arcs.
+     */
+    private int arcCount;
+
+    Contraction(CsrGraph graph) {
+      vertexCount = graph.getVertexCount();
+      order = new int[vertexCount];
+      ranks = new int[vertexCount];
+      contracted = new boolean[vertexCount];
+      depths = new int[vertexCount];
+      outArcs = new int[vertexCount][];
+      outArcCounts = new int[vertexCount];
+      inArcs = new int[vertexCount][];
+      inArcCounts = new int[vertexCount];
+      for (int v = 0; v < vertexCount; v++) {
+        outArcs[v] = new int[graph.getOutEdgesEnd(v) - graph.getOutEdgesStart(v)];
+        inArcs[v] = new int[graph.getInEdgesEnd(v) - graph.getInEdgesStart(v)];
+      }
+      witnessDistances = new double[vertexCount];
+      witnessStamps = new int[vertexCount];
+      witnessHeap = new VertexHeap(vertexCount);
+      targetMarks = new int[vertexCount];
+
+      for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+        int source = graph.getEdgeSource(edge);
+        int target = graph.getEdgeTarget(edge);
+        // Loops are never part of a shortest path.
+        if (source != target) {
+          addArc(source, target, graph.getEdgeWeight(edge), edge, -1, -1);
+        }
+      }
+    }
+
+    /**
+     * Contracts the vertices, least important first.
+     */
+    void contractByImportance() {
+      VertexHeap queue = new VertexHeap(vertexCount);
+      for (int v = 0; v < vertexCount; v++) {
+        queue.put(v, importance(v));
+      }
+
+      int rank = 0;
+      while (!queue.isEmpty()) {
+        int vertex = queue.poll();
+        // The importance may have changed since the vertex was queued.
+        double importance = importance(vertex);
+        if (importance > queue.peekKey()) {
+          queue.put(vertex, importance);
+          continue;
+        }
+
+        contract(vertex, rank++);
+
+        for (int i = 0; i < outArcCounts[vertex]; i++) {
+          updateNeighbour(queue, vertex, arcTargets[outArcs[vertex][i]]);
+        }
+        for (int i = 0; i < inArcCounts[vertex]; i++) {
+          updateNeighbour(queue, vertex, arcSources[inArcs[vertex][i]]);
+        }
+      }
+    }
+
+    /**
+     * Contracts the vertices in the given order.
+     *
+     * @param vertexOrder The vertices in the order to contract them.
+     */
+    void contractInOrder(int[] vertexOrder) {
+      for (int rank = 0; rank < vertexOrder.length; rank++) {
+        checkArgument(!contracted[vertexOrder[rank]],
+                      "vertex %s contained more than once in order",
+                      vertexOrder[rank]);
+        contract(vertexOrder[rank], rank);
+      }
+    }
+
+    private void contract(int vertex, int rank) {
+      addShortcuts(vertex, CONTRACTION_SETTLE_LIMIT, true);
+      contracted[vertex] = true;
+      ranks[vertex] = rank;
+      order[rank] = vertex;
+
+      // Remove the vertex's arcs from the remaining graph. The vertex's own arc lists are kept for
+      // updating its neighbours.
+      for (int i = 0; i < inArcCounts[vertex]; i++) {
+        int arc = inArcs[vertex][i];
+        removeOutArc(arcSources[arc], arc);
+      }
+      for (int i = 0; i < outArcCounts[vertex]; i++) {
+        int arc = outArcs[vertex][i];
+        removeInArc(arcTargets[arc], arc);
+      }
+    }
+
+    private void updateNeighbour(VertexHeap queue, int vertex, int neighbour) {
+      depths[neighbour] = Math.max(depths[neighbour], depths[vertex] + 1);
+      queue.put(neighbour, importance(neighbour));
+    }
+
+    /**
+     * Estimates the importance of a vertex. Vertices whose contraction would add few shortcuts
+     * compared to the arcs removed are less important, as are vertices in shallow regions of the
+     * hierarchy, which keeps the hierarchy flat and the searches in it small.
+     *
+     * @param vertex The vertex.
+     * @return The vertex's importance.
+     */
+    private double importance(int vertex) {
+      int shortcuts = addShortcuts(vertex, ESTIMATION_SETTLE_LIMIT, false);
+      int arcsRemoved = outArcCounts[vertex] + inArcCounts[vertex];
+      return (double) shortcuts / Math.max(1, arcsRemoved) + 0.1 * depths[vertex];
+    }
+
+    /**
+     * Determines the shortcuts needed to contract the given vertex: for every pair of remaining
+     * neighbours connected via the vertex, a shortcut is needed unless a witness search finds a
+     * path between them that does not lead via the vertex and is not longer.
+     *
+     * @param vertex The vertex.
+     * @param settleLimit The maximum number of vertices settled by a witness search. Shortcuts are
+     * added if no witness is found within this limit, which is safe but may add superfluous ones.
+     * @param add Whether to actually add the shortcuts.
+     * @return The number of shortcuts needed.
+     */
+    private int addShortcuts(int vertex, int settleLimit, boolean add) {
+      int shortcuts = 0;
+      for (int i = 0; i < inArcCounts[vertex]; i++) {
+        int inArc = inArcs[vertex][i];
+        int source = arcSources[inArc];
+
+        nextTargetMark();
+        int targetCount = 0;
+        double maxOutWeight = 0.0;
+        for (int j = 0; j < outArcCounts[vertex]; j++) {
+          int target = arcTargets[outArcs[vertex][j]];
+          if (target != source) {
+            targetMarks[target] = targetMark;
+            targetCount++;
+            maxOutWeight = Math.max(maxOutWeight, arcWeights[outArcs[vertex][j]]);
+          }
+        }
+        if (targetCount == 0) {
+          continue;
+        }
+
+        searchWitnesses(source,
+                        vertex,
+                        arcWeights[inArc] + maxOutWeight,
+                        targetCount,
+                        settleLimit);
+
+        for (int j = 0; j < outArcCounts[vertex]; j++) {
+          int outArc = outArcs[vertex][j];
+          int target = arcTargets[outArc];
+          if (target == source) {
+            continue;
+          }
+          double weight = arcWeights[inArc] + arcWeights[outArc];
+          if (witnessStamps[target] == witnessStamp && witnessDistances[target] <= weight) {
+            continue;
+          }
+          shortcuts++;
+          if (add) {
+            addArc(source, target, weight, -1, inArc, outArc);
+          }
+        }
+      }
+      return shortcuts;
+    }
+
+    /**
+     * Searches the remaining graph for paths from the given source vertex that do not lead via the
+     * vertex being contracted.
+     */
+    private void searchWitnesses(int source,
+                                 int excluded,
+                                 double maxDistance,
+                                 int targetCount,
+                                 int settleLimit) {
+      if (witnessStamp == Integer.MAX_VALUE) {
+        Arrays.fill(witnessStamps, 0);
+        witnessStamp = 0;
+      }
+      witnessStamp++;
+      witnessHeap.clear();
+      witnessStamps[source] = witnessStamp;
+      witnessDistances[source] = 0.0;
+      witnessHeap.put(source, 0.0);
+
+      int settled = 0;
+      int targetsLeft = targetCount;
+      while (!witnessHeap.isEmpty()
+          && witnessHeap.peekKey() <= maxDistance
+          && settled < settleLimit
+          && targetsLeft > 0) {
+        int vertex = witnessHeap.poll();
+        settled++;
+        if (targetMarks[vertex] == targetMark) {
+          targetsLeft--;
+        }
+        for (int i = 0; i < outArcCounts[vertex]; i++) {
+          int arc = outArcs[vertex][i];
+          int target = arcTargets[arc];
+          if (target == excluded) {
+            continue;
+          }
+          double distance = witnessDistances[vertex] + arcWeights[arc];
+          if (witnessStamps[target] != witnessStamp || distance < witnessDistances[target]) {
+            witnessStamps[target] = witnessStamp;
+            witnessDistances[target] = distance;
+            witnessHeap.put(target, distance);
+          }
+        }
+      }
+    }
+
+    private void nextTargetMark() {
+      if (targetMark == Integer.MAX_VALUE) {
+        Arrays.fill(targetMarks, 0);
+        targetMark = 0;
+      }
+      targetMark++;
+    }
+
+    /**
+     * Adds an arc, unless there is a parallel arc that is not more expensive. A more expensive
+     * parallel arc is replaced.
+     */
+    private void addArc(int source, int target, double weight, int edge, int first, int second) {
+      for (int i = 0; i < outArcCounts[source]; i++) {
+        int arc = outArcs[source][i];
+        if (arcTargets[arc] != target) {
+          continue;
+        }
+        if (arcWeights[arc] <= weight) {
+          return;
+        }
+        removed[arc] = true;
+        outArcs[source][i] = outArcs[source][--outArcCounts[source]];
+        removeInArc(target, arc);
+        break;
+      }
+
+      if (arcCount == arcSources.length) {
+        int capacity = arcCount * 2;
+        arcSources = Arrays.copyOf(arcSources, capacity);
+        arcTargets = Arrays.copyOf(arcTargets, capacity);
+        arcEdges = Arrays.copyOf(arcEdges, capacity);
+        arcFirsts = Arrays.copyOf(arcFirsts, capacity);
+        arcSeconds = Arrays.copyOf(arcSeconds, capacity);
+        arcWeights = Arrays.copyOf(arcWeights, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+      }
+      int arc = arcCount++;
+      arcSources[arc] = source;
+      arcTargets[arc] = target;
+      arcEdges[arc] = edge;
+      arcFirsts[arc] = first;
+      arcSeconds[arc] = second;
+      arcWeights[arc] = weight;
+
+      if (outArcCounts[source] == outArcs[source].length) {
+        outArcs[source] = Arrays.copyOf(outArcs[source], Math.max(4, outArcCounts[source] * 2));
+      }
+      outArcs[source][outArcCounts[source]++] = arc;
+      if (inArcCounts[target] == inArcs[target].length) {
+        inArcs[target] = Arrays.copyOf(inArcs[target], Math.max(4, inArcCounts[target] * 2));
+      }
+      inArcs[target][inArcCounts[target]++] = arc;
+    }
+
+    private void removeOutArc(int vertex, int arc) {
+      for (int i = 0; i < outArcCounts[vertex]; i++) {
+        if (outArcs[vertex][i] == arc) {
+          outArcs[vertex][i] = outArcs[vertex][--outArcCounts[vertex]];
+          return;
+        }
+      }
+    }
+
+    private void removeInArc(int vertex, int arc) {
+      for (int i = 0; i < inArcCounts[vertex]; i++) {
+        if (inArcs[vertex][i] == arc) {
+          inArcs[vertex][i] = inArcs[vertex][--inArcCounts[vertex]];
+          return;
+        }
+      }
+    }
+  }
+}
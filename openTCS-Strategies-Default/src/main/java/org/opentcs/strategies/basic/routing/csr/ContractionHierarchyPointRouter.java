@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.Nullable;
+import org.jgrapht.Graph;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Computes routes between points using a {@link ContractionHierarchy} of the compiled graph.
+ * <p>
+ * The costs computed are the same as the ones computed by Dijkstra's algorithm. If there are
+ * several routes with the same costs, the route chosen may differ, though.
+ * </p>
+ * <p>
+ * <em>Note that this implementation does not integrate static routes.</em>
+ * </p>
+ */
+public class ContractionHierarchyPointRouter
+    implements PointRouter {
+
+  /**
+   * The graph the compiled graph was created from.
+   */
+  private final Graph<String, ModelEdge> graph;
+  /**
+   * The compiled graph.
+   */
+  private final CsrGraph csrGraph;
+  /**
+   * The contraction hierarchy of the compiled graph.
+   */
+  private final ContractionHierarchy hierarchy;
+  /**
+   * Searches not currently in use, to be reused by subsequent requests.
+   */
+  private final Queue<HierarchySearch> searches = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param graph The graph to compute routes on. The point router works on a compiled copy of it.
+   * @param points The points in the graph.
+   * @param order The order in which to contract the compiled graph's vertices, or
+   * <code>null</code>, if the order is to be determined by the vertices' importance.
+   */
+  ContractionHierarchyPointRouter(Graph<String, ModelEdge> graph,
+                                  Collection<Point> points,
+                                  @Nullable int[] order) {
+    this.graph = requireNonNull(graph, "graph");
+    this.csrGraph = new CsrGraph(graph, points);
+    this.hierarchy = new ContractionHierarchy(csrGraph, order);
+  }
+
+  @Override
+  public List<Route.Step> getRouteSteps(Point srcPoint, Point destPoint) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+
+    if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+      return new ArrayList<>();
+    }
+
+    int source = csrGraph.getVertexIndex(srcPoint.getName());
+    int target = csrGraph.getVertexIndex(destPoint.getName());
+    if (source < 0 || target < 0) {
+      return null;
+    }
+
+    HierarchySearch search = acquireSearch();
+    try {
+      if (!search.search(source, target)) {
+        return null;
+      }
+      int edgeCount = search.tracePath();
+      List<Route.Step> result = new ArrayList<>(edgeCount);
+      for (int routeIndex = 0; routeIndex < edgeCount; routeIndex++) {
+        result.add(CsrPointRouter.createStep(csrGraph, search.getPathEdge(routeIndex), routeIndex));
+      }
+      return result;
+    }
+    finally {
+      searches.offer(search);
+    }
+  }
+
+  @Override
+  public long getCosts(TCSObjectReference<Point> srcPointRef,
+                       TCSObjectReference<Point> destPointRef) {
+    requireNonNull(srcPointRef, "srcPointRef");
+    requireNonNull(destPointRef, "destPointRef");
+
+    if (Objects.equals(srcPointRef.getName(), destPointRef.getName())) {
+      return 0;
+    }
+
+    int source = csrGraph.getVertexIndex(srcPointRef.getName());
+    int target = csrGraph.getVertexIndex(destPointRef.getName());
+    if (source < 0 || target < 0) {
+      return INFINITE_COSTS;
+    }
+
+    HierarchySearch search = acquireSearch();
+    try {
+      if (!search.search(source, target)) {
+        return INFINITE_COSTS;
+      }
+      return (long) search.getDistance();
+    }
+    finally {
+      searches.offer(search);
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  /**
+   * Returns the graph the compiled graph was created from.
+   *
+   * @return The graph the compiled graph was created from.
+   */
+  Graph<String, ModelEdge> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the points in the graph.
+   *
+   * @return The points in the graph.
+   */
+  Collection<Point> getPoints() {
+    return Arrays.asList(csrGraph.getPoints());
+  }
+
+  /**
+   * Returns the contraction hierarchy.
+   *
+   * @return The contraction hierarchy.
+   */
+  ContractionHierarchy getHierarchy() {
+    return hierarchy;
+  }
+
+  private HierarchySearch acquireSearch() {
+    HierarchySearch search = searches.poll();
+    return search != null ? search : new HierarchySearch(hierarchy);
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.jgrapht.Graph;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.PointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates {@link ContractionHierarchyPointRouter} instances.
+ * <p>
+ * The plant model is mapped to a graph by the {@link ModelGraphMapper} as for the JGraphT-based
+ * point routers, so the edge weights reflect the configured edge evaluators for the vehicle's
+ * routing group. Preprocessing the graph takes considerably longer than creating other point
+ * routers, but queries on large plant models are orders of magnitude faster.
+ * </p>
+ * <p>
+ * When paths change, the hierarchy is rebuilt using the contraction order of the previous one,
+ * which is considerably faster than determining a new order. The order remains valid for any
+ * edge weights, though the queries may become slower if the weights change substantially.
+ * </p>
+ */
+public class ContractionHierarchyPointRouterFactory
+    implements PointRouterFactory {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG
+      = LoggerFactory.getLogger(ContractionHierarchyPointRouterFactory.class);
+  /**
+   * The object service providing the model data.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Maps the plant model to a graph.
+   */
+  private final ModelGraphMapper mapper;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing model data.
+   * @param mapper Maps the plant model to a graph.
+   */
+  @Inject
+  public ContractionHierarchyPointRouterFactory(@Nonnull TCSObjectService objectService,
+                                                @Nonnull ModelGraphMapper mapper) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.mapper = requireNonNull(mapper, "mapper");
+  }
+
+  @Override
+  public PointRouter createPointRouter(Vehicle vehicle) {
+    requireNonNull(vehicle, "vehicle");
+
+    long timeStampBefore = System.currentTimeMillis();
+
+    Set<Point> points = objectService.fetchObjects(Point.class);
+    Graph<String, ModelEdge> graph = mapper.translateModel(points,
+                                                           objectService.fetchObjects(Path.class),
+                                                           vehicle);
+    // Order the vertices by name to get the same compiled graph for the same plant model.
+    List<Point> sortedPoints = new ArrayList<>(points);
+    sortedPoints.sort(Comparator.comparing(Point::getName));
+    PointRouter router = new ContractionHierarchyPointRouter(graph, sortedPoints, null);
+
+    LOG.debug("Created point router for {} in {} milliseconds.",
+              vehicle.getName(),
+              System.currentTimeMillis() - timeStampBefore);
+
+    return router;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This implementation updates the edges of the changed paths in the given point router's graph
+   * and contracts it again in the previous order.
+   * </p>
+   */
+  @Override
+  public PointRouter updatePointRouter(PointRouter pointRouter,
+                                       Vehicle vehicle,
+                                       Collection<Path> changedPaths) {
+    requireNonNull(pointRouter, "pointRouter");
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(changedPaths, "changedPaths");
+
+    if (!(pointRouter instanceof ContractionHierarchyPointRouter)) {
+      return createPointRouter(vehicle);
+    }
+
+    long timeStampBefore = System.currentTimeMillis();
+
+    ContractionHierarchyPointRouter hierarchyRouter = (ContractionHierarchyPointRouter) pointRouter;
+    Graph<String, ModelEdge> graph = hierarchyRouter.getGraph();
+    for (Path path : changedPaths) {
+      mapper.updateEdges(graph, path, vehicle);
+    }
+    PointRouter router
+        = new ContractionHierarchyPointRouter(graph,
+                                              hierarchyRouter.getPoints(),
+                                              hierarchyRouter.getHierarchy().getOrder());
+
+    LOG.debug("Updated {} paths in point router for {} in {} milliseconds.",
+              changedPaths.size(),
+              vehicle.getName(),
+              System.currentTimeMillis() - timeStampBefore);
+
+    return router;
+  }
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.opentcs.strategies.basic.routing.PointRouter;
+
+/**
+ * The costs of the shortest routes between all pairs of vertices of a {@link CsrGraph}, kept in a
+ * memory-mapped file.
+ * <p>
+ * The file starts with a header containing the number of vertices and the key of the graph the
+ * costs were computed for, followed by the costs as a row-major matrix of <code>long</code>
+ * values. Since the matrix is not kept on the heap and is mapped read-only, it can be shared by
+ * any number of readers and reused after a restart as long as the graph's key is the same.
+ * </p>
+ */
+final class CostMatrix {
+
+  /**
+   * Marks cost matrix files.
+   */
+  private static final long MAGIC = 0x6f544353436f7374L;
+  /**
+   * The version of the file format.
+   */
+  private static final int VERSION = 1;
+  /**
+   * The length of the file header, in bytes.
+   */
+  private static final int HEADER_LENGTH = 64;
+  /**
+   * The number of vertices.
+   */
+  private final int vertexCount;
+  /**
+   * The number of matrix rows per mapped segment.
+   */
+  private final int rowsPerSegment;
+  /**
+   * The mapped segments of the matrix.
+   */
+  private final MappedByteBuffer[] segments;
+
+  private CostMatrix(FileChannel channel, int vertexCount)
+      throws IOException {
+    this.vertexCount = vertexCount;
+    long rowLength = Math.max(1, (long) vertexCount * Long.BYTES);
+    this.rowsPerSegment = (int) Math.max(1, Integer.MAX_VALUE / rowLength);
+    int segmentCount = (vertexCount + rowsPerSegment - 1) / rowsPerSegment;
+    this.segments = new MappedByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int rows = Math.min(rowsPerSegment, vertexCount - i * rowsPerSegment);
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                HEADER_LENGTH + i * rowsPerSegment * rowLength,
+                                rows * rowLength);
+    }
+  }
+
+  /**
+   * Returns the costs of the shortest route between the given vertices.
+   *
+   * @param source The source vertex.
+   * @param target The target vertex.
+   * @return The costs, or {@link PointRouter#INFINITE_COSTS}, if the target vertex is not
+   * reachable.
+   */
+  long getCosts(int source, int target) {
+    int segment = source / rowsPerSegment;
+    int row = source - segment * rowsPerSegment;
+    return segments[segment].getLong((row * vertexCount + target) * Long.BYTES);
+  }
+
+  /**
+   * Maps the cost matrix in the given file.
+   *
+   * @param file The file.
+   * @param vertexCount The expected number of vertices.
+   * @param key The expected key of the graph.
+   * @return The cost matrix, or <code>null</code>, if the file does not exist or does not contain
+   * a complete cost matrix for the given number of vertices and key.
+   * @throws IOException If the file could not be read.
+   */
+  @Nullable
+  static CostMatrix open(File file, int vertexCount, byte[] key)
+      throws IOException {
+    requireNonNull(file, "file");
+    requireNonNull(key, "key");
+
+    if (!file.isFile() || file.length() != fileLength(vertexCount)) {
+      return null;
+    }
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+      readFully(channel, header);
+      header.flip();
+      if (header.getLong() != MAGIC
+          || header.getInt() != VERSION
+          || header.getInt() != vertexCount
+          || header.getInt() != key.length) {
+        return null;
+      }
+      byte[] fileKey = new byte[key.length];
+      header.get(fileKey);
+      if (!Arrays.equals(fileKey, key)) {
+        return null;
+      }
+      return new CostMatrix(channel, vertexCount);
+    }
+  }
+
+  /**
+   * Computes the cost matrix for the given graph and writes it to the given file.
+   * <p>
+   * The rows of the matrix are computed in parallel. The file is written under a temporary name
+   * and only renamed to the given one when complete.
+   * </p>
+   *
+   * @param graph The graph.
+   * @param key The key of the graph. Must not be longer than 32 bytes.
+   * @param file The file.
+   * @param cancelled Indicates whether the computation has been cancelled.
+   * @return The cost matrix, or <code>null</code>, if the computation was cancelled.
+   * @throws IOException If the file could not be written.
+   */
+  @Nullable
+  static CostMatrix compute(CsrGraph graph, byte[] key, File file, BooleanSupplier cancelled)
+      throws IOException {
+    requireNonNull(graph, "graph");
+    requireNonNull(key, "key");
+    requireNonNull(file, "file");
+    requireNonNull(cancelled, "cancelled");
+
+    int vertexCount = graph.getVertexCount();
+    File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+    boolean complete = false;
+    try {
+      try (FileChannel channel = FileChannel.open(tempFile.toPath(),
+                                                  StandardOpenOption.CREATE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING,
+                                                  StandardOpenOption.WRITE)) {
+        complete = writeMatrix(graph, key, channel, cancelled);
+      }
+      if (!complete) {
+        return null;
+      }
+
+      try {
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (AtomicMoveNotSupportedException exc) {
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    finally {
+      Files.deleteIfExists(tempFile.toPath());
+    }
+    return open(file, vertexCount, key);
+  }
+
+  private static boolean writeMatrix(CsrGraph graph,
+                                     byte[] key,
+                                     FileChannel channel,
+                                     BooleanSupplier cancelled)
+      throws IOException {
+    ThreadLocal<RowWorker> workers = ThreadLocal.withInitial(() -> new RowWorker(graph));
+    AtomicReference<IOException> failure = new AtomicReference<>();
+    IntStream.range(0, graph.getVertexCount()).parallel().forEach(source -> {
+      if (cancelled.getAsBoolean() || failure.get() != null) {
+        return;
+      }
+      try {
+        workers.get().writeRow(source, channel);
+      }
+      catch (IOException exc) {
+        failure.compareAndSet(null, exc);
+      }
+    });
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    if (cancelled.getAsBoolean()) {
+      return false;
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+    header.putLong(MAGIC)
+        .putInt(VERSION)
+        .putInt(graph.getVertexCount())
+        .putInt(key.length)
+        .put(key);
+    header.rewind();
+    writeFully(channel, header, 0);
+    channel.force(false);
+    return true;
+  }
+
+  private static long fileLength(int vertexCount) {
+    return HEADER_LENGTH + (long) vertexCount * vertexCount * Long.BYTES;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer)
+      throws IOException {
+    long position = 0;
+    while (buffer.hasRemaining()) {
+      int count = channel.read(buffer, position);
+      if (count < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+      position += count;
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  /**
+   * Computes and writes matrix rows, reusing its buffers.
+   */
+  private static class RowWorker {
+
+    private final ShortestPathSearch search;
+
+    private final double[] distances;
+
+    private final ByteBuffer row;
+
+    RowWorker(CsrGraph graph) {
+      this.search = new ShortestPathSearch(graph);
+      this.distances = new double[graph.getVertexCount()];
+      this.row = ByteBuffer.allocateDirect(graph.getVertexCount() * Long.BYTES);
+    }
+
+    void writeRow(int source, FileChannel channel)
+        throws IOException {
+      search.searchAll(source, false, distances);
+      row.clear();
+      for (double distance : distances) {
+        row.putLong(distance == Double.POSITIVE_INFINITY
+            ? PointRouter.INFINITE_COSTS
+            : (long) distance);
+      }
+      row.flip();
+      writeFully(channel,
+                 row,
+                 HEADER_LENGTH + (long) source * distances.length * Long.BYTES);
+    }
+  }
+}
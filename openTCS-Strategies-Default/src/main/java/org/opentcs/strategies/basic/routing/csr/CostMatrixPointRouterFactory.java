@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.ApplicationHome;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates {@link CsrPointRouter} instances that look up routing costs in a precomputed matrix of
+ * the costs between all pairs of points.
+ * <p>
+ * Cost matrices are kept in memory-mapped files in the kernel's data directory. The files are
+ * keyed by a hash of the compiled graph (covering the plant model as well as the edge weights
+ * resulting from the configured edge evaluators), the edge evaluator configuration and the
+ * vehicle's routing group, so they can be reused after a restart of the kernel. If there is no
+ * file for a graph, the matrix is computed in the background, and costs are computed on demand
+ * with A* in the meantime. Routes are always computed with A*.
+ * </p>
+ */
+public class CostMatrixPointRouterFactory
+    extends CsrPointRouterFactory {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(CostMatrixPointRouterFactory.class);
+  /**
+   * The suffix of cost matrix files.
+   */
+  private static final String FILE_SUFFIX = ".costs";
+  /**
+   * The number of cost matrix files kept per routing group, including the current one.
+   */
+  private static final int RETAINED_FILES_PER_GROUP = 2;
+  /**
+   * The directory containing the cost matrix files.
+   */
+  private final File directory;
+  /**
+   * The configured edge evaluators.
+   */
+  private final List<ShortestPathConfiguration.EvaluatorType> edgeEvaluators;
+  /**
+   * Executes the cost matrix computations.
+   */
+  private final ExecutorService computationExecutor = Executors.newSingleThreadExecutor(
+      runnable -> {
+        Thread thread = new Thread(runnable, "costMatrixComputation");
+        thread.setDaemon(true);
+        return thread;
+      }
+  );
+  /**
+   * The pending cost matrix computations, by routing group.
+   */
+  private final Map<String, Computation> computationsByGroup = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing model data.
+   * @param mapper Maps the plant model to a graph.
+   * @param configuration The shortest path configuration.
+   * @param applicationHome The application's home directory.
+   */
+  @Inject
+  public CostMatrixPointRouterFactory(@Nonnull TCSObjectService objectService,
+                                      @Nonnull ModelGraphMapper mapper,
+                                      @Nonnull ShortestPathConfiguration configuration,
+                                      @ApplicationHome File applicationHome) {
+    super(objectService, mapper, true);
+    requireNonNull(applicationHome, "applicationHome");
+    this.directory = new File(new File(applicationHome, "data"), "routing");
+    this.edgeEvaluators = requireNonNull(configuration, "configuration").edgeEvaluators();
+  }
+
+  @Override
+  public PointRouter createPointRouter(Vehicle vehicle) {
+    CsrPointRouter router = (CsrPointRouter) super.createPointRouter(vehicle);
+    provideCostMatrix(router, vehicle);
+    return router;
+  }
+
+  @Override
+  public PointRouter updatePointRouter(PointRouter pointRouter,
+                                       Vehicle vehicle,
+                                       Collection<Path> changedPaths) {
+    requireNonNull(pointRouter, "pointRouter");
+
+    if (!(pointRouter instanceof CsrPointRouter)) {
+      return createPointRouter(vehicle);
+    }
+
+    CsrPointRouter router
+        = (CsrPointRouter) super.updatePointRouter(pointRouter, vehicle, changedPaths);
+    provideCostMatrix(router, vehicle);
+    return router;
+  }
+
+  /**
+   * Provides the given point router with the cost matrix for its graph, either by reading it from
+   * a file or by computing it in the background.
+   *
+   * @param router The point router.
+   * @param vehicle The vehicle the point router was created for.
+   */
+  private void provideCostMatrix(CsrPointRouter router, Vehicle vehicle) {
+    String routingGroup = vehicle.getProperty(Router.PROPKEY_ROUTING_GROUP);
+    if (routingGroup == null) {
+      routingGroup = "";
+    }
+
+    // Any previous computation for the routing group is outdated now.
+    Computation previousComputation = computationsByGroup.remove(routingGroup);
+    if (previousComputation != null) {
+      previousComputation.cancel();
+    }
+
+    CsrGraph graph = router.getCsrGraph();
+    if (graph.getVertexCount() < 2) {
+      return;
+    }
+
+    byte[] key = computeKey(graph, routingGroup);
+    File file = new File(directory, groupPrefix(routingGroup) + toHex(key) + FILE_SUFFIX);
+    try {
+      CostMatrix matrix = CostMatrix.open(file, graph.getVertexCount(), key);
+      if (matrix != null) {
+        LOG.debug("Using cost matrix from {}.", file);
+        file.setLastModified(System.currentTimeMillis());
+        router.setCostMatrix(matrix);
+        return;
+      }
+    }
+    catch (IOException exc) {
+      LOG.warn("Could not read cost matrix from {}, recomputing it.", file, exc);
+    }
+
+    Computation computation = new Computation(router, routingGroup, key, file);
+    computationsByGroup.put(routingGroup, computation);
+    computationExecutor.execute(computation);
+  }
+
+  private byte[] computeKey(CsrGraph graph, String routingGroup) {
+    MessageDigest digest = sha256();
+    digest.update(routingGroup.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(edgeEvaluators.toString().getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Double.BYTES);
+    for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+      digest.update(graph.getPoint(vertex).getName().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      // Hash the edges in a defined order, independent of the order they were compiled in.
+      List<Integer> edges = IntStream.range(graph.getOutEdgesStart(vertex),
+                                            graph.getOutEdgesEnd(vertex))
+          .boxed()
+          .sorted(Comparator.comparingInt((Integer edge) -> graph.getEdgeTarget(edge))
+              .thenComparingDouble(edge -> graph.getEdgeWeight(edge)))
+          .collect(Collectors.toList());
+      for (int edge : edges) {
+        buffer.clear();
+        buffer.putInt(graph.getEdgeTarget(edge)).putDouble(graph.getEdgeWeight(edge));
+        digest.update(buffer.array());
+      }
+      digest.update((byte) 0);
+    }
+    return digest.digest();
+  }
+
+  private String groupPrefix(String routingGroup) {
+    byte[] groupHash = sha256().digest(routingGroup.getBytes(StandardCharsets.UTF_8));
+    return toHex(Arrays.copyOf(groupHash, 4)) + "-";
+  }
+
+  /**
+   * Deletes the least recently used cost matrix files of a routing group exceeding
+   * {@link #RETAINED_FILES_PER_GROUP}.
+   *
+   * @param routingGroup The routing group.
+   */
+  private void deleteOutdatedFiles(String routingGroup) {
+    String prefix = groupPrefix(routingGroup);
+    File[] files = directory.listFiles(
+        file -> file.getName().startsWith(prefix) && file.getName().endsWith(FILE_SUFFIX)
+    );
+    if (files == null) {
+      return;
+    }
+
+    Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+    for (int i = RETAINED_FILES_PER_GROUP; i < files.length; i++) {
+      if (files[i].delete()) {
+        LOG.debug("Deleted outdated cost matrix {}.", files[i]);
+      }
+      else {
+        LOG.debug("Could not delete outdated cost matrix {}.", files[i]);
+      }
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException exc) {
+      throw new IllegalStateException("SHA-256 not supported", exc);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder result = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      result.append(String.format("%02x", b));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Computes the cost matrix for a point router.
+   */
+  private class Computation
+      implements Runnable {
+
+    /**
+     * The point router to provide with the cost matrix.
+     */
+    private final CsrPointRouter router;
+    /**
+     * The routing group of the point router.
+     */
+    private final String routingGroup;
+    /**
+     * The key of the point router's graph.
+     */
+    private final byte[] key;
+    /**
+     * The file to write the cost matrix to.
+     */
+    private final File file;
+    /**
+     * Whether the computation has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    Computation(CsrPointRouter router, String routingGroup, byte[] key, File file) {
+      this.router = requireNonNull(router, "router");
+      this.routingGroup = requireNonNull(routingGroup, "routingGroup");
+      this.key = requireNonNull(key, "key");
+      this.file = requireNonNull(file, "file");
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public void run() {
+      if (cancelled) {
+        return;
+      }
+
+      long timeStampBefore = System.currentTimeMillis();
+      try {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+          LOG.warn("Could not create directory {} for cost matrices.", directory);
+          return;
+        }
+        CostMatrix matrix = CostMatrix.compute(router.getCsrGraph(), key, file, () -> cancelled);
+        if (matrix == null) {
+          LOG.debug("Cancelled computing cost matrix for routing group '{}'.", routingGroup);
+          return;
+        }
+        router.setCostMatrix(matrix);
+        LOG.info("Computed cost matrix for routing group '{}' ({} points) in {} milliseconds.",
+                 routingGroup,
+                 router.getCsrGraph().getVertexCount(),
+                 System.currentTimeMillis() - timeStampBefore);
+        deleteOutdatedFiles(routingGroup);
+      }
+      catch (IOException | RuntimeException exc) {
+        LOG.warn("Failed computing cost matrix for routing group '{}'.", routingGroup, exc);
+      }
+      finally {
+        computationsByGroup.remove(routingGroup, this);
+      }
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import org.jgrapht.Graph;
+import org.opentcs.data.model.Point;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * An immutable routing graph in compressed sparse row format.
+ * <p>
+ * Vertices are identified by dense <code>int</code> indices. The outgoing edges of vertex
+ * <code>v</code> are the edge indices from <code>outOffsets[v]</code> (inclusive) to
+ * <code>outOffsets[v + 1]</code> (exclusive), with their targets and weights kept in primitive
+ * arrays. The incoming edges are kept the same way, for searches on the reversed graph.
+ * </p>
+ */
+final class CsrGraph {
+
+  /**
+   * The points, by vertex index.
+   */
+  private final Point[] points;
+  /**
+   * The vertex indices, by point name.
+   */
+  private final Map<String, Integer> vertexIndices;
+  /**
+   * The model edges, by edge index.
+   */
+  private final ModelEdge[] edges;
+  /**
+   * The source vertices, by edge index.
+   */
+  private final int[] edgeSources;
+  /**
+   * The target vertices, by edge index.
+   */
+  private final int[] edgeTargets;
+  /**
+   * The weights, by edge index.
+   */
+  private final double[] edgeWeights;
+  /**
+   * The offsets of the outgoing edges in the edge arrays, by vertex index.
+   */
+  private final int[] outOffsets;
+  /**
+   * The offsets of the incoming edges in {@link #inEdges}, by vertex index.
+   */
+  private final int[] inOffsets;
+  /**
+   * The indices of incoming edges, grouped by target vertex.
+   */
+  private final int[] inEdges;
+
+  /**
+   * Compiles the given graph.
+   *
+   * @param graph The graph to compile.
+   * @param points The points in the graph.
+   */
+  CsrGraph(Graph<String, ModelEdge> graph, Collection<Point> points) {
+    requireNonNull(graph, "graph");
+    requireNonNull(points, "points");
+
+    this.points = points.toArray(new Point[points.size()]);
+    this.vertexIndices = new HashMap<>(this.points.length * 2);
+    for (int i = 0; i < this.points.length; i++) {
+      vertexIndices.put(this.points[i].getName(), i);
+    }
+
+    int vertexCount = this.points.length;
+    int edgeCount = graph.edgeSet().size();
+    ModelEdge[] graphEdges = new ModelEdge[edgeCount];
+    int[] graphSources = new int[edgeCount];
+    outOffsets = new int[vertexCount + 1];
+    inOffsets = new int[vertexCount + 1];
+    int graphEdgeIndex = 0;
+    for (ModelEdge edge : graph.edgeSet()) {
+      int source = vertexIndex(graph.getEdgeSource(edge));
+      graphEdges[graphEdgeIndex] = edge;
+      graphSources[graphEdgeIndex] = source;
+      graphEdgeIndex++;
+      outOffsets[source + 1]++;
+      inOffsets[vertexIndex(graph.getEdgeTarget(edge)) + 1]++;
+    }
+    for (int v = 0; v < vertexCount; v++) {
+      outOffsets[v + 1] += outOffsets[v];
+      inOffsets[v + 1] += inOffsets[v];
+    }
+
+    edges = new ModelEdge[edgeCount];
+    edgeSources = new int[edgeCount];
+    edgeTargets = new int[edgeCount];
+    edgeWeights = new double[edgeCount];
+    inEdges = new int[edgeCount];
+    int[] outFill = new int[vertexCount];
+    int[] inFill = new int[vertexCount];
+    for (int i = 0; i < edgeCount; i++) {
+      ModelEdge edge = graphEdges[i];
+      int source = graphSources[i];
+      int target = vertexIndex(graph.getEdgeTarget(edge));
+      int edgeIndex = outOffsets[source] + outFill[source]++;
+      edges[edgeIndex] = edge;
+      edgeSources[edgeIndex] = source;
+      edgeTargets[edgeIndex] = target;
+      edgeWeights[edgeIndex] = graph.getEdgeWeight(edge);
+      inEdges[inOffsets[target] + inFill[target]++] = edgeIndex;
+    }
+  }
+
+  /**
+   * Returns the number of vertices.
+   *
+   * @return The number of vertices.
+   */
+  int getVertexCount() {
+    return points.length;
+  }
+
+  /**
+   * Returns the index of the vertex representing the point with the given name.
+   *
+   * @param pointName The point's name.
+   * @return The vertex index, or -1, if the point is not in this graph.
+   */
+  int getVertexIndex(String pointName) {
+    Integer index = vertexIndices.get(pointName);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the point represented by the given vertex.
+   *
+   * @param vertex The vertex index.
+   * @return The point.
+   */
+  Point getPoint(int vertex) {
+    return points[vertex];
+  }
+
+  /**
+   * Returns the points in this graph.
+   *
+   * @return The points in this graph, by vertex index.
+   */
+  Point[] getPoints() {
+    return points;
+  }
+
+  /**
+   * Returns the number of edges.
+   *
+   * @return The number of edges.
+   */
+  int getEdgeCount() {
+    return edges.length;
+  }
+
+  ModelEdge getEdge(int edge) {
+    return edges[edge];
+  }
+
+  int getEdgeSource(int edge) {
+    return edgeSources[edge];
+  }
+
+  int getEdgeTarget(int edge) {
+    return edgeTargets[edge];
+  }
+
+  double getEdgeWeight(int edge) {
+    return edgeWeights[edge];
+  }
+
+  /**
+   * Returns the index of the first outgoing edge of the given vertex.
+   *
+   * @param vertex The vertex index.
+   * @return The index of the first outgoing edge.
+   */
+  int getOutEdgesStart(int vertex) {
+    return outOffsets[vertex];
+  }
+
+  /**
+   * Returns the index following the last outgoing edge of the given vertex.
+   *
+   * @param vertex The vertex index.
+   * @return The index following the last outgoing edge.
+   */
+  int getOutEdgesEnd(int vertex) {
+    return outOffsets[vertex + 1];
+  }
+
+  /**
+   * Returns the position of the first incoming edge of the given vertex.
+   *
+   * @param vertex The vertex index.
+   * @return The position of the first incoming edge, to be passed to {@link #getInEdge(int)}.
+   */
+  int getInEdgesStart(int vertex) {
+    return inOffsets[vertex];
+  }
+
+  /**
+   * Returns the position following the last incoming edge of the given vertex.
+   *
+   * @param vertex The vertex index.
+   * @return The position following the last incoming edge.
+   */
+  int getInEdgesEnd(int vertex) {
+    return inOffsets[vertex + 1];
+  }
+
+  /**
+   * Returns the index of the incoming edge at the given position.
+   *
+   * @param position The position.
+   * @return The edge index.
+   */
+  int getInEdge(int position) {
+    return inEdges[position];
+  }
+
+  private int vertexIndex(String pointName) {
+    Integer index = vertexIndices.get(pointName);
+    if (index == null) {
+      throw new IllegalArgumentException("Graph vertex without point: " + pointName);
+    }
+    return index;
+  }
+}
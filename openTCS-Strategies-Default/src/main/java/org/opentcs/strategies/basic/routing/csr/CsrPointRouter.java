@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.Nullable;
+import org.jgrapht.Graph;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Computes routes between points on a {@link CsrGraph}, using A* with landmark-based estimates if
+ * landmarks are given, or Dijkstra's algorithm otherwise.
+ * <p>
+ * Searches work on primitive arrays only. Objects are created only for the route steps returned.
+ * </p>
+ * <p>
+ * <em>Note that this implementation does not integrate static routes.</em>
+ * </p>
+ */
+public class CsrPointRouter
+    implements PointRouter {
+
+  /**
+   * The graph the compiled graph was created from.
+   */
+  private final Graph<String, ModelEdge> graph;
+  /**
+   * The compiled graph.
+   */
+  private final CsrGraph csrGraph;
+  /**
+   * The distances to and from the landmarks, or <code>null</code>, if no landmarks are used.
+   */
+  @Nullable
+  private final LandmarkDistances landmarkDistances;
+  /**
+   * Searches not currently in use, to be reused by subsequent requests.
+   */
+  private final Queue<ShortestPathSearch> searches = new ConcurrentLinkedQueue<>();
+  /**
+   * The precomputed costs between all pairs of points, if available.
+   */
+  @Nullable
+  private volatile CostMatrix costMatrix;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param graph The graph to compute routes on. The point router works on a compiled copy of it.
+   * @param points The points in the graph.
+   * @param landmarkNames The names of the points to be used as landmarks. If empty, Dijkstra's
+   * algorithm is used instead of A*.
+   */
+  CsrPointRouter(Graph<String, ModelEdge> graph,
+                 Collection<Point> points,
+                 Collection<String> landmarkNames) {
+    this.graph = requireNonNull(graph, "graph");
+    requireNonNull(landmarkNames, "landmarkNames");
+    this.csrGraph = new CsrGraph(graph, points);
+
+    int[] landmarks = landmarkNames.stream()
+        .mapToInt(name -> csrGraph.getVertexIndex(name))
+        .filter(index -> index >= 0)
+        .toArray();
+    if (landmarks.length == 0) {
+      this.landmarkDistances = null;
+    }
+    else {
+      ShortestPathSearch search = new ShortestPathSearch(csrGraph);
+      this.landmarkDistances = new LandmarkDistances(csrGraph, landmarks, search);
+      searches.offer(search);
+    }
+  }
+
+  @Override
+  public List<Route.Step> getRouteSteps(Point srcPoint, Point destPoint) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+
+    if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+      return new ArrayList<>();
+    }
+
+    int source = csrGraph.getVertexIndex(srcPoint.getName());
+    int target = csrGraph.getVertexIndex(destPoint.getName());
+    if (source < 0 || target < 0) {
+      return null;
+    }
+
+    ShortestPathSearch search = acquireSearch();
+    try {
+      if (!search.search(source, target, landmarkDistances)) {
+        return null;
+      }
+      return translateToSteps(search, target);
+    }
+    finally {
+      searches.offer(search);
+    }
+  }
+
+  @Override
+  public long getCosts(TCSObjectReference<Point> srcPointRef,
+                       TCSObjectReference<Point> destPointRef) {
+    requireNonNull(srcPointRef, "srcPointRef");
+    requireNonNull(destPointRef, "destPointRef");
+
+    if (Objects.equals(srcPointRef.getName(), destPointRef.getName())) {
+      return 0;
+    }
+
+    int source = csrGraph.getVertexIndex(srcPointRef.getName());
+    int target = csrGraph.getVertexIndex(destPointRef.getName());
+    if (source < 0 || target < 0) {
+      return INFINITE_COSTS;
+    }
+
+    CostMatrix matrix = costMatrix;
+    if (matrix != null) {
+      return matrix.getCosts(source, target);
+    }
+
+    ShortestPathSearch search = acquireSearch();
+    try {
+      if (!search.search(source, target, landmarkDistances)) {
+        return INFINITE_COSTS;
+      }
+      return (long) search.getDistance(target);
+    }
+    finally {
+      searches.offer(search);
+    }
+  }
+
+  @Override
+  public Map<Point, Long> getCosts(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    Map<Point, Long> result = new HashMap<>();
+    int source = csrGraph.getVertexIndex(srcPoint.getName());
+    List<Point> reachableDestPoints = new ArrayList<>(destPoints.size());
+    for (Point destPoint : destPoints) {
+      if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+        result.put(destPoint, 0L);
+      }
+      else if (source < 0 || csrGraph.getVertexIndex(destPoint.getName()) < 0) {
+        result.put(destPoint, INFINITE_COSTS);
+      }
+      else {
+        reachableDestPoints.add(destPoint);
+      }
+    }
+    if (reachableDestPoints.isEmpty()) {
+      return result;
+    }
+
+    int[] targets = reachableDestPoints.stream()
+        .mapToInt(destPoint -> csrGraph.getVertexIndex(destPoint.getName()))
+        .toArray();
+    CostMatrix matrix = costMatrix;
+    if (matrix != null) {
+      for (int i = 0; i < targets.length; i++) {
+        result.put(reachableDestPoints.get(i), matrix.getCosts(source, targets[i]));
+      }
+      return result;
+    }
+
+    double[] distances = new double[targets.length];
+    ShortestPathSearch search = acquireSearch();
+    try {
+      search.searchTargets(source, targets, distances);
+    }
+    finally {
+      searches.offer(search);
+    }
+    for (int i = 0; i < targets.length; i++) {
+      result.put(reachableDestPoints.get(i),
+                 distances[i] == Double.POSITIVE_INFINITY ? INFINITE_COSTS : (long) distances[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  /**
+   * Returns the graph the compiled graph was created from.
+   *
+   * @return The graph the compiled graph was created from.
+   */
+  Graph<String, ModelEdge> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the compiled graph.
+   *
+   * @return The compiled graph.
+   */
+  CsrGraph getCsrGraph() {
+    return csrGraph;
+  }
+
+  /**
+   * Sets the precomputed costs between all pairs of points, to be used instead of searching the
+   * graph for cost requests.
+   *
+   * @param costMatrix The costs, computed for the compiled graph.
+   */
+  void setCostMatrix(@Nullable CostMatrix costMatrix) {
+    this.costMatrix = costMatrix;
+  }
+
+  /**
+   * Indicates whether precomputed costs between all pairs of points are used.
+   *
+   * @return <code>true</code> if, and only if, precomputed costs are used.
+   */
+  boolean isCostMatrixUsed() {
+    return costMatrix != null;
+  }
+
+  /**
+   * Returns the points in the graph.
+   *
+   * @return The points in the graph.
+   */
+  Collection<Point> getPoints() {
+    return Arrays.asList(csrGraph.getPoints());
+  }
+
+  private ShortestPathSearch acquireSearch() {
+    ShortestPathSearch search = searches.poll();
+    return search != null ? search : new ShortestPathSearch(csrGraph);
+  }
+
+  private List<Route.Step> translateToSteps(ShortestPathSearch search, int target) {
+    int edgeCount = search.tracePath(target);
+    List<Route.Step> result = new ArrayList<>(edgeCount);
+
+    for (int routeIndex = 0; routeIndex < edgeCount; routeIndex++) {
+      result.add(createStep(csrGraph, search.getPathEdge(routeIndex), routeIndex));
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates a route step for an edge of a compiled graph.
+   *
+   * @param graph The compiled graph.
+   * @param edge The edge.
+   * @param routeIndex The step's index in the route.
+   * @return The route step.
+   */
+  static Route.Step createStep(CsrGraph graph, int edge, int routeIndex) {
+    ModelEdge modelEdge = graph.getEdge(edge);
+    Point sourcePoint = graph.getPoint(graph.getEdgeSource(edge));
+    Point destPoint = graph.getPoint(graph.getEdgeTarget(edge));
+
+    return new Route.Step(modelEdge.getModelPath(),
+                          sourcePoint,
+                          destPoint,
+                          orientation(modelEdge, sourcePoint),
+                          routeIndex);
+  }
+
+  private static Vehicle.Orientation orientation(ModelEdge edge, Point graphSourcePoint) {
+    return Objects.equals(edge.getModelPath().getSourcePoint(), graphSourcePoint.getReference())
+        ? Vehicle.Orientation.FORWARD
+        : Vehicle.Orientation.BACKWARD;
+  }
+}
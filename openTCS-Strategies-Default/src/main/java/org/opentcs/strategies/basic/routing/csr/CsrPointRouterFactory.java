@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.jgrapht.Graph;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.PointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates {@link CsrPointRouter} instances.
+ * <p>
+ * The plant model is mapped to a graph by the {@link ModelGraphMapper} as for the JGraphT-based
+ * point routers, and then compiled to a graph in compressed sparse row format. If landmarks are
+ * used, routes are computed with A*, using the points with the property
+ * {@value #PROPKEY_LANDMARK} as landmarks. Otherwise, Dijkstra's algorithm is used.
+ * </p>
+ */
+public class CsrPointRouterFactory
+    implements PointRouterFactory {
+
+  /**
+   * The key of a point property marking the point as a landmark for A*.
+   */
+  public static final String PROPKEY_LANDMARK = "astar";
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(CsrPointRouterFactory.class);
+  /**
+   * The object service providing the model data.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Maps the plant model to a graph.
+   */
+  private final ModelGraphMapper mapper;
+  /**
+   * Whether routes are computed with A* using landmarks.
+   */
+  private final boolean landmarksUsed;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing model data.
+   * @param mapper Maps the plant model to a graph.
+   * @param configuration The shortest path configuration, selecting A* if its algorithm is
+   * {@link ShortestPathConfiguration.Algorithm#CSR_ASTAR}.
+   */
+  @Inject
+  public CsrPointRouterFactory(@Nonnull TCSObjectService objectService,
+                               @Nonnull ModelGraphMapper mapper,
+                               @Nonnull ShortestPathConfiguration configuration) {
+    this(objectService,
+         mapper,
+         configuration.algorithm() == ShortestPathConfiguration.Algorithm.CSR_ASTAR);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing model data.
+   * @param mapper Maps the plant model to a graph.
+   * @param landmarksUsed Whether routes are computed with A* using landmarks.
+   */
+  public CsrPointRouterFactory(@Nonnull TCSObjectService objectService,
+                               @Nonnull ModelGraphMapper mapper,
+                               boolean landmarksUsed) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.mapper = requireNonNull(mapper, "mapper");
+    this.landmarksUsed = landmarksUsed;
+  }
+
+  @Override
+  public PointRouter createPointRouter(Vehicle vehicle) {
+    requireNonNull(vehicle, "vehicle");
+
+    long timeStampBefore = System.currentTimeMillis();
+
+    Set<Point> points = objectService.fetchObjects(Point.class);
+    Graph<String, ModelEdge> graph = mapper.translateModel(points,
+                                                           objectService.fetchObjects(Path.class),
+                                                           vehicle);
+    // Order the vertices by name to get the same compiled graph for the same plant model.
+    List<Point> sortedPoints = new ArrayList<>(points);
+    sortedPoints.sort(Comparator.comparing(Point::getName));
+    PointRouter router = new CsrPointRouter(graph, sortedPoints, landmarkNames(points));
+
+    LOG.debug("Created point router for {} in {} milliseconds.",
+              vehicle.getName(),
+              System.currentTimeMillis() - timeStampBefore);
+
+    return router;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This implementation updates the edges of the changed paths in the given point router's graph
+   * and compiles it again.
+   * </p>
+   */
+  @Override
+  public PointRouter updatePointRouter(PointRouter pointRouter,
+                                       Vehicle vehicle,
+                                       Collection<Path> changedPaths) {
+    requireNonNull(pointRouter, "pointRouter");
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(changedPaths, "changedPaths");
+
+    if (!(pointRouter instanceof CsrPointRouter)) {
+      return createPointRouter(vehicle);
+    }
+
+    long timeStampBefore = System.currentTimeMillis();
+
+    CsrPointRouter csrRouter = (CsrPointRouter) pointRouter;
+    Graph<String, ModelEdge> graph = csrRouter.getGraph();
+    for (Path path : changedPaths) {
+      mapper.updateEdges(graph, path, vehicle);
+    }
+    Collection<Point> points = csrRouter.getPoints();
+    PointRouter router = new CsrPointRouter(graph, points, landmarkNames(points));
+
+    LOG.debug("Updated {} paths in point router for {} in {} milliseconds.",
+              changedPaths.size(),
+              vehicle.getName(),
+              System.currentTimeMillis() - timeStampBefore);
+
+    return router;
+  }
+
+  private Set<String> landmarkNames(Collection<Point> points) {
+    if (!landmarksUsed) {
+      return Collections.emptySet();
+    }
+    return points.stream()
+        .filter(point -> point.getProperty(PROPKEY_LANDMARK) != null)
+        .map(point -> point.getName())
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Searches shortest paths in a {@link ContractionHierarchy}, keeping its state in primitive arrays
+ * that are reused for subsequent searches.
+ * <p>
+ * A forward search from the source follows upward arcs only, a backward search from the target
+ * follows downward arcs only, and the shortest path is the cheapest one via a vertex reached by
+ * both. Vertices that are reached more cheaply via a higher vertex are not expanded
+ * (stall-on-demand), as they cannot be part of a shortest path.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+final class HierarchySearch {
+
+  /**
+   * The hierarchy searched.
+   */
+  private final ContractionHierarchy hierarchy;
+  /**
+   * The tentative distances from the source, by vertex index.
+   */
+  private final double[] forwardDistances;
+  /**
+   * The arcs via which the forward search reached vertices, by vertex index.
+   */
+  private final int[] forwardArcs;
+  /**
+   * The stamps of the forward searches that reached vertices, by vertex index.
+   */
+  private final int[] forwardStamps;
+  /**
+   * The queue of the forward search.
+   */
+  private final VertexHeap forwardHeap;
+  /**
+   * The tentative distances to the target, by vertex index.
+   */
+  private final double[] backwardDistances;
+  /**
+   * The arcs via which the backward search reached vertices, by vertex index.
+   */
+  private final int[] backwardArcs;
+  /**
+   * The stamps of the backward searches that reached vertices, by vertex index.
+   */
+  private final int[] backwardStamps;
+  /**
+   * The queue of the backward search.
+   */
+  private final VertexHeap backwardHeap;
+  /**
+   * The edges of the last traced path, in travelling order.
+   */
+  private int[] pathEdges;
+  /**
+   * The arcs still to be unpacked when tracing a path.
+   */
+  private int[] unpackStack = new int[64];
+  /**
+   * The current search's stamp.
+   */
+  private int stamp;
+  /**
+   * The distance found by the last search.
+   */
+  private double distance;
+  /**
+   * The vertex via which the last search found the shortest path, or -1.
+   */
+  private int meetingVertex;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param hierarchy The hierarchy to be searched.
+   */
+  HierarchySearch(ContractionHierarchy hierarchy) {
+    this.hierarchy = requireNonNull(hierarchy, "hierarchy");
+    int vertexCount = hierarchy.getGraph().getVertexCount();
+    forwardDistances = new double[vertexCount];
+    forwardArcs = new int[vertexCount];
+    forwardStamps = new int[vertexCount];
+    forwardHeap = new VertexHeap(vertexCount);
+    backwardDistances = new double[vertexCount];
+    backwardArcs = new int[vertexCount];
+    backwardStamps = new int[vertexCount];
+    backwardHeap = new VertexHeap(vertexCount);
+    pathEdges = new int[Math.max(16, vertexCount)];
+  }
+
+  /**
+   * Searches the shortest path from the given source to the given target vertex.
+   *
+   * @param source The source vertex.
+   * @param target The target vertex.
+   * @return <code>true</code> if, and only if, a path to the target vertex was found.
+   */
+  boolean search(int source, int target) {
+    if (stamp == Integer.MAX_VALUE) {
+      Arrays.fill(forwardStamps, 0);
+      Arrays.fill(backwardStamps, 0);
+      stamp = 0;
+    }
+    stamp++;
+    forwardHeap.clear();
+    backwardHeap.clear();
+    distance = Double.POSITIVE_INFINITY;
+    meetingVertex = -1;
+
+    forwardStamps[source] = stamp;
+    forwardDistances[source] = 0.0;
+    forwardArcs[source] = -1;
+    forwardHeap.put(source, 0.0);
+    backwardStamps[target] = stamp;
+    backwardDistances[target] = 0.0;
+    backwardArcs[target] = -1;
+    backwardHeap.put(target, 0.0);
+
+    while (true) {
+      double forwardKey = forwardHeap.peekKey();
+      double backwardKey = backwardHeap.peekKey();
+      // Neither search can find a cheaper path any more.
+      if (Math.min(forwardKey, backwardKey) >= distance) {
+        break;
+      }
+      if (forwardKey <= backwardKey) {
+        expandForward(forwardHeap.poll());
+      }
+      else {
+        expandBackward(backwardHeap.poll());
+      }
+    }
+
+    return meetingVertex >= 0;
+  }
+
+  /**
+   * Returns the distance found by the last search.
+   *
+   * @return The distance.
+   */
+  double getDistance() {
+    return distance;
+  }
+
+  /**
+   * Traces and unpacks the path found by the last search.
+   *
+   * @return The number of edges in the path, which can be retrieved via {@link #getPathEdge(int)}.
+   */
+  int tracePath() {
+    int count = 0;
+    // The forward arcs are traced from the meeting vertex back to the source, so they are unpacked
+    // in reverse and the resulting edges reversed afterwards.
+    for (int vertex = meetingVertex; forwardArcs[vertex] >= 0;) {
+      int arc = forwardArcs[vertex];
+      count = unpack(arc, count, true);
+      vertex = hierarchy.getArcSource(arc);
+    }
+    for (int i = 0, j = count - 1; i < j; i++, j--) {
+      int edge = pathEdges[i];
+      pathEdges[i] = pathEdges[j];
+      pathEdges[j] = edge;
+    }
+    for (int vertex = meetingVertex; backwardArcs[vertex] >= 0;) {
+      int arc = backwardArcs[vertex];
+      count = unpack(arc, count, false);
+      vertex = hierarchy.getArcTarget(arc);
+    }
+    return count;
+  }
+
+  /**
+   * Returns an edge of the last traced path.
+   *
+   * @param index The edge's index in the path.
+   * @return The edge.
+   */
+  int getPathEdge(int index) {
+    return pathEdges[index];
+  }
+
+  private void expandForward(int vertex) {
+    double vertexDistance = forwardDistances[vertex];
+    if (backwardStamps[vertex] == stamp) {
+      updateMeeting(vertex, vertexDistance + backwardDistances[vertex]);
+    }
+    for (int i = hierarchy.getDownArcsStart(vertex), end = hierarchy.getDownArcsEnd(vertex);
+         i < end;
+         i++) {
+      int higher = hierarchy.getDownSource(i);
+      if (forwardStamps[higher] == stamp
+          && forwardDistances[higher] + hierarchy.getDownWeight(i) < vertexDistance) {
+        return;
+      }
+    }
+    for (int i = hierarchy.getUpArcsStart(vertex), end = hierarchy.getUpArcsEnd(vertex);
+         i < end;
+         i++) {
+      int next = hierarchy.getUpTarget(i);
+      double nextDistance = vertexDistance + hierarchy.getUpWeight(i);
+      if (forwardStamps[next] != stamp || nextDistance < forwardDistances[next]) {
+        forwardStamps[next] = stamp;
+        forwardDistances[next] = nextDistance;
+        forwardArcs[next] = hierarchy.getUpArc(i);
+        forwardHeap.put(next, nextDistance);
+      }
+    }
+  }
+
+  private void expandBackward(int vertex) {
+    double vertexDistance = backwardDistances[vertex];
+    if (forwardStamps[vertex] == stamp) {
+      updateMeeting(vertex, forwardDistances[vertex] + vertexDistance);
+    }
+    for (int i = hierarchy.getUpArcsStart(vertex), end = hierarchy.getUpArcsEnd(vertex);
+         i < end;
+         i++) {
+      int higher = hierarchy.getUpTarget(i);
+      if (backwardStamps[higher] == stamp
+          && backwardDistances[higher] + hierarchy.getUpWeight(i) < vertexDistance) {
+        return;
+      }
+    }
+    for (int i = hierarchy.getDownArcsStart(vertex), end = hierarchy.getDownArcsEnd(vertex);
+         i < end;
+         i++) {
+      int next = hierarchy.getDownSource(i);
+      double nextDistance = vertexDistance + hierarchy.getDownWeight(i);
+      if (backwardStamps[next] != stamp || nextDistance < backwardDistances[next]) {
+        backwardStamps[next] = stamp;
+        backwardDistances[next] = nextDistance;
+        backwardArcs[next] = hierarchy.getDownArc(i);
+        backwardHeap.put(next, nextDistance);
+      }
+    }
+  }
+
+  private void updateMeeting(int vertex, double pathDistance) {
+    if (pathDistance < distance) {
+      distance = pathDistance;
+      meetingVertex = vertex;
+    }
+  }
+
+  /**
+   * Unpacks an arc to edges of the original graph and appends them to the path edges.
+   *
+   * @param arc The arc.
+   * @param count The number of path edges so far.
+   * @param reversed Whether to append the edges in reverse order.
+   * @return The number of path edges after unpacking.
+   */
+  private int unpack(int arc, int count, boolean reversed) {
+    int stackSize = 0;
+    unpackStack[stackSize++] = arc;
+    while (stackSize > 0) {
+      int current = unpackStack[--stackSize];
+      int edge = hierarchy.getArcEdge(current);
+      if (edge >= 0) {
+        if (count == pathEdges.length) {
+          pathEdges = Arrays.copyOf(pathEdges, count * 2);
+        }
+        pathEdges[count++] = edge;
+        continue;
+      }
+      if (stackSize + 2 > unpackStack.length) {
+        unpackStack = Arrays.copyOf(unpackStack, unpackStack.length * 2);
+      }
+      // The arc pushed last is unpacked first.
+      if (reversed) {
+        unpackStack[stackSize++] = hierarchy.getArcFirst(current);
+        unpackStack[stackSize++] = hierarchy.getArcSecond(current);
+      }
+      else {
+        unpackStack[stackSize++] = hierarchy.getArcSecond(current);
+        unpackStack[stackSize++] = hierarchy.getArcFirst(current);
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimates remaining distances for A* from precomputed distances to and from landmark vertices
+ * (ALT heuristic).
+ * <p>
+ * By the triangle inequality, <code>d(l, t) - d(l, v)</code> and <code>d(v, l) - d(t, l)</code>
+ * are lower bounds for the distance <code>d(v, t)</code> for any landmark <code>l</code>, so the
+ * estimate is admissible and consistent.
+ * </p>
+ */
+final class LandmarkDistances {
+
+  /**
+   * The number of vertices.
+   */
+  private final int vertexCount;
+  /**
+   * The distances from the landmarks, at <code>landmark * vertexCount + vertex</code>.
+   */
+  private final double[] fromLandmarks;
+  /**
+   * The distances to the landmarks, at <code>landmark * vertexCount + vertex</code>.
+   */
+  private final double[] toLandmarks;
+
+  /**
+   * Computes the distances to and from the given landmarks.
+   *
+   * @param graph The graph.
+   * @param landmarks The landmark vertices.
+   * @param search The search to compute the distances with.
+   */
+  LandmarkDistances(CsrGraph graph, int[] landmarks, ShortestPathSearch search) {
+    requireNonNull(graph, "graph");
+    requireNonNull(landmarks, "landmarks");
+    requireNonNull(search, "search");
+
+    vertexCount = graph.getVertexCount();
+    fromLandmarks = new double[landmarks.length * vertexCount];
+    toLandmarks = new double[landmarks.length * vertexCount];
+    double[] distances = new double[vertexCount];
+    for (int i = 0; i < landmarks.length; i++) {
+      search.searchAll(landmarks[i], false, distances);
+      System.arraycopy(distances, 0, fromLandmarks, i * vertexCount, vertexCount);
+      search.searchAll(landmarks[i], true, distances);
+      System.arraycopy(distances, 0, toLandmarks, i * vertexCount, vertexCount);
+    }
+  }
+
+  /**
+   * Returns a lower bound for the distance from the given vertex to the given target vertex.
+   *
+   * @param vertex The vertex.
+   * @param target The target vertex.
+   * @return A lower bound for the distance, which is {@link Double#POSITIVE_INFINITY} if the target
+   * is known to be unreachable from the vertex.
+   */
+  double estimate(int vertex, int target) {
+    double result = 0.0;
+    for (int offset = 0; offset < fromLandmarks.length; offset += vertexCount) {
+      // Differences of two infinite distances are NaN and thus never taken as the result.
+      double bound = fromLandmarks[offset + target] - fromLandmarks[offset + vertex];
+      if (bound > result) {
+        result = bound;
+      }
+      bound = toLandmarks[offset + vertex] - toLandmarks[offset + target];
+      if (bound > result) {
+        result = bound;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,348 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nullable;
+
+/**
+ * Runs Dijkstra's algorithm or A* on a {@link CsrGraph}, keeping its state in primitive arrays
+ * that are reused for subsequent searches.
+ * <p>
+ * Instead of clearing the arrays before each search, every search gets a new stamp, and array
+ * entries are only valid if their stamp matches the current search's one. A search thus does not
+ * allocate any memory and its costs only depend on the number of vertices reached.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+final class ShortestPathSearch {
+
+  /**
+   * The graph searched.
+   */
+  private final CsrGraph graph;
+  /**
+   * The tentative distances from the source, by vertex index.
+   */
+  private final double[] distances;
+  /**
+   * The tentative distances plus the estimated remaining distances, by vertex index.
+   */
+  private final double[] priorities;
+  /**
+   * The edges via which vertices were reached, by vertex index.
+   */
+  private final int[] predecessorEdges;
+  /**
+   * The stamps of the searches that reached vertices, by vertex index.
+   */
+  private final int[] reachedStamps;
+  /**
+   * The stamps of the searches that settled vertices, by vertex index.
+   */
+  private final int[] settledStamps;
+  /**
+   * A binary min-heap of vertex indices, ordered by priority.
+   */
+  private final int[] heap;
+  /**
+   * The vertices' positions in the heap, by vertex index.
+   */
+  private final int[] heapPositions;
+  /**
+   * The edges of the last traced path, in travelling order.
+   */
+  private final int[] pathEdges;
+  /**
+   * The stamps of the searches that are looking for vertices as targets, by vertex index.
+   */
+  private final int[] targetStamps;
+  /**
+   * The number of vertices in the heap.
+   */
+  private int heapSize;
+  /**
+   * The current search's stamp.
+   */
+  private int stamp;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param graph The graph to be searched.
+   */
+  ShortestPathSearch(CsrGraph graph) {
+    this.graph = requireNonNull(graph, "graph");
+    int vertexCount = graph.getVertexCount();
+    distances = new double[vertexCount];
+    priorities = new double[vertexCount];
+    predecessorEdges = new int[vertexCount];
+    reachedStamps = new int[vertexCount];
+    settledStamps = new int[vertexCount];
+    heap = new int[vertexCount];
+    heapPositions = new int[vertexCount];
+    pathEdges = new int[vertexCount];
+    targetStamps = new int[vertexCount];
+  }
+
+  /**
+   * Searches the shortest path from the given source to the given target vertex.
+   *
+   * @param source The source vertex.
+   * @param target The target vertex.
+   * @param landmarkDistances Estimates remaining distances for A*. If <code>null</code>, Dijkstra's
+   * algorithm is used.
+   * @return <code>true</code> if, and only if, a path to the target vertex was found.
+   */
+  boolean search(int source, int target, @Nullable LandmarkDistances landmarkDistances) {
+    startSearch(source);
+    if (landmarkDistances != null) {
+      priorities[source] = landmarkDistances.estimate(source, target);
+    }
+
+    while (heapSize > 0) {
+      int vertex = poll();
+      if (vertex == target) {
+        return true;
+      }
+      for (int edge = graph.getOutEdgesStart(vertex), end = graph.getOutEdgesEnd(vertex);
+           edge < end;
+           edge++) {
+        int next = graph.getEdgeTarget(edge);
+        if (settledStamps[next] == stamp) {
+          continue;
+        }
+        double distance = distances[vertex] + graph.getEdgeWeight(edge);
+        if (reachedStamps[next] != stamp) {
+          double estimate = landmarkDistances == null
+              ? 0.0
+              : landmarkDistances.estimate(next, target);
+          if (estimate == Double.POSITIVE_INFINITY) {
+            // The target is not reachable via this vertex.
+            continue;
+          }
+          reach(next, edge, distance, distance + estimate);
+        }
+        else if (distance < distances[next]) {
+          improve(next, edge, distance);
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Computes the distances from the given source vertex to all vertices, or from all vertices to
+   * the given target vertex.
+   *
+   * @param vertex The source or target vertex.
+   * @param reverse Whether to compute the distances to the given vertex.
+   * @param result The array to write the distances to, by vertex index. Unreachable vertices get a
+   * distance of {@link Double#POSITIVE_INFINITY}.
+   */
+  void searchAll(int vertex, boolean reverse, double[] result) {
+    Arrays.fill(result, Double.POSITIVE_INFINITY);
+    startSearch(vertex);
+
+    while (heapSize > 0) {
+      int current = poll();
+      result[current] = distances[current];
+      int start = reverse ? graph.getInEdgesStart(current) : graph.getOutEdgesStart(current);
+      int end = reverse ? graph.getInEdgesEnd(current) : graph.getOutEdgesEnd(current);
+      for (int i = start; i < end; i++) {
+        int edge = reverse ? graph.getInEdge(i) : i;
+        int next = reverse ? graph.getEdgeSource(edge) : graph.getEdgeTarget(edge);
+        if (settledStamps[next] == stamp) {
+          continue;
+        }
+        double distance = distances[current] + graph.getEdgeWeight(edge);
+        if (reachedStamps[next] != stamp) {
+          reach(next, edge, distance, distance);
+        }
+        else if (distance < distances[next]) {
+          improve(next, edge, distance);
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the distances from the given source vertex to the given target vertices.
+   * The search stops as soon as the distances to all target vertices are known.
+   *
+   * @param source The source vertex.
+   * @param targets The target vertices.
+   * @param result The array to write the distances to, by index in the given target vertices.
+   * Unreachable vertices get a distance of {@link Double#POSITIVE_INFINITY}.
+   */
+  void searchTargets(int source, int[] targets, double[] result) {
+    startSearch(source);
+    int remainingTargets = 0;
+    for (int target : targets) {
+      if (targetStamps[target] != stamp) {
+        targetStamps[target] = stamp;
+        remainingTargets++;
+      }
+    }
+
+    while (heapSize > 0 && remainingTargets > 0) {
+      int vertex = poll();
+      if (targetStamps[vertex] == stamp) {
+        remainingTargets--;
+      }
+      for (int edge = graph.getOutEdgesStart(vertex), end = graph.getOutEdgesEnd(vertex);
+           edge < end;
+           edge++) {
+        int next = graph.getEdgeTarget(edge);
+        if (settledStamps[next] == stamp) {
+          continue;
+        }
+        double distance = distances[vertex] + graph.getEdgeWeight(edge);
+        if (reachedStamps[next] != stamp) {
+          reach(next, edge, distance, distance);
+        }
+        else if (distance < distances[next]) {
+          improve(next, edge, distance);
+        }
+      }
+    }
+
+    for (int i = 0; i < targets.length; i++) {
+      result[i] = settledStamps[targets[i]] == stamp
+          ? distances[targets[i]]
+          : Double.POSITIVE_INFINITY;
+    }
+  }
+
+  /**
+   * Returns the distance of the given vertex found by the last search.
+   *
+   * @param vertex The vertex.
+   * @return The distance.
+   */
+  double getDistance(int vertex) {
+    return distances[vertex];
+  }
+
+  /**
+   * Traces the path to the given vertex found by the last search.
+   *
+   * @param vertex The vertex.
+   * @return The number of edges in the path, which can be retrieved via {@link #getPathEdge(int)}.
+   */
+  int tracePath(int vertex) {
+    int count = 0;
+    for (int current = vertex; predecessorEdges[current] >= 0;) {
+      count++;
+      current = graph.getEdgeSource(predecessorEdges[current]);
+    }
+    int index = count;
+    for (int current = vertex; predecessorEdges[current] >= 0;) {
+      index--;
+      pathEdges[index] = predecessorEdges[current];
+      current = graph.getEdgeSource(predecessorEdges[current]);
+    }
+    return count;
+  }
+
+  /**
+   * Returns an edge of the last traced path.
+   *
+   * @param index The edge's index in the path.
+   * @return The edge.
+   */
+  int getPathEdge(int index) {
+    return pathEdges[index];
+  }
+
+  private void startSearch(int source) {
+    if (stamp == Integer.MAX_VALUE) {
+      Arrays.fill(reachedStamps, 0);
+      Arrays.fill(settledStamps, 0);
+      Arrays.fill(targetStamps, 0);
+      stamp = 0;
+    }
+    stamp++;
+    heapSize = 0;
+    reach(source, -1, 0.0, 0.0);
+  }
+
+  private void reach(int vertex, int edge, double distance, double priority) {
+    reachedStamps[vertex] = stamp;
+    predecessorEdges[vertex] = edge;
+    distances[vertex] = distance;
+    priorities[vertex] = priority;
+    heap[heapSize] = vertex;
+    heapPositions[vertex] = heapSize;
+    heapSize++;
+    siftUp(heapPositions[vertex]);
+  }
+
+  private void improve(int vertex, int edge, double distance) {
+    // The estimated remaining distance does not change.
+    priorities[vertex] += distance - distances[vertex];
+    distances[vertex] = distance;
+    predecessorEdges[vertex] = edge;
+    siftUp(heapPositions[vertex]);
+  }
+
+  private int poll() {
+    int vertex = heap[0];
+    settledStamps[vertex] = stamp;
+    heapSize--;
+    if (heapSize > 0) {
+      heap[0] = heap[heapSize];
+      heapPositions[heap[0]] = 0;
+      siftDown(0);
+    }
+    return vertex;
+  }
+
+  private void siftUp(int position) {
+    int vertex = heap[position];
+    double priority = priorities[vertex];
+    while (position > 0) {
+      int parentPosition = (position - 1) >>> 1;
+      int parent = heap[parentPosition];
+      if (priorities[parent] <= priority) {
+        break;
+      }
+      heap[position] = parent;
+      heapPositions[parent] = position;
+      position = parentPosition;
+    }
+    heap[position] = vertex;
+    heapPositions[vertex] = position;
+  }
+
+  private void siftDown(int position) {
+    int vertex = heap[position];
+    double priority = priorities[vertex];
+    int half = heapSize >>> 1;
+    while (position < half) {
+      int childPosition = 2 * position + 1;
+      int child = heap[childPosition];
+      int rightPosition = childPosition + 1;
+      if (rightPosition < heapSize && priorities[heap[rightPosition]] < priorities[child]) {
+        childPosition = rightPosition;
+        child = heap[childPosition];
+      }
+      if (priority <= priorities[child]) {
+        break;
+      }
+      heap[position] = child;
+      heapPositions[child] = position;
+      position = childPosition;
+    }
+    heap[position] = vertex;
+    heapPositions[vertex] = position;
+  }
+}
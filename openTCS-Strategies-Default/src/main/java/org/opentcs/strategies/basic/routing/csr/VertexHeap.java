@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of vertex indices with changeable keys.
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+final class VertexHeap {
+
+  /**
+   * The vertices' keys, by vertex index.
+   */
+  private final double[] keys;
+  /**
+   * The vertices in heap order.
+   */
+  private final int[] heap;
+  /**
+   * The vertices' positions in the heap, by vertex index, or -1 for vertices not in the heap.
+   */
+  private final int[] positions;
+  /**
+   * The number of vertices in the heap.
+   */
+  private int size;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param vertexCount The number of vertices.
+   */
+  VertexHeap(int vertexCount) {
+    keys = new double[vertexCount];
+    heap = new int[vertexCount];
+    positions = new int[vertexCount];
+    Arrays.fill(positions, -1);
+  }
+
+  /**
+   * Indicates whether the heap is empty.
+   *
+   * @return <code>true</code> if, and only if, the heap is empty.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Indicates whether the given vertex is in the heap.
+   *
+   * @param vertex The vertex.
+   * @return <code>true</code> if, and only if, the vertex is in the heap.
+   */
+  boolean contains(int vertex) {
+    return positions[vertex] >= 0;
+  }
+
+  /**
+   * Returns the smallest key in the heap.
+   *
+   * @return The smallest key, or {@link Double#POSITIVE_INFINITY} if the heap is empty.
+   */
+  double peekKey() {
+    return size == 0 ? Double.POSITIVE_INFINITY : keys[heap[0]];
+  }
+
+  /**
+   * Adds the given vertex to the heap or changes its key if it is in the heap already.
+   *
+   * @param vertex The vertex.
+   * @param key The vertex's key.
+   */
+  void put(int vertex, double key) {
+    int position = positions[vertex];
+    if (position < 0) {
+      keys[vertex] = key;
+      heap[size] = vertex;
+      positions[vertex] = size;
+      size++;
+      siftUp(size - 1);
+    }
+    else if (key < keys[vertex]) {
+      keys[vertex] = key;
+      siftUp(position);
+    }
+    else {
+      keys[vertex] = key;
+      siftDown(position);
+    }
+  }
+
+  /**
+   * Removes the vertex with the smallest key from the heap.
+   *
+   * @return The vertex.
+   */
+  int poll() {
+    int vertex = heap[0];
+    positions[vertex] = -1;
+    size--;
+    if (size > 0) {
+      heap[0] = heap[size];
+      positions[heap[0]] = 0;
+      siftDown(0);
+    }
+    return vertex;
+  }
+
+  /**
+   * Removes all vertices from the heap.
+   */
+  void clear() {
+    for (int i = 0; i < size; i++) {
+      positions[heap[i]] = -1;
+    }
+    size = 0;
+  }
+
+  private void siftUp(int position) {
+    int vertex = heap[position];
+    double key = keys[vertex];
+    while (position > 0) {
+      int parentPosition = (position - 1) >>> 1;
+      int parent = heap[parentPosition];
+      if (keys[parent] <= key) {
+        break;
+      }
+      heap[position] = parent;
+      positions[parent] = position;
+      position = parentPosition;
+    }
+    heap[position] = vertex;
+    positions[vertex] = position;
+  }
+
+  private void siftDown(int position) {
+    int vertex = heap[position];
+    double key = keys[vertex];
+    int half = size >>> 1;
+    while (position < half) {
+      int childPosition = 2 * position + 1;
+      int child = heap[childPosition];
+      int rightPosition = childPosition + 1;
+      if (rightPosition < size && keys[heap[rightPosition]] < keys[child]) {
+        childPosition = rightPosition;
+        child = heap[childPosition];
+      }
+      if (key <= keys[child]) {
+        break;
+      }
+      heap[position] = child;
+      positions[child] = position;
+      position = childPosition;
+    }
+    heap[position] = vertex;
+    positions[vertex] = position;
+  }
+}
@@ -73,4 +73,14 @@ public class AStarPointRouterFactory
     return new AStarShortestPath<>(graph, new ALTAdmissibleHeuristic(graph, landmarks));
   }
 
+  @Override
+  protected ShortestPathAlgorithm<String, ModelEdge> updateShortestPathAlgorithm(
+      ShortestPathAlgorithm<String, ModelEdge> algorithm,
+      Graph<String, ModelEdge> graph,
+      Collection<Point> points,
+      boolean costsDecreased) {
+    // The landmark distances of the heuristic remain lower bounds as long as no route got cheaper.
+    return costsDecreased ? createShortestPathAlgorithm(graph, points) : algorithm;
+  }
+
 }
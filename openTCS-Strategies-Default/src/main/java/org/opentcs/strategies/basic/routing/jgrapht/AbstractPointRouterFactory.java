@@ -7,8 +7,12 @@
  */
 package org.opentcs.strategies.basic.routing.jgrapht;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import javax.annotation.Nonnull;
@@ -67,13 +71,10 @@ public abstract class AbstractPointRouterFactory
                                                            objectService.fetchObjects(Path.class),
                                                            vehicle);
 
-    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph, points), points);
-    // Make a single request for a route from one point to a different one to make sure the
-    // point router is primed. (Some implementations are initialized lazily.)
-    if (points.size() >= 2) {
-      Iterator<Point> pointIter = points.iterator();
-      router.getRouteSteps(pointIter.next(), pointIter.next());
-    }
+    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph, points),
+                                                     graph,
+                                                     points);
+    prime(router, points);
 
     LOG.debug("Created point router for {} in {} milliseconds.",
               vehicle.getName(),
@@ -82,6 +83,104 @@ public abstract class AbstractPointRouterFactory
     return router;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This implementation updates the edges of the changed paths in the given point router's graph
+   * and creates a new algorithm instance working on it. Creating the point router from scratch is
+   * only necessary if the given point router does not provide its graph.
+   * </p>
+   */
+  @Override
+  public PointRouter updatePointRouter(PointRouter pointRouter,
+                                       Vehicle vehicle,
+                                       Collection<Path> changedPaths) {
+    requireNonNull(pointRouter, "pointRouter");
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(changedPaths, "changedPaths");
+
+    if (!(pointRouter instanceof ShortestPathPointRouter)
+        || ((ShortestPathPointRouter) pointRouter).getGraph() == null) {
+      return createPointRouter(vehicle);
+    }
+
+    long timeStampBefore = System.currentTimeMillis();
+
+    ShortestPathPointRouter shortestPathRouter = (ShortestPathPointRouter) pointRouter;
+    Graph<String, ModelEdge> graph = shortestPathRouter.getGraph();
+    Collection<Point> points = shortestPathRouter.getPoints();
+    boolean costsDecreased = false;
+    for (Path path : changedPaths) {
+      Map<Boolean, Double> previousWeights = edgeWeights(graph, path);
+      mapper.updateEdges(graph, path, vehicle);
+      costsDecreased |= isAnyWeightDecreased(previousWeights, edgeWeights(graph, path));
+    }
+
+    PointRouter router = new ShortestPathPointRouter(
+        updateShortestPathAlgorithm(shortestPathRouter.getAlgorithm(),
+                                    graph,
+                                    points,
+                                    costsDecreased),
+        graph,
+        points
+    );
+    prime(router, points);
+
+    LOG.debug("Updated {} paths in point router for {} in {} milliseconds.",
+              changedPaths.size(),
+              vehicle.getName(),
+              System.currentTimeMillis() - timeStampBefore);
+
+    return router;
+  }
+
+  /**
+   * Returns the weights of the edges representing the given path in the given graph.
+   *
+   * @param graph The graph.
+   * @param path The path.
+   * @return The weights of the edges, mapped by their travelling direction (<code>true</code> for
+   * reverse).
+   */
+  private Map<Boolean, Double> edgeWeights(Graph<String, ModelEdge> graph, Path path) {
+    Map<Boolean, Double> result = new HashMap<>();
+    String sourceName = path.getSourcePoint().getName();
+    String destName = path.getDestinationPoint().getName();
+    for (Set<ModelEdge> edges : Arrays.asList(graph.getAllEdges(sourceName, destName),
+                                              graph.getAllEdges(destName, sourceName))) {
+      if (edges == null) {
+        continue;
+      }
+      for (ModelEdge edge : edges) {
+        if (Objects.equals(edge.getModelPath().getName(), path.getName())) {
+          result.put(edge.isTravellingReverse(), graph.getEdgeWeight(edge));
+        }
+      }
+    }
+    return result;
+  }
+
+  private boolean isAnyWeightDecreased(Map<Boolean, Double> previousWeights,
+                                       Map<Boolean, Double> currentWeights) {
+    return currentWeights.entrySet().stream()
+        .anyMatch(entry -> !previousWeights.containsKey(entry.getKey())
+            || entry.getValue() < previousWeights.get(entry.getKey()));
+  }
+
+  /**
+   * Makes a single request for a route from one point to a different one to make sure the point
+   * router is primed. (Some implementations are initialized lazily.)
+   *
+   * @param router The point router.
+   * @param points The points in the router's graph.
+   */
+  private void prime(PointRouter router, Collection<Point> points) {
+    if (points.size() >= 2) {
+      Iterator<Point> pointIter = points.iterator();
+      router.getRouteSteps(pointIter.next(), pointIter.next());
+    }
+  }
+
   /**
    * Returns a shortest path algorithm implementation working on the given graph.
    *
@@ -90,4 +189,29 @@ public abstract class AbstractPointRouterFactory
    */
   protected abstract ShortestPathAlgorithm<String, ModelEdge> createShortestPathAlgorithm(
       Graph<String, ModelEdge> graph, Collection<Point> points);
+
+  /**
+   * Returns a shortest path algorithm implementation working on the given graph after edges in it
+   * have been updated.
+   * <p>
+   * This default implementation creates a new instance via
+   * {@link #createShortestPathAlgorithm(Graph, Collection)}. Subclasses may return the given
+   * algorithm instead, if it does not precompute any data that is invalidated by the update.
+   * </p>
+   *
+   * @param algorithm The algorithm working on the graph before the update.
+   * @param graph The updated graph.
+   * @param points The points in the graph.
+   * @param costsDecreased Whether the update may have decreased the costs of any route, i.e.
+   * whether edges were added or their weights decreased. (Otherwise, edges were only removed or
+   * their weights increased.)
+   * @return A shortest path algorithm implementation working on the updated graph.
+   */
+  protected ShortestPathAlgorithm<String, ModelEdge> updateShortestPathAlgorithm(
+      ShortestPathAlgorithm<String, ModelEdge> algorithm,
+      Graph<String, ModelEdge> graph,
+      Collection<Point> points,
+      boolean costsDecreased) {
+    return createShortestPathAlgorithm(graph, points);
+  }
 }
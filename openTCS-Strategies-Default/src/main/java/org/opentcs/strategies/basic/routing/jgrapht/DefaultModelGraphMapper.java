@@ -8,7 +8,12 @@
 package org.opentcs.strategies.basic.routing.jgrapht;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import org.jgrapht.Graph;
@@ -67,49 +72,73 @@ public class DefaultModelGraphMapper
       graph.addVertex(point.getName());
     }
 
-    boolean allowNegativeEdgeWeights = configuration.algorithm().isHandlingNegativeCosts();
-
     for (Path path : paths) {
+      addEdges(graph, path, vehicle);
+    }
+
+    return graph;
+  }
 
-      if (shouldAddForwardEdge(path, vehicle)) {
-        ModelEdge edge = new ModelEdge(path, false);
-        double weight = edgeEvaluator.computeWeight(edge, vehicle);
-
-        if (weight < 0 && !allowNegativeEdgeWeights) {
-          LOG.warn("Edge {} with weight {} ignored. Algorithm {} cannot handle negative weights.",
-                   edge,
-                   weight,
-                   configuration.algorithm().name());
-        }
-        else {
-          graph.addEdge(path.getSourcePoint().getName(),
-                        path.getDestinationPoint().getName(),
-                        edge);
-          graph.setEdgeWeight(edge, weight);
-        }
-      }
-
-      if (shouldAddReverseEdge(path, vehicle)) {
-        ModelEdge edge = new ModelEdge(path, true);
-        double weight = edgeEvaluator.computeWeight(edge, vehicle);
-
-        if (weight < 0 && !allowNegativeEdgeWeights) {
-          LOG.warn("Edge {} with weight {} ignored. Algorithm {} cannot handle negative weights.",
-                   edge,
-                   weight,
-                   configuration.algorithm().name());
-        }
-        else {
-          graph.addEdge(path.getDestinationPoint().getName(),
-                        path.getSourcePoint().getName(),
-                        edge);
-          graph.setEdgeWeight(edge, weight);
-        }
-      }
+  @Override
+  public void updateEdges(Graph<String, ModelEdge> graph, Path path, Vehicle vehicle) {
+    requireNonNull(graph, "graph");
+    requireNonNull(path, "path");
+    requireNonNull(vehicle, "vehicle");
+
+    String sourceName = path.getSourcePoint().getName();
+    String destName = path.getDestinationPoint().getName();
+    Set<ModelEdge> obsoleteEdges = new HashSet<>();
+    obsoleteEdges.addAll(edgesOfPath(graph.getAllEdges(sourceName, destName), path));
+    obsoleteEdges.addAll(edgesOfPath(graph.getAllEdges(destName, sourceName), path));
+    graph.removeAllEdges(obsoleteEdges);
+
+    addEdges(graph, path, vehicle);
+  }
 
+  private void addEdges(Graph<String, ModelEdge> graph, Path path, Vehicle vehicle) {
+    if (shouldAddForwardEdge(path, vehicle)) {
+      addEdge(graph,
+              new ModelEdge(path, false),
+              path.getSourcePoint().getName(),
+              path.getDestinationPoint().getName(),
+              vehicle);
     }
 
-    return graph;
+    if (shouldAddReverseEdge(path, vehicle)) {
+      addEdge(graph,
+              new ModelEdge(path, true),
+              path.getDestinationPoint().getName(),
+              path.getSourcePoint().getName(),
+              vehicle);
+    }
+  }
+
+  private void addEdge(Graph<String, ModelEdge> graph,
+                       ModelEdge edge,
+                       String sourceName,
+                       String destName,
+                       Vehicle vehicle) {
+    double weight = edgeEvaluator.computeWeight(edge, vehicle);
+
+    if (weight < 0 && !configuration.algorithm().isHandlingNegativeCosts()) {
+      LOG.warn("Edge {} with weight {} ignored. Algorithm {} cannot handle negative weights.",
+               edge,
+               weight,
+               configuration.algorithm().name());
+    }
+    else {
+      graph.addEdge(sourceName, destName, edge);
+      graph.setEdgeWeight(edge, weight);
+    }
+  }
+
+  private Set<ModelEdge> edgesOfPath(Set<ModelEdge> edges, Path path) {
+    if (edges == null) {
+      return Collections.emptySet();
+    }
+    return edges.stream()
+        .filter(edge -> Objects.equals(edge.getModelPath().getName(), path.getName()))
+        .collect(Collectors.toSet());
   }
 
   /**
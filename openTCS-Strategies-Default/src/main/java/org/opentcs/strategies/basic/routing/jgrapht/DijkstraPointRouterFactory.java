@@ -44,4 +44,14 @@ public class DijkstraPointRouterFactory
     return new DijkstraShortestPath<>(graph);
   }
 
+  @Override
+  protected ShortestPathAlgorithm<String, ModelEdge> updateShortestPathAlgorithm(
+      ShortestPathAlgorithm<String, ModelEdge> algorithm,
+      Graph<String, ModelEdge> graph,
+      Collection<Point> points,
+      boolean costsDecreased) {
+    // The algorithm does not keep any data between requests.
+    return algorithm;
+  }
+
 }
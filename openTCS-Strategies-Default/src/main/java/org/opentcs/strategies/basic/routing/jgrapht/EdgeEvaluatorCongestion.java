@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.Vehicle;
+import static org.opentcs.strategies.basic.routing.PointRouter.HIGH_COSTS;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Adds a penalty for the current congestion of an edge's path to the weight computed by another
+ * evaluator.
+ * <p>
+ * The congestion of a path is given as a load, e.g. the number of vehicles currently occupying
+ * it or waiting for it. The penalty is the base weight multiplied by the load and a constant
+ * factor, so it is expressed in the same unit as the base weight.
+ * </p>
+ */
+public class EdgeEvaluatorCongestion
+    implements EdgeEvaluator {
+
+  /**
+   * The evaluator computing the weight without any penalty.
+   */
+  private final EdgeEvaluator baseEvaluator;
+  /**
+   * The factor the base weight and load are multiplied with.
+   */
+  private final double penaltyFactor;
+  /**
+   * The current loads of paths with any congestion, by path name.
+   */
+  private volatile Map<String, Double> loadsByPath = Collections.emptyMap();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param baseEvaluator The evaluator computing the weight without any penalty.
+   * @param penaltyFactor The factor the base weight and load are multiplied with.
+   */
+  public EdgeEvaluatorCongestion(@Nonnull EdgeEvaluator baseEvaluator, double penaltyFactor) {
+    this.baseEvaluator = requireNonNull(baseEvaluator, "baseEvaluator");
+    checkArgument(penaltyFactor >= 0, "penaltyFactor is negative: %s", penaltyFactor);
+    this.penaltyFactor = penaltyFactor;
+  }
+
+  @Override
+  public double computeWeight(ModelEdge edge, Vehicle vehicle) {
+    double baseWeight = baseEvaluator.computeWeight(edge, vehicle);
+    if (baseWeight >= HIGH_COSTS) {
+      return baseWeight;
+    }
+    double load = loadsByPath.getOrDefault(edge.getModelPath().getName(), 0.0);
+    return Math.min(baseWeight + baseWeight * load * penaltyFactor, HIGH_COSTS);
+  }
+
+  /**
+   * Returns the current loads of paths with any congestion.
+   *
+   * @return The loads, by path name.
+   */
+  @Nonnull
+  public Map<String, Double> getLoads() {
+    return loadsByPath;
+  }
+
+  /**
+   * Sets the current loads of paths with any congestion.
+   * Paths not contained in the given map are considered not congested.
+   * <p>
+   * Routing tables built before are not affected. The paths whose loads have changed need to be
+   * updated in them for the change to take effect.
+   * </p>
+   *
+   * @param loads The loads, by path name.
+   */
+  public void setLoads(@Nonnull Map<String, Double> loads) {
+    requireNonNull(loads, "loads");
+
+    loadsByPath = Collections.unmodifiableMap(new HashMap<>(loads));
+  }
+}
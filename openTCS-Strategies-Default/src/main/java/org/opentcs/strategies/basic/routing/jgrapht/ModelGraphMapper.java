@@ -31,4 +31,16 @@ public interface ModelGraphMapper {
   Graph<String, ModelEdge> translateModel(Collection<Point> points,
                                           Collection<Path> paths,
                                           Vehicle vehicle);
+
+  /**
+   * Updates the edges representing the given path in a graph created by
+   * {@link #translateModel(Collection, Collection, Vehicle)}, so they reflect the path's current
+   * state (e.g. its lock state or routing costs).
+   * Edges representing other paths are not modified.
+   *
+   * @param graph The graph to be updated.
+   * @param path The path in its current state.
+   * @param vehicle The vehicle for which the graph was built.
+   */
+  void updateEdges(Graph<String, ModelEdge> graph, Path path, Vehicle vehicle);
 }
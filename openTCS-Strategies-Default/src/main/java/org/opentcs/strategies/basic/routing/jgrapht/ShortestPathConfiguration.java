@@ -30,7 +30,16 @@ public interface ShortestPathConfiguration {
         "The routing algorithm to be used. Valid values:",
         "'DIJKSTRA': Routes are computed using Dijkstra's algorithm.",
         "'BELLMAN_FORD': Routes are computed using the Bellman-Ford algorithm.",
-        "'FLOYD_WARSHALL': Routes are computed using the Floyd-Warshall algorithm."})
+        "'FLOYD_WARSHALL': Routes are computed using the Floyd-Warshall algorithm.",
+        "'CSR_DIJKSTRA': Routes are computed using Dijkstra's algorithm on a compiled graph.",
+        "'CSR_ASTAR': Routes are computed using A* on a compiled graph, with points having the",
+        "property 'astar' as landmarks.",
+        "'CSR_COST_MATRIX': Like 'CSR_ASTAR', but costs are looked up in a matrix of the costs",
+        "between all points. The matrix is computed in the background and kept in a file in the",
+        "kernel's data directory, to be reused after restarts. Not combinable with the 'CONGESTION'",
+        "evaluator, with which 'CSR_ASTAR' is used instead.",
+        "'CONTRACTION_HIERARCHY': Routes are computed using a contraction hierarchy of a compiled",
+        "graph. Preprocessing takes longer, but queries are fast even for very large plants."})
   Algorithm algorithm();
 
   @ConfigurationEntry(
@@ -41,15 +50,46 @@ public interface ShortestPathConfiguration {
         "'DISTANCE': A route's cost is the sum of the lengths of its paths.",
         "'TRAVELTIME': A route's cost is the vehicle's expected driving time to the destination.",
         "'EXPLICIT': A route's cost is the sum of the explicitly given costs of its paths.",
-        "'EXPLICIT_PROPERTIES': Like 'EXPLICIT', but the costs are extracted from path properties."
+        "'EXPLICIT_PROPERTIES': Like 'EXPLICIT', but the costs are extracted from path properties.",
+        "'CONGESTION': Adds a penalty for the paths' current congestion (vehicles occupying or",
+        "waiting for them, delays measured while travelling them) to the costs computed by the",
+        "other evaluators."
       })
   List<EvaluatorType> edgeEvaluators();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The interval in which the congestion penalties are updated in the routing tables (in ms).",
+        "Only used with the 'CONGESTION' evaluator."})
+  int congestionRefreshInterval();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The time after which the congestion penalty of a path has decayed to half its value if no",
+        "more congestion is observed on it (in ms).",
+        "Only used with the 'CONGESTION' evaluator."})
+  int congestionPenaltyHalfLife();
+
+  @ConfigurationEntry(
+      type = "Double",
+      description = {
+        "The factor a path's congestion is multiplied with to compute its penalty.",
+        "With a factor of 1.0, each vehicle occupying or waiting for a path adds the path's costs",
+        "computed by the other evaluators once.",
+        "Only used with the 'CONGESTION' evaluator."})
+  double congestionPenaltyFactor();
+
   enum Algorithm {
     ASTAR(false),
     DIJKSTRA(false),
     BELLMAN_FORD(true),
-    FLOYD_WARSHALL(false);
+    FLOYD_WARSHALL(false),
+    CSR_DIJKSTRA(false),
+    CSR_ASTAR(false),
+    CSR_COST_MATRIX(false),
+    CONTRACTION_HIERARCHY(false);
 
     private final boolean handlingNegativeCosts;
 
@@ -71,6 +111,7 @@ public interface ShortestPathConfiguration {
      */
     @Deprecated
     EXPLICIT,
-    EXPLICIT_PROPERTIES
+    EXPLICIT_PROPERTIES,
+    CONGESTION
   }
 }
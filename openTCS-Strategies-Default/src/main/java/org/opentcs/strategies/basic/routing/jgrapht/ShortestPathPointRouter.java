@@ -14,8 +14,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
+import javax.annotation.Nullable;
+import org.jgrapht.Graph;
 import org.jgrapht.GraphPath;
 import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm.SingleSourcePaths;
+import org.jgrapht.alg.shortestpath.BellmanFordShortestPath;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
@@ -41,12 +46,32 @@ public class ShortestPathPointRouter
   private static final Logger LOG = LoggerFactory.getLogger(ShortestPathPointRouter.class);
 
   private final ShortestPathAlgorithm<String, ModelEdge> algo;
+  /**
+   * The graph the algorithm works on, if known.
+   */
+  @Nullable
+  private final Graph<String, ModelEdge> graph;
 
   private final Map<String, Point> points = new HashMap<>();
 
   public ShortestPathPointRouter(ShortestPathAlgorithm<String, ModelEdge> algo,
                                  Collection<Point> points) {
+    this(algo, null, points);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param algo The shortest path algorithm.
+   * @param graph The graph the algorithm works on. May be <code>null</code>, in which case the
+   * graph cannot be updated incrementally.
+   * @param points The points in the graph.
+   */
+  public ShortestPathPointRouter(ShortestPathAlgorithm<String, ModelEdge> algo,
+                                 @Nullable Graph<String, ModelEdge> graph,
+                                 Collection<Point> points) {
     this.algo = requireNonNull(algo, "algo");
+    this.graph = graph;
     requireNonNull(points, "points");
 
     for (Point point : points) {
@@ -99,6 +124,65 @@ public class ShortestPathPointRouter
     return (long) graphPath.getWeight();
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * With Dijkstra's or the Bellman-Ford algorithm, the costs are computed in a single search from
+   * the starting point. With other algorithms, for which this would not be cheaper, they are
+   * computed for each destination point separately.
+   * </p>
+   */
+  @Override
+  public Map<Point, Long> getCosts(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    if (destPoints.size() < 2
+        || !(algo instanceof DijkstraShortestPath || algo instanceof BellmanFordShortestPath)) {
+      return PointRouter.super.getCosts(srcPoint, destPoints);
+    }
+
+    SingleSourcePaths<String, ModelEdge> paths = algo.getPaths(srcPoint.getName());
+    Map<Point, Long> result = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+        result.put(destPoint, 0L);
+        continue;
+      }
+      double weight = paths.getWeight(destPoint.getName());
+      result.put(destPoint, weight == Double.POSITIVE_INFINITY ? INFINITE_COSTS : (long) weight);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the shortest path algorithm.
+   *
+   * @return The shortest path algorithm.
+   */
+  ShortestPathAlgorithm<String, ModelEdge> getAlgorithm() {
+    return algo;
+  }
+
+  /**
+   * Returns the graph the algorithm works on.
+   *
+   * @return The graph the algorithm works on, or <code>null</code>, if it is not known.
+   */
+  @Nullable
+  Graph<String, ModelEdge> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the points in the graph.
+   *
+   * @return The points in the graph.
+   */
+  Collection<Point> getPoints() {
+    return points.values();
+  }
+
   private List<Route.Step> translateToSteps(GraphPath<String, ModelEdge> graphPath) {
     List<ModelEdge> edges = graphPath.getEdgeList();
     List<Route.Step> result = new ArrayList<>(edges.size());
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.spacetime;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * The time window in which a point or path is expected to be occupied by a vehicle.
+ */
+public class Reservation {
+
+  /**
+   * The name of the reserved point or path.
+   */
+  private final String resourceName;
+  /**
+   * The name of the vehicle expected to occupy the resource.
+   */
+  private final String vehicleName;
+  /**
+   * The start of the time window (in ms, inclusive).
+   */
+  private final long start;
+  /**
+   * The end of the time window (in ms, exclusive).
+   */
+  private final long end;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param resourceName The name of the reserved point or path.
+   * @param vehicleName The name of the vehicle expected to occupy the resource.
+   * @param start The start of the time window (in ms, inclusive).
+   * @param end The end of the time window (in ms, exclusive).
+   */
+  public Reservation(@Nonnull String resourceName,
+                     @Nonnull String vehicleName,
+                     long start,
+                     long end) {
+    this.resourceName = requireNonNull(resourceName, "resourceName");
+    this.vehicleName = requireNonNull(vehicleName, "vehicleName");
+    checkArgument(start < end, "start %s not before end %s", start, end);
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Returns the name of the reserved point or path.
+   *
+   * @return The name of the reserved point or path.
+   */
+  @Nonnull
+  public String getResourceName() {
+    return resourceName;
+  }
+
+  /**
+   * Returns the name of the vehicle expected to occupy the resource.
+   *
+   * @return The name of the vehicle.
+   */
+  @Nonnull
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  /**
+   * Returns the start of the time window.
+   *
+   * @return The start of the time window (in ms, inclusive).
+   */
+  public long getStart() {
+    return start;
+  }
+
+  /**
+   * Returns the end of the time window.
+   *
+   * @return The end of the time window (in ms, exclusive).
+   */
+  public long getEnd() {
+    return end;
+  }
+
+  @Override
+  public String toString() {
+    return "Reservation{"
+        + "resourceName=" + resourceName
+        + ", vehicleName=" + vehicleName
+        + ", start=" + start
+        + ", end=" + end
+        + '}';
+  }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.spacetime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the time windows in which points and paths are expected to be occupied by vehicles.
+ * <p>
+ * Instances are not thread-safe. Reading from an instance concurrently is safe as long as it is
+ * not modified at the same time.
+ * </p>
+ */
+public class ReservationTable {
+
+  /**
+   * The free intervals of a resource without any reservations, covering all of time.
+   */
+  private static final long[] ALWAYS_FREE = {Long.MIN_VALUE, Long.MAX_VALUE};
+  /**
+   * The reservations, by vehicle name.
+   */
+  private final Map<String, List<Reservation>> reservationsByVehicle = new HashMap<>();
+  /**
+   * The reservations, by resource name, each list sorted by the reservations' start.
+   */
+  private final Map<String, List<Reservation>> reservationsByResource = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   */
+  public ReservationTable() {
+  }
+
+  /**
+   * Replaces the reservations of the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param reservations The vehicle's new reservations.
+   */
+  public void setReservations(@Nonnull String vehicleName,
+                              @Nonnull Collection<Reservation> reservations) {
+    requireNonNull(vehicleName, "vehicleName");
+    requireNonNull(reservations, "reservations");
+
+    release(vehicleName);
+    if (reservations.isEmpty()) {
+      return;
+    }
+    for (Reservation reservation : reservations) {
+      if (!Objects.equals(reservation.getVehicleName(), vehicleName)) {
+        throw new IllegalArgumentException("Reservation not for vehicle " + vehicleName + ": "
+            + reservation);
+      }
+      List<Reservation> resourceReservations
+          = reservationsByResource.computeIfAbsent(reservation.getResourceName(),
+                                                   name -> new ArrayList<>());
+      int index = Collections.binarySearch(resourceReservations,
+                                           reservation,
+                                           Comparator.comparingLong(Reservation::getStart));
+      resourceReservations.add(index < 0 ? -index - 1 : index, reservation);
+    }
+    reservationsByVehicle.put(vehicleName, new ArrayList<>(reservations));
+  }
+
+  /**
+   * Returns the reservations of the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @return The vehicle's reservations.
+   */
+  @Nonnull
+  public List<Reservation> getReservations(@Nonnull String vehicleName) {
+    requireNonNull(vehicleName, "vehicleName");
+
+    return new ArrayList<>(reservationsByVehicle.getOrDefault(vehicleName,
+                                                              Collections.emptyList()));
+  }
+
+  /**
+   * Removes all reservations of the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   */
+  public void release(@Nonnull String vehicleName) {
+    requireNonNull(vehicleName, "vehicleName");
+
+    List<Reservation> reservations = reservationsByVehicle.remove(vehicleName);
+    if (reservations == null) {
+      return;
+    }
+    for (Reservation reservation : reservations) {
+      List<Reservation> resourceReservations
+          = reservationsByResource.get(reservation.getResourceName());
+      if (resourceReservations == null) {
+        continue;
+      }
+      resourceReservations.remove(reservation);
+      if (resourceReservations.isEmpty()) {
+        reservationsByResource.remove(reservation.getResourceName());
+      }
+    }
+  }
+
+  /**
+   * Removes all reservations ending at or before the given point of time.
+   *
+   * @param time The point of time (in ms).
+   */
+  public void releaseBefore(long time) {
+    for (Iterator<List<Reservation>> iter = reservationsByVehicle.values().iterator();
+         iter.hasNext();) {
+      List<Reservation> reservations = iter.next();
+      reservations.removeIf(reservation -> reservation.getEnd() <= time);
+      if (reservations.isEmpty()) {
+        iter.remove();
+      }
+    }
+    for (Iterator<List<Reservation>> iter = reservationsByResource.values().iterator();
+         iter.hasNext();) {
+      List<Reservation> reservations = iter.next();
+      reservations.removeIf(reservation -> reservation.getEnd() <= time);
+      if (reservations.isEmpty()) {
+        iter.remove();
+      }
+    }
+  }
+
+  /**
+   * Removes all reservations.
+   */
+  public void clear() {
+    reservationsByVehicle.clear();
+    reservationsByResource.clear();
+  }
+
+  /**
+   * Returns the time windows in which the given resource is not reserved.
+   *
+   * @param resourceName The name of the resource.
+   * @param ignoredVehicleName The name of a vehicle whose reservations are to be ignored, or
+   * <code>null</code>.
+   * @return The start (inclusive) and end (exclusive) of every time window in which the resource
+   * is free, in ascending order. The first window starts at {@link Long#MIN_VALUE}, the last one
+   * ends at {@link Long#MAX_VALUE}. The returned array must not be modified.
+   */
+  @Nonnull
+  public long[] getFreeIntervals(@Nonnull String resourceName,
+                                 @Nullable String ignoredVehicleName) {
+    requireNonNull(resourceName, "resourceName");
+
+    List<Reservation> reservations = reservationsByResource.get(resourceName);
+    if (reservations == null) {
+      return ALWAYS_FREE;
+    }
+
+    long[] result = new long[2 * (reservations.size() + 1)];
+    int length = 0;
+    long freeStart = Long.MIN_VALUE;
+    for (Reservation reservation : reservations) {
+      if (Objects.equals(reservation.getVehicleName(), ignoredVehicleName)
+          || reservation.getEnd() <= freeStart) {
+        continue;
+      }
+      if (reservation.getStart() > freeStart) {
+        result[length++] = freeStart;
+        result[length++] = reservation.getStart();
+      }
+      freeStart = reservation.getEnd();
+    }
+    result[length++] = freeStart;
+    result[length++] = Long.MAX_VALUE;
+    return length == result.length ? result : Arrays.copyOf(result, length);
+  }
+}
@@ -0,0 +1,521 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.spacetime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.jgrapht.Graph;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Computes routes that minimize the expected time of arrival, taking into account the time windows
+ * in which points and paths are reserved for other vehicles.
+ * <p>
+ * The search is a safe interval path planning: For every point, the time windows in which it is
+ * not reserved are its safe intervals, and the search finds the earliest arrival in each safe
+ * interval of each point it reaches, with the vehicle waiting at points where necessary. As with
+ * the resource allocation of the default scheduler, a vehicle is expected to occupy a point from
+ * the moment it departs to it until it arrives at the next point, and to occupy a path while it
+ * travels along it.
+ * </p>
+ * <p>
+ * Travel times are computed from the paths' lengths and the maximum velocities of the paths and
+ * the vehicle. Paths the vehicle cannot travel along in the respective direction are ignored.
+ * </p>
+ * <p>
+ * Instances are safe for concurrent use, provided the reservation table used is not modified
+ * concurrently.
+ * </p>
+ */
+public class SpaceTimePlanner {
+
+  /**
+   * Marks that no departure is possible.
+   */
+  private static final long NO_DEPARTURE = Long.MAX_VALUE;
+  /**
+   * The vehicle the planner computes routes for.
+   */
+  private final Vehicle vehicle;
+  /**
+   * The points, by vertex index.
+   */
+  private final Point[] points;
+  /**
+   * The vertex indices, by point name.
+   */
+  private final Map<String, Integer> vertexIndices = new HashMap<>();
+  /**
+   * The index of every vertex's first outgoing edge, with an additional entry for the end of the
+   * last vertex's edges.
+   */
+  private final int[] firstEdges;
+  /**
+   * The edges' source vertices.
+   */
+  private final int[] edgeSources;
+  /**
+   * The edges' target vertices.
+   */
+  private final int[] edgeTargets;
+  /**
+   * The edges' travel times (in ms).
+   */
+  private final long[] edgeDurations;
+  /**
+   * The edges' paths.
+   */
+  private final Path[] edgePaths;
+  /**
+   * Whether the edges lead along their paths in reverse direction.
+   */
+  private final boolean[] edgeReverse;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param graph The graph to compute routes on.
+   * @param points The points in the graph.
+   * @param vehicle The vehicle to compute routes for.
+   */
+  public SpaceTimePlanner(@Nonnull Graph<String, ModelEdge> graph,
+                          @Nonnull Collection<Point> points,
+                          @Nonnull Vehicle vehicle) {
+    requireNonNull(graph, "graph");
+    requireNonNull(points, "points");
+    this.vehicle = requireNonNull(vehicle, "vehicle");
+
+    this.points = points.toArray(new Point[points.size()]);
+    for (int i = 0; i < this.points.length; i++) {
+      vertexIndices.put(this.points[i].getName(), i);
+    }
+
+    List<List<ModelEdge>> outgoingEdges = new ArrayList<>(this.points.length);
+    int edgeCount = 0;
+    for (Point point : this.points) {
+      List<ModelEdge> edges = new ArrayList<>();
+      if (graph.containsVertex(point.getName())) {
+        for (ModelEdge edge : graph.outgoingEdgesOf(point.getName())) {
+          if (vertexIndices.containsKey(graph.getEdgeTarget(edge))
+              && getTravelTime(edge.getModelPath(), edge.isTravellingReverse(), vehicle) >= 0) {
+            edges.add(edge);
+          }
+        }
+      }
+      outgoingEdges.add(edges);
+      edgeCount += edges.size();
+    }
+
+    firstEdges = new int[this.points.length + 1];
+    edgeSources = new int[edgeCount];
+    edgeTargets = new int[edgeCount];
+    edgeDurations = new long[edgeCount];
+    edgePaths = new Path[edgeCount];
+    edgeReverse = new boolean[edgeCount];
+    int edgeIndex = 0;
+    for (int vertex = 0; vertex < this.points.length; vertex++) {
+      firstEdges[vertex] = edgeIndex;
+      for (ModelEdge edge : outgoingEdges.get(vertex)) {
+        edgeSources[edgeIndex] = vertex;
+        edgeTargets[edgeIndex] = vertexIndices.get(graph.getEdgeTarget(edge));
+        edgePaths[edgeIndex] = edge.getModelPath();
+        edgeReverse[edgeIndex] = edge.isTravellingReverse();
+        edgeDurations[edgeIndex] = getTravelTime(edge.getModelPath(),
+                                                 edge.isTravellingReverse(),
+                                                 vehicle);
+        edgeIndex++;
+      }
+    }
+    firstEdges[this.points.length] = edgeIndex;
+  }
+
+  /**
+   * Computes the route from the given source point to the given destination point with the
+   * earliest expected time of arrival.
+   *
+   * @param srcPoint The source point.
+   * @param destPoint The destination point.
+   * @param departureTime The point of time the vehicle departs from the source point (in ms).
+   * @param dwellTime The time the vehicle is expected to remain at the destination point after
+   * arriving (in ms). Only arrivals leaving the destination point unreserved for this long are
+   * considered.
+   * @param reservations The reservations of other vehicles.
+   * @param vehicleName The name of the vehicle the route is computed for. Its own reservations are
+   * ignored.
+   * @return The route, or <code>null</code>, if there is no route to the destination point.
+   */
+  @Nullable
+  public SpaceTimeRoute computeRoute(@Nonnull Point srcPoint,
+                                     @Nonnull Point destPoint,
+                                     long departureTime,
+                                     long dwellTime,
+                                     @Nonnull ReservationTable reservations,
+                                     @Nonnull String vehicleName) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+    requireNonNull(reservations, "reservations");
+    requireNonNull(vehicleName, "vehicleName");
+
+    Integer source = vertexIndices.get(srcPoint.getName());
+    Integer target = vertexIndices.get(destPoint.getName());
+    if (source == null || target == null) {
+      return null;
+    }
+
+    return new Search(reservations, vehicleName).run(source, target, departureTime, dwellTime);
+  }
+
+  /**
+   * Computes the reservations for a vehicle travelling along the given routes, one after the
+   * other, with the travel times the planner expects.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param routes The steps of the routes, in the order they are travelled.
+   * @param departureTime The point of time the vehicle departs (in ms).
+   * @param dwellTime The time the vehicle is expected to remain at every route's destination point
+   * (in ms).
+   * @param clearance The time added before and after every reservation (in ms).
+   * @return The reservations.
+   */
+  @Nonnull
+  public List<Reservation> computeReservations(@Nonnull String vehicleName,
+                                               @Nonnull List<List<Route.Step>> routes,
+                                               long departureTime,
+                                               long dwellTime,
+                                               long clearance) {
+    requireNonNull(vehicleName, "vehicleName");
+    requireNonNull(routes, "routes");
+
+    List<Reservation> result = new ArrayList<>();
+    long time = departureTime;
+    Point currentPoint = null;
+    long currentPointSince = departureTime;
+    for (List<Route.Step> steps : routes) {
+      for (Route.Step step : steps) {
+        if (step.getPath() == null) {
+          if (currentPoint == null) {
+            currentPoint = step.getDestinationPoint();
+          }
+          continue;
+        }
+        if (currentPoint == null) {
+          currentPoint = step.getSourcePoint();
+        }
+        boolean reverse = !Objects.equals(step.getPath().getSourcePoint().getName(),
+                                          step.getSourcePoint().getName());
+        long duration = Math.max(0, getTravelTime(step.getPath(), reverse, vehicle));
+        // The source point remains occupied until the vehicle arrives at the destination point.
+        addReservation(result,
+                       currentPoint.getName(),
+                       vehicleName,
+                       currentPointSince - clearance,
+                       time + duration + clearance);
+        addReservation(result,
+                       step.getPath().getName(),
+                       vehicleName,
+                       time - clearance,
+                       time + duration + clearance);
+        currentPoint = step.getDestinationPoint();
+        currentPointSince = time;
+        time += duration;
+      }
+      time += dwellTime;
+    }
+    if (currentPoint != null) {
+      addReservation(result,
+                     currentPoint.getName(),
+                     vehicleName,
+                     currentPointSince - clearance,
+                     time + clearance);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the time the given vehicle needs to travel along the given path.
+   *
+   * @param path The path.
+   * @param reverse Whether the vehicle travels along the path in reverse direction.
+   * @param vehicle The vehicle.
+   * @return The travel time (in ms, at least 1), or -1, if the vehicle cannot travel along the
+   * path in the given direction.
+   */
+  public static long getTravelTime(@Nonnull Path path, boolean reverse, @Nonnull Vehicle vehicle) {
+    requireNonNull(path, "path");
+    requireNonNull(vehicle, "vehicle");
+
+    long maxVelocity = reverse
+        ? Math.min(vehicle.getMaxReverseVelocity(), path.getMaxReverseVelocity())
+        : Math.min(vehicle.getMaxVelocity(), path.getMaxVelocity());
+    if (maxVelocity <= 0) {
+      return -1;
+    }
+    // Lengths are in mm, velocities in mm/s.
+    return Math.max(1, (path.getLength() * 1000 + maxVelocity - 1) / maxVelocity);
+  }
+
+  private static void addReservation(List<Reservation> reservations,
+                                     String resourceName,
+                                     String vehicleName,
+                                     long start,
+                                     long end) {
+    if (start < end) {
+      reservations.add(new Reservation(resourceName, vehicleName, start, end));
+    }
+  }
+
+  private static long labelKey(int vertex, int interval) {
+    return ((long) vertex << 32) | interval;
+  }
+
+  /**
+   * Returns the index of the first free interval ending after the given point of time.
+   *
+   * @param freeIntervals The free intervals.
+   * @param time The point of time.
+   * @return The index of the interval.
+   */
+  private static int firstIntervalEndingAfter(long[] freeIntervals, long time) {
+    int low = 0;
+    int high = freeIntervals.length / 2 - 1;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (freeIntervals[2 * middle + 1] > time) {
+        high = middle;
+      }
+      else {
+        low = middle + 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * A single search, with the free intervals of the points and paths it has looked at.
+   */
+  private class Search {
+
+    /**
+     * The reservations of other vehicles.
+     */
+    private final ReservationTable reservations;
+    /**
+     * The name of the vehicle whose reservations are ignored.
+     */
+    private final String vehicleName;
+    /**
+     * The free intervals of the points, by vertex index, if already looked up.
+     */
+    private final long[][] vertexIntervals = new long[points.length][];
+    /**
+     * The free intervals of the edges' paths, by edge index, if already looked up.
+     */
+    private final long[][] edgeIntervals = new long[edgePaths.length][];
+    /**
+     * The labels created, by vertex and interval.
+     */
+    private final Map<Long, Label> labels = new HashMap<>();
+    /**
+     * The labels not yet settled, ordered by their arrival times.
+     */
+    private final PriorityQueue<Label> queue
+        = new PriorityQueue<>(Comparator.comparingLong((Label label) -> label.arrival)
+            .thenComparingInt(label -> label.vertex));
+
+    /**
+     * Creates a new instance.
+     *
+     * @param reservations The reservations of other vehicles.
+     * @param vehicleName The name of the vehicle whose reservations are ignored.
+     */
+    Search(ReservationTable reservations, String vehicleName) {
+      this.reservations = reservations;
+      this.vehicleName = vehicleName;
+    }
+
+    @Nullable
+    SpaceTimeRoute run(int source, int target, long departureTime, long dwellTime) {
+      // The vehicle is at the source point already, so reservations for it before departure are
+      // ignored.
+      int sourceInterval = firstIntervalEndingAfter(vertexIntervals(source), departureTime);
+      relax(source, sourceInterval, departureTime, null, -1);
+
+      while (!queue.isEmpty()) {
+        Label label = queue.poll();
+        if (label.settled || labels.get(labelKey(label.vertex, label.interval)) != label) {
+          continue;
+        }
+        label.settled = true;
+
+        long intervalEnd = vertexIntervals(label.vertex)[2 * label.interval + 1];
+        if (label.vertex == target && label.arrival + dwellTime <= intervalEnd) {
+          return new SpaceTimeRoute(tracePath(label), departureTime, label.arrival);
+        }
+
+        for (int edge = firstEdges[label.vertex]; edge < firstEdges[label.vertex + 1]; edge++) {
+          expand(label, intervalEnd, edge);
+        }
+      }
+      return null;
+    }
+
+    private void expand(Label label, long intervalEnd, int edge) {
+      long duration = edgeDurations[edge];
+      // The vehicle occupies its current point until it arrives at the next one.
+      if (label.arrival + duration > intervalEnd) {
+        return;
+      }
+
+      int nextVertex = edgeTargets[edge];
+      long[] nextIntervals = vertexIntervals(nextVertex);
+      long[] pathIntervals = edgeIntervals(edge);
+      for (int interval = firstIntervalEndingAfter(nextIntervals, label.arrival + duration);
+           interval < nextIntervals.length / 2;
+           interval++) {
+        long nextStart = nextIntervals[2 * interval];
+        long nextEnd = nextIntervals[2 * interval + 1];
+        long departure = earliestDeparture(pathIntervals,
+                                           Math.max(label.arrival, nextStart),
+                                           duration);
+        if (departure == NO_DEPARTURE || departure + duration > intervalEnd) {
+          // Later intervals of the next point would only allow later departures.
+          return;
+        }
+        if (departure + duration < nextEnd) {
+          relax(nextVertex, interval, departure + duration, label, edge);
+        }
+      }
+    }
+
+    /**
+     * Returns the earliest departure at or after the given point of time at which the path is
+     * free for the given duration.
+     */
+    private long earliestDeparture(long[] pathIntervals, long time, long duration) {
+      for (int interval = firstIntervalEndingAfter(pathIntervals, time + duration - 1);
+           interval < pathIntervals.length / 2;
+           interval++) {
+        long departure = Math.max(time, pathIntervals[2 * interval]);
+        if (departure + duration <= pathIntervals[2 * interval + 1]) {
+          return departure;
+        }
+      }
+      return NO_DEPARTURE;
+    }
+
+    private void relax(int vertex, int interval, long arrival, Label parent, int edge) {
+      long key = labelKey(vertex, interval);
+      Label label = labels.get(key);
+      if (label != null && (label.settled || label.arrival <= arrival)) {
+        return;
+      }
+      // Replace the label instead of changing it, leaving the stale one in the queue to be skipped.
+      label = new Label(vertex, interval, arrival, parent, edge);
+      labels.put(key, label);
+      queue.add(label);
+    }
+
+    private List<Route.Step> tracePath(Label label) {
+      List<Integer> edges = new ArrayList<>();
+      for (Label current = label; current.parent != null; current = current.parent) {
+        edges.add(current.edge);
+      }
+      Collections.reverse(edges);
+
+      List<Route.Step> result = new ArrayList<>(edges.size());
+      for (int edge : edges) {
+        result.add(new Route.Step(edgePaths[edge],
+                                  points[edgeSources[edge]],
+                                  points[edgeTargets[edge]],
+                                  edgeReverse[edge]
+                                      ? Vehicle.Orientation.BACKWARD
+                                      : Vehicle.Orientation.FORWARD,
+                                  result.size()));
+      }
+      return result;
+    }
+
+    private long[] vertexIntervals(int vertex) {
+      if (vertexIntervals[vertex] == null) {
+        vertexIntervals[vertex] = reservations.getFreeIntervals(points[vertex].getName(),
+                                                                vehicleName);
+      }
+      return vertexIntervals[vertex];
+    }
+
+    private long[] edgeIntervals(int edge) {
+      if (edgeIntervals[edge] == null) {
+        edgeIntervals[edge] = reservations.getFreeIntervals(edgePaths[edge].getName(),
+                                                            vehicleName);
+      }
+      return edgeIntervals[edge];
+    }
+  }
+
+  /**
+   * The earliest known arrival at a point within one of its free intervals.
+   */
+  private static class Label {
+
+    /**
+     * The vertex index of the point.
+     */
+    private final int vertex;
+    /**
+     * The index of the point's free interval.
+     */
+    private final int interval;
+    /**
+     * The arrival (in ms).
+     */
+    private final long arrival;
+    /**
+     * The label the vehicle departs from to arrive here, or <code>null</code> for the source.
+     */
+    private final Label parent;
+    /**
+     * The edge the vehicle travels along to arrive here.
+     */
+    private final int edge;
+    /**
+     * Whether the arrival is known to be the earliest possible one.
+     */
+    private boolean settled;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param vertex The vertex index of the point.
+     * @param interval The index of the point's free interval.
+     * @param arrival The arrival (in ms).
+     * @param parent The label the vehicle departs from to arrive here, or <code>null</code>.
+     * @param edge The edge the vehicle travels along to arrive here.
+     */
+    Label(int vertex, int interval, long arrival, Label parent, int edge) {
+      this.vertex = vertex;
+      this.interval = interval;
+      this.arrival = arrival;
+      this.parent = parent;
+      this.edge = edge;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.spacetime;
+
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.order.Route;
+
+/**
+ * A route computed by a {@link SpaceTimePlanner}, along with the expected time of arrival.
+ */
+public class SpaceTimeRoute {
+
+  /**
+   * The steps of the route.
+   */
+  private final List<Route.Step> steps;
+  /**
+   * The point of time the vehicle departs from the route's source point (in ms).
+   */
+  private final long departureTime;
+  /**
+   * The point of time the vehicle is expected to arrive at the route's destination point (in ms).
+   */
+  private final long arrivalTime;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param steps The steps of the route.
+   * @param departureTime The point of time the vehicle departs from the route's source point
+   * (in ms).
+   * @param arrivalTime The point of time the vehicle is expected to arrive at the route's
+   * destination point (in ms), including the expected waiting along the route.
+   */
+  public SpaceTimeRoute(@Nonnull List<Route.Step> steps, long departureTime, long arrivalTime) {
+    this.steps = requireNonNull(steps, "steps");
+    this.departureTime = departureTime;
+    this.arrivalTime = arrivalTime;
+  }
+
+  /**
+   * Returns the steps of the route.
+   * The list is empty if the route's source point is its destination point.
+   *
+   * @return The steps of the route.
+   */
+  @Nonnull
+  public List<Route.Step> getSteps() {
+    return new ArrayList<>(steps);
+  }
+
+  /**
+   * Returns the point of time the vehicle departs from the route's source point.
+   *
+   * @return The point of time (in ms).
+   */
+  public long getDepartureTime() {
+    return departureTime;
+  }
+
+  /**
+   * Returns the point of time the vehicle is expected to arrive at the route's destination point,
+   * including the expected waiting along the route.
+   *
+   * @return The point of time (in ms).
+   */
+  public long getArrivalTime() {
+    return arrivalTime;
+  }
+
+  /**
+   * Returns the expected duration of the route, including the expected waiting along the route.
+   *
+   * @return The duration (in ms).
+   */
+  public long getDuration() {
+    return arrivalTime - departureTime;
+  }
+}
@@ -74,6 +74,15 @@ abstract class AllocatorCommand
     return client;
   }
 
+  /**
+   * Returns the point of time at which the command was created.
+   *
+   * @return The point of time at which the command was created.
+   */
+  public long getCreationTime() {
+    return creationTime;
+  }
+
   /**
    * Indicates resources being released by a client.
    */
@@ -120,19 +129,36 @@ abstract class AllocatorCommand
   public static class RetryAllocates
       extends AllocatorCommand {
 
+    /**
+     * The released resources.
+     */
+    private final Set<TCSResource<?>> resources;
+
     /**
      * Creates a new instance.
      *
      * @param client The scheduler client this command is associated with.
+     * @param resources The released resources.
      */
-    public RetryAllocates(Client client) {
+    public RetryAllocates(Client client, Set<TCSResource<?>> resources) {
       super(3, client);
+      this.resources = requireNonNull(resources, "resources");
+    }
+
+    /**
+     * Returns the released resources.
+     *
+     * @return The released resources.
+     */
+    public Set<TCSResource<?>> getResources() {
+      return resources;
     }
 
     @Override
     public String toString() {
       return "RetryAllocates{"
           + "client=" + getClient()
+          + ", resources=" + resources
           + '}';
     }
   }
@@ -7,8 +7,10 @@
  */
 package org.opentcs.strategies.basic.scheduling;
 
+import java.util.HashSet;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
-import java.util.Queue;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nonnull;
@@ -45,7 +47,19 @@ class AllocatorTask
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations;
+  private final DeferredAllocations deferredAllocations;
+  /**
+   * The graph of deferred allocations waiting for each other.
+   */
+  private final WaitForGraph waitForGraph;
+  /**
+   * Resolves deadlocks.
+   */
+  private final DeadlockResolver deadlockResolver;
+  /**
+   * Records how often and how long allocations had to wait for resources.
+   */
+  private final ContentionStatistics contentionStatistics;
   /**
    * Executes tasks.
    */
@@ -64,7 +78,10 @@ class AllocatorTask
    */
   public AllocatorTask(@Nonnull InternalPlantModelService plantModelService,
                        @Nonnull ReservationPool reservationPool,
-                       @Nonnull Queue<AllocatorCommand.Allocate> deferredAllocations,
+                       @Nonnull DeferredAllocations deferredAllocations,
+                       @Nonnull WaitForGraph waitForGraph,
+                       @Nonnull DeadlockResolver deadlockResolver,
+                       @Nonnull ContentionStatistics contentionStatistics,
                        @Nonnull Scheduler.Module allocationAdvisor,
                        @Nonnull ScheduledExecutorService kernelExecutor,
                        @Nonnull @GlobalSyncObject Object globalSyncObject,
@@ -72,6 +89,9 @@ class AllocatorTask
     this.plantModelService = requireNonNull(plantModelService, "plantModelService");
     this.reservationPool = requireNonNull(reservationPool, "reservationPool");
     this.deferredAllocations = requireNonNull(deferredAllocations, "deferredAllocations");
+    this.waitForGraph = requireNonNull(waitForGraph, "waitForGraph");
+    this.deadlockResolver = requireNonNull(deadlockResolver, "deadlockResolver");
+    this.contentionStatistics = requireNonNull(contentionStatistics, "contentionStatistics");
     this.allocationAdvisor = requireNonNull(allocationAdvisor, "allocationAdvisor");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
@@ -85,7 +105,7 @@ class AllocatorTask
       processAllocate((AllocatorCommand.Allocate) command);
     }
     else if (command instanceof AllocatorCommand.RetryAllocates) {
-      scheduleRetryWaitingAllocations();
+      scheduleRetryWaitingAllocations(((AllocatorCommand.RetryAllocates) command).getResources());
     }
     else if (command instanceof AllocatorCommand.CheckAllocationsPrepared) {
       checkAllocationsPrepared((AllocatorCommand.CheckAllocationsPrepared) command);
@@ -99,15 +119,53 @@ class AllocatorTask
   }
 
   private void processAllocate(AllocatorCommand.Allocate command) {
-    if (!tryAllocate(command)) {
+    Set<TCSResource<?>> blockingResources = new HashSet<>();
+    if (!tryAllocate(command, blockingResources)) {
       LOG.debug("{}: Resources unavailable, deferring allocation...", command.getClient().getId());
-      deferredAllocations.add(command);
+      deferredAllocations.add(command, blockingResources);
+      synchronized (globalSyncObject) {
+        contentionStatistics.allocationDeferred(command, blockingResources);
+      }
+      if (!blockingResources.isEmpty()) {
+        checkForDeadlock(command);
+      }
       return;
     }
 
+    deadlockResolver.allocationGranted(command.getClient());
+    contentionStatistics.allocationCompleted(command, System.currentTimeMillis());
     checkAllocationsPrepared(command.getClient(), command.getResources());
   }
 
+  /**
+   * Checks if the given deferred allocation closes a cycle of allocations waiting for each other
+   * and lets the deadlock resolver handle it.
+   *
+   * @param command The deferred allocation.
+   */
+  private void checkForDeadlock(AllocatorCommand.Allocate command) {
+    Optional<Deadlock> deadlock;
+    synchronized (globalSyncObject) {
+      deadlock = waitForGraph.findDeadlock(command);
+    }
+    if (!deadlock.isPresent()) {
+      return;
+    }
+
+    Optional<AllocatorCommand.Allocate> withdrawnAllocation
+        = deadlockResolver.resolve(deadlock.get());
+    if (withdrawnAllocation.isPresent()
+        && deferredAllocations.remove(withdrawnAllocation.get())) {
+      Client client = withdrawnAllocation.get().getClient();
+      LOG.debug("{}: Withdrawing deferred allocation to resolve deadlock: {}",
+                client.getId(),
+                withdrawnAllocation.get().getResources());
+      contentionStatistics.allocationCompleted(withdrawnAllocation.get(),
+                                               System.currentTimeMillis());
+      client.allocationFailed(withdrawnAllocation.get().getResources());
+    }
+  }
+
   private void checkAllocationsPrepared(AllocatorCommand.CheckAllocationsPrepared command) {
     checkAllocationsPrepared(command.getClient(), command.getResources());
   }
@@ -129,7 +187,7 @@ class AllocatorTask
                resources);
       undoAllocate(client, resources);
       // See if others want the resources this one didn't, then.
-      scheduleRetryWaitingAllocations();
+      scheduleRetryWaitingAllocations(resources);
     }
   }
 
@@ -137,16 +195,20 @@ class AllocatorTask
    * Allocates the given set of resources, if possible.
    *
    * @param command Describes the requested allocation.
+   * @param blockingResources A set to which the requested resources allocated by other clients are
+   * added if the allocation is not possible.
    * @return <code>true</code> if, and only if, the given resources were allocated.
    */
-  private boolean tryAllocate(AllocatorCommand.Allocate command) {
+  private boolean tryAllocate(AllocatorCommand.Allocate command,
+                              Set<TCSResource<?>> blockingResources) {
     Scheduler.Client client = command.getClient();
     Set<TCSResource<?>> resources = command.getResources();
 
     synchronized (globalSyncObject) {
       LOG.debug("{}: Checking resource availability: {}...", client.getId(), resources);
       if (!reservationPool.resourcesAvailableForUser(resources, client)) {
-        LOG.debug("{}: Resources unavailable.", client.getId());
+        blockingResources.addAll(reservationPool.resourcesUnavailableForUser(resources, client));
+        LOG.debug("{}: Resources unavailable: {}", client.getId(), blockingResources);
         return false;
       }
 
@@ -161,9 +223,7 @@ class AllocatorTask
 
       LOG.debug("{}: All resources available, allocating...", client.getId());
       // Allocate resources.
-      for (TCSResource<?> curRes : command.getResources()) {
-        reservationPool.getReservationEntry(curRes).allocate(client);
-      }
+      reservationPool.allocate(client, command.getResources());
 
       return true;
     }
@@ -185,18 +245,30 @@ class AllocatorTask
   }
 
   /**
-   * Moves all waiting allocations back into the incoming queue so they can be rechecked.
+   * Moves the waiting allocations that may be granted after the release of the given resources
+   * back into the incoming queue so they can be rechecked.
+   *
+   * @param releasedResources The released resources.
    */
-  private void scheduleRetryWaitingAllocations() {
-    for (AllocatorCommand.Allocate allocate : deferredAllocations) {
+  private void scheduleRetryWaitingAllocations(Set<TCSResource<?>> releasedResources) {
+    int deferredCount = deferredAllocations.size();
+    List<AllocatorCommand.Allocate> retriable
+        = deferredAllocations.removeRetriable(releasedResources);
+    LOG.debug("Retrying {} of {} deferred allocations after release of {}",
+              retriable.size(),
+              deferredCount,
+              releasedResources);
+    for (AllocatorCommand.Allocate allocate : retriable) {
       kernelExecutor.submit(new AllocatorTask(plantModelService,
                                               reservationPool,
                                               deferredAllocations,
+                                              waitForGraph,
+                                              deadlockResolver,
+                                              contentionStatistics,
                                               allocationAdvisor,
                                               kernelExecutor,
                                               globalSyncObject,
                                               allocate));
     }
-    deferredAllocations.clear();
   }
 }
@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.opentcs.access.ResourceContention;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.data.model.TCSResource;
+import static org.opentcs.util.Assertions.checkInRange;
+
+/**
+ * Records, per resource, how often and how long allocations had to wait for it.
+ * <p>
+ * Each time an allocation is deferred, the resources allocated by other clients it is waiting for
+ * are recorded along with the waiting and the holding clients. When the allocation is eventually
+ * granted or withdrawn, the time it waited since its creation is added to all resources that
+ * blocked it at some point.
+ * </p>
+ */
+class ContentionStatistics {
+
+  /**
+   * Orders records by their total waiting time, then by their deferral count, descending.
+   */
+  private static final Comparator<ResourceRecord> HOTTEST_FIRST
+      = Comparator.comparingLong((ResourceRecord record) -> record.totalWaitTime)
+          .thenComparingLong(record -> record.deferralCount)
+          .reversed();
+  /**
+   * The reservation pool.
+   */
+  private final ReservationPool reservationPool;
+  /**
+   * The records, by resource.
+   */
+  private final Map<TCSResource<?>, ResourceRecord> records = new HashMap<>();
+  /**
+   * The resources that blocked each pending deferred allocation so far, by allocation.
+   */
+  private final Map<AllocatorCommand.Allocate, Set<TCSResource<?>>> blockingResourcesByAllocation
+      = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reservationPool The reservation pool, used to look up the clients holding resources.
+   * Must only be accessed while holding the global synchronization object.
+   */
+  ContentionStatistics(@Nonnull ReservationPool reservationPool) {
+    this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+  }
+
+  /**
+   * Records a deferred allocation.
+   * Must be called while holding the global synchronization object.
+   *
+   * @param allocation The deferred allocation.
+   * @param blockingResources The resources allocated by other clients the allocation is waiting
+   * for.
+   */
+  public synchronized void allocationDeferred(@Nonnull AllocatorCommand.Allocate allocation,
+                                              @Nonnull Set<TCSResource<?>> blockingResources) {
+    requireNonNull(allocation, "allocation");
+    requireNonNull(blockingResources, "blockingResources");
+
+    if (blockingResources.isEmpty()) {
+      return;
+    }
+
+    Set<TCSResource<?>> recordedResources
+        = blockingResourcesByAllocation.computeIfAbsent(allocation, alloc -> new HashSet<>());
+    for (TCSResource<?> resource : blockingResources) {
+      ResourceRecord record = records.computeIfAbsent(resource, ResourceRecord::new);
+      // A retried allocation deferred again because of the same resource counts only once.
+      if (recordedResources.add(resource)) {
+        record.deferralCount++;
+      }
+      record.waitingClients.add(allocation.getClient().getId());
+      Client holder = reservationPool.getReservationEntry(resource).getClient();
+      if (holder != null) {
+        record.holdingClients.add(holder.getId());
+      }
+    }
+  }
+
+  /**
+   * Records the completion of an allocation, i.e. that it was granted or withdrawn.
+   *
+   * @param allocation The allocation.
+   * @param completionTime The point of time at which the allocation was completed.
+   */
+  public synchronized void allocationCompleted(@Nonnull AllocatorCommand.Allocate allocation,
+                                               long completionTime) {
+    requireNonNull(allocation, "allocation");
+
+    Set<TCSResource<?>> blockingResources = blockingResourcesByAllocation.remove(allocation);
+    if (blockingResources != null) {
+      recordWaitTime(blockingResources, completionTime - allocation.getCreationTime());
+    }
+  }
+
+  /**
+   * Records the completion of all pending deferred allocations of the given client.
+   *
+   * @param client The client.
+   * @param completionTime The point of time at which the allocations were completed.
+   */
+  public synchronized void allocationsCompleted(@Nonnull Client client, long completionTime) {
+    requireNonNull(client, "client");
+
+    Iterator<Map.Entry<AllocatorCommand.Allocate, Set<TCSResource<?>>>> it
+        = blockingResourcesByAllocation.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<AllocatorCommand.Allocate, Set<TCSResource<?>>> entry = it.next();
+      if (entry.getKey().getClient() == client) {
+        recordWaitTime(entry.getValue(), completionTime - entry.getKey().getCreationTime());
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns the resources allocations had to wait for most.
+   *
+   * @param count The maximum number of resources to return.
+   * @return The resources allocations had to wait for most, in descending order of their total
+   * waiting time.
+   */
+  public synchronized List<ResourceContention> getHotResources(int count) {
+    checkInRange(count, 0, Integer.MAX_VALUE, "count");
+
+    return records.values().stream()
+        .sorted(HOTTEST_FIRST)
+        .limit(count)
+        .map(record -> record.toResourceContention())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Clears all records.
+   */
+  public synchronized void clear() {
+    records.clear();
+    blockingResourcesByAllocation.clear();
+  }
+
+  private void recordWaitTime(Set<TCSResource<?>> resources, long waitTime) {
+    long effectiveWaitTime = Math.max(0, waitTime);
+    for (TCSResource<?> resource : resources) {
+      ResourceRecord record = records.get(resource);
+      record.totalWaitTime += effectiveWaitTime;
+      record.maxWaitTime = Math.max(record.maxWaitTime, effectiveWaitTime);
+    }
+  }
+
+  /**
+   * The contention recorded for a single resource.
+   */
+  private static class ResourceRecord {
+
+    /**
+     * The resource.
+     */
+    private final TCSResource<?> resource;
+    /**
+     * The number of allocations deferred because of the resource.
+     */
+    private long deferralCount;
+    /**
+     * The total time allocations waited for the resource (in ms).
+     */
+    private long totalWaitTime;
+    /**
+     * The maximum time a single allocation waited for the resource (in ms).
+     */
+    private long maxWaitTime;
+    /**
+     * The IDs of the clients that had to wait for the resource.
+     */
+    private final Set<String> waitingClients = new HashSet<>();
+    /**
+     * The IDs of the clients that held the resource while others were waiting for it.
+     */
+    private final Set<String> holdingClients = new HashSet<>();
+
+    ResourceRecord(TCSResource<?> resource) {
+      this.resource = resource;
+    }
+
+    ResourceContention toResourceContention() {
+      return new ResourceContention(resource.getName(),
+                                    deferralCount,
+                                    totalWaitTime,
+                                    maxWaitTime,
+                                    waitingClients,
+                                    holdingClients);
+    }
+  }
+}
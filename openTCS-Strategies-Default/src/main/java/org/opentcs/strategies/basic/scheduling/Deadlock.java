@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * A cycle of deferred allocations, each waiting for resources allocated by the client of the next
+ * one.
+ */
+class Deadlock {
+
+  /**
+   * The deferred allocations forming the cycle, in cycle order.
+   */
+  private final List<AllocatorCommand.Allocate> allocations;
+  /**
+   * The resources allocated, requested or claimed by the clients involved, by client.
+   */
+  private final Map<Client, Set<TCSResource<?>>> resourcesByClient;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param allocations The deferred allocations forming the cycle, in cycle order.
+   * @param resourcesByClient The resources allocated, requested or claimed by the clients
+   * involved, by client.
+   */
+  Deadlock(@Nonnull List<AllocatorCommand.Allocate> allocations,
+           @Nonnull Map<Client, Set<TCSResource<?>>> resourcesByClient) {
+    this.allocations = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNull(allocations, "allocations"))
+    );
+    this.resourcesByClient = new HashMap<>(requireNonNull(resourcesByClient,
+                                                          "resourcesByClient"));
+  }
+
+  /**
+   * Returns the deferred allocations forming the cycle, in cycle order.
+   *
+   * @return The deferred allocations forming the cycle.
+   */
+  @Nonnull
+  public List<AllocatorCommand.Allocate> getAllocations() {
+    return allocations;
+  }
+
+  /**
+   * Returns the IDs of the clients involved, sorted lexicographically.
+   *
+   * @return The IDs of the clients involved.
+   */
+  @Nonnull
+  public Set<String> getClientIds() {
+    return allocations.stream()
+        .map(allocation -> allocation.getClient().getId())
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  /**
+   * Returns the resources allocated, requested or claimed by the clients involved except for the
+   * given one.
+   *
+   * @param client The client whose resources to ignore.
+   * @return The resources of the other clients involved.
+   */
+  @Nonnull
+  public Set<TCSResource<?>> getResourcesOfOthers(@Nonnull Client client) {
+    requireNonNull(client, "client");
+
+    Set<TCSResource<?>> result = new HashSet<>();
+    for (Map.Entry<Client, Set<TCSResource<?>>> entry : resourcesByClient.entrySet()) {
+      if (!entry.getKey().equals(client)) {
+        result.addAll(entry.getValue());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "Deadlock{"
+        + "allocations=" + allocations
+        + '}';
+  }
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.components.kernel.services.NotificationService;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.notification.UserNotification;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.RerouteUtil;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockResolutionStrategy.BACK_OFF;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockResolutionStrategy.NOTIFY;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockResolutionStrategy.REROUTE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves deadlocks between vehicles according to the configured strategy and keeps statistics
+ * about them.
+ * <p>
+ * A deadlock is resolved by rerouting one of the vehicles involved, preferably the one that
+ * requested its allocation last. The caller is expected to withdraw that vehicle's deferred
+ * allocation, so it can request the resources for its new route. A deadlock that cannot be
+ * resolved, or that persists after an attempt to resolve it, is reported as a user notification
+ * once.
+ * </p>
+ */
+class DeadlockResolver {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(DeadlockResolver.class);
+  /**
+   * The plant model service.
+   */
+  private final InternalPlantModelService plantModelService;
+  /**
+   * Provides the reroute util.
+   */
+  private final Provider<RerouteUtil> rerouteUtilProvider;
+  /**
+   * The notification service.
+   */
+  private final NotificationService notificationService;
+  /**
+   * The reservation pool.
+   */
+  private final ReservationPool reservationPool;
+  /**
+   * A global object to be used for synchronization within the kernel.
+   */
+  private final Object globalSyncObject;
+  /**
+   * The scheduler's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * The detected deadlocks not known to be resolved, by the IDs of the clients involved, mapped to
+   * whether a user notification has been published for them.
+   */
+  private final Map<Set<String>, Boolean> unresolvedDeadlocks = new HashMap<>();
+  /**
+   * The number of deadlocks detected.
+   */
+  private long deadlockCount;
+  /**
+   * The number of deadlocks resolved by rerouting a vehicle.
+   */
+  private long resolutionCount;
+  /**
+   * The sum of all detection latencies (in ms).
+   */
+  private long totalDetectionLatency;
+  /**
+   * The maximum detection latency (in ms).
+   */
+  private long maxDetectionLatency;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param plantModelService The plant model service.
+   * @param rerouteUtilProvider Provides the reroute util.
+   * @param notificationService The notification service.
+   * @param reservationPool The reservation pool.
+   * @param globalSyncObject The kernel threads' global synchronization object.
+   * @param configuration The scheduler's configuration.
+   */
+  @Inject
+  DeadlockResolver(@Nonnull InternalPlantModelService plantModelService,
+                   @Nonnull Provider<RerouteUtil> rerouteUtilProvider,
+                   @Nonnull NotificationService notificationService,
+                   @Nonnull ReservationPool reservationPool,
+                   @Nonnull @GlobalSyncObject Object globalSyncObject,
+                   @Nonnull DefaultSchedulerConfiguration configuration) {
+    this.plantModelService = requireNonNull(plantModelService, "plantModelService");
+    this.rerouteUtilProvider = requireNonNull(rerouteUtilProvider, "rerouteUtilProvider");
+    this.notificationService = requireNonNull(notificationService, "notificationService");
+    this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.configuration = requireNonNull(configuration, "configuration");
+  }
+
+  /**
+   * Handles a detected deadlock.
+   * Must not be called while holding the kernel's global synchronization object.
+   *
+   * @param deadlock The deadlock.
+   * @return The deferred allocation to be withdrawn because its client was rerouted, if any.
+   */
+  @Nonnull
+  public Optional<AllocatorCommand.Allocate> resolve(@Nonnull Deadlock deadlock) {
+    requireNonNull(deadlock, "deadlock");
+
+    Set<String> clientIds = deadlock.getClientIds();
+    boolean persisting;
+    synchronized (this) {
+      Boolean notified = unresolvedDeadlocks.get(clientIds);
+      if (notified == null) {
+        long detectionLatency = System.currentTimeMillis() - deadlock.getAllocations().stream()
+            .mapToLong(allocation -> allocation.getCreationTime())
+            .max()
+            .getAsLong();
+        deadlockCount++;
+        totalDetectionLatency += detectionLatency;
+        maxDetectionLatency = Math.max(maxDetectionLatency, detectionLatency);
+        unresolvedDeadlocks.put(clientIds, false);
+        persisting = false;
+        LOG.warn("Deadlock detected {} ms after the last allocation request: {}",
+                 detectionLatency,
+                 deadlock);
+      }
+      else if (notified) {
+        return Optional.empty();
+      }
+      else {
+        LOG.warn("Deadlock persists after attempt to resolve it: {}", deadlock);
+        unresolvedDeadlocks.put(clientIds, true);
+        persisting = true;
+      }
+    }
+    if (persisting) {
+      publishNotification(clientIds);
+      return Optional.empty();
+    }
+
+    Optional<AllocatorCommand.Allocate> victim = applyStrategy(deadlock);
+    synchronized (this) {
+      if (victim.isPresent()) {
+        resolutionCount++;
+      }
+      else {
+        unresolvedDeadlocks.put(clientIds, true);
+      }
+    }
+    if (!victim.isPresent()) {
+      publishNotification(clientIds);
+    }
+    return victim;
+  }
+
+  /**
+   * Notifies this resolver that the given client was granted an allocation, which means any
+   * deadlocks it was involved in are resolved.
+   *
+   * @param client The client.
+   */
+  public synchronized void allocationGranted(@Nonnull Client client) {
+    requireNonNull(client, "client");
+
+    unresolvedDeadlocks.keySet().removeIf(clientIds -> clientIds.contains(client.getId()));
+  }
+
+  /**
+   * Forgets all deadlocks and resets the statistics.
+   */
+  public synchronized void clear() {
+    unresolvedDeadlocks.clear();
+    deadlockCount = 0;
+    resolutionCount = 0;
+    totalDetectionLatency = 0;
+    maxDetectionLatency = 0;
+  }
+
+  /**
+   * Returns the number of deadlocks detected.
+   *
+   * @return The number of deadlocks detected.
+   */
+  public synchronized long getDeadlockCount() {
+    return deadlockCount;
+  }
+
+  /**
+   * Returns the number of deadlocks resolved by rerouting a vehicle.
+   *
+   * @return The number of deadlocks resolved.
+   */
+  public synchronized long getResolutionCount() {
+    return resolutionCount;
+  }
+
+  /**
+   * Returns the average time (in ms) from the last allocation request of a deadlock to its
+   * detection.
+   *
+   * @return The average detection latency (in ms), or 0, if no deadlock was detected, yet.
+   */
+  public synchronized long getAverageDetectionLatency() {
+    return deadlockCount == 0 ? 0 : totalDetectionLatency / deadlockCount;
+  }
+
+  /**
+   * Returns the maximum time (in ms) from the last allocation request of a deadlock to its
+   * detection.
+   *
+   * @return The maximum detection latency (in ms).
+   */
+  public synchronized long getMaxDetectionLatency() {
+    return maxDetectionLatency;
+  }
+
+  private Optional<AllocatorCommand.Allocate> applyStrategy(Deadlock deadlock) {
+    DefaultSchedulerConfiguration.DeadlockResolutionStrategy strategy
+        = configuration.deadlockResolutionStrategy();
+    if (strategy == NOTIFY) {
+      return Optional.empty();
+    }
+
+    // Prefer the vehicle that has been waiting for the shortest time.
+    List<AllocatorCommand.Allocate> candidates = new ArrayList<>(deadlock.getAllocations());
+    candidates.sort(Comparator.reverseOrder());
+    for (AllocatorCommand.Allocate candidate : candidates) {
+      Vehicle vehicle = plantModelService.fetchObject(Vehicle.class,
+                                                      candidate.getClient().getId());
+      if (vehicle == null || !vehicle.hasProcState(Vehicle.ProcState.PROCESSING_ORDER)) {
+        continue;
+      }
+      if ((strategy == REROUTE && reroute(vehicle))
+          || (strategy == BACK_OFF
+              && backOff(vehicle, deadlock.getResourcesOfOthers(candidate.getClient())))) {
+        LOG.info("Resolved deadlock by rerouting {} ({}).", vehicle.getName(), strategy);
+        return Optional.of(candidate);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private boolean reroute(Vehicle vehicle) {
+    RerouteUtil rerouteUtil = rerouteUtilProvider.get();
+    List<DriveOrder> oldDriveOrders = rerouteUtil.getUnfinishedDriveOrders(
+        plantModelService.fetchObject(TransportOrder.class, vehicle.getTransportOrder())
+    );
+    rerouteUtil.reroute(vehicle);
+    List<DriveOrder> newDriveOrders = rerouteUtil.getUnfinishedDriveOrders(
+        plantModelService.fetchObject(TransportOrder.class, vehicle.getTransportOrder())
+    );
+    return !rerouteUtil.routesEquals(oldDriveOrders, newDriveOrders);
+  }
+
+  private boolean backOff(Vehicle vehicle, Set<TCSResource<?>> avoidedResources) {
+    RerouteUtil rerouteUtil = rerouteUtilProvider.get();
+    Point position = rerouteUtil.getFutureOrCurrentPosition(vehicle);
+    for (Route.Step step : findBackOffSteps(position, avoidedResources)) {
+      if (rerouteUtil.rerouteVia(vehicle, step)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the steps from the given point to adjacent free points that are not among the given
+   * resources, shortest first.
+   *
+   * @param position The point to back off from.
+   * @param avoidedResources The resources to be avoided.
+   * @return The steps.
+   */
+  private List<Route.Step> findBackOffSteps(Point position, Set<TCSResource<?>> avoidedResources) {
+    List<Route.Step> result = new ArrayList<>();
+    synchronized (globalSyncObject) {
+      for (TCSObjectReference<Path> pathRef : position.getOutgoingPaths()) {
+        Path path = plantModelService.fetchObject(Path.class, pathRef);
+        Point point = plantModelService.fetchObject(Point.class, path.getDestinationPoint());
+        if (!path.isLocked() && isFree(path, avoidedResources) && isFree(point, avoidedResources)) {
+          result.add(new Route.Step(path, position, point, Vehicle.Orientation.FORWARD, 0));
+        }
+      }
+      for (TCSObjectReference<Path> pathRef : position.getIncomingPaths()) {
+        Path path = plantModelService.fetchObject(Path.class, pathRef);
+        Point point = plantModelService.fetchObject(Point.class, path.getSourcePoint());
+        if (!path.isLocked()
+            && path.getMaxReverseVelocity() > 0
+            && isFree(path, avoidedResources)
+            && isFree(point, avoidedResources)) {
+          result.add(new Route.Step(path, position, point, Vehicle.Orientation.BACKWARD, 0));
+        }
+      }
+    }
+    result.sort(Comparator.comparingLong(step -> step.getPath().getLength()));
+    return result;
+  }
+
+  private boolean isFree(TCSResource<?> resource, Set<TCSResource<?>> avoidedResources) {
+    return !avoidedResources.contains(resource)
+        && reservationPool.getReservationEntry(resource).isFree();
+  }
+
+  private void publishNotification(Set<String> clientIds) {
+    notificationService.publishUserNotification(
+        new UserNotification(DefaultScheduler.class.getSimpleName(),
+                             "Vehicles waiting for each other's resources: " + clientIds,
+                             UserNotification.Level.IMPORTANT)
+    );
+  }
+}
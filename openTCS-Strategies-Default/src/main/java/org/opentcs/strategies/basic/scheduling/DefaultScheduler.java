@@ -14,18 +14,22 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import static java.util.Objects.requireNonNull;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import org.opentcs.access.ResourceContention;
 import org.opentcs.components.kernel.ResourceAllocationException;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.InternalPlantModelService;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.Allocate;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.AllocationsReleased;
@@ -67,7 +71,23 @@ public class DefaultScheduler
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations = new LinkedBlockingQueue<>();
+  private final DeferredAllocations deferredAllocations = new DeferredAllocations();
+  /**
+   * The graph of deferred allocations waiting for each other.
+   */
+  private final WaitForGraph waitForGraph;
+  /**
+   * Resolves deadlocks.
+   */
+  private final DeadlockResolver deadlockResolver;
+  /**
+   * Records how often and how long allocations had to wait for resources.
+   */
+  private final ContentionStatistics contentionStatistics;
+  /**
+   * This scheduler's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
   /**
    * Executes scheduling tasks.
    */
@@ -76,6 +96,10 @@ public class DefaultScheduler
    * A global object to be used for synchronization within the kernel.
    */
   private final Object globalSyncObject;
+  /**
+   * The future for the task periodically logging the contention report.
+   */
+  private ScheduledFuture<?> contentionReportFuture;
   /**
    * Indicates whether this component is enabled.
    */
@@ -87,20 +111,28 @@ public class DefaultScheduler
    * @param plantModelService The plant model service.
    * @param allocationAdvisor Takes care of modules.
    * @param reservationPool The reservation pool to be used.
+   * @param deadlockResolver Resolves deadlocks.
    * @param kernelExecutor Executes scheduling tasks.
    * @param globalSyncObject The kernel threads' global synchronization object.
+   * @param configuration This scheduler's configuration.
    */
   @Inject
   public DefaultScheduler(InternalPlantModelService plantModelService,
                           AllocationAdvisor allocationAdvisor,
                           ReservationPool reservationPool,
+                          DeadlockResolver deadlockResolver,
                           @KernelExecutor ScheduledExecutorService kernelExecutor,
-                          @GlobalSyncObject Object globalSyncObject) {
+                          @GlobalSyncObject Object globalSyncObject,
+                          DefaultSchedulerConfiguration configuration) {
     this.plantModelService = requireNonNull(plantModelService, "plantModelService");
     this.allocationAdvisor = requireNonNull(allocationAdvisor, "allocationAdvisor");
     this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.deadlockResolver = requireNonNull(deadlockResolver, "deadlockResolver");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.contentionStatistics = new ContentionStatistics(reservationPool);
+    this.waitForGraph = new WaitForGraph(reservationPool, deferredAllocations, claimsByClient);
   }
 
   @Override
@@ -110,8 +142,25 @@ public class DefaultScheduler
     }
 
     reservationPool.clear();
+    Set<Point> points = plantModelService.fetchObjects(Point.class);
+    Set<Path> paths = plantModelService.fetchObjects(Path.class);
+    Set<Location> locations = plantModelService.fetchObjects(Location.class);
+    reservationPool.addResources(points);
+    reservationPool.addResources(paths);
+    reservationPool.addResources(locations);
+    deadlockResolver.clear();
+    contentionStatistics.clear();
     allocationAdvisor.initialize();
 
+    if (configuration.contentionReportInterval() > 0) {
+      contentionReportFuture = kernelExecutor.scheduleWithFixedDelay(
+          () -> logContentionReport(),
+          configuration.contentionReportInterval(),
+          configuration.contentionReportInterval(),
+          TimeUnit.MILLISECONDS
+      );
+    }
+
     initialized = true;
   }
 
@@ -126,7 +175,22 @@ public class DefaultScheduler
       return;
     }
 
+    if (contentionReportFuture != null) {
+      contentionReportFuture.cancel(false);
+      contentionReportFuture = null;
+    }
     allocationAdvisor.terminate();
+    LOG.info("Retried {} deferred allocations on {} resource releases, skipped {} retries of "
+        + "allocations not waiting for the released resources.",
+             deferredAllocations.getRetryCount(),
+             deferredAllocations.getReleaseCount(),
+             deferredAllocations.getSkippedRetryCount());
+    LOG.info("Detected {} deadlocks (average/maximum detection latency: {}/{} ms), resolved {}.",
+             deadlockResolver.getDeadlockCount(),
+             deadlockResolver.getAverageDetectionLatency(),
+             deadlockResolver.getMaxDetectionLatency(),
+             deadlockResolver.getResolutionCount());
+    logContentionReport();
     initialized = false;
   }
 
@@ -186,6 +250,9 @@ public class DefaultScheduler
     kernelExecutor.submit(new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
+                                            waitForGraph,
+                                            deadlockResolver,
+                                            contentionStatistics,
                                             allocationAdvisor,
                                             kernelExecutor,
                                             globalSyncObject,
@@ -216,9 +283,7 @@ public class DefaultScheduler
       }
       // Allocate all requested resources that are available.
       LOG.debug("{}: Allocating immediately: {}", client.getId(), availableResources);
-      for (TCSResource<?> curResource : availableResources) {
-        reservationPool.getReservationEntry(curResource).allocate(client);
-      }
+      reservationPool.allocate(client, availableResources);
     }
   }
 
@@ -227,17 +292,21 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
+    Set<TCSResource<?>> completelyFreeResources;
     synchronized (globalSyncObject) {
       LOG.debug("{}: Releasing resources: {}", client.getId(), resources);
       reservationPool.free(client, resources);
 
       // Check which resources are now completely free
-      Set<TCSResource<?>> completelyFreeResources = resources.stream()
+      completelyFreeResources = resources.stream()
           .filter(resource -> reservationPool.getReservationEntry(resource).isFree())
           .collect(Collectors.toCollection(HashSet::new));
       kernelExecutor.submit(new AllocatorTask(plantModelService,
                                               reservationPool,
                                               deferredAllocations,
+                                              waitForGraph,
+                                              deadlockResolver,
+                                              contentionStatistics,
                                               allocationAdvisor,
                                               kernelExecutor,
                                               globalSyncObject,
@@ -247,27 +316,35 @@ public class DefaultScheduler
     kernelExecutor.submit(new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
+                                            waitForGraph,
+                                            deadlockResolver,
+                                            contentionStatistics,
                                             allocationAdvisor,
                                             kernelExecutor,
                                             globalSyncObject,
-                                            new RetryAllocates(client)));
+                                            new RetryAllocates(client, completelyFreeResources)));
   }
 
   @Override
   public void freeAll(Client client) {
     requireNonNull(client, "client");
 
+    Set<TCSResource<?>> freedResources;
     synchronized (globalSyncObject) {
-      Set<TCSResource<?>> freedResources = reservationPool.allocatedResources(client);
+      freedResources = reservationPool.allocatedResources(client);
 
       LOG.debug("{}: Releasing all resources...", client.getId());
       reservationPool.freeAll(client);
       LOG.debug("{}: Clearing pending allocation requests...", client.getId());
-      deferredAllocations.removeIf(allocate -> client.equals(allocate.getClient()));
+      deferredAllocations.removeAll(client);
+      contentionStatistics.allocationsCompleted(client, System.currentTimeMillis());
 
       kernelExecutor.submit(new AllocatorTask(plantModelService,
                                               reservationPool,
                                               deferredAllocations,
+                                              waitForGraph,
+                                              deadlockResolver,
+                                              contentionStatistics,
                                               allocationAdvisor,
                                               kernelExecutor,
                                               globalSyncObject,
@@ -277,10 +354,13 @@ public class DefaultScheduler
     kernelExecutor.submit(new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
+                                            waitForGraph,
+                                            deadlockResolver,
+                                            contentionStatistics,
                                             allocationAdvisor,
                                             kernelExecutor,
                                             globalSyncObject,
-                                            new RetryAllocates(client)));
+                                            new RetryAllocates(client, freedResources)));
   }
 
   @Override
@@ -290,6 +370,11 @@ public class DefaultScheduler
     }
   }
 
+  @Override
+  public List<ResourceContention> getHotResources(int count) {
+    return contentionStatistics.getHotResources(count);
+  }
+
   @Override
   public void preparationSuccessful(@Nonnull Module module,
                                     @Nonnull Client client,
@@ -301,9 +386,34 @@ public class DefaultScheduler
     kernelExecutor.submit(new AllocatorTask(plantModelService,
                                             reservationPool,
                                             deferredAllocations,
+                                            waitForGraph,
+                                            deadlockResolver,
+                                            contentionStatistics,
                                             allocationAdvisor,
                                             kernelExecutor,
                                             globalSyncObject,
                                             new CheckAllocationsPrepared(client, resources)));
   }
+
+  private void logContentionReport() {
+    List<ResourceContention> hotResources
+        = contentionStatistics.getHotResources(configuration.contentionReportSize());
+    if (hotResources.isEmpty()) {
+      LOG.info("No allocations had to wait for resources allocated by others.");
+      return;
+    }
+
+    StringBuilder report = new StringBuilder("Resources allocations had to wait for most:");
+    for (ResourceContention contention : hotResources) {
+      report.append(String.format("%n  %s: deferred %d allocations, waited %d ms in total, "
+          + "%d ms at most; waiting: %s, holding: %s",
+                                  contention.getResourceName(),
+                                  contention.getDeferralCount(),
+                                  contention.getTotalWaitTime(),
+                                  contention.getMaxWaitTime(),
+                                  contention.getWaitingClients(),
+                                  contention.getHoldingClients()));
+    }
+    LOG.info(report.toString());
+  }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link DefaultScheduler}.
+ */
+@ConfigurationPrefix(DefaultSchedulerConfiguration.PREFIX)
+public interface DefaultSchedulerConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "defaultscheduler";
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "The strategy to use when vehicles wait for each other's resources in a cycle.",
+        "Possible values:",
+        "NOTIFY: Only publish a user notification about the deadlock.",
+        "REROUTE: Reroute one of the vehicles involved, avoiding the resources of the others if "
+        + "the router's costs allow it.",
+        "BACK_OFF: Let one of the vehicles involved first move to an adjacent free point not "
+        + "claimed by the others, then continue from there.",
+        "If a deadlock cannot be or is not resolved, a user notification is published."
+      },
+      orderKey = "0_deadlock_0")
+  DeadlockResolutionStrategy deadlockResolutionStrategy();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The interval in which the resources allocations had to wait for most are logged (in ms).",
+        "If 0, they are only logged when the scheduler is terminated."
+      },
+      orderKey = "1_contention_0")
+  long contentionReportInterval();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The number of resources allocations had to wait for most to be logged.",
+      orderKey = "1_contention_1")
+  int contentionReportSize();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to keep vehicles from entering paths on which they would meet vehicles travelling "
+        + "in the opposite direction, based on the time windows in which vehicles are expected to "
+        + "travel along the paths of their routes.",
+        "Vehicles travelling in the same direction may still follow each other."
+      },
+      orderKey = "2_timewindow_0")
+  boolean timeWindowReservations();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = "The time span from now for which time windows are considered (in ms).",
+      orderKey = "2_timewindow_1")
+  long timeWindowHorizon();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = "The safety margin added before and after every time window (in ms).",
+      orderKey = "2_timewindow_2")
+  long timeWindowMargin();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The maximum number of vehicles that may follow a vehicle along a path while "
+      + "another vehicle is waiting to enter it in the opposite direction.",
+      orderKey = "2_timewindow_3")
+  int timeWindowMaxFollowers();
+
+  /**
+   * The strategies for resolving deadlocks.
+   */
+  enum DeadlockResolutionStrategy {
+    NOTIFY,
+    REROUTE,
+    BACK_OFF;
+  }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Allocations deferred because they couldn't be granted, yet, indexed by the resources they are
+ * waiting for.
+ * <p>
+ * An allocation deferred because some of its resources were allocated by other clients is only
+ * retried when one of these resources is released. An allocation deferred for other reasons (e.g.
+ * because an allocation module did not permit it) is retried whenever any resources are released.
+ * Allocations to be retried are returned in their natural order, i.e. by priority and age.
+ * </p>
+ */
+class DeferredAllocations {
+
+  /**
+   * The deferred allocations waiting for a resource, by resource.
+   */
+  private final Map<TCSResource<?>, Set<AllocatorCommand.Allocate>> allocationsByResource
+      = new HashMap<>();
+  /**
+   * The resources the deferred allocations are waiting for, by allocation.
+   * An empty set indicates the allocation is to be retried whenever any resources are released.
+   */
+  private final Map<AllocatorCommand.Allocate, Set<TCSResource<?>>> resourcesByAllocation
+      = new HashMap<>();
+  /**
+   * The number of times deferred allocations were retried due to released resources.
+   */
+  private long releaseCount;
+  /**
+   * The number of deferred allocations retried.
+   */
+  private long retryCount;
+  /**
+   * The number of deferred allocations not retried because they weren't waiting for any of the
+   * released resources.
+   */
+  private long skippedRetryCount;
+
+  /**
+   * Creates a new instance.
+   */
+  DeferredAllocations() {
+  }
+
+  /**
+   * Adds a deferred allocation.
+   *
+   * @param allocation The allocation.
+   * @param blockingResources The resources allocated by other clients the allocation is waiting
+   * for. If empty, the allocation is retried whenever any resources are released.
+   */
+  public synchronized void add(@Nonnull AllocatorCommand.Allocate allocation,
+                               @Nonnull Set<TCSResource<?>> blockingResources) {
+    requireNonNull(allocation, "allocation");
+    requireNonNull(blockingResources, "blockingResources");
+
+    remove(allocation);
+    resourcesByAllocation.put(allocation, new HashSet<>(blockingResources));
+    for (TCSResource<?> resource : blockingResources) {
+      allocationsByResource.computeIfAbsent(resource, res -> new HashSet<>()).add(allocation);
+    }
+  }
+
+  /**
+   * Removes and returns the deferred allocations that may be granted after the given resources
+   * were released.
+   *
+   * @param releasedResources The released resources.
+   * @return The allocations to be retried, in their natural order.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> removeRetriable(
+      @Nonnull Set<TCSResource<?>> releasedResources) {
+    requireNonNull(releasedResources, "releasedResources");
+
+    Set<AllocatorCommand.Allocate> retriable = new HashSet<>();
+    for (TCSResource<?> resource : releasedResources) {
+      retriable.addAll(allocationsByResource.getOrDefault(resource, Collections.emptySet()));
+    }
+    for (Map.Entry<AllocatorCommand.Allocate, Set<TCSResource<?>>> entry
+             : resourcesByAllocation.entrySet()) {
+      if (entry.getValue().isEmpty()) {
+        retriable.add(entry.getKey());
+      }
+    }
+
+    releaseCount++;
+    retryCount += retriable.size();
+    skippedRetryCount += resourcesByAllocation.size() - retriable.size();
+    return removeSorted(retriable);
+  }
+
+  /**
+   * Removes and returns all deferred allocations.
+   *
+   * @return All deferred allocations, in their natural order.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> removeAll() {
+    return removeSorted(new HashSet<>(resourcesByAllocation.keySet()));
+  }
+
+  /**
+   * Removes all deferred allocations of the given client.
+   *
+   * @param client The client.
+   */
+  public synchronized void removeAll(@Nonnull Client client) {
+    requireNonNull(client, "client");
+
+    getAllocations(client).forEach(allocation -> remove(allocation));
+  }
+
+  /**
+   * Removes the given deferred allocation.
+   *
+   * @param allocation The allocation.
+   * @return <code>true</code> if, and only if, the allocation was deferred.
+   */
+  public synchronized boolean remove(@Nonnull AllocatorCommand.Allocate allocation) {
+    requireNonNull(allocation, "allocation");
+
+    Set<TCSResource<?>> resources = resourcesByAllocation.remove(allocation);
+    if (resources == null) {
+      return false;
+    }
+    for (TCSResource<?> resource : resources) {
+      Set<AllocatorCommand.Allocate> waiting = allocationsByResource.get(resource);
+      waiting.remove(allocation);
+      if (waiting.isEmpty()) {
+        allocationsByResource.remove(resource);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the deferred allocations of the given client.
+   *
+   * @param client The client.
+   * @return The deferred allocations of the given client.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> getAllocations(@Nonnull Client client) {
+    requireNonNull(client, "client");
+
+    List<AllocatorCommand.Allocate> result = new ArrayList<>();
+    for (AllocatorCommand.Allocate allocation : resourcesByAllocation.keySet()) {
+      if (client.equals(allocation.getClient())) {
+        result.add(allocation);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the resources allocated by other clients the given deferred allocation is waiting for.
+   *
+   * @param allocation The allocation.
+   * @return The resources the allocation is waiting for. The set is empty if the allocation is not
+   * deferred or not waiting for any specific resources.
+   */
+  @Nonnull
+  public synchronized Set<TCSResource<?>> getBlockingResources(
+      @Nonnull AllocatorCommand.Allocate allocation) {
+    requireNonNull(allocation, "allocation");
+
+    return new HashSet<>(resourcesByAllocation.getOrDefault(allocation, Collections.emptySet()));
+  }
+
+  /**
+   * Returns the number of deferred allocations.
+   *
+   * @return The number of deferred allocations.
+   */
+  public synchronized int size() {
+    return resourcesByAllocation.size();
+  }
+
+  /**
+   * Returns the number of times deferred allocations were retried due to released resources.
+   *
+   * @return The number of times deferred allocations were retried due to released resources.
+   */
+  public synchronized long getReleaseCount() {
+    return releaseCount;
+  }
+
+  /**
+   * Returns the number of deferred allocations retried due to released resources.
+   *
+   * @return The number of deferred allocations retried due to released resources.
+   */
+  public synchronized long getRetryCount() {
+    return retryCount;
+  }
+
+  /**
+   * Returns the number of deferred allocations not retried because they weren't waiting for any of
+   * the released resources.
+   *
+   * @return The number of deferred allocations not retried.
+   */
+  public synchronized long getSkippedRetryCount() {
+    return skippedRetryCount;
+  }
+
+  private List<AllocatorCommand.Allocate> removeSorted(Set<AllocatorCommand.Allocate> allocations) {
+    List<AllocatorCommand.Allocate> result = new ArrayList<>(allocations);
+    Collections.sort(result);
+    result.forEach(allocation -> remove(allocation));
+    return result;
+  }
+}
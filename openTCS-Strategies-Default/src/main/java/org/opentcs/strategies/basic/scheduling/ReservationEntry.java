@@ -27,6 +27,10 @@ public class ReservationEntry {
    * This class's Logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(ReservationEntry.class);
+  /**
+   * The entry's (dense) ID within its reservation pool.
+   */
+  private final int id;
   /**
    * Instance of resource that vehicle may claim for exclusive usage.
    */
@@ -45,12 +49,23 @@ public class ReservationEntry {
   /**
    * Creates a new instance.
    *
+   * @param id The entry's (dense) ID within its reservation pool.
    * @param reqResource The resource.
    */
-  public ReservationEntry(final TCSResource<?> reqResource) {
+  public ReservationEntry(int id, final TCSResource<?> reqResource) {
+    this.id = id;
     this.resource = requireNonNull(reqResource, "reqResource");
   }
 
+  /**
+   * Returns the entry's (dense) ID within its reservation pool.
+   *
+   * @return The entry's ID.
+   */
+  public int getId() {
+    return id;
+  }
+
   /**
    * Returns the resource.
    *
@@ -141,7 +156,8 @@ public class ReservationEntry {
   @Override
   public String toString() {
     return "ReservationEntry{"
-        + "resource=" + resource
+        + "id=" + id
+        + ", resource=" + resource
         + ", client=" + client
         + ", counter=" + counter
         + '}';
@@ -7,12 +7,14 @@
  */
 package org.opentcs.strategies.basic.scheduling;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.data.model.TCSResource;
@@ -20,6 +22,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Keeps track of the resources allocated by scheduler clients.
+ * <p>
+ * Every resource's reservation entry has a dense ID. Besides the entries by resource, the pool
+ * keeps the IDs of all allocated entries and of the entries allocated by each client as
+ * {@link ResourceIdSet}s, so that availability checks are word-wise bit operations and operations
+ * for a single client only cost time proportional to the number of resources in the plant model
+ * divided by the word size.
+ * Resources are allocated and freed via the pool only, to keep these sets consistent.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -33,6 +44,18 @@ public class ReservationPool {
    * <code>ReservationEntry</code> instances for each <code>TCSResource</code>.
    */
   private final Map<TCSResource<?>, ReservationEntry> reservations = new HashMap<>();
+  /**
+   * The reservation entries, by ID.
+   */
+  private final List<ReservationEntry> reservationsById = new ArrayList<>();
+  /**
+   * The IDs of all reservation entries allocated by any client.
+   */
+  private final ResourceIdSet allocatedIds = new ResourceIdSet();
+  /**
+   * The IDs of the reservation entries allocated by each client.
+   */
+  private final Map<Scheduler.Client, ResourceIdSet> reservationsByClient = new HashMap<>();
 
   /**
    * Creates a new instance.
@@ -52,12 +75,75 @@ public class ReservationPool {
 
     ReservationEntry entry = reservations.get(resource);
     if (entry == null) {
-      entry = new ReservationEntry(resource);
+      entry = new ReservationEntry(reservationsById.size(), resource);
       reservations.put(resource, entry);
+      reservationsById.add(entry);
     }
     return entry;
   }
 
+  /**
+   * Returns the reservation entry with the given ID.
+   *
+   * @param id The entry's ID.
+   * @return The reservation entry with the given ID.
+   * @throws IndexOutOfBoundsException If there is no entry with the given ID.
+   */
+  public ReservationEntry getReservationEntry(int id) {
+    return reservationsById.get(id);
+  }
+
+  /**
+   * Returns the IDs of the reservation entries for the given resources.
+   *
+   * @param resources The resources.
+   * @return The IDs of the reservation entries for the given resources.
+   */
+  public ResourceIdSet getResourceIds(Collection<? extends TCSResource<?>> resources) {
+    requireNonNull(resources, "resources");
+
+    ResourceIdSet result = new ResourceIdSet(reservationsById.size());
+    for (TCSResource<?> resource : resources) {
+      result.add(getReservationEntry(resource).getId());
+    }
+    return result;
+  }
+
+  /**
+   * Creates reservation entries for the given resources in advance, so they do not need to be
+   * created when the resources are first requested.
+   *
+   * @param resources The resources.
+   */
+  public void addResources(Collection<? extends TCSResource<?>> resources) {
+    requireNonNull(resources, "resources");
+
+    for (TCSResource<?> resource : resources) {
+      getReservationEntry(resource);
+    }
+  }
+
+  /**
+   * Allocates the given resources for the given client.
+   *
+   * @param client The allocating client.
+   * @param resources The resources to be allocated.
+   * @throws IllegalStateException If any of the resources is allocated by another client.
+   */
+  public void allocate(Scheduler.Client client, Set<TCSResource<?>> resources)
+      throws IllegalStateException {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    for (TCSResource<?> curResource : resources) {
+      ReservationEntry entry = getReservationEntry(curResource);
+      entry.allocate(client);
+      allocatedIds.add(entry.getId());
+      reservationsByClient.computeIfAbsent(client, c -> new ResourceIdSet(reservationsById.size()))
+          .add(entry.getId());
+    }
+  }
+
   /**
    * Returns all resources allocated by the given client.
    *
@@ -67,10 +153,8 @@ public class ReservationPool {
   public Set<TCSResource<?>> allocatedResources(Scheduler.Client client) {
     requireNonNull(client, "client");
 
-    return reservations.entrySet().stream()
-        .filter(entry -> entry.getValue().isAllocatedBy(client))
-        .map(entry -> entry.getKey())
-        .collect(Collectors.toSet());
+    ResourceIdSet clientIds = reservationsByClient.get(client);
+    return clientIds == null ? new HashSet<>() : toResources(clientIds);
   }
 
   /**
@@ -85,15 +169,70 @@ public class ReservationPool {
     requireNonNull(resources, "resources");
     requireNonNull(client, "client");
 
+    return resourcesAvailableForUser(getResourceIds(resources), client);
+  }
+
+  /**
+   * Checks if all resources with the given IDs are available for the given client.
+   *
+   * @param resourceIds The IDs of the resources to be checked.
+   * @param client The client for which to check.
+   * @return <code>true</code> if, and only if, all resources with the given IDs are available for
+   * the given client.
+   */
+  public boolean resourcesAvailableForUser(ResourceIdSet resourceIds, Scheduler.Client client) {
+    requireNonNull(resourceIds, "resourceIds");
+    requireNonNull(client, "client");
+
+    ResourceIdSet clientIds = reservationsByClient.get(client);
+    boolean unavailable = clientIds == null
+        ? resourceIds.intersects(allocatedIds)
+        : resourceIds.intersectsExcluding(allocatedIds, clientIds);
+    if (unavailable && LOG.isDebugEnabled()) {
+      LOG.debug("{}: Resources unavailable: {}",
+                client.getId(),
+                resourcesUnavailableForUser(toResources(resourceIds), client));
+    }
+    return !unavailable;
+  }
+
+  /**
+   * Checks if any of the resources with the given IDs is allocated by the given client.
+   *
+   * @param resourceIds The IDs of the resources to be checked.
+   * @param client The client for which to check.
+   * @return <code>true</code> if, and only if, any of the resources with the given IDs is allocated
+   * by the given client.
+   */
+  public boolean anyResourceAllocatedBy(ResourceIdSet resourceIds, Scheduler.Client client) {
+    requireNonNull(resourceIds, "resourceIds");
+    requireNonNull(client, "client");
+
+    ResourceIdSet clientIds = reservationsByClient.get(client);
+    return clientIds != null && resourceIds.intersects(clientIds);
+  }
+
+  /**
+   * Returns the resources in the given set of resources that are allocated by clients other than
+   * the given one.
+   *
+   * @param resources The set of resources to be checked.
+   * @param client The client for which to check.
+   * @return The resources in the given set that are unavailable for the given client.
+   */
+  public Set<TCSResource<?>> resourcesUnavailableForUser(Set<TCSResource<?>> resources,
+                                                         Scheduler.Client client) {
+    requireNonNull(resources, "resources");
+    requireNonNull(client, "client");
+
+    Set<TCSResource<?>> result = new HashSet<>();
     for (TCSResource<?> curResource : resources) {
-      // Check if the resource is available.
       ReservationEntry entry = getReservationEntry(curResource);
       if (!entry.isFree() && !entry.isAllocatedBy(client)) {
-        LOG.debug("{}: Resource unavailable: {}", client.getId(), entry.getResource());
-        return false;
+        result.add(curResource);
       }
     }
-    return true;
+    return result;
   }
 
   /**
@@ -129,36 +268,59 @@ public class ReservationPool {
     Set<TCSResource<?>> freeableResources = getFreeableResources(resources,
                                                                  client);
     for (TCSResource<?> curResource : freeableResources) {
-      getReservationEntry(curResource).free();
+      ReservationEntry entry = getReservationEntry(curResource);
+      entry.free();
+      if (entry.isFree()) {
+        allocatedIds.remove(entry.getId());
+        removeFromClientIndex(client, entry);
+      }
     }
   }
 
   public void freeAll(Scheduler.Client client) {
     requireNonNull(client, "client");
 
-    reservations.values().stream()
-        .filter(reservationEntry -> reservationEntry.isAllocatedBy(client))
-        .forEach(reservationEntry -> reservationEntry.freeCompletely());
+    ResourceIdSet clientIds = reservationsByClient.remove(client);
+    if (clientIds == null) {
+      return;
+    }
+    for (int id = clientIds.nextId(0); id >= 0; id = clientIds.nextId(id + 1)) {
+      reservationsById.get(id).freeCompletely();
+      allocatedIds.remove(id);
+    }
   }
 
   public Map<String, Set<TCSResource<?>>> getAllocations() {
     final Map<String, Set<TCSResource<?>>> result = new HashMap<>();
-    for (Map.Entry<TCSResource<?>, ReservationEntry> curEntry : reservations.entrySet()) {
-      final TCSResource<?> curResource = curEntry.getKey();
-      final Scheduler.Client curUser = curEntry.getValue().getClient();
-      if (curUser != null) {
-        Set<TCSResource<?>> userResources = result.get(curUser.getId());
-        if (userResources == null) {
-          userResources = new HashSet<>();
-        }
-        userResources.add(curResource);
-        result.put(curUser.getId(), userResources);
-      }
+    for (Map.Entry<Scheduler.Client, ResourceIdSet> curEntry : reservationsByClient.entrySet()) {
+      result.put(curEntry.getKey().getId(), toResources(curEntry.getValue()));
     }
     return result;
   }
 
   public void clear() {
     reservations.clear();
+    reservationsById.clear();
+    allocatedIds.clear();
+    reservationsByClient.clear();
+  }
+
+  private void removeFromClientIndex(Scheduler.Client client, ReservationEntry entry) {
+    ResourceIdSet clientIds = reservationsByClient.get(client);
+    if (clientIds == null) {
+      return;
+    }
+    clientIds.remove(entry.getId());
+    if (clientIds.isEmpty()) {
+      reservationsByClient.remove(client);
+    }
+  }
+
+  private Set<TCSResource<?>> toResources(ResourceIdSet ids) {
+    Set<TCSResource<?>> result = new HashSet<>();
+    for (int id = ids.nextId(0); id >= 0; id = ids.nextId(id + 1)) {
+      result.add(reservationsById.get(id).getResource());
+    }
+    return result;
   }
 }
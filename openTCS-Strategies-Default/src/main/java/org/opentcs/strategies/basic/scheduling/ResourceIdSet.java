@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A set of reservation entry IDs, stored as a bitset.
+ * <p>
+ * Since the {@link ReservationPool} assigns dense IDs to its entries, a set of resources can be
+ * represented by one bit per resource in the plant model. Checking sets against each other then
+ * boils down to word-wise bit operations, without creating any intermediate collections.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ */
+public class ResourceIdSet {
+
+  /**
+   * The number of bits per word.
+   */
+  private static final int BITS_PER_WORD = Long.SIZE;
+  /**
+   * The words holding the bits.
+   */
+  private long[] words;
+
+  /**
+   * Creates a new, empty instance.
+   */
+  public ResourceIdSet() {
+    this(BITS_PER_WORD);
+  }
+
+  /**
+   * Creates a new, empty instance.
+   *
+   * @param capacity The number of IDs the set should be able to hold without growing.
+   */
+  public ResourceIdSet(int capacity) {
+    checkArgument(capacity >= 0, "capacity < 0: %s", capacity);
+    this.words = new long[wordIndex(capacity - 1) + 1];
+  }
+
+  /**
+   * Adds the given ID to this set.
+   *
+   * @param id The ID.
+   */
+  public void add(int id) {
+    checkArgument(id >= 0, "id < 0: %s", id);
+    int wordIndex = wordIndex(id);
+    if (wordIndex >= words.length) {
+      words = Arrays.copyOf(words, Math.max(2 * words.length, wordIndex + 1));
+    }
+    words[wordIndex] |= 1L << id;
+  }
+
+  /**
+   * Adds all IDs in the given set to this set.
+   *
+   * @param other The other set.
+   */
+  public void addAll(ResourceIdSet other) {
+    requireNonNull(other, "other");
+
+    if (other.words.length > words.length) {
+      words = Arrays.copyOf(words, other.words.length);
+    }
+    for (int i = 0; i < other.words.length; i++) {
+      words[i] |= other.words[i];
+    }
+  }
+
+  /**
+   * Removes the given ID from this set.
+   *
+   * @param id The ID.
+   */
+  public void remove(int id) {
+    int wordIndex = wordIndex(id);
+    if (id >= 0 && wordIndex < words.length) {
+      words[wordIndex] &= ~(1L << id);
+    }
+  }
+
+  /**
+   * Removes all IDs from this set.
+   */
+  public void clear() {
+    Arrays.fill(words, 0L);
+  }
+
+  /**
+   * Checks whether this set contains the given ID.
+   *
+   * @param id The ID.
+   * @return <code>true</code> if, and only if, this set contains the given ID.
+   */
+  public boolean contains(int id) {
+    int wordIndex = wordIndex(id);
+    return id >= 0 && wordIndex < words.length && (words[wordIndex] & (1L << id)) != 0;
+  }
+
+  /**
+   * Checks whether this set is empty.
+   *
+   * @return <code>true</code> if, and only if, this set does not contain any ID.
+   */
+  public boolean isEmpty() {
+    for (long word : words) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of IDs in this set.
+   *
+   * @return The number of IDs in this set.
+   */
+  public int size() {
+    int result = 0;
+    for (long word : words) {
+      result += Long.bitCount(word);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the smallest ID in this set that is greater than or equal to the given one.
+   * <p>
+   * All IDs in a set can be iterated over like this:
+   * </p>
+   * <pre>
+   * for (int id = set.nextId(0); id &gt;= 0; id = set.nextId(id + 1)) {
+   *   ...
+   * }
+   * </pre>
+   *
+   * @param fromId The ID to start searching at.
+   * @return The smallest ID in this set that is greater than or equal to the given one, or -1, if
+   * there is no such ID.
+   */
+  public int nextId(int fromId) {
+    checkArgument(fromId >= 0, "fromId < 0: %s", fromId);
+    int wordIndex = wordIndex(fromId);
+    if (wordIndex >= words.length) {
+      return -1;
+    }
+    long word = words[wordIndex] & (-1L << fromId);
+    while (true) {
+      if (word != 0) {
+        return wordIndex * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+      }
+      wordIndex++;
+      if (wordIndex == words.length) {
+        return -1;
+      }
+      word = words[wordIndex];
+    }
+  }
+
+  /**
+   * Checks whether this set and the given one have any ID in common.
+   *
+   * @param other The other set.
+   * @return <code>true</code> if, and only if, this set and the given one have any ID in common.
+   */
+  public boolean intersects(ResourceIdSet other) {
+    requireNonNull(other, "other");
+
+    int length = Math.min(words.length, other.words.length);
+    for (int i = 0; i < length; i++) {
+      if ((words[i] & other.words[i]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether this set and the given one have any ID in common that is not contained in the
+   * given excluded set.
+   *
+   * @param other The other set.
+   * @param excluded The IDs to be ignored.
+   * @return <code>true</code> if, and only if, this set and the given one have any ID in common
+   * that is not contained in the excluded set.
+   */
+  public boolean intersectsExcluding(ResourceIdSet other, ResourceIdSet excluded) {
+    requireNonNull(other, "other");
+    requireNonNull(excluded, "excluded");
+
+    int length = Math.min(words.length, other.words.length);
+    for (int i = 0; i < length; i++) {
+      long common = words[i] & other.words[i];
+      if (common != 0 && i < excluded.words.length) {
+        common &= ~excluded.words[i];
+      }
+      if (common != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ResourceIdSet)) {
+      return false;
+    }
+    ResourceIdSet other = (ResourceIdSet) obj;
+    int length = Math.max(words.length, other.words.length);
+    for (int i = 0; i < length; i++) {
+      if (wordAt(i) != other.wordAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int length = words.length;
+    while (length > 0 && words[length - 1] == 0) {
+      length--;
+    }
+    return Arrays.hashCode(Arrays.copyOf(words, length));
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(id);
+    }
+    return sb.append('}').toString();
+  }
+
+  private long wordAt(int index) {
+    return index < words.length ? words[index] : 0L;
+  }
+
+  private static int wordIndex(int id) {
+    return id >> 6;
+  }
+}
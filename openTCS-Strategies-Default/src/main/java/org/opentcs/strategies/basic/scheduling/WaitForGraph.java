@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * The graph of deferred allocations waiting for each other.
+ * <p>
+ * A deferred allocation waits for every deferred allocation of the clients currently holding the
+ * resources it is blocked by. The edges are derived from the deferred allocations and the
+ * reservation pool on demand, so the graph is always up to date. Since edges are only added when
+ * an allocation is deferred, checking for a cycle through each newly deferred allocation finds
+ * every deadlock as soon as it occurs.
+ * </p>
+ * <p>
+ * Allocations deferred without any blocking resources (e.g. because an allocation module did not
+ * permit them) have no outgoing edges, so deadlocks involving them are not detected.
+ * </p>
+ * <p>
+ * Methods of this class need to be called while holding the kernel's global synchronization
+ * object.
+ * </p>
+ */
+class WaitForGraph {
+
+  /**
+   * The reservation pool.
+   */
+  private final ReservationPool reservationPool;
+  /**
+   * The deferred allocations.
+   */
+  private final DeferredAllocations deferredAllocations;
+  /**
+   * The claims, by client.
+   */
+  private final Map<Client, List<Set<TCSResource<?>>>> claimsByClient;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reservationPool The reservation pool.
+   * @param deferredAllocations The deferred allocations.
+   * @param claimsByClient The claims, by client.
+   */
+  WaitForGraph(@Nonnull ReservationPool reservationPool,
+               @Nonnull DeferredAllocations deferredAllocations,
+               @Nonnull Map<Client, List<Set<TCSResource<?>>>> claimsByClient) {
+    this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.deferredAllocations = requireNonNull(deferredAllocations, "deferredAllocations");
+    this.claimsByClient = requireNonNull(claimsByClient, "claimsByClient");
+  }
+
+  /**
+   * Looks for a cycle of waiting allocations through the given deferred allocation.
+   *
+   * @param allocation The deferred allocation.
+   * @return The deadlock the allocation is part of, if any.
+   */
+  @Nonnull
+  public Optional<Deadlock> findDeadlock(@Nonnull AllocatorCommand.Allocate allocation) {
+    requireNonNull(allocation, "allocation");
+
+    Client origin = allocation.getClient();
+    Map<AllocatorCommand.Allocate, AllocatorCommand.Allocate> predecessors = new HashMap<>();
+    Deque<AllocatorCommand.Allocate> stack = new ArrayDeque<>();
+    predecessors.put(allocation, null);
+    stack.push(allocation);
+
+    while (!stack.isEmpty()) {
+      AllocatorCommand.Allocate current = stack.pop();
+      for (AllocatorCommand.Allocate successor : getWaitedFor(current)) {
+        if (successor.getClient().equals(origin)) {
+          return Optional.of(createDeadlock(tracePath(current, predecessors)));
+        }
+        if (!predecessors.containsKey(successor)) {
+          predecessors.put(successor, current);
+          stack.push(successor);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private Set<AllocatorCommand.Allocate> getWaitedFor(AllocatorCommand.Allocate allocation) {
+    Set<AllocatorCommand.Allocate> result = new LinkedHashSet<>();
+    for (TCSResource<?> resource : deferredAllocations.getBlockingResources(allocation)) {
+      Client holder = reservationPool.getReservationEntry(resource).getClient();
+      if (holder != null && !holder.equals(allocation.getClient())) {
+        result.addAll(deferredAllocations.getAllocations(holder));
+      }
+    }
+    return result;
+  }
+
+  private List<AllocatorCommand.Allocate> tracePath(
+      AllocatorCommand.Allocate last,
+      Map<AllocatorCommand.Allocate, AllocatorCommand.Allocate> predecessors) {
+    List<AllocatorCommand.Allocate> result = new ArrayList<>();
+    for (AllocatorCommand.Allocate current = last;
+         current != null;
+         current = predecessors.get(current)) {
+      result.add(current);
+    }
+    Collections.reverse(result);
+    return result;
+  }
+
+  private Deadlock createDeadlock(List<AllocatorCommand.Allocate> allocations) {
+    Map<Client, Set<TCSResource<?>>> resourcesByClient = new HashMap<>();
+    for (AllocatorCommand.Allocate allocation : allocations) {
+      Client client = allocation.getClient();
+      Set<TCSResource<?>> resources = resourcesByClient.get(client);
+      if (resources == null) {
+        resources = new HashSet<>(reservationPool.allocatedResources(client));
+        for (Set<TCSResource<?>> claim : claimsByClient.getOrDefault(client,
+                                                                     Collections.emptyList())) {
+          resources.addAll(claim);
+        }
+        resourcesByClient.put(client, resources);
+      }
+      resources.addAll(allocation.getResources());
+    }
+    return new Deadlock(allocations, resourcesByClient);
+  }
+}
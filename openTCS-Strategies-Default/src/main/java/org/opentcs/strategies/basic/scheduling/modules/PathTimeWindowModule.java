@@ -0,0 +1,637 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling.modules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration;
+import org.opentcs.strategies.basic.scheduling.ReservationPool;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps vehicles from entering paths on which they would meet vehicles travelling in the opposite
+ * direction, based on the time windows in which the clients are expected to travel along the paths
+ * they claimed.
+ * <p>
+ * Whenever a client's claim or progress changes, the time windows for the paths in its remaining
+ * claim are estimated from the paths' lengths and the velocities of the paths and the vehicle,
+ * starting at the vehicle's current position and up to a configurable horizon. The time windows
+ * are kept as absolute points of time, so time windows estimated at different times can be
+ * compared with each other. Two paths
+ * connecting the same points are considered the same segment. Time windows of two clients
+ * conflict if they are for the same segment, in opposite directions and overlap, including a
+ * safety margin. A path the client has just travelled along and still occupies conflicts with any
+ * time window for its segment in the opposite direction. Clients travelling in the same direction
+ * never conflict, so a vehicle may follow another one along a segment as closely as the
+ * reservations of the points allow.
+ * </p>
+ * <p>
+ * For every pair of clients with conflicting time windows, one of them is given precedence, and
+ * the other one is not allowed to allocate paths until the conflict is gone:
+ * </p>
+ * <ol>
+ * <li>A client already holding a path the other client is going to travel along in the opposite
+ * direction, or the point to enter it at, takes precedence.</li>
+ * <li>A client not waiting for such a holder takes precedence over one that is, i.e. it may follow
+ * the holder, unless the waiting client has already been overtaken by the configured maximum
+ * number of followers.</li>
+ * <li>Otherwise, the client whose first conflicting time window starts earlier takes precedence,
+ * with ties broken by the clients' IDs.</li>
+ * </ol>
+ * <p>
+ * A client that falls behind its time windows, i.e. that is still waiting to enter its next path
+ * after the time window for it has started, or still travelling along it after the time window
+ * has ended, has its time windows postponed accordingly before they are compared. This way, the
+ * time windows of a waiting or stopped vehicle neither remain in the past nor block other
+ * vehicles at times that have already passed. Since time windows are estimated from the clients'
+ * last reported positions, a vehicle moving along a path is assumed to be slightly behind its
+ * actual position. The safety margin should cover this.
+ * </p>
+ */
+public class PathTimeWindowModule
+    implements Scheduler.Module {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(PathTimeWindowModule.class);
+  /**
+   * The velocity assumed if neither the path nor the vehicle provide one (in mm/s).
+   */
+  private static final int FALLBACK_VELOCITY = 1000;
+  /**
+   * The reservation pool.
+   */
+  private final ReservationPool reservationPool;
+  /**
+   * The plant model service.
+   */
+  private final InternalPlantModelService plantModelService;
+  /**
+   * A global object to be used for synchronization within the kernel.
+   */
+  private final Object globalSyncObject;
+  /**
+   * Provides the current point of time (in ms).
+   */
+  private final LongSupplier clock;
+  /**
+   * The time span from now for which time windows are considered (in ms).
+   */
+  private final long horizon;
+  /**
+   * The safety margin added before and after every time window (in ms).
+   */
+  private final long margin;
+  /**
+   * The maximum number of clients that may overtake a client waiting for a conflicting holder.
+   */
+  private final int maxFollowers;
+  /**
+   * The time windows of the clients' remaining claims, by client, with absolute points of time.
+   */
+  private final Map<Scheduler.Client, List<TimeWindow>> windowsByClient = new HashMap<>();
+  /**
+   * The clients that overtook a client while it was waiting for a conflicting holder, by the
+   * waiting client.
+   */
+  private final Map<Scheduler.Client, Set<Scheduler.Client>> followersByWaitingClient
+      = new HashMap<>();
+  /**
+   * The waiting clients a client overtakes if its pending allocation is granted, by client.
+   */
+  private final Map<Scheduler.Client, Set<Scheduler.Client>> pendingOvertakes = new HashMap<>();
+  /**
+   * The clients whose next allocation state is reported for a new claim rather than for progress.
+   */
+  private final Set<Scheduler.Client> newlyClaiming = new HashSet<>();
+  /**
+   * Whether this module is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reservationPool The reservation pool.
+   * @param plantModelService The plant model service.
+   * @param configuration The scheduler's configuration.
+   * @param globalSyncObject A global object to be used for synchronization within the kernel.
+   */
+  @Inject
+  public PathTimeWindowModule(@Nonnull ReservationPool reservationPool,
+                              @Nonnull InternalPlantModelService plantModelService,
+                              @Nonnull DefaultSchedulerConfiguration configuration,
+                              @GlobalSyncObject Object globalSyncObject) {
+    this(reservationPool,
+         plantModelService,
+         globalSyncObject,
+         configuration.timeWindowHorizon(),
+         configuration.timeWindowMargin(),
+         configuration.timeWindowMaxFollowers());
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reservationPool The reservation pool.
+   * @param plantModelService The plant model service.
+   * @param globalSyncObject A global object to be used for synchronization within the kernel.
+   * @param horizon The time span from now for which time windows are considered (in ms).
+   * @param margin The safety margin added before and after every time window (in ms).
+   * @param maxFollowers The maximum number of clients that may overtake a client waiting for a
+   * conflicting holder.
+   */
+  public PathTimeWindowModule(@Nonnull ReservationPool reservationPool,
+                              @Nonnull InternalPlantModelService plantModelService,
+                              @Nonnull Object globalSyncObject,
+                              long horizon,
+                              long margin,
+                              int maxFollowers) {
+    this(reservationPool,
+         plantModelService,
+         globalSyncObject,
+         horizon,
+         margin,
+         maxFollowers,
+         System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reservationPool The reservation pool.
+   * @param plantModelService The plant model service.
+   * @param globalSyncObject A global object to be used for synchronization within the kernel.
+   * @param horizon The time span from now for which time windows are considered (in ms).
+   * @param margin The safety margin added before and after every time window (in ms).
+   * @param maxFollowers The maximum number of clients that may overtake a client waiting for a
+   * conflicting holder.
+   * @param clock Provides the current point of time (in ms).
+   */
+  PathTimeWindowModule(@Nonnull ReservationPool reservationPool,
+                       @Nonnull InternalPlantModelService plantModelService,
+                       @Nonnull Object globalSyncObject,
+                       long horizon,
+                       long margin,
+                       int maxFollowers,
+                       @Nonnull LongSupplier clock) {
+    this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.plantModelService = requireNonNull(plantModelService, "plantModelService");
+    this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.clock = requireNonNull(clock, "clock");
+    checkArgument(horizon > 0, "horizon <= 0: %s", horizon);
+    checkArgument(margin >= 0, "margin < 0: %s", margin);
+    checkArgument(maxFollowers >= 0, "maxFollowers < 0: %s", maxFollowers);
+    this.horizon = horizon;
+    this.margin = margin;
+    this.maxFollowers = maxFollowers;
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    synchronized (globalSyncObject) {
+      windowsByClient.clear();
+      followersByWaitingClient.clear();
+      pendingOvertakes.clear();
+      newlyClaiming.clear();
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void claim(Scheduler.Client client, List<Set<TCSResource<?>>> claim) {
+    requireNonNull(client, "client");
+
+    synchronized (globalSyncObject) {
+      newlyClaiming.add(client);
+    }
+  }
+
+  @Override
+  public void unclaim(Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    synchronized (globalSyncObject) {
+      windowsByClient.remove(client);
+      followersByWaitingClient.remove(client);
+      followersByWaitingClient.values().forEach(followers -> followers.remove(client));
+      pendingOvertakes.remove(client);
+      newlyClaiming.remove(client);
+    }
+  }
+
+  @Override
+  public void setAllocationState(Scheduler.Client client,
+                                 Set<TCSResource<?>> alloc,
+                                 List<Set<TCSResource<?>>> remainingClaim) {
+    requireNonNull(client, "client");
+    requireNonNull(remainingClaim, "remainingClaim");
+
+    synchronized (globalSyncObject) {
+      // When reporting progress, the remaining claim starts with the step just completed.
+      List<TimeWindow> windows = computeTimeWindows(client,
+                                                    remainingClaim,
+                                                    !newlyClaiming.remove(client),
+                                                    clock.getAsLong());
+      if (windows.isEmpty()) {
+        windowsByClient.remove(client);
+      }
+      else {
+        windowsByClient.put(client, windows);
+      }
+    }
+  }
+
+  @Override
+  public boolean mayAllocate(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    synchronized (globalSyncObject) {
+      pendingOvertakes.remove(client);
+      postponeOverdueTimeWindows(clock.getAsLong());
+
+      List<TimeWindow> ownWindows = windowsByClient.get(client);
+      if (ownWindows == null || selectPath(resources) == null) {
+        LOG.debug("{}: No time windows or no path to be checked, allocation allowed.",
+                  client.getId());
+        return true;
+      }
+
+      Set<Scheduler.Client> overtakenClients = new HashSet<>();
+      for (Map.Entry<Scheduler.Client, List<TimeWindow>> entry : windowsByClient.entrySet()) {
+        Scheduler.Client other = entry.getKey();
+        if (other == client) {
+          continue;
+        }
+        Conflict conflict = findConflict(client, ownWindows, other, entry.getValue());
+        if (conflict != null && mustGiveWay(client, other, conflict, overtakenClients)) {
+          LOG.debug("{}: Conflicting time windows with {}, allocation denied.",
+                    client.getId(),
+                    other.getId());
+          return false;
+        }
+      }
+
+      if (!overtakenClients.isEmpty()) {
+        pendingOvertakes.put(client, overtakenClients);
+      }
+      LOG.debug("{}: No conflicting time windows, allocation allowed.", client.getId());
+      return true;
+    }
+  }
+
+  @Override
+  public void prepareAllocation(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+
+    synchronized (globalSyncObject) {
+      // The client is allowed to allocate, so it is not waiting for anyone any more.
+      followersByWaitingClient.remove(client);
+      for (Scheduler.Client overtaken
+               : pendingOvertakes.getOrDefault(client, Collections.emptySet())) {
+        followersByWaitingClient.computeIfAbsent(overtaken, c -> new HashSet<>()).add(client);
+      }
+      pendingOvertakes.remove(client);
+    }
+  }
+
+  private List<TimeWindow> computeTimeWindows(Scheduler.Client client,
+                                              List<Set<TCSResource<?>>> claim,
+                                              boolean startsWithCompletedStep,
+                                              long now) {
+    List<TimeWindow> result = new ArrayList<>();
+    Vehicle vehicle = plantModelService.fetchObject(Vehicle.class, client.getId());
+    long start = now;
+    boolean completed = startsWithCompletedStep;
+    Point previousPoint = null;
+    for (Set<TCSResource<?>> resources : claim) {
+      if (start - now > horizon) {
+        break;
+      }
+      Path path = selectPath(resources);
+      Point point = selectPoint(resources);
+      if (path != null && point != null) {
+        boolean forward = path.getDestinationPoint().getName().equals(point.getName());
+        Point entryPoint = previousPoint;
+        if (entryPoint == null) {
+          entryPoint = plantModelService.fetchObject(
+              Point.class,
+              forward ? path.getSourcePoint() : path.getDestinationPoint());
+        }
+        long end = completed ? start : start + travelTime(path, forward, vehicle);
+        result.add(new TimeWindow(path, entryPoint, forward, start, end, completed));
+        start = end;
+      }
+      completed = false;
+      previousPoint = point;
+    }
+    return result;
+  }
+
+  /**
+   * Postpones the time windows of all clients that have fallen behind them.
+   * A client that does not hold the path of its first pending time window yet is waiting to enter
+   * it, so its pending time windows are postponed to start now at the earliest. A client holding
+   * it is travelling along it, so its pending time windows are postponed for it to end now at the
+   * earliest.
+   *
+   * @param now The current point of time.
+   */
+  private void postponeOverdueTimeWindows(long now) {
+    for (Map.Entry<Scheduler.Client, List<TimeWindow>> entry : windowsByClient.entrySet()) {
+      TimeWindow firstPending = entry.getValue().stream()
+          .filter(window -> !window.completed)
+          .findFirst()
+          .orElse(null);
+      if (firstPending == null) {
+        continue;
+      }
+      boolean travelling
+          = reservationPool.getReservationEntry(firstPending.path).getClient() == entry.getKey();
+      long delay = now - (travelling ? firstPending.end : firstPending.start);
+      if (delay <= 0) {
+        continue;
+      }
+      List<TimeWindow> postponed = new ArrayList<>();
+      for (TimeWindow window : entry.getValue()) {
+        postponed.add(window.completed ? window : window.postponedBy(delay));
+      }
+      entry.setValue(postponed);
+    }
+  }
+
+  private long travelTime(Path path, boolean forward, @Nullable Vehicle vehicle) {
+    int velocity = forward ? path.getMaxVelocity() : path.getMaxReverseVelocity();
+    if (vehicle != null) {
+      int vehicleVelocity = forward ? vehicle.getMaxVelocity() : vehicle.getMaxReverseVelocity();
+      if (vehicleVelocity > 0) {
+        velocity = velocity > 0 ? Math.min(velocity, vehicleVelocity) : vehicleVelocity;
+      }
+    }
+    if (velocity <= 0) {
+      velocity = FALLBACK_VELOCITY;
+    }
+    return Math.max(1, path.getLength()) * 1000 / velocity;
+  }
+
+  /**
+   * Returns the conflict between the given clients' time windows.
+   *
+   * @return The conflict, or <code>null</code>, if the time windows do not conflict.
+   */
+  @Nullable
+  private Conflict findConflict(Scheduler.Client client,
+                                List<TimeWindow> ownWindows,
+                                Scheduler.Client other,
+                                List<TimeWindow> otherWindows) {
+    Conflict conflict = new Conflict();
+    boolean conflicting = false;
+    for (TimeWindow ownWindow : ownWindows) {
+      for (TimeWindow otherWindow : otherWindows) {
+        if (!ownWindow.opposes(otherWindow)) {
+          continue;
+        }
+        // A client already on or at a segment the other one is going to travel along in the
+        // opposite direction is committed to it, even if their time windows for it do not overlap.
+        conflict.ownHolding |= isHolding(client, ownWindow);
+        conflict.otherHolding |= isHolding(other, otherWindow);
+        if (ownWindow.overlaps(otherWindow, margin)) {
+          conflicting = true;
+          conflict.ownStart = Math.min(conflict.ownStart, ownWindow.start);
+          conflict.otherStart = Math.min(conflict.otherStart, otherWindow.start);
+        }
+      }
+    }
+    return conflicting ? conflict : null;
+  }
+
+  /**
+   * Checks whether the given client has to give way to the other one.
+   *
+   * @param client The client.
+   * @param other The other client.
+   * @param conflict The conflict between the clients' time windows.
+   * @param overtakenClients The waiting clients the given client overtakes. The other client is
+   * added to it if the client may overtake it.
+   * @return <code>true</code> if, and only if, the client has to give way to the other one.
+   */
+  private boolean mustGiveWay(Scheduler.Client client,
+                              Scheduler.Client other,
+                              Conflict conflict,
+                              Set<Scheduler.Client> overtakenClients) {
+    if (conflict.ownHolding != conflict.otherHolding) {
+      return conflict.otherHolding;
+    }
+
+    boolean ownWaiting = isWaitingForHolder(client);
+    boolean otherWaiting = isWaitingForHolder(other);
+    if (ownWaiting != otherWaiting) {
+      Scheduler.Client waiting = ownWaiting ? client : other;
+      Scheduler.Client follower = ownWaiting ? other : client;
+      Set<Scheduler.Client> followers
+          = followersByWaitingClient.getOrDefault(waiting, Collections.emptySet());
+      boolean followerMayOvertake = followers.contains(follower) || followers.size() < maxFollowers;
+      if (followerMayOvertake && !ownWaiting) {
+        overtakenClients.add(other);
+      }
+      return followerMayOvertake == ownWaiting;
+    }
+
+    if (conflict.ownStart != conflict.otherStart) {
+      return conflict.otherStart < conflict.ownStart;
+    }
+    return other.getId().compareTo(client.getId()) < 0;
+  }
+
+  private boolean isWaitingForHolder(Scheduler.Client client) {
+    List<TimeWindow> ownWindows = windowsByClient.get(client);
+    for (Map.Entry<Scheduler.Client, List<TimeWindow>> entry : windowsByClient.entrySet()) {
+      if (entry.getKey() == client) {
+        continue;
+      }
+      Conflict conflict = findConflict(client, ownWindows, entry.getKey(), entry.getValue());
+      if (conflict != null && conflict.otherHolding && !conflict.ownHolding) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isHolding(Scheduler.Client client, TimeWindow window) {
+    return reservationPool.getReservationEntry(window.path).getClient() == client
+        || (window.entryPoint != null
+            && reservationPool.getReservationEntry(window.entryPoint).getClient() == client);
+  }
+
+  @Nullable
+  private Path selectPath(Set<TCSResource<?>> resources) {
+    for (TCSResource<?> resource : resources) {
+      if (resource instanceof Path) {
+        return ((Path) resource);
+      }
+    }
+
+    return null;
+  }
+
+  @Nullable
+  private Point selectPoint(Set<TCSResource<?>> resources) {
+    for (TCSResource<?> resource : resources) {
+      if (resource instanceof Point) {
+        return ((Point) resource);
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * The time window in which a client is expected to travel along a path.
+   */
+  private static class TimeWindow {
+
+    /**
+     * The path.
+     */
+    private final Path path;
+    /**
+     * The point the path is entered at, if known.
+     */
+    @Nullable
+    private final Point entryPoint;
+    /**
+     * The segment the path belongs to, identified by the names of the points it connects.
+     */
+    private final String segment;
+    /**
+     * Whether the path is travelled towards the point with the greater name.
+     */
+    private final boolean ascending;
+    /**
+     * The start of the time window (in ms).
+     */
+    private final long start;
+    /**
+     * The end of the time window (in ms).
+     */
+    private final long end;
+    /**
+     * Whether the client has already travelled along the path, but still occupies it.
+     */
+    private final boolean completed;
+
+    TimeWindow(Path path,
+               @Nullable Point entryPoint,
+               boolean forward,
+               long start,
+               long end,
+               boolean completed) {
+      this.path = path;
+      this.entryPoint = entryPoint;
+      String source = path.getSourcePoint().getName();
+      String destination = path.getDestinationPoint().getName();
+      this.segment = source.compareTo(destination) <= 0
+          ? source + "|" + destination
+          : destination + "|" + source;
+      this.ascending = forward == (destination.compareTo(source) > 0);
+      this.start = start;
+      this.end = end;
+      this.completed = completed;
+    }
+
+    private TimeWindow(TimeWindow window, long delay) {
+      this.path = window.path;
+      this.entryPoint = window.entryPoint;
+      this.segment = window.segment;
+      this.ascending = window.ascending;
+      this.start = window.start + delay;
+      this.end = window.end + delay;
+      this.completed = window.completed;
+    }
+
+    TimeWindow postponedBy(long delay) {
+      return new TimeWindow(this, delay);
+    }
+
+    boolean opposes(TimeWindow other) {
+      return ascending != other.ascending && segment.equals(other.segment);
+    }
+
+    boolean overlaps(TimeWindow other, long margin) {
+      // A client still occupying a path conflicts with any client about to travel along it.
+      return completed
+          || other.completed
+          || (start < other.end + margin && other.start < end + margin);
+    }
+  }
+
+  /**
+   * A conflict between two clients' time windows.
+   */
+  private static class Conflict {
+
+    /**
+     * The start of the client's first conflicting time window.
+     */
+    private long ownStart = Long.MAX_VALUE;
+    /**
+     * The start of the other client's first conflicting time window.
+     */
+    private long otherStart = Long.MAX_VALUE;
+    /**
+     * Whether the client holds a path, or the point to enter it at, the other client is going to
+     * travel along in the opposite direction.
+     */
+    private boolean ownHolding;
+    /**
+     * Whether the other client holds a path, or the point to enter it at, the client is going to
+     * travel along in the opposite direction.
+     */
+    private boolean otherHolding;
+  }
+}
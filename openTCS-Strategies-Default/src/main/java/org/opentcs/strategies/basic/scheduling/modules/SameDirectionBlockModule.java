@@ -16,6 +16,7 @@ import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Queue;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -27,6 +28,7 @@ import org.opentcs.data.model.Block;
 import org.opentcs.data.model.Path;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.strategies.basic.scheduling.ReservationPool;
+import org.opentcs.strategies.basic.scheduling.ResourceIdSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +58,10 @@ public class SameDirectionBlockModule
    * The permissions for all {@link Block.Type#SAME_DIRECTION_ONLY} blocks in a plant model.
    */
   private final Map<Block, BlockPermission> permissions = new HashMap<>();
+  /**
+   * The IDs of the members of all {@link Block.Type#SAME_DIRECTION_ONLY} blocks, by block.
+   */
+  private final Map<Block, ResourceIdSet> blockMembers = new HashMap<>();
   /**
    * A global object to be used for synchronization within the kernel.
    */
@@ -84,6 +90,7 @@ public class SameDirectionBlockModule
     for (Block block : blocks) {
       if (block.getType() == Block.Type.SAME_DIRECTION_ONLY) {
         permissions.put(block, new BlockPermission(block));
+        blockMembers.put(block, getMemberIds(block));
       }
     }
 
@@ -102,6 +109,7 @@ public class SameDirectionBlockModule
     }
 
     permissions.clear();
+    blockMembers.clear();
 
     initialized = false;
   }
@@ -129,8 +137,7 @@ public class SameDirectionBlockModule
       // Other modules may prevented the last allocation, discard any previous requests.
       discardPreviousRequests();
 
-      Set<Block> blocks = filterBlocksContainingResources(resources,
-                                                          Block.Type.SAME_DIRECTION_ONLY);
+      Set<Block> blocks = filterBlocksContainingResources(resources);
       if (blocks.isEmpty()) {
         LOG.debug("{}: No blocks to be checked, allocation allowed.", client.getId());
         return true;
@@ -201,21 +208,31 @@ public class SameDirectionBlockModule
     permissions.values().forEach(permission -> permission.clearPendingRequests());
   }
 
-  private Set<Block> filterBlocksContainingResources(Set<TCSResource<?>> resources,
-                                                     Block.Type type) {
+  private Set<Block> filterBlocksContainingResources(Set<TCSResource<?>> resources) {
+    ResourceIdSet resourceIds = reservationPool.getResourceIds(resources);
     Set<Block> result = new HashSet<>();
-    Set<Block> blocks = plantModelService.fetchObjects(Block.class,
-                                                       block -> block.getType() == type);
-    for (TCSResource<?> resource : resources) {
-      for (Block block : blocks) {
-        if (block.getMembers().contains(resource.getReference())) {
-          result.add(block);
-        }
+    for (Map.Entry<Block, ResourceIdSet> entry : blockMembers.entrySet()) {
+      if (entry.getValue().intersects(resourceIds)) {
+        result.add(entry.getKey());
       }
     }
     return result;
   }
 
+  /**
+   * Returns the IDs of the given block's members.
+   *
+   * @param block The block.
+   * @return The IDs of the given block's members.
+   */
+  private ResourceIdSet getMemberIds(Block block) {
+    // Let the kernel resolve the member references for us.
+    Set<TCSResource<?>> members = plantModelService.expandResources(block.getMembers()).stream()
+        .filter(resource -> block.getMembers().contains(resource.getReference()))
+        .collect(Collectors.toSet());
+    return reservationPool.getResourceIds(members);
+  }
+
   @Nullable
   private Path selectPath(Set<TCSResource<?>> resources) {
     for (TCSResource<?> resource : resources) {
@@ -242,10 +259,7 @@ public class SameDirectionBlockModule
   }
 
   private boolean blockResourcesAllocatedByClient(Block block, Scheduler.Client client) {
-    Set<Block> clientBlocks
-        = filterBlocksContainingResources(reservationPool.allocatedResources(client),
-                                          Block.Type.SAME_DIRECTION_ONLY);
-    return clientBlocks.contains(block);
+    return reservationPool.anyResourceAllocatedBy(blockMembers.get(block), client);
   }
 
   /**
@@ -7,8 +7,9 @@
  */
 package org.opentcs.strategies.basic.scheduling.modules;
 
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -19,8 +20,8 @@ import org.opentcs.components.kernel.services.InternalPlantModelService;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.data.model.Block;
 import org.opentcs.data.model.TCSResource;
-import org.opentcs.data.model.TCSResourceReference;
 import org.opentcs.strategies.basic.scheduling.ReservationPool;
+import org.opentcs.strategies.basic.scheduling.ResourceIdSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +51,10 @@ public class SingleVehicleBlockModule
    * A global object to be used for synchronization within the kernel.
    */
   private final Object globalSyncObject;
+  /**
+   * The IDs of the members of all {@link Block.Type#SINGLE_VEHICLE_ONLY} blocks, by block.
+   */
+  private final Map<Block, ResourceIdSet> blockMembers = new HashMap<>();
   /**
    * Whether this module is initialized.
    */
@@ -70,6 +75,13 @@ public class SingleVehicleBlockModule
       return;
     }
 
+    Set<Block> blocks = plantModelService.fetchObjects(Block.class);
+    for (Block block : blocks) {
+      if (block.getType() == Block.Type.SINGLE_VEHICLE_ONLY) {
+        blockMembers.put(block, getMemberIds(block));
+      }
+    }
+
     initialized = true;
   }
 
@@ -84,6 +96,8 @@ public class SingleVehicleBlockModule
       return;
     }
 
+    blockMembers.clear();
+
     initialized = false;
   }
 
@@ -109,21 +123,21 @@ public class SingleVehicleBlockModule
     requireNonNull(resources, "resources");
 
     synchronized (globalSyncObject) {
-      Set<Block> blocks = filterBlocksContainingResources(resources,
-                                                          Block.Type.SINGLE_VEHICLE_ONLY);
+      ResourceIdSet resourceIds = reservationPool.getResourceIds(resources);
 
-      if (blocks.isEmpty()) {
-        LOG.debug("{}: No blocks to be checked, allocation allowed.", client.getId());
-        return true;
-      }
-
-      Set<TCSResource<?>> resourcesExpanded = expandResources(resources);
-      resourcesExpanded = filterRelevantResources(resourcesExpanded, blocks);
+      for (Map.Entry<Block, ResourceIdSet> entry : blockMembers.entrySet()) {
+        if (!entry.getValue().intersects(resourceIds)) {
+          continue;
+        }
 
-      LOG.debug("{}: Checking resource availability: {}", client.getId(), resources);
-      if (!reservationPool.resourcesAvailableForUser(resourcesExpanded, client)) {
-        LOG.debug("{}: Resources unavailable.", client.getId());
-        return false;
+        LOG.debug("{}: Checking resource availability in block {}: {}",
+                  client.getId(),
+                  entry.getKey().getName(),
+                  resources);
+        if (!reservationPool.resourcesAvailableForUser(entry.getValue(), client)) {
+          LOG.debug("{}: Resources unavailable.", client.getId());
+          return false;
+        }
       }
 
       LOG.debug("{}: Resources available, allocation allowed.", client.getId());
@@ -147,50 +161,19 @@ public class SingleVehicleBlockModule
                                  Set<TCSResource<?>> resources) {
   }
 
-  private Set<Block> filterBlocksContainingResources(Set<TCSResource<?>> resources,
-                                                     Block.Type type) {
-    Set<Block> result = new HashSet<>();
-    Set<Block> blocks = plantModelService.fetchObjects(Block.class,
-                                                       block -> block.getType() == type);
-    for (TCSResource<?> resource : resources) {
-      for (Block block : blocks) {
-        if (block.getMembers().contains(resource.getReference())) {
-          result.add(block);
-        }
-      }
-    }
-    return result;
-  }
-
-  private Set<TCSResource<?>> filterRelevantResources(Set<TCSResource<?>> resources,
-                                                      Set<Block> blocks) {
-    Set<TCSResourceReference<?>> blockResources = blocks.stream()
-        .flatMap(block -> block.getMembers().stream())
-        .collect(Collectors.toSet());
-
-    return resources.stream()
-        .filter(resource -> blockResources.contains(resource.getReference()))
-        .collect(Collectors.toSet());
-  }
-
   /**
-   * Returns the given set of resources after expansion (by resolution of blocks, for instance) by
-   * the kernel.
+   * Returns the IDs of the given block's members.
    *
-   * @param resources The set of resources to be expanded.
-   * @return The given set of resources after expansion (by resolution of
-   * blocks, for instance) by the kernel.
+   * @param block The block.
+   * @return The IDs of the given block's members.
    */
-  private Set<TCSResource<?>> expandResources(Set<TCSResource<?>> resources) {
-    requireNonNull(resources, "resources");
-    // Build a set of references
-    Set<TCSResourceReference<?>> refs = resources.stream()
-        .map((resource) -> resource.getReference())
+  private ResourceIdSet getMemberIds(Block block) {
+    // Let the kernel resolve the member references for us.
+    Set<TCSResource<?>> members = plantModelService.expandResources(block.getMembers()).stream()
+        .filter(resource -> block.getMembers().contains(resource.getReference()))
         .collect(Collectors.toSet());
-    // Let the kernel expand the resources for us.
-    Set<TCSResource<?>> result = plantModelService.expandResources(refs);
-    LOG.debug("Set {} expanded to {}", resources, result);
-    return result;
+    LOG.debug("Members of block {}: {}", block.getName(), members);
+    return reservationPool.getResourceIds(members);
   }
 
 }
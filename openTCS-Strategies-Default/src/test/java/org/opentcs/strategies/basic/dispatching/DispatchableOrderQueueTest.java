@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderComparator;
+import org.opentcs.strategies.basic.dispatching.priorization.transportorder.TransportOrderComparatorByDeadline;
+import org.opentcs.strategies.basic.dispatching.priorization.transportorder.TransportOrderComparatorDeadlineAtRiskFirst;
+import org.opentcs.util.event.EventSource;
+
+/**
+ * Unit tests for {@link DispatchableOrderQueue}.
+ */
+public class DispatchableOrderQueueTest {
+
+  private TCSObjectService objectService;
+
+  private DefaultDispatcherConfiguration configuration;
+
+  private Instant now;
+
+  @Before
+  public void setUp() {
+    objectService = mock(TCSObjectService.class);
+    configuration = mock(DefaultDispatcherConfiguration.class);
+    when(configuration.orderPriorities())
+        .thenReturn(Arrays.asList(TransportOrderComparatorByDeadline.CONFIGURATION_KEY));
+    now = Instant.now();
+  }
+
+  @Test
+  public void returnOrdersPresentOnInitializationByPriority() {
+    TransportOrder order1 = dispatchableOrder("order1", 3);
+    TransportOrder order2 = dispatchableOrder("order2", 1);
+    TransportOrder order3 = dispatchableOrder("order3", 2);
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenReturn(new HashSet<>(Arrays.asList(order1, order2, order3)));
+
+    DispatchableOrderQueue queue = createQueue();
+    queue.initialize();
+
+    assertThat(queue.getOrders(order -> true), contains(order2, order3, order1));
+  }
+
+  @Test
+  public void addOrderBecomingDispatchable() {
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenReturn(Collections.emptySet());
+    DispatchableOrderQueue queue = createQueue();
+    queue.initialize();
+
+    TransportOrder order1 = dispatchableOrder("order1", 2);
+    TransportOrder order2 = dispatchableOrder("order2", 1);
+    queue.onEvent(modified(order1, order1.withState(TransportOrder.State.ACTIVE)));
+    queue.onEvent(modified(order2, order2.withState(TransportOrder.State.ACTIVE)));
+
+    assertThat(queue.getOrders(order -> true), contains(order2, order1));
+  }
+
+  @Test
+  public void replaceModifiedOrder() {
+    TransportOrder order = dispatchableOrder("order1", 1);
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenReturn(new HashSet<>(Arrays.asList(order)));
+    DispatchableOrderQueue queue = createQueue();
+    queue.initialize();
+
+    TransportOrder modifiedOrder = order.withProperty("someKey", "someValue");
+    queue.onEvent(modified(modifiedOrder, order));
+
+    assertThat(queue.size(), is(1));
+    assertThat(queue.getOrders(o -> true).get(0).getProperty("someKey"), is("someValue"));
+  }
+
+  @Test
+  public void removeOrderNoLongerDispatchable() {
+    TransportOrder order1 = dispatchableOrder("order1", 1);
+    TransportOrder order2 = dispatchableOrder("order2", 2);
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenReturn(new HashSet<>(Arrays.asList(order1, order2)));
+    DispatchableOrderQueue queue = createQueue();
+    queue.initialize();
+
+    queue.onEvent(modified(order1.withState(TransportOrder.State.BEING_PROCESSED), order1));
+    queue.onEvent(new TCSObjectEvent(null, order2, TCSObjectEvent.Type.OBJECT_REMOVED));
+
+    assertThat(queue.getOrders(order -> true), is(empty()));
+    assertThat(queue.contains("order1"), is(false));
+    assertThat(queue.contains("order2"), is(false));
+  }
+
+  @Test
+  public void applyFilter() {
+    TransportOrder order1 = dispatchableOrder("order1", 1);
+    TransportOrder order2 = dispatchableOrder("order2", 2);
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenReturn(new HashSet<>(Arrays.asList(order1, order2)));
+    DispatchableOrderQueue queue = createQueue();
+    queue.initialize();
+
+    assertThat(queue.getOrders(order -> order.getName().equals("order2")), contains(order2));
+  }
+
+  @Test
+  public void sortOnRetrievalForTimeDependentPriorities() {
+    when(configuration.orderPriorities())
+        .thenReturn(Arrays.asList(TransportOrderComparatorDeadlineAtRiskFirst.CONFIGURATION_KEY));
+    when(configuration.deadlineAtRiskPeriod()).thenReturn(60000L);
+    TransportOrder orderNotAtRisk = dispatchableOrder("order1", 120);
+    TransportOrder orderAtRisk = dispatchableOrder("order2", 30);
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenReturn(new HashSet<>(Arrays.asList(orderNotAtRisk, orderAtRisk)));
+    DispatchableOrderQueue queue = createQueue();
+    queue.initialize();
+
+    List<TransportOrder> result = queue.getOrders(order -> true);
+
+    assertThat(result, contains(orderAtRisk, orderNotAtRisk));
+  }
+
+  private DispatchableOrderQueue createQueue() {
+    Map<String, Comparator<TransportOrder>> availableComparators = new HashMap<>();
+    availableComparators.put(TransportOrderComparatorByDeadline.CONFIGURATION_KEY,
+                             new TransportOrderComparatorByDeadline());
+    availableComparators.put(TransportOrderComparatorDeadlineAtRiskFirst.CONFIGURATION_KEY,
+                             new TransportOrderComparatorDeadlineAtRiskFirst(configuration));
+    return new DispatchableOrderQueue(objectService,
+                                      mock(EventSource.class),
+                                      new CompositeOrderComparator(configuration,
+                                                                   availableComparators),
+                                      configuration);
+  }
+
+  private TransportOrder dispatchableOrder(String name, long deadlineSeconds) {
+    return new TransportOrder(name, new ArrayList<>())
+        .withCreationTime(now)
+        .withDeadline(now.plusSeconds(deadlineSeconds))
+        .withState(TransportOrder.State.DISPATCHABLE);
+  }
+
+  private TCSObjectEvent modified(TransportOrder current, TransportOrder previous) {
+    return new TCSObjectEvent(current, previous, TCSObjectEvent.Type.OBJECT_MODIFIED);
+  }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.ObjectHistory;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.TransportOrder;
+import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHING_DEFERRED;
+import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHING_RESUMED;
+import org.opentcs.strategies.basic.dispatching.DispatchableOrderQueue;
+import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
+import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeOrderCandidateComparator;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeVehicleCandidateComparator;
+import org.opentcs.strategies.basic.dispatching.priorization.CompositeVehicleComparator;
+import org.opentcs.strategies.basic.dispatching.selection.candidates.CompositeAssignmentCandidateSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.orders.CompositeTransportOrderSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.orders.IsFreelyDispatchableToAnyVehicle;
+import org.opentcs.strategies.basic.dispatching.selection.vehicles.CompositeVehicleSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.vehicles.IsAvailableForAnyOrder;
+
+/**
+ * Unit tests for {@link AssignFreeOrdersPhase}.
+ */
+public class AssignFreeOrdersPhaseTest {
+
+  private TCSObjectService objectService;
+
+  private DispatchableOrderQueue orderQueue;
+
+  private CompositeTransportOrderSelectionFilter transportOrderSelectionFilter;
+
+  private AssignFreeOrdersPhase phase;
+
+  private TransportOrder order;
+
+  @Before
+  public void setUp() {
+    objectService = mock(TCSObjectService.class);
+    orderQueue = mock(DispatchableOrderQueue.class);
+    transportOrderSelectionFilter = mock(CompositeTransportOrderSelectionFilter.class);
+    IsAvailableForAnyOrder isAvailableForAnyOrder = mock(IsAvailableForAnyOrder.class);
+    CompositeVehicleSelectionFilter vehicleSelectionFilter
+        = mock(CompositeVehicleSelectionFilter.class);
+
+    Vehicle vehicle = new Vehicle("vehicle");
+    when(objectService.fetchObjects(Vehicle.class, isAvailableForAnyOrder))
+        .thenReturn(new HashSet<>(Arrays.asList(vehicle)));
+    when(vehicleSelectionFilter.apply(vehicle)).thenReturn(new ArrayList<>());
+
+    phase = new AssignFreeOrdersPhase(objectService,
+                                      mock(Router.class),
+                                      mock(OrderReservationPool.class),
+                                      mock(CompositeVehicleComparator.class),
+                                      orderQueue,
+                                      mock(CompositeOrderCandidateComparator.class),
+                                      mock(CompositeVehicleCandidateComparator.class),
+                                      vehicleSelectionFilter,
+                                      isAvailableForAnyOrder,
+                                      mock(IsFreelyDispatchableToAnyVehicle.class),
+                                      transportOrderSelectionFilter,
+                                      mock(CompositeAssignmentCandidateSelectionFilter.class),
+                                      mock(TransportOrderUtil.class));
+
+    order = new TransportOrder("order", new ArrayList<>());
+  }
+
+  @Test
+  public void recordFilterReasonsOnlyWhenTheyChange() {
+    queueOrder(order);
+    phase.initialize();
+
+    when(transportOrderSelectionFilter.apply(order)).thenReturn(Arrays.asList("reason1"));
+    phase.run();
+    phase.run();
+    when(transportOrderSelectionFilter.apply(order))
+        .thenReturn(Arrays.asList("reason1", "reason2"));
+    phase.run();
+    phase.run();
+
+    ArgumentCaptor<ObjectHistory.Entry> captor = ArgumentCaptor.forClass(ObjectHistory.Entry.class);
+    verify(objectService, times(2))
+        .appendObjectHistoryEntry(eq(order.getReference()), captor.capture());
+    assertThat(captor.getAllValues().get(0).getEventCode(), is(ORDER_DISPATCHING_DEFERRED));
+    assertThat(captor.getAllValues().get(0).getSupplement(), is(Arrays.asList("reason1")));
+    assertThat(captor.getAllValues().get(1).getSupplement(),
+               is(Arrays.asList("reason1", "reason2")));
+  }
+
+  @Test
+  public void forgetFilterReasonsOfOrdersThatLeftTheQueue() {
+    queueOrder(order);
+    phase.initialize();
+    when(transportOrderSelectionFilter.apply(order)).thenReturn(Arrays.asList("reason1"));
+    phase.run();
+
+    // The order leaves the queue, e.g. because it was withdrawn...
+    when(orderQueue.contains("order")).thenReturn(false);
+    when(orderQueue.getOrders(any())).thenReturn(new ArrayList<>());
+    phase.run();
+    // ...and, after being re-queued, is filtered again for the same reason.
+    queueOrder(order);
+    phase.run();
+
+    verify(objectService, times(2))
+        .appendObjectHistoryEntry(eq(order.getReference()), any(ObjectHistory.Entry.class));
+  }
+
+  @Test
+  public void seedFilterReasonsFromOrderHistory() {
+    order = order
+        .withHistoryEntry(new ObjectHistory.Entry(ORDER_DISPATCHING_DEFERRED,
+                                                  Arrays.asList("reason1")));
+    queueOrder(order);
+    phase.initialize();
+
+    when(transportOrderSelectionFilter.apply(order)).thenReturn(Arrays.asList("reason1"));
+    phase.run();
+
+    verify(objectService, never())
+        .appendObjectHistoryEntry(eq(order.getReference()), any(ObjectHistory.Entry.class));
+  }
+
+  @Test
+  public void doNotSeedFilterReasonsOfResumedOrders() {
+    order = order
+        .withHistoryEntry(new ObjectHistory.Entry(ORDER_DISPATCHING_DEFERRED,
+                                                  Arrays.asList("reason1")))
+        .withHistoryEntry(new ObjectHistory.Entry(ORDER_DISPATCHING_RESUMED,
+                                                  Collections.emptyList()));
+    queueOrder(order);
+    phase.initialize();
+
+    when(transportOrderSelectionFilter.apply(order)).thenReturn(Arrays.asList("reason1"));
+    phase.run();
+
+    ArgumentCaptor<ObjectHistory.Entry> captor = ArgumentCaptor.forClass(ObjectHistory.Entry.class);
+    verify(objectService).appendObjectHistoryEntry(eq(order.getReference()), captor.capture());
+    assertThat(captor.getValue().getEventCode(), is(ORDER_DISPATCHING_DEFERRED));
+  }
+
+  private void queueOrder(TransportOrder queuedOrder) {
+    List<TransportOrder> orders = Arrays.asList(queuedOrder);
+    when(orderQueue.contains(queuedOrder.getName())).thenReturn(true);
+    when(orderQueue.getOrders(any())).thenReturn(orders);
+  }
+}
@@ -18,6 +18,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.opentcs.components.kernel.Dispatcher;
@@ -41,7 +42,7 @@ public class DefaultParkingPositionSupplierTest {
   @Before
   public void setUp() {
     plantModelService = mock(InternalPlantModelService.class);
-    router = mock(Router.class);
+    router = mock(Router.class, CALLS_REAL_METHODS);
     vehicle = new Vehicle("vehicle");
     supplier = new DefaultParkingPositionSupplier(plantModelService, router);
   }
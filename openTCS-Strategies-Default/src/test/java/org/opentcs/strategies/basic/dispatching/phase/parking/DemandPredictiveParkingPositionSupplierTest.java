@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.parking;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+
+/**
+ * Unit tests for {@link DemandPredictiveParkingPositionSupplier}.
+ */
+public class DemandPredictiveParkingPositionSupplierTest {
+
+  private InternalPlantModelService plantModelService;
+  private Router router;
+  private PickupDemandStatistics demandStatistics;
+  private Point vehiclePosition;
+  private Point nearParkingPosition;
+  private Point farParkingPosition;
+  private Vehicle vehicle;
+  private DemandPredictiveParkingPositionSupplier supplier;
+
+  @Before
+  public void setUp() {
+    plantModelService = mock(InternalPlantModelService.class);
+    router = mock(Router.class, CALLS_REAL_METHODS);
+    demandStatistics = mock(PickupDemandStatistics.class);
+    DefaultDispatcherConfiguration configuration = mock(DefaultDispatcherConfiguration.class);
+    when(configuration.demandPredictionWindow()).thenReturn(1800000L);
+    when(configuration.demandPredictionHotspots()).thenReturn(5);
+
+    vehiclePosition = new Point("vehicle's current position");
+    nearParkingPosition = new Point("parking position close to the vehicle")
+        .withType(Point.Type.PARK_POSITION);
+    farParkingPosition = new Point("parking position far from the vehicle")
+        .withType(Point.Type.PARK_POSITION);
+    vehicle = new Vehicle("vehicle").withCurrentPosition(vehiclePosition.getReference());
+
+    when(router.getTargetedPoints()).thenReturn(new HashSet<>());
+    when(plantModelService.fetchObject(Point.class, vehiclePosition.getReference()))
+        .thenReturn(vehiclePosition);
+    when(plantModelService.fetchObjects(eq(Point.class), any()))
+        .thenReturn(new HashSet<>(Arrays.asList(nearParkingPosition, farParkingPosition)));
+    when(router.getCosts(vehicle, vehiclePosition, nearParkingPosition)).thenReturn(1L);
+    when(router.getCosts(vehicle, vehiclePosition, farParkingPosition)).thenReturn(10L);
+
+    supplier = new DemandPredictiveParkingPositionSupplier(plantModelService,
+                                                           router,
+                                                           demandStatistics,
+                                                           configuration);
+    supplier.initialize();
+  }
+
+  @After
+  public void tearDown() {
+    supplier.terminate();
+  }
+
+  @Test
+  public void returnNearestParkingPositionWithoutExpectedDemand() {
+    when(demandStatistics.expectedDemand(any(), anyLong())).thenReturn(new HashMap<>());
+
+    Optional<Point> result = supplier.findParkingPosition(vehicle);
+
+    assertThat(result, is(Optional.of(nearParkingPosition)));
+  }
+
+  @Test
+  public void returnParkingPositionClosestToExpectedPickups() {
+    Point stationPoint = new Point("station point");
+    Location station = station("station", stationPoint);
+    Map<TCSObjectReference<Location>, Integer> demand = new HashMap<>();
+    demand.put(station.getReference(), 3);
+    when(demandStatistics.expectedDemand(any(), anyLong())).thenReturn(demand);
+    when(router.getCosts(vehicle, nearParkingPosition, stationPoint)).thenReturn(20L);
+    when(router.getCosts(vehicle, farParkingPosition, stationPoint)).thenReturn(2L);
+
+    Optional<Point> result = supplier.findParkingPosition(vehicle);
+
+    assertThat(result, is(Optional.of(farParkingPosition)));
+  }
+
+  @Test
+  public void weightPickupsByExpectedDemand() {
+    Point stationPoint1 = new Point("station point 1");
+    Point stationPoint2 = new Point("station point 2");
+    Location station1 = station("station1", stationPoint1);
+    Location station2 = station("station2", stationPoint2);
+    Map<TCSObjectReference<Location>, Integer> demand = new HashMap<>();
+    demand.put(station1.getReference(), 1);
+    demand.put(station2.getReference(), 5);
+    when(demandStatistics.expectedDemand(any(), anyLong())).thenReturn(demand);
+    when(router.getCosts(vehicle, nearParkingPosition, stationPoint1)).thenReturn(1L);
+    when(router.getCosts(vehicle, nearParkingPosition, stationPoint2)).thenReturn(20L);
+    when(router.getCosts(vehicle, farParkingPosition, stationPoint1)).thenReturn(20L);
+    when(router.getCosts(vehicle, farParkingPosition, stationPoint2)).thenReturn(1L);
+
+    Optional<Point> result = supplier.findParkingPosition(vehicle);
+
+    assertThat(result, is(Optional.of(farParkingPosition)));
+  }
+
+  @Test
+  public void leavePickupsServedByOtherIdleVehicles() {
+    Point stationPoint = new Point("station point");
+    Location station = station("station", stationPoint);
+    Map<TCSObjectReference<Location>, Integer> demand = new HashMap<>();
+    demand.put(station.getReference(), 3);
+    when(demandStatistics.expectedDemand(any(), anyLong())).thenReturn(demand);
+    when(router.getCosts(vehicle, nearParkingPosition, stationPoint)).thenReturn(20L);
+    when(router.getCosts(vehicle, farParkingPosition, stationPoint)).thenReturn(2L);
+
+    Vehicle otherVehicle = new Vehicle("other vehicle")
+        .withIntegrationLevel(Vehicle.IntegrationLevel.TO_BE_UTILIZED)
+        .withProcState(Vehicle.ProcState.IDLE)
+        .withCurrentPosition(stationPoint.getReference());
+    when(plantModelService.fetchObjects(Vehicle.class))
+        .thenReturn(new HashSet<>(Arrays.asList(vehicle, otherVehicle)));
+    when(router.getCosts(otherVehicle, stationPoint, stationPoint)).thenReturn(0L);
+
+    Optional<Point> result = supplier.findParkingPosition(vehicle);
+
+    assertThat(result, is(Optional.of(nearParkingPosition)));
+  }
+
+  private Location station(String name, Point accessPoint) {
+    LocationType locationType = new LocationType("station type");
+    Location location = new Location(name, locationType.getReference());
+    Location.Link link = new Location.Link(location.getReference(), accessPoint.getReference());
+    location = location.withAttachedLinks(new HashSet<>(Arrays.asList(link)));
+    when(plantModelService.fetchObject(Location.class, location.getReference()))
+        .thenReturn(location);
+    when(plantModelService.fetchObject(Point.class, accessPoint.getReference()))
+        .thenReturn(accessPoint);
+    return location;
+  }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.parking;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.event.EventSource;
+
+/**
+ * Unit tests for {@link PickupDemandStatistics}.
+ */
+public class PickupDemandStatisticsTest {
+
+  private static final long WINDOW = TimeUnit.MINUTES.toMillis(30);
+
+  private TCSObjectService objectService;
+
+  private PickupDemandStatistics statistics;
+
+  private TCSObjectReference<Location> location1;
+
+  private TCSObjectReference<Location> location2;
+
+  @Before
+  public void setUp() {
+    objectService = mock(TCSObjectService.class);
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenReturn(Collections.emptySet());
+    statistics
+        = new PickupDemandStatistics(objectService, mock(EventSource.class), 3, ZoneOffset.UTC);
+    statistics.initialize();
+
+    LocationType locationType = new LocationType("locationType");
+    location1 = new Location("location1", locationType.getReference()).getReference();
+    location2 = new Location("location2", locationType.getReference()).getReference();
+  }
+
+  @After
+  public void tearDown() {
+    statistics.terminate();
+  }
+
+  @Test
+  public void predictDemandFromSameTimeOfDayOnPreviousDays() {
+    statistics.recordPickup(location1, time(1, 8, 10));
+    statistics.recordPickup(location1, time(2, 8, 20));
+    statistics.recordPickup(location2, time(2, 8, 15));
+    statistics.recordPickup(location2, time(2, 14, 0));
+
+    assertThat(statistics.expectedDemand(time(3, 8, 0), WINDOW), hasEntry(location1, 2));
+    assertThat(statistics.expectedDemand(time(3, 8, 0), WINDOW), hasEntry(location2, 1));
+    assertThat(statistics.expectedDemand(time(3, 14, 0), WINDOW), not(hasKey(location1)));
+    assertThat(statistics.expectedDemand(time(3, 14, 0), WINDOW), hasEntry(location2, 1));
+  }
+
+  @Test
+  public void averageExpectedPickupCountOverKeptDays() {
+    statistics.recordPickup(location1, time(1, 8, 10));
+    statistics.recordPickup(location1, time(2, 8, 20));
+    statistics.recordPickup(location2, time(2, 8, 15));
+    statistics.recordPickup(location2, time(2, 14, 0));
+
+    assertThat(statistics.expectedPickupCount(time(3, 8, 0), WINDOW), is(1.5));
+    assertThat(statistics.expectedPickupCount(time(3, 14, 0), WINDOW), is(0.5));
+    assertThat(statistics.expectedPickupCount(time(9, 8, 0), WINDOW), is(0.0));
+  }
+
+  @Test
+  public void ignorePickupsOutsideWindow() {
+    statistics.recordPickup(location1, time(1, 9, 0));
+
+    assertThat(statistics.expectedDemand(time(2, 8, 0), WINDOW).isEmpty(), is(true));
+  }
+
+  @Test
+  public void forgetDaysOutsideHistory() {
+    statistics.recordPickup(location1, time(1, 8, 0));
+    statistics.recordPickup(location1, time(2, 8, 0));
+    // Three past days plus the current one: day 1 is dropped when day 5 begins.
+    statistics.recordPickup(location2, time(5, 12, 0));
+
+    assertThat(statistics.expectedDemand(time(5, 8, 0), WINDOW), hasEntry(location1, 1));
+    assertThat(statistics.expectedDemand(time(8, 8, 0), WINDOW).isEmpty(), is(true));
+  }
+
+  @Test
+  public void predictFromPastDaysOnly() {
+    statistics.recordPickup(location1, time(1, 8, 10));
+    statistics.recordPickup(location1, time(2, 8, 10));
+    // A pick-up on the current day must neither count nor dilute the average.
+    statistics.recordPickup(location1, time(3, 7, 0));
+
+    assertThat(statistics.expectedDemand(time(3, 8, 0), WINDOW), hasEntry(location1, 2));
+    assertThat(statistics.expectedPickupCount(time(3, 8, 0), WINDOW), is(1.0));
+  }
+
+  @Test
+  public void keepPreviousDayWithSingleDayOfHistory() {
+    statistics.terminate();
+    statistics
+        = new PickupDemandStatistics(objectService, mock(EventSource.class), 1, ZoneOffset.UTC);
+    statistics.initialize();
+
+    statistics.recordPickup(location1, time(1, 8, 10));
+    // The current day's first pick-up must not overwrite the previous day's counts.
+    statistics.recordPickup(location1, time(2, 7, 0));
+
+    assertThat(statistics.expectedDemand(time(2, 8, 0), WINDOW), hasEntry(location1, 1));
+    assertThat(statistics.expectedPickupCount(time(2, 8, 0), WINDOW), is(1.0));
+  }
+
+  @Test
+  public void recordFinishedOrders() {
+    TransportOrder order = transportOrder("order", location1)
+        .withCreationTime(time(1, 8, 0))
+        .withState(TransportOrder.State.BEING_PROCESSED);
+
+    statistics.onEvent(modified(order.withState(TransportOrder.State.FINISHED), order));
+
+    assertThat(statistics.expectedDemand(time(2, 8, 0), WINDOW), hasEntry(location1, 1));
+  }
+
+  @Test
+  public void ignoreDispensableOrders() {
+    TransportOrder order = transportOrder("order", location1)
+        .withCreationTime(time(1, 8, 0))
+        .withDispensable(true)
+        .withState(TransportOrder.State.BEING_PROCESSED);
+
+    statistics.onEvent(modified(order.withState(TransportOrder.State.FINISHED), order));
+
+    assertThat(statistics.expectedDemand(time(2, 8, 0), WINDOW).isEmpty(), is(true));
+  }
+
+  @Test
+  public void ignoreOrdersToPoints() {
+    Point point = new Point("point");
+    TransportOrder order = new TransportOrder(
+        "order",
+        Arrays.asList(new DriveOrder(new DriveOrder.Destination(point.getReference())
+            .withOperation(DriveOrder.Destination.OP_MOVE)))
+    )
+        .withCreationTime(time(1, 8, 0))
+        .withState(TransportOrder.State.BEING_PROCESSED);
+
+    statistics.onEvent(modified(order.withState(TransportOrder.State.FINISHED), order));
+
+    assertThat(statistics.expectedDemand(time(2, 8, 0), WINDOW).isEmpty(), is(true));
+  }
+
+  private Instant time(int day, int hour, int minute) {
+    return LocalDateTime.of(2020, 1, day, hour, minute).toInstant(ZoneOffset.UTC);
+  }
+
+  private TransportOrder transportOrder(String name, TCSObjectReference<Location> location) {
+    return new TransportOrder(
+        name,
+        Arrays.asList(new DriveOrder(new DriveOrder.Destination(location)
+            .withOperation("Load cargo")))
+    );
+  }
+
+  private TCSObjectEvent modified(TransportOrder current, TransportOrder previous) {
+    return new TCSObjectEvent(current, previous, TCSObjectEvent.Type.OBJECT_MODIFIED);
+  }
+}
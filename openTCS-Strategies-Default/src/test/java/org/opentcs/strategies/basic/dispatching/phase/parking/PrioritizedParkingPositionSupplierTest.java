@@ -17,6 +17,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.opentcs.components.kernel.Dispatcher;
@@ -43,7 +44,7 @@ public class PrioritizedParkingPositionSupplierTest {
   @Before
   public void setUp() {
     plantModelService = mock(InternalPlantModelService.class);
-    router = mock(Router.class);
+    router = mock(Router.class, CALLS_REAL_METHODS);
     priorityFunction = new ParkingPositionToPriorityFunction();
     supplier = new PrioritizedParkingPositionSupplier(plantModelService, router, priorityFunction);
   }
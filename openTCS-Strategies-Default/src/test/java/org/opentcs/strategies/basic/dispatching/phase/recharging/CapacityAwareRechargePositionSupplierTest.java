@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.recharging;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+
+/**
+ * Unit tests for {@link CapacityAwareRechargePositionSupplier}.
+ */
+public class CapacityAwareRechargePositionSupplierTest {
+
+  private static final String RECHARGE_OPERATION = "Recharge";
+
+  private InternalPlantModelService plantModelService;
+
+  private Point vehiclePosition;
+
+  private Point accessPoint;
+
+  private LocationType rechargeLocType;
+
+  private Vehicle vehicle;
+
+  private CapacityAwareRechargePositionSupplier rechargePosSupplier;
+
+  @Before
+  public void setUp() {
+    plantModelService = mock(InternalPlantModelService.class);
+    rechargePosSupplier = new CapacityAwareRechargePositionSupplier(plantModelService,
+                                                                    mock(Router.class, CALLS_REAL_METHODS));
+
+    vehiclePosition = new Point("vehicle position");
+    accessPoint = new Point("access point");
+    rechargeLocType = new LocationType("recharge location type")
+        .withAllowedOperations(Collections.singletonList(RECHARGE_OPERATION));
+    vehicle = new Vehicle("vehicle")
+        .withRechargeOperation(RECHARGE_OPERATION)
+        .withCurrentPosition(vehiclePosition.getReference());
+
+    when(plantModelService.fetchObject(Point.class, vehiclePosition.getReference()))
+        .thenReturn(vehiclePosition);
+    when(plantModelService.fetchObject(Point.class, accessPoint.getReference()))
+        .thenReturn(accessPoint);
+    rechargePosSupplier.initialize();
+  }
+
+  @After
+  public void tearDown() {
+    rechargePosSupplier.terminate();
+  }
+
+  @Test
+  public void ignoreCapacityOfLocationsWithoutChargingSlots() {
+    Location location = rechargeLocation(rechargeLocType);
+    Vehicle chargingVehicle = chargingVehicleAt(accessPoint);
+    when(plantModelService.fetchObjects(Vehicle.class))
+        .thenReturn(new HashSet<>(Arrays.asList(vehicle, chargingVehicle)));
+
+    List<DriveOrder.Destination> result = rechargePosSupplier.findRechargeSequence(vehicle);
+
+    assertThat(result, hasSize(1));
+    assertThat(result.get(0).getDestination(), is(location.getReference()));
+  }
+
+  @Test
+  public void skipLocationWithAllSlotsUsedByChargingVehicles() {
+    rechargeLocation(rechargeLocType.withProperty(
+        CapacityAwareRechargePositionSupplier.PROPKEY_CHARGING_SLOTS, "1"
+    ));
+    Vehicle chargingVehicle = chargingVehicleAt(accessPoint);
+    when(plantModelService.fetchObjects(Vehicle.class))
+        .thenReturn(new HashSet<>(Arrays.asList(vehicle, chargingVehicle)));
+
+    assertThat(rechargePosSupplier.findRechargeSequence(vehicle), is(empty()));
+  }
+
+  @Test
+  public void skipLocationWithAllSlotsUsedByVehiclesHeadingForIt() {
+    Location location = rechargeLocation(rechargeLocType)
+        .withProperty(CapacityAwareRechargePositionSupplier.PROPKEY_CHARGING_SLOTS, "1");
+    when(plantModelService.fetchObjects(Location.class))
+        .thenReturn(Collections.singleton(location));
+    TransportOrder rechargeOrder = new TransportOrder(
+        "recharge order",
+        Arrays.asList(new DriveOrder(new DriveOrder.Destination(location.getReference())
+            .withOperation(RECHARGE_OPERATION)))
+    );
+    Vehicle otherVehicle = new Vehicle("other vehicle")
+        .withRechargeOperation(RECHARGE_OPERATION)
+        .withTransportOrder(rechargeOrder.getReference());
+    when(plantModelService.fetchObject(TransportOrder.class, rechargeOrder.getReference()))
+        .thenReturn(rechargeOrder);
+    when(plantModelService.fetchObjects(Vehicle.class))
+        .thenReturn(new HashSet<>(Arrays.asList(vehicle, otherVehicle)));
+
+    assertThat(rechargePosSupplier.findRechargeSequence(vehicle), is(empty()));
+  }
+
+  @Test
+  public void useLocationWithFreeSlots() {
+    Location location = rechargeLocation(rechargeLocType.withProperty(
+        CapacityAwareRechargePositionSupplier.PROPKEY_CHARGING_SLOTS, "2"
+    ));
+    Vehicle chargingVehicle = chargingVehicleAt(accessPoint);
+    when(plantModelService.fetchObjects(Vehicle.class))
+        .thenReturn(new HashSet<>(Arrays.asList(vehicle, chargingVehicle)));
+
+    List<DriveOrder.Destination> result = rechargePosSupplier.findRechargeSequence(vehicle);
+
+    assertThat(result, hasSize(1));
+    assertThat(result.get(0).getDestination(), is(location.getReference()));
+  }
+
+  private Location rechargeLocation(LocationType locationType) {
+    Location location = new Location("recharge location", locationType.getReference());
+    Location.Link link = new Location.Link(location.getReference(), accessPoint.getReference());
+    location = location.withAttachedLinks(new HashSet<>(Arrays.asList(link)));
+
+    when(plantModelService.fetchObjects(Location.class))
+        .thenReturn(Collections.singleton(location));
+    when(plantModelService.fetchObject(LocationType.class, locationType.getReference()))
+        .thenReturn(locationType);
+    return location;
+  }
+
+  private Vehicle chargingVehicleAt(Point point) {
+    return new Vehicle("charging vehicle")
+        .withState(Vehicle.State.CHARGING)
+        .withCurrentPosition(point.getReference());
+  }
+}
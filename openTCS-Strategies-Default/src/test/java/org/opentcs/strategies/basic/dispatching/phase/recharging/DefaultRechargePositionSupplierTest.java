@@ -17,6 +17,7 @@ import static org.hamcrest.Matchers.empty;
 import org.junit.*;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.opentcs.components.kernel.Dispatcher;
@@ -51,7 +52,7 @@ public class DefaultRechargePositionSupplierTest {
   @Before
   public void setUp() {
     plantModelService = mock(InternalPlantModelService.class);
-    router = mock(Router.class);
+    router = mock(Router.class, CALLS_REAL_METHODS);
     rechargePosSupplier = new DefaultRechargePositionSupplier(plantModelService, router);
   }
 
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+
+/**
+ * Unit tests for {@link CachingPointRouter}.
+ */
+public class CachingPointRouterTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointC;
+  private PointRouter delegate;
+  private CachingPointRouter pointRouter;
+
+  @Before
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    delegate = mock(PointRouter.class);
+    pointRouter = new CachingPointRouter(delegate, 2);
+  }
+
+  @Test
+  public void answerRepeatedCostRequestsFromCache() {
+    when(delegate.getCosts(pointA.getReference(), pointB.getReference())).thenReturn(42L);
+
+    assertThat(pointRouter.getCosts(pointA, pointB), is(42L));
+    assertThat(pointRouter.getCosts(pointA, pointB), is(42L));
+
+    verify(delegate, times(1)).getCosts(pointA.getReference(), pointB.getReference());
+    assertThat(pointRouter.getHitCount(), is(1L));
+    assertThat(pointRouter.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void answerRepeatedRouteRequestsFromCache() {
+    Path path = new Path("A--B", pointA.getReference(), pointB.getReference());
+    Route.Step step = new Route.Step(path, pointA, pointB, Vehicle.Orientation.FORWARD, 0);
+    when(delegate.getRouteSteps(pointA, pointB)).thenReturn(new ArrayList<>(Arrays.asList(step)));
+
+    pointRouter.getRouteSteps(pointA, pointB).clear();
+    pointRouter.getRouteSteps(pointA, pointB).clear();
+
+    assertThat(pointRouter.getRouteSteps(pointA, pointB), is(Arrays.asList(step)));
+    verify(delegate, times(1)).getRouteSteps(pointA, pointB);
+  }
+
+  @Test
+  public void cacheMissingRoutes() {
+    when(delegate.getRouteSteps(pointA, pointC)).thenReturn(null);
+
+    assertThat(pointRouter.getRouteSteps(pointA, pointC), is(nullValue()));
+    assertThat(pointRouter.getRouteSteps(pointA, pointC), is(nullValue()));
+
+    verify(delegate, times(1)).getRouteSteps(pointA, pointC);
+  }
+
+  @Test
+  public void requestOnlyMissingCostsFromDelegate() {
+    when(delegate.getCosts(pointA.getReference(), pointB.getReference())).thenReturn(42L);
+    when(delegate.getCosts(pointA, Collections.singletonList(pointC)))
+        .thenReturn(Collections.singletonMap(pointC, 7L));
+    pointRouter.getCosts(pointA, pointB);
+
+    Map<Point, Long> expected = new HashMap<>();
+    expected.put(pointB, 42L);
+    expected.put(pointC, 7L);
+    assertThat(pointRouter.getCosts(pointA, Arrays.asList(pointB, pointC)), is(expected));
+    assertThat(pointRouter.getCosts(pointA, pointC), is(7L));
+
+    verify(delegate, times(1)).getCosts(pointA, Collections.singletonList(pointC));
+    assertThat(pointRouter.getHitCount(), is(2L));
+    assertThat(pointRouter.getMissCount(), is(2L));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsedEntries() {
+    pointRouter.getCosts(pointA, pointB);
+    pointRouter.getCosts(pointA, pointC);
+    pointRouter.getCosts(pointA, pointB);
+    pointRouter.getCosts(pointB, pointC);
+
+    assertThat(pointRouter.getSize(), is(2));
+    assertThat(pointRouter.getEvictionCount(), is(1L));
+
+    pointRouter.getCosts(pointA, pointB);
+    pointRouter.getCosts(pointA, pointC);
+    verify(delegate, times(1)).getCosts(pointA.getReference(), pointB.getReference());
+    verify(delegate, times(2)).getCosts(pointA.getReference(), pointC.getReference());
+  }
+}
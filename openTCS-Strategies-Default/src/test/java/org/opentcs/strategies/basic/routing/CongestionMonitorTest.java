@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorCongestion;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+
+/**
+ * Unit tests for {@link CongestionMonitor}.
+ */
+public class CongestionMonitorTest {
+
+  private TCSObjectService objectService;
+
+  private Scheduler scheduler;
+
+  private DefaultRouter router;
+
+  private EdgeEvaluatorCongestion edgeEvaluator;
+
+  private final Set<Vehicle> vehicles = new HashSet<>();
+
+  private final Map<String, Set<TCSResource<?>>> allocations = new HashMap<>();
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private Path pathAB;
+
+  private CongestionMonitor monitor;
+
+  @Before
+  public void setUp() {
+    objectService = mock(TCSObjectService.class);
+    scheduler = mock(Scheduler.class);
+    router = mock(DefaultRouter.class);
+    edgeEvaluator = new EdgeEvaluatorCongestion((edge, vehicle) -> 1.0, 1.0);
+    ShortestPathConfiguration configuration = mock(ShortestPathConfiguration.class);
+    when(configuration.congestionRefreshInterval()).thenReturn(1000);
+    when(configuration.congestionPenaltyHalfLife()).thenReturn(10000);
+
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pathAB = new Path("A --- B", pointA.getReference(), pointB.getReference());
+
+    when(objectService.fetchObjects(Vehicle.class)).thenReturn(vehicles);
+    when(scheduler.getAllocations()).thenReturn(allocations);
+
+    monitor = new CongestionMonitor(objectService,
+                                    scheduler,
+                                    router,
+                                    edgeEvaluator,
+                                    mock(ScheduledExecutorService.class),
+                                    configuration);
+  }
+
+  @Test
+  public void applyLoadOfAllocatedPath() {
+    vehicles.add(new Vehicle("Vehicle-01"));
+    allocations.put("Vehicle-01", new HashSet<>(Arrays.asList(pathAB, pointB)));
+
+    monitor.update(0);
+
+    assertThat(edgeEvaluator.getLoads().get(pathAB.getName()), is(closeTo(1.0, 0.001)));
+    verify(router).updatePathWeights(Collections.singleton(pathAB.getName()));
+  }
+
+  @Test
+  public void addLoadOfVehicleWaitingForPath() {
+    vehicles.add(new Vehicle("Vehicle-01"));
+    allocations.put("Vehicle-01", new HashSet<>(Arrays.asList(pathAB, pointB)));
+
+    TransportOrder order = new TransportOrder(
+        "TransportOrder-01",
+        Arrays.asList(
+            new DriveOrder(new DriveOrder.Destination(pointB.getReference()))
+                .withRoute(new Route(Arrays.asList(new Route.Step(pathAB,
+                                                                  pointA,
+                                                                  pointB,
+                                                                  Vehicle.Orientation.FORWARD,
+                                                                  0)),
+                                     1))
+        )
+    ).withCurrentDriveOrderIndex(0);
+    when(objectService.fetchObject(TransportOrder.class, order.getReference())).thenReturn(order);
+    vehicles.add(new Vehicle("Vehicle-02")
+        .withTransportOrder(order.getReference())
+        .withCurrentPosition(pointA.getReference()));
+    when(objectService.fetchObject(Point.class, "A")).thenReturn(pointA);
+
+    monitor.update(0);
+
+    assertThat(edgeEvaluator.getLoads().get(pathAB.getName()), is(closeTo(2.0, 0.001)));
+  }
+
+  @Test
+  public void decayLoadAfterCongestionEnds() {
+    vehicles.add(new Vehicle("Vehicle-01"));
+    allocations.put("Vehicle-01", new HashSet<>(Arrays.asList(pathAB, pointB)));
+    monitor.update(0);
+
+    allocations.clear();
+    monitor.update(10000);
+    assertThat(edgeEvaluator.getLoads().get(pathAB.getName()), is(closeTo(0.5, 0.001)));
+
+    monitor.update(100000);
+    assertThat(edgeEvaluator.getLoads().get(pathAB.getName()), is(nullValue()));
+  }
+
+  @Test
+  public void ignoreMinorLoadChanges() {
+    vehicles.add(new Vehicle("Vehicle-01"));
+    allocations.put("Vehicle-01", new HashSet<>(Arrays.asList(pathAB, pointB)));
+    monitor.update(0);
+
+    allocations.clear();
+    monitor.update(1000);
+
+    assertThat(edgeEvaluator.getLoads().get(pathAB.getName()), is(closeTo(1.0, 0.001)));
+    verify(router).updatePathWeights(Collections.singleton(pathAB.getName()));
+  }
+
+  @Test
+  public void addLoadOfDelayedTravel() {
+    TransportOrder order = new TransportOrder("TransportOrder-01", Collections.emptyList());
+    Vehicle vehicle = new Vehicle("Vehicle-01")
+        .withMaxVelocity(1000)
+        .withCurrentPosition(pointA.getReference())
+        .withTransportOrder(order.getReference());
+    pointA = pointA.withOutgoingPaths(Collections.singleton(pathAB.getReference()));
+    Path path = pathAB.withLength(10000).withMaxVelocity(1000);
+    when(objectService.fetchObject(TransportOrder.class, order.getReference())).thenReturn(order);
+    when(objectService.fetchObject(Point.class, "A")).thenReturn(pointA);
+    when(objectService.fetchObject(Path.class, pathAB.getReference())).thenReturn(path);
+    vehicles.add(vehicle);
+    monitor.update(0);
+    verify(router, never()).updatePathWeights(any());
+
+    // Expected travel time is 10 s, measured 31 s, with a refresh interval of 1 s.
+    vehicles.clear();
+    vehicles.add(vehicle.withCurrentPosition(pointB.getReference()));
+    monitor.update(31000);
+
+    assertThat(edgeEvaluator.getLoads().get(pathAB.getName()), is(closeTo(2.0, 0.001)));
+  }
+}
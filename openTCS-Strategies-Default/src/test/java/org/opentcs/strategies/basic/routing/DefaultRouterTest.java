@@ -7,13 +7,31 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
 import org.junit.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -22,8 +40,16 @@ import org.mockito.invocation.InvocationOnMock;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.services.TCSObjectService;
 import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
 import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
 import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
 
 /**
@@ -37,11 +63,19 @@ public class DefaultRouterTest {
    * The vehicles which are returned when asking the kernel for vehicles.
    */
   private final Set<Vehicle> vehicles = new HashSet<>();
+  /**
+   * The points which are returned when asking the kernel for points.
+   */
+  private final Set<Point> points = new HashSet<>();
+  /**
+   * The paths which are returned when asking the kernel for paths.
+   */
+  private final Set<Path> paths = new HashSet<>();
 
   /**
    * The class to test.
    */
-  private Router router;
+  private DefaultRouter router;
 
   /**
    * The mocked object service to use.
@@ -65,10 +99,16 @@ public class DefaultRouterTest {
     objectService = mock(TCSObjectService.class);
     builder = mock(PointRouterFactory.class);
     when(objectService.fetchObjects(Vehicle.class)).thenReturn(vehicles);
+    when(objectService.fetchObjects(Point.class)).thenReturn(points);
+    when(objectService.fetchObjects(Path.class)).thenReturn(paths);
     when(objectService.fetchObject(eq(Vehicle.class), anyString()))
         .then(o -> vehicles.stream()
         .filter(t -> filterByName(o, t))
         .findFirst().orElse(null));
+    when(objectService.fetchObject(eq(Point.class), anyString()))
+        .then(o -> points.stream()
+        .filter(t -> filterByName(o, t))
+        .findFirst().orElse(null));
     configuration = mock(DefaultRouterConfiguration.class);
     when(configuration.routeToCurrentPosition()).thenReturn(false);
     modelGraphMapper = mock(DefaultModelGraphMapper.class);
@@ -115,6 +155,282 @@ public class DefaultRouterTest {
     verify(builder, times(15)).createPointRouter(any());
   }
 
+  @Test
+  public void shouldKeepPointRoutersIfTopologyIsUnchanged() {
+    createVehicle("Vehicle-000", -1);
+    createPath("A", "B");
+    router.initialize();
+
+    router.topologyChanged();
+
+    verify(builder, times(1)).createPointRouter(any());
+    verify(builder, never()).updatePointRouter(any(), any(), any());
+  }
+
+  @Test
+  public void shouldUpdatePointRoutersWithChangedPathsOnly() {
+    createVehicle("Vehicle-000", 1);
+    createVehicle("Vehicle-001", 2);
+    Path lockedPath = createPath("A", "B");
+    createPath("B", "C");
+    router.initialize();
+
+    paths.remove(lockedPath);
+    paths.add(lockedPath.withLocked(true));
+    router.topologyChanged();
+
+    verify(builder, times(2)).createPointRouter(any());
+    verify(builder, times(2))
+        .updatePointRouter(any(), any(), eq(Arrays.asList(lockedPath.withLocked(true))));
+  }
+
+  @Test
+  public void shouldUpdatePointRoutersWithPathsOfChangedWeights() {
+    createVehicle("Vehicle-000", -1);
+    Path path = createPath("A", "B");
+    createPath("B", "C");
+    router.initialize();
+
+    router.updatePathWeights(Arrays.asList(path.getName()));
+
+    verify(builder, times(1)).createPointRouter(any());
+    verify(builder, times(1)).updatePointRouter(any(), any(), eq(Arrays.asList(path)));
+  }
+
+  @Test
+  public void shouldRebuildPointRoutersIfPathsWereAdded() {
+    createVehicle("Vehicle-000", -1);
+    createPath("A", "B");
+    router.initialize();
+
+    createPath("B", "C");
+    router.topologyChanged();
+
+    verify(builder, times(2)).createPointRouter(any());
+    verify(builder, never()).updatePointRouter(any(), any(), any());
+  }
+
+  @Test
+  public void shouldAnswerRepeatedCostRequestsFromCache() {
+    when(configuration.routeCacheSize()).thenReturn(100);
+    PointRouter pointRouter = mock(PointRouter.class);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+    Vehicle vehicle = createVehicle("Vehicle-000", -1);
+    Path path = createPath("A", "B");
+    router.initialize();
+
+    router.getCostsByPointRef(vehicle, path.getSourcePoint(), path.getDestinationPoint());
+    router.getCostsByPointRef(vehicle, path.getSourcePoint(), path.getDestinationPoint());
+
+    verify(pointRouter, times(1)).getCosts(path.getSourcePoint(), path.getDestinationPoint());
+  }
+
+  @Test
+  public void shouldDiscardCacheIfPathsChanged() {
+    when(configuration.routeCacheSize()).thenReturn(100);
+    PointRouter pointRouter = mock(PointRouter.class);
+    PointRouter updatedPointRouter = mock(PointRouter.class);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+    when(builder.updatePointRouter(eq(pointRouter), any(), any())).thenReturn(updatedPointRouter);
+    Vehicle vehicle = createVehicle("Vehicle-000", -1);
+    Path path = createPath("A", "B");
+    router.initialize();
+    router.getCostsByPointRef(vehicle, path.getSourcePoint(), path.getDestinationPoint());
+
+    paths.remove(path);
+    paths.add(path.withLocked(true));
+    router.topologyChanged();
+    router.getCostsByPointRef(vehicle, path.getSourcePoint(), path.getDestinationPoint());
+
+    verify(pointRouter, times(1)).getCosts(path.getSourcePoint(), path.getDestinationPoint());
+    verify(updatedPointRouter, times(1))
+        .getCosts(path.getSourcePoint(), path.getDestinationPoint());
+  }
+
+  @Test
+  public void shouldCheckRoutabilityWithoutComputingRoutes() {
+    PointRouter pointRouter = mock(PointRouter.class);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+    Vehicle vehicle = createVehicle("Vehicle-000", -1);
+    Path pathAB = createPath("A", "B");
+    Graph<String, ModelEdge> graph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    graph.addVertex("A");
+    graph.addVertex("B");
+    graph.addEdge("A", "B", new ModelEdge(pathAB, false));
+    when(modelGraphMapper.translateModel(any(), any(), any())).thenReturn(graph);
+    router.initialize();
+
+    assertThat(router.checkRoutability(createTransportOrder("A", "B")),
+               is(Collections.singleton(vehicle)));
+    assertThat(router.checkRoutability(createTransportOrder("A", "B", "A")), is(empty()));
+    verify(modelGraphMapper, times(1)).translateModel(any(), any(), any());
+    verify(pointRouter, never()).getCosts(any(Point.class), any(Point.class));
+  }
+
+  @Test
+  public void shouldSelectCheapestRouteAcrossAllDestinationPoints() {
+    Vehicle vehicle = createVehicle("Vehicle-000", -1);
+    Point start = createPoint("S");
+    Location locationA = createLocation("A", 2);
+    Location locationB = createLocation("B", 2);
+    Map<String, Long> costs = new HashMap<>();
+    costs.put("S->A-0", 1L);
+    costs.put("S->A-1", 5L);
+    costs.put("A-0->B-0", 100L);
+    costs.put("A-0->B-1", 100L);
+    costs.put("A-1->B-0", 10L);
+    costs.put("A-1->B-1", 20L);
+    PointRouter pointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+    router.initialize();
+
+    List<DriveOrder> route = router.getRoute(vehicle,
+                                             start,
+                                             createTransportOrder(locationA, locationB)).get();
+
+    assertThat(route.get(0).getRoute().getFinalDestinationPoint().getName(), is("A-1"));
+    assertThat(route.get(0).getRoute().getCosts(), is(5L));
+    assertThat(route.get(1).getRoute().getFinalDestinationPoint().getName(), is("B-0"));
+    assertThat(route.get(1).getRoute().getCosts(), is(10L));
+    verify(pointRouter, times(2)).getRouteSteps(any(), any());
+  }
+
+  @Test
+  public void shouldSelectRoutesAsCheapAsExhaustiveSearch() {
+    Vehicle vehicle = createVehicle("Vehicle-000", -1);
+    Point start = createPoint("S");
+    List<Location> locations = Arrays.asList(createLocation("A", 3),
+                                             createLocation("B", 2),
+                                             createLocation("C", 3));
+    Random random = new Random(42);
+    Map<String, Long> costs = new HashMap<>();
+    for (Point src : points) {
+      for (Point dest : points) {
+        costs.put(src.getName() + "->" + dest.getName(),
+                  random.nextInt(8) == 0 ? PointRouter.INFINITE_COSTS : random.nextInt(1000));
+      }
+    }
+    PointRouter pointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+    router.initialize();
+
+    Optional<List<DriveOrder>> route = router.getRoute(
+        vehicle,
+        start,
+        createTransportOrder(locations.toArray(new Location[locations.size()]))
+    );
+
+    long expectedCosts = Long.MAX_VALUE;
+    for (int a = 0; a < 3; a++) {
+      for (int b = 0; b < 2; b++) {
+        for (int c = 0; c < 3; c++) {
+          List<Long> hopCosts = Arrays.asList(costs.get("S->A-" + a),
+                                              costs.get("A-" + a + "->B-" + b),
+                                              costs.get("B-" + b + "->C-" + c));
+          if (!hopCosts.contains(PointRouter.INFINITE_COSTS)) {
+            expectedCosts = Math.min(expectedCosts,
+                                     hopCosts.stream().mapToLong(Long::longValue).sum());
+          }
+        }
+      }
+    }
+    assertTrue(route.isPresent());
+    assertEquals(expectedCosts,
+                 route.get().stream().mapToLong(order -> order.getRoute().getCosts()).sum());
+  }
+
+  /**
+   * Creates a path between new points with the given names.
+   * The points and the path will be added to the kernel objects.
+   *
+   * @param sourceName The name of the source point.
+   * @param destName The name of the destination point.
+   * @return The path
+   */
+  private Path createPath(String sourceName, String destName) {
+    Point source = new Point(sourceName);
+    Point dest = new Point(destName);
+    points.add(source);
+    points.add(dest);
+    Path path = new Path(sourceName + " --- " + destName,
+                         source.getReference(),
+                         dest.getReference());
+    paths.add(path);
+
+    return path;
+  }
+
+  /**
+   * Creates a point with the given name.
+   * The point will be added to the kernel objects.
+   *
+   * @param name The name of the point.
+   * @return The point.
+   */
+  private Point createPoint(String name) {
+    Point point = new Point(name);
+    points.add(point);
+    when(objectService.fetchObject(Point.class, point.getReference())).thenReturn(point);
+
+    return point;
+  }
+
+  /**
+   * Creates a location with the given name, linked to the given number of new points named after
+   * it.
+   * The location and the points will be added to the kernel objects.
+   *
+   * @param name The name of the location.
+   * @param linkCount The number of points linked to the location.
+   * @return The location.
+   */
+  private Location createLocation(String name, int linkCount) {
+    LocationType type = new LocationType("Type-" + name)
+        .withAllowedOperations(Arrays.asList("Operation"));
+    Location location = new Location(name, type.getReference());
+    Set<Location.Link> links = new HashSet<>();
+    for (int i = 0; i < linkCount; i++) {
+      links.add(new Location.Link(location.getReference(),
+                                  createPoint(name + "-" + i).getReference()));
+    }
+    location = location.withAttachedLinks(links);
+    when(objectService.fetchObject(Location.class, name)).thenReturn(location);
+    when(objectService.fetchObject(LocationType.class, type.getReference())).thenReturn(type);
+
+    return location;
+  }
+
+  /**
+   * Creates a point router returning costs from the given table and routes consisting of a single
+   * step.
+   *
+   * @param costs The costs, by source and destination point names joined with "->".
+   * @return The point router.
+   */
+  @SuppressWarnings("unchecked")
+  private PointRouter createPointRouter(Map<String, Long> costs) {
+    PointRouter pointRouter = mock(PointRouter.class);
+    when(pointRouter.getCosts(any(Point.class), any(Collection.class))).then(invocation -> {
+      Point src = invocation.getArgument(0);
+      Map<Point, Long> result = new HashMap<>();
+      for (Point dest : (Collection<Point>) invocation.getArgument(1)) {
+        result.put(dest, costs.get(src.getName() + "->" + dest.getName()));
+      }
+      return result;
+    });
+    when(pointRouter.getRouteSteps(any(), any())).then(invocation -> {
+      Point src = invocation.getArgument(0);
+      Point dest = invocation.getArgument(1);
+      Path path = new Path(src.getName() + " --- " + dest.getName(),
+                           src.getReference(),
+                           dest.getReference());
+      return new ArrayList<>(Arrays.asList(
+          new Route.Step(path, src, dest, Vehicle.Orientation.FORWARD, 0)
+      ));
+    });
+    return pointRouter;
+  }
+
   /**
    * Creates a vehicle with a unique id, the given name and the given routing group.
    * If the routing group is negative no property will be added.
@@ -134,6 +450,38 @@ public class DefaultRouterTest {
     return vehicle;
   }
 
+  /**
+   * Creates a transport order with drive orders to the points with the given names.
+   *
+   * @param pointNames The names of the destination points.
+   * @return The transport order.
+   */
+  private TransportOrder createTransportOrder(String... pointNames) {
+    return new TransportOrder(
+        "TransportOrder-01",
+        Arrays.stream(pointNames)
+            .map(pointName -> new DriveOrder(new DriveOrder.Destination(
+            new Point(pointName).getReference()).withOperation(DriveOrder.Destination.OP_MOVE)))
+            .collect(Collectors.toList())
+    );
+  }
+
+  /**
+   * Creates a transport order with drive orders to the given locations.
+   *
+   * @param locations The destination locations.
+   * @return The transport order.
+   */
+  private TransportOrder createTransportOrder(Location... locations) {
+    return new TransportOrder(
+        "TransportOrder-01",
+        Arrays.stream(locations)
+            .map(location -> new DriveOrder(new DriveOrder.Destination(
+            location.getReference()).withOperation("Operation")))
+            .collect(Collectors.toList())
+    );
+  }
+
   /**
    * Creates the router with mocked routing table builder to return a new routing table on each
    * request.
@@ -141,8 +489,9 @@ public class DefaultRouterTest {
    * @return The router
    */
   @SuppressWarnings("unchecked")
-  private Router createRouter() {
+  private DefaultRouter createRouter() {
     when(builder.createPointRouter(any())).thenReturn(mock(PointRouter.class));
+    when(builder.updatePointRouter(any(), any(), any())).thenReturn(mock(PointRouter.class));
 
     return new DefaultRouter(objectService, builder, configuration, modelGraphMapper);
   }
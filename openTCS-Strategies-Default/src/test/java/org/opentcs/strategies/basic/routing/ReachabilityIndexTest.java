@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Random;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.junit.*;
+import static org.junit.Assert.*;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import static org.opentcs.strategies.basic.routing.PointRouter.INFINITE_COSTS;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Unit tests for {@link ReachabilityIndex}.
+ */
+public class ReachabilityIndexTest {
+
+  private Graph<String, ModelEdge> graph;
+
+  @Before
+  public void setUp() {
+    graph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+  }
+
+  @Test
+  public void considerPointsInCycleMutuallyReachable() {
+    addEdge("A", "B", 1);
+    addEdge("B", "C", 1);
+    addEdge("C", "A", 1);
+    addEdge("C", "D", 1);
+
+    ReachabilityIndex index = new ReachabilityIndex(graph);
+
+    assertEquals(2, index.getComponentCount());
+    assertTrue(index.isReachable("B", "A"));
+    assertTrue(index.isReachable("A", "D"));
+    assertFalse(index.isReachable("D", "A"));
+    assertTrue(index.isReachable("D", "D"));
+  }
+
+  @Test
+  public void ignoreEdgesWithInfiniteWeight() {
+    addEdge("A", "B", 1);
+    addEdge("B", "C", INFINITE_COSTS);
+
+    ReachabilityIndex index = new ReachabilityIndex(graph);
+
+    assertTrue(index.isReachable("A", "B"));
+    assertFalse(index.isReachable("A", "C"));
+  }
+
+  @Test
+  public void considerUnknownPointsUnreachable() {
+    addEdge("A", "B", 1);
+
+    ReachabilityIndex index = new ReachabilityIndex(graph);
+
+    assertFalse(index.isReachable("A", "X"));
+    assertFalse(index.isReachable("X", "X"));
+  }
+
+  @Test
+  public void agreeWithShortestPathSearch() {
+    Random random = new Random(42);
+    int vertexCount = 60;
+    for (int i = 0; i < vertexCount; i++) {
+      graph.addVertex("P" + i);
+    }
+    for (int i = 0; i < 90; i++) {
+      int source = random.nextInt(vertexCount);
+      int target = random.nextInt(vertexCount);
+      if (source != target) {
+        addEdge("P" + source, "P" + target, 1);
+      }
+    }
+
+    ReachabilityIndex index = new ReachabilityIndex(graph);
+    DijkstraShortestPath<String, ModelEdge> reference = new DijkstraShortestPath<>(graph);
+    for (String src : graph.vertexSet()) {
+      for (String dest : graph.vertexSet()) {
+        assertEquals(src + " -> " + dest,
+                     reference.getPath(src, dest) != null,
+                     index.isReachable(src, dest));
+      }
+    }
+  }
+
+  private void addEdge(String source, String target, double weight) {
+    graph.addVertex(source);
+    graph.addVertex(target);
+    ModelEdge edge = new ModelEdge(new Path(source + "-->" + target + "-" + graph.edgeSet().size(),
+                                            new Point(source).getReference(),
+                                            new Point(target).getReference()),
+                                   false);
+    graph.addEdge(source, target, edge);
+    graph.setEdgeWeight(edge, weight);
+  }
+}
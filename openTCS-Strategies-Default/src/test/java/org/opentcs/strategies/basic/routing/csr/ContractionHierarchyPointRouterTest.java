@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.junit.*;
+import static org.junit.Assert.*;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route.Step;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Unit tests for {@link ContractionHierarchyPointRouter}.
+ */
+public class ContractionHierarchyPointRouterTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointC;
+  private Point pointD;
+
+  private Path pathAB;
+  private Path pathBC;
+
+  private Graph<String, ModelEdge> graph;
+
+  private ContractionHierarchyPointRouter pointRouter;
+
+  @Before
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    pointD = new Point("D");
+
+    pathAB = new Path("A-->B", pointA.getReference(), pointB.getReference());
+    pathBC = new Path("B-->C", pointB.getReference(), pointC.getReference());
+    Path pathAC = new Path("A-->C", pointA.getReference(), pointC.getReference());
+
+    graph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    for (Point point : Arrays.asList(pointA, pointB, pointC, pointD)) {
+      graph.addVertex(point.getName());
+    }
+    addEdge(graph, pathAB, false, 100);
+    addEdge(graph, pathBC, false, 100);
+    addEdge(graph, pathBC, true, 100);
+    addEdge(graph, pathAC, false, 1234);
+
+    pointRouter = new ContractionHierarchyPointRouter(graph,
+                                                      Arrays.asList(pointA, pointB, pointC, pointD),
+                                                      null);
+  }
+
+  @Test
+  public void returnZeroCostsIfDestinationIsSource() {
+    assertEquals(0, pointRouter.getCosts(pointA.getReference(), pointA.getReference()));
+  }
+
+  @Test
+  public void returnEmptyRouteIfDestinationIsSource() {
+    List<Step> steps = pointRouter.getRouteSteps(pointA, pointA);
+    assertNotNull(steps);
+    assertThat(steps, is(empty()));
+  }
+
+  @Test
+  public void returnInfiniteCostsIfNoRouteExists() {
+    assertEquals(PointRouter.INFINITE_COSTS,
+                 pointRouter.getCosts(pointA.getReference(), pointD.getReference()));
+  }
+
+  @Test
+  public void returnNullIfNoRouteExists() {
+    assertNull(pointRouter.getRouteSteps(pointC, pointA));
+  }
+
+  @Test
+  public void returnStepsOfCheapestRoute() {
+    assertEquals(200, pointRouter.getCosts(pointA.getReference(), pointC.getReference()));
+
+    List<Step> steps = pointRouter.getRouteSteps(pointA, pointC);
+    assertNotNull(steps);
+    assertThat(steps.size(), is(2));
+    assertThat(steps.get(0).getPath(), is(pathAB));
+    assertThat(steps.get(0).getRouteIndex(), is(0));
+    assertThat(steps.get(1).getPath(), is(pathBC));
+    assertThat(steps.get(1).getDestinationPoint(), is(pointC));
+    assertThat(steps.get(1).getRouteIndex(), is(1));
+  }
+
+  @Test
+  public void returnBackwardStepsForReverseEdges() {
+    List<Step> steps = pointRouter.getRouteSteps(pointC, pointB);
+    assertNotNull(steps);
+    assertThat(steps.size(), is(1));
+    assertThat(steps.get(0).getPath(), is(pathBC));
+    assertThat(steps.get(0).getVehicleOrientation(), is(Vehicle.Orientation.BACKWARD));
+  }
+
+  @Test
+  public void returnSameCostsAndRoutesAsDijkstra() {
+    List<Point> points = new ArrayList<>();
+    Graph<String, ModelEdge> gridGraph = createRandomGraph(points, new Random(42));
+
+    ContractionHierarchyPointRouter router
+        = new ContractionHierarchyPointRouter(gridGraph, points, null);
+    assertSameCostsAndRoutesAsDijkstra(router, gridGraph, points);
+  }
+
+  @Test
+  public void returnSameCostsAndRoutesAsDijkstraAfterRecontractionInSameOrder() {
+    Random random = new Random(4711);
+    List<Point> points = new ArrayList<>();
+    Graph<String, ModelEdge> gridGraph = createRandomGraph(points, random);
+    ContractionHierarchyPointRouter router
+        = new ContractionHierarchyPointRouter(gridGraph, points, null);
+
+    for (ModelEdge edge : gridGraph.edgeSet()) {
+      gridGraph.setEdgeWeight(edge, 1 + random.nextInt(1000));
+    }
+    ContractionHierarchyPointRouter updatedRouter
+        = new ContractionHierarchyPointRouter(gridGraph,
+                                              router.getPoints(),
+                                              router.getHierarchy().getOrder());
+    assertSameCostsAndRoutesAsDijkstra(updatedRouter, gridGraph, points);
+  }
+
+  private void assertSameCostsAndRoutesAsDijkstra(PointRouter router,
+                                                  Graph<String, ModelEdge> referenceGraph,
+                                                  List<Point> points) {
+    DijkstraShortestPath<String, ModelEdge> reference = new DijkstraShortestPath<>(referenceGraph);
+    for (Point src : points) {
+      for (Point dest : points) {
+        GraphPath<String, ModelEdge> graphPath = reference.getPath(src.getName(), dest.getName());
+        long expected = graphPath == null
+            ? PointRouter.INFINITE_COSTS
+            : (long) graphPath.getWeight();
+        assertEquals(expected, router.getCosts(src, dest));
+
+        List<Step> steps = router.getRouteSteps(src, dest);
+        if (graphPath == null) {
+          assertNull(steps);
+          continue;
+        }
+        assertNotNull(steps);
+        Point current = src;
+        long costs = 0;
+        for (Step step : steps) {
+          assertThat(step.getSourcePoint(), is(current));
+          costs += (long) weightOf(referenceGraph, step);
+          current = step.getDestinationPoint();
+        }
+        assertThat(current, is(dest));
+        assertEquals(expected, costs);
+      }
+    }
+  }
+
+  private double weightOf(Graph<String, ModelEdge> referenceGraph, Step step) {
+    return referenceGraph.getAllEdges(step.getSourcePoint().getName(),
+                                      step.getDestinationPoint().getName())
+        .stream()
+        .filter(edge -> edge.getModelPath().equals(step.getPath()))
+        .mapToDouble(edge -> referenceGraph.getEdgeWeight(edge))
+        .findFirst()
+        .getAsDouble();
+  }
+
+  private Graph<String, ModelEdge> createRandomGraph(List<Point> points, Random random) {
+    Graph<String, ModelEdge> gridGraph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    int size = 10;
+    for (int i = 0; i < size * size; i++) {
+      Point point = new Point("P" + i);
+      points.add(point);
+      gridGraph.addVertex(point.getName());
+    }
+    for (int i = 0; i < size * size; i++) {
+      if (i % size < size - 1) {
+        addRandomEdges(gridGraph, points.get(i), points.get(i + 1), random);
+      }
+      if (i + size < size * size) {
+        addRandomEdges(gridGraph, points.get(i), points.get(i + size), random);
+      }
+    }
+    // Add some long and parallel edges.
+    for (int i = 0; i < size; i++) {
+      addRandomEdges(gridGraph,
+                     points.get(random.nextInt(points.size())),
+                     points.get(random.nextInt(points.size())),
+                     random);
+      int source = random.nextInt(points.size() - 1);
+      addRandomEdges(gridGraph, points.get(source), points.get(source + 1), random);
+    }
+    return gridGraph;
+  }
+
+  private void addEdge(Graph<String, ModelEdge> targetGraph,
+                       Path path,
+                       boolean reverse,
+                       double weight) {
+    ModelEdge edge = new ModelEdge(path, reverse);
+    String source = path.getSourcePoint().getName();
+    String target = path.getDestinationPoint().getName();
+    targetGraph.addEdge(reverse ? target : source, reverse ? source : target, edge);
+    targetGraph.setEdgeWeight(edge, weight);
+  }
+
+  private void addRandomEdges(Graph<String, ModelEdge> gridGraph,
+                              Point source,
+                              Point target,
+                              Random random) {
+    Path path = new Path(source.getName() + "--" + target.getName() + "-" + random.nextInt(),
+                         source.getReference(),
+                         target.getReference());
+    addEdge(gridGraph, path, false, 1 + random.nextInt(1000));
+    // Leave some paths one-way to get unreachable pairs of points.
+    if (random.nextInt(4) != 0) {
+      addEdge(gridGraph, path, true, 1 + random.nextInt(1000));
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import org.junit.rules.TemporaryFolder;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Unit tests for {@link CostMatrix}.
+ */
+public class CostMatrixTest {
+
+  private static final byte[] KEY = {1, 2, 3, 4};
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private CsrGraph graph;
+
+  private File file;
+
+  @Before
+  public void setUp() {
+    Random random = new Random(42);
+    List<Point> points = new ArrayList<>();
+    Graph<String, ModelEdge> jgraphtGraph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    int size = 6;
+    for (int i = 0; i < size * size; i++) {
+      Point point = new Point("P" + i);
+      points.add(point);
+      jgraphtGraph.addVertex(point.getName());
+    }
+    for (int i = 0; i < size * size; i++) {
+      if (i % size < size - 1) {
+        addEdge(jgraphtGraph, points.get(i), points.get(i + 1), random);
+      }
+      if (i + size < size * size) {
+        addEdge(jgraphtGraph, points.get(i + size), points.get(i), random);
+      }
+    }
+    graph = new CsrGraph(jgraphtGraph, points);
+    file = new File(folder.getRoot(), "matrix.costs");
+  }
+
+  @Test
+  public void computeCostsOfShortestRoutes()
+      throws IOException {
+    CostMatrix matrix = CostMatrix.compute(graph, KEY, file, () -> false);
+    assertThat(matrix, is(notNullValue()));
+
+    ShortestPathSearch search = new ShortestPathSearch(graph);
+    for (int source = 0; source < graph.getVertexCount(); source++) {
+      for (int target = 0; target < graph.getVertexCount(); target++) {
+        long expected = search.search(source, target, null)
+            ? (long) search.getDistance(target)
+            : PointRouter.INFINITE_COSTS;
+        assertThat(matrix.getCosts(source, target), is(expected));
+      }
+    }
+  }
+
+  @Test
+  public void reopenMatrixWithSameKey()
+      throws IOException {
+    CostMatrix.compute(graph, KEY, file, () -> false);
+
+    CostMatrix matrix = CostMatrix.open(file, graph.getVertexCount(), KEY);
+    assertThat(matrix, is(notNullValue()));
+    assertThat(matrix.getCosts(3, 3), is(0L));
+  }
+
+  @Test
+  public void ignoreMatrixWithDifferentKey()
+      throws IOException {
+    CostMatrix.compute(graph, KEY, file, () -> false);
+
+    assertThat(CostMatrix.open(file, graph.getVertexCount(), new byte[] {1, 2, 3, 5}),
+               is(nullValue()));
+    assertThat(CostMatrix.open(file, graph.getVertexCount() + 1, KEY), is(nullValue()));
+  }
+
+  @Test
+  public void leaveNoFileIfCancelled()
+      throws IOException {
+    assertThat(CostMatrix.compute(graph, KEY, file, () -> true), is(nullValue()));
+    assertThat(folder.getRoot().list().length, is(0));
+  }
+
+  private void addEdge(Graph<String, ModelEdge> jgraphtGraph,
+                       Point source,
+                       Point target,
+                       Random random) {
+    Path path = new Path(source.getName() + "--" + target.getName(),
+                         source.getReference(),
+                         target.getReference());
+    ModelEdge edge = new ModelEdge(path, false);
+    jgraphtGraph.addEdge(source.getName(), target.getName(), edge);
+    jgraphtGraph.setEdgeWeight(edge, 1 + random.nextInt(1000));
+  }
+}
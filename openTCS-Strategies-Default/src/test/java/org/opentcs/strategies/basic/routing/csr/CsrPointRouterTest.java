@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.csr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.junit.*;
+import static org.junit.Assert.*;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route.Step;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Unit tests for {@link CsrPointRouter}.
+ */
+public class CsrPointRouterTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointC;
+  private Point pointD;
+
+  private Path pathAB;
+  private Path pathBC;
+
+  private Graph<String, ModelEdge> graph;
+
+  private CsrPointRouter pointRouter;
+
+  @Before
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    pointD = new Point("D");
+
+    pathAB = new Path("A-->B", pointA.getReference(), pointB.getReference());
+    pathBC = new Path("B-->C", pointB.getReference(), pointC.getReference());
+    Path pathAC = new Path("A-->C", pointA.getReference(), pointC.getReference());
+
+    graph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    for (Point point : Arrays.asList(pointA, pointB, pointC, pointD)) {
+      graph.addVertex(point.getName());
+    }
+    addEdge(pathAB, false, 100);
+    addEdge(pathBC, false, 100);
+    addEdge(pathBC, true, 100);
+    addEdge(pathAC, false, 1234);
+
+    pointRouter = new CsrPointRouter(graph,
+                                     Arrays.asList(pointA, pointB, pointC, pointD),
+                                     Collections.emptySet());
+  }
+
+  @Test
+  public void returnZeroCostsIfDestinationIsSource() {
+    assertEquals(0, pointRouter.getCosts(pointA.getReference(), pointA.getReference()));
+  }
+
+  @Test
+  public void returnEmptyRouteIfDestinationIsSource() {
+    List<Step> steps = pointRouter.getRouteSteps(pointA, pointA);
+    assertNotNull(steps);
+    assertThat(steps, is(empty()));
+  }
+
+  @Test
+  public void returnInfiniteCostsIfNoRouteExists() {
+    assertEquals(PointRouter.INFINITE_COSTS,
+                 pointRouter.getCosts(pointA.getReference(), pointD.getReference()));
+  }
+
+  @Test
+  public void returnNullIfNoRouteExists() {
+    assertNull(pointRouter.getRouteSteps(pointC, pointA));
+  }
+
+  @Test
+  public void returnCostsOfCheapestRoute() {
+    assertEquals(200, pointRouter.getCosts(pointA.getReference(), pointC.getReference()));
+  }
+
+  @Test
+  public void returnCostsToMultipleDestinations() {
+    Map<Point, Long> expected = new HashMap<>();
+    expected.put(pointA, 0L);
+    expected.put(pointC, 200L);
+    expected.put(pointD, PointRouter.INFINITE_COSTS);
+    assertThat(pointRouter.getCosts(pointA, Arrays.asList(pointA, pointC, pointD)),
+               is(expected));
+  }
+
+  @Test
+  public void returnStepsOfCheapestRoute() {
+    List<Step> steps = pointRouter.getRouteSteps(pointA, pointC);
+    assertNotNull(steps);
+    assertThat(steps.size(), is(2));
+    assertThat(steps.get(0).getPath(), is(pathAB));
+    assertThat(steps.get(0).getRouteIndex(), is(0));
+    assertThat(steps.get(1).getPath(), is(pathBC));
+    assertThat(steps.get(1).getDestinationPoint(), is(pointC));
+    assertThat(steps.get(1).getRouteIndex(), is(1));
+  }
+
+  @Test
+  public void returnBackwardStepsForReverseEdges() {
+    List<Step> steps = pointRouter.getRouteSteps(pointC, pointB);
+    assertNotNull(steps);
+    assertThat(steps.size(), is(1));
+    assertThat(steps.get(0).getPath(), is(pathBC));
+    assertThat(steps.get(0).getVehicleOrientation(), is(Vehicle.Orientation.BACKWARD));
+  }
+
+  @Test
+  public void returnSameCostsWithAndWithoutLandmarks() {
+    Random random = new Random(42);
+    List<Point> points = new ArrayList<>();
+    Graph<String, ModelEdge> gridGraph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    int size = 8;
+    for (int i = 0; i < size * size; i++) {
+      Point point = new Point("P" + i);
+      points.add(point);
+      gridGraph.addVertex(point.getName());
+    }
+    for (int i = 0; i < size * size; i++) {
+      if (i % size < size - 1) {
+        addRandomEdges(gridGraph, points.get(i), points.get(i + 1), random);
+      }
+      if (i + size < size * size) {
+        addRandomEdges(gridGraph, points.get(i), points.get(i + size), random);
+      }
+    }
+
+    DijkstraShortestPath<String, ModelEdge> reference = new DijkstraShortestPath<>(gridGraph);
+    CsrPointRouter dijkstraRouter = new CsrPointRouter(gridGraph,
+                                                       points,
+                                                       Collections.emptySet());
+    CsrPointRouter aStarRouter = new CsrPointRouter(gridGraph,
+                                                    points,
+                                                    Arrays.asList("P0", "P63"));
+    for (Point src : points) {
+      for (Point dest : points) {
+        GraphPath<String, ModelEdge> graphPath = reference.getPath(src.getName(), dest.getName());
+        long expected = graphPath == null
+            ? PointRouter.INFINITE_COSTS
+            : (long) graphPath.getWeight();
+        assertEquals(expected, dijkstraRouter.getCosts(src, dest));
+        assertEquals(expected, aStarRouter.getCosts(src, dest));
+      }
+      Map<Point, Long> costs = aStarRouter.getCosts(src, points);
+      for (Point dest : points) {
+        assertEquals(dijkstraRouter.getCosts(src, dest), (long) costs.get(dest));
+      }
+    }
+  }
+
+  @Test
+  public void returnRouteStepsWithContiguousPoints() {
+    CsrPointRouter aStarRouter = new CsrPointRouter(graph,
+                                                    Arrays.asList(pointA, pointB, pointC, pointD),
+                                                    Arrays.asList("C"));
+    List<Step> steps = aStarRouter.getRouteSteps(pointA, pointC);
+    assertNotNull(steps);
+    assertThat(steps.get(0).getSourcePoint(), is(pointA));
+    assertThat(steps.get(0).getDestinationPoint(), is(steps.get(1).getSourcePoint()));
+    assertThat(aStarRouter.getPoints(), contains(pointA, pointB, pointC, pointD));
+  }
+
+  private void addEdge(Path path, boolean reverse, double weight) {
+    ModelEdge edge = new ModelEdge(path, reverse);
+    String source = path.getSourcePoint().getName();
+    String target = path.getDestinationPoint().getName();
+    graph.addEdge(reverse ? target : source, reverse ? source : target, edge);
+    graph.setEdgeWeight(edge, weight);
+  }
+
+  private void addRandomEdges(Graph<String, ModelEdge> gridGraph,
+                              Point source,
+                              Point target,
+                              Random random) {
+    Path path = new Path(source.getName() + "--" + target.getName(),
+                         source.getReference(),
+                         target.getReference());
+    ModelEdge forward = new ModelEdge(path, false);
+    gridGraph.addEdge(source.getName(), target.getName(), forward);
+    gridGraph.setEdgeWeight(forward, 1 + random.nextInt(1000));
+    // Leave some paths one-way to get unreachable pairs of points.
+    if (random.nextInt(4) != 0) {
+      ModelEdge reverse = new ModelEdge(path, true);
+      gridGraph.addEdge(target.getName(), source.getName(), reverse);
+      gridGraph.setEdgeWeight(reverse, 1 + random.nextInt(1000));
+    }
+  }
+}
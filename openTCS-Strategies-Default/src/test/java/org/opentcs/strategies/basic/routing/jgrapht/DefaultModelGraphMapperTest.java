@@ -185,4 +185,64 @@ public class DefaultModelGraphMapperTest {
                      .count());
   }
 
+  @Test
+  public void removeEdgesOfLockedPathOnUpdate() {
+    when(configuration.algorithm()).thenReturn(ShortestPathConfiguration.Algorithm.DIJKSTRA);
+
+    Vehicle vehicle = new Vehicle("someVehicle");
+    Graph<String, ModelEdge> graph
+        = mapper.translateModel(new HashSet<>(Arrays.asList(pointA, pointB, pointC, pointD)),
+                                new HashSet<>(Arrays.asList(pathAB, pathBC, pathCD, pathAD)),
+                                vehicle);
+    mapper.updateEdges(graph, pathAD.withLocked(true), vehicle);
+
+    assertEquals("Number of edges", 3, graph.edgeSet().size());
+    assertEquals("Edges for path " + pathAD.getName(),
+                 0,
+                 graph.edgeSet().stream()
+                     .filter(edge -> edge.getModelPath().getName().equals(pathAD.getName()))
+                     .count());
+  }
+
+  @Test
+  public void restoreEdgesOfUnlockedPathOnUpdate() {
+    when(configuration.algorithm()).thenReturn(ShortestPathConfiguration.Algorithm.DIJKSTRA);
+
+    Vehicle vehicle = new Vehicle("someVehicle");
+    Graph<String, ModelEdge> graph
+        = mapper.translateModel(new HashSet<>(Arrays.asList(pointA, pointB, pointC, pointD)),
+                                new HashSet<>(Arrays.asList(pathAB, pathAD.withLocked(true))),
+                                vehicle);
+    mapper.updateEdges(graph, pathAD, vehicle);
+
+    assertEquals("Number of edges", 3, graph.edgeSet().size());
+    assertEquals("Edges for path " + pathAD.getName(),
+                 2,
+                 graph.edgeSet().stream()
+                     .filter(edge -> edge.getModelPath().getName().equals(pathAD.getName()))
+                     .count());
+  }
+
+  @Test
+  public void updateWeightOfChangedPathOnly() {
+    when(configuration.algorithm()).thenReturn(ShortestPathConfiguration.Algorithm.DIJKSTRA);
+    mapper = new DefaultModelGraphMapper(new EdgeEvaluatorDistance(), configuration);
+
+    Vehicle vehicle = new Vehicle("someVehicle");
+    Graph<String, ModelEdge> graph
+        = mapper.translateModel(new HashSet<>(Arrays.asList(pointA, pointB, pointC, pointD)),
+                                new HashSet<>(Arrays.asList(pathAB.withLength(100),
+                                                            pathBC.withLength(100))),
+                                vehicle);
+    mapper.updateEdges(graph, pathAB.withLength(300), vehicle);
+
+    assertEquals("Number of edges", 2, graph.edgeSet().size());
+    for (ModelEdge edge : graph.edgeSet()) {
+      assertEquals("Weight of edge " + edge,
+                   edge.getModelPath().getName().equals(pathAB.getName()) ? 300 : 100,
+                   graph.getEdgeWeight(edge),
+                   0);
+    }
+  }
+
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.Collections;
+import org.junit.*;
+import static org.junit.Assert.*;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import static org.opentcs.strategies.basic.routing.PointRouter.INFINITE_COSTS;
+
+/**
+ * Unit tests for {@link EdgeEvaluatorCongestion}.
+ */
+public class EdgeEvaluatorCongestionTest {
+
+  private ModelEdge edge;
+
+  private Vehicle vehicle;
+
+  private EdgeEvaluatorComposite baseEvaluator;
+
+  private EdgeEvaluatorCongestion edgeEvaluator;
+
+  @Before
+  public void setUp() {
+    Point srcPoint = new Point("srcPoint");
+    Point dstPoint = new Point("dstPoint");
+
+    edge = new ModelEdge(new Path("pathName", srcPoint.getReference(), dstPoint.getReference()),
+                         false);
+    vehicle = new Vehicle("someVehicle");
+
+    baseEvaluator = new EdgeEvaluatorComposite();
+    baseEvaluator.getComponents().add((someEdge, someVehicle) -> 100.0);
+    edgeEvaluator = new EdgeEvaluatorCongestion(baseEvaluator, 0.5);
+  }
+
+  @Test
+  public void useBaseWeightWithoutCongestion() {
+    assertEquals(100.0, edgeEvaluator.computeWeight(edge, vehicle), 0.0);
+  }
+
+  @Test
+  public void addPenaltyProportionalToLoad() {
+    edgeEvaluator.setLoads(Collections.singletonMap("pathName", 2.0));
+    assertEquals(200.0, edgeEvaluator.computeWeight(edge, vehicle), 0.0);
+
+    edgeEvaluator.setLoads(Collections.singletonMap("otherPathName", 2.0));
+    assertEquals(100.0, edgeEvaluator.computeWeight(edge, vehicle), 0.0);
+  }
+
+  @Test
+  public void keepInfiniteBaseWeight() {
+    baseEvaluator.getComponents().clear();
+    baseEvaluator.getComponents().add((someEdge, someVehicle) -> INFINITE_COSTS);
+    edgeEvaluator.setLoads(Collections.singletonMap("pathName", 2.0));
+
+    assertEquals(INFINITE_COSTS, edgeEvaluator.computeWeight(edge, vehicle), 0.0);
+  }
+}
@@ -8,8 +8,10 @@
 package org.opentcs.strategies.basic.routing.jgrapht;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.Matchers.empty;
@@ -74,6 +76,16 @@ public class ShortestPathPointRouterTest {
     assertThat(steps, is(empty()));
   }
 
+  @Test
+  public void returnCostsToMultipleDestinations() {
+    Map<Point, Long> expected = new HashMap<>();
+    expected.put(pointA, 0L);
+    expected.put(pointB, PointRouter.INFINITE_COSTS);
+    expected.put(pointC, 1234L);
+    assertThat(pointRouter.getCosts(pointA, Arrays.asList(pointA, pointB, pointC)),
+               is(expected));
+  }
+
   @Test
   public void returnInfiniteCostsIfNoRouteExists() {
     assertEquals(PointRouter.INFINITE_COSTS,
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.spacetime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for {@link ReservationTable}.
+ */
+public class ReservationTableTest {
+
+  private ReservationTable table;
+
+  @Before
+  public void setUp() {
+    table = new ReservationTable();
+  }
+
+  @Test
+  public void considerUnreservedResourceAlwaysFree() {
+    assertArrayEquals(new long[] {Long.MIN_VALUE, Long.MAX_VALUE},
+                      table.getFreeIntervals("A", null));
+  }
+
+  @Test
+  public void mergeOverlappingReservations() {
+    table.setReservations("Vehicle-1",
+                          Arrays.asList(new Reservation("A", "Vehicle-1", 100, 200),
+                                        new Reservation("A", "Vehicle-1", 500, 600)));
+    table.setReservations("Vehicle-2",
+                          Arrays.asList(new Reservation("A", "Vehicle-2", 150, 300)));
+
+    assertArrayEquals(new long[] {Long.MIN_VALUE, 100, 300, 500, 600, Long.MAX_VALUE},
+                      table.getFreeIntervals("A", null));
+  }
+
+  @Test
+  public void ignoreReservationsOfGivenVehicle() {
+    table.setReservations("Vehicle-1",
+                          Arrays.asList(new Reservation("A", "Vehicle-1", 100, 200)));
+    table.setReservations("Vehicle-2",
+                          Arrays.asList(new Reservation("A", "Vehicle-2", 150, 300)));
+
+    assertArrayEquals(new long[] {Long.MIN_VALUE, 150, 300, Long.MAX_VALUE},
+                      table.getFreeIntervals("A", "Vehicle-1"));
+  }
+
+  @Test
+  public void replaceReservationsOfVehicle() {
+    table.setReservations("Vehicle-1",
+                          Arrays.asList(new Reservation("A", "Vehicle-1", 100, 200)));
+    table.setReservations("Vehicle-1",
+                          Arrays.asList(new Reservation("B", "Vehicle-1", 100, 200)));
+
+    assertArrayEquals(new long[] {Long.MIN_VALUE, Long.MAX_VALUE},
+                      table.getFreeIntervals("A", null));
+    assertThat(table.getReservations("Vehicle-1"), hasSize(1));
+  }
+
+  @Test
+  public void releaseReservationsOfVehicle() {
+    table.setReservations("Vehicle-1",
+                          Arrays.asList(new Reservation("A", "Vehicle-1", 100, 200)));
+
+    table.release("Vehicle-1");
+
+    assertThat(table.getReservations("Vehicle-1"), is(empty()));
+    assertArrayEquals(new long[] {Long.MIN_VALUE, Long.MAX_VALUE},
+                      table.getFreeIntervals("A", null));
+  }
+
+  @Test
+  public void releaseReservationsEndingBeforeGivenTime() {
+    table.setReservations("Vehicle-1",
+                          Arrays.asList(new Reservation("A", "Vehicle-1", 100, 200),
+                                        new Reservation("B", "Vehicle-1", 200, 300)));
+
+    table.releaseBefore(250);
+
+    assertThat(table.getReservations("Vehicle-1"), hasSize(1));
+    assertArrayEquals(new long[] {Long.MIN_VALUE, Long.MAX_VALUE},
+                      table.getFreeIntervals("A", null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectReservationsForOtherVehicle() {
+    table.setReservations("Vehicle-1",
+                          Collections.singletonList(new Reservation("A", "Vehicle-2", 100, 200)));
+  }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.spacetime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+
+/**
+ * Unit tests for {@link SpaceTimePlanner}.
+ */
+public class SpaceTimePlannerTest {
+
+  private static final String VEHICLE_NAME = "Vehicle-1";
+  private static final String OTHER_VEHICLE_NAME = "Vehicle-2";
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointC;
+  private Point pointF;
+
+  private ReservationTable reservations;
+
+  private SpaceTimePlanner planner;
+
+  @Before
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    Point pointD = new Point("D");
+    Point pointE = new Point("E");
+    pointF = new Point("F");
+    List<Point> points = Arrays.asList(pointA, pointB, pointC, pointD, pointE, pointF);
+
+    // A short route A-B-C (2 s) and a detour A-D-E-C (4 s).
+    Graph<String, ModelEdge> graph = new DirectedWeightedMultigraph<>(ModelEdge.class);
+    for (Point point : points) {
+      graph.addVertex(point.getName());
+    }
+    addPath(graph, pointA, pointB, 1000);
+    addPath(graph, pointB, pointC, 1000);
+    addPath(graph, pointA, pointD, 1000);
+    addPath(graph, pointD, pointE, 2000);
+    addPath(graph, pointE, pointC, 1000);
+
+    Vehicle vehicle = new Vehicle(VEHICLE_NAME)
+        .withMaxVelocity(1000)
+        .withMaxReverseVelocity(1000);
+    reservations = new ReservationTable();
+    planner = new SpaceTimePlanner(graph, points, vehicle);
+  }
+
+  @Test
+  public void returnShortestRouteWithoutReservations() {
+    SpaceTimeRoute route = planner.computeRoute(pointA, pointC, 0, 0, reservations, VEHICLE_NAME);
+
+    assertThat(pointNames(route), contains("B", "C"));
+    assertThat(route.getArrivalTime(), is(2000L));
+    assertThat(route.getDuration(), is(2000L));
+  }
+
+  @Test
+  public void returnEmptyRouteIfDestinationIsSource() {
+    SpaceTimeRoute route = planner.computeRoute(pointA, pointA, 0, 0, reservations, VEHICLE_NAME);
+
+    assertThat(route.getSteps().isEmpty(), is(true));
+    assertThat(route.getArrivalTime(), is(0L));
+  }
+
+  @Test
+  public void returnNullIfNoRouteExists() {
+    assertThat(planner.computeRoute(pointA, pointF, 0, 0, reservations, VEHICLE_NAME),
+               is(nullValue()));
+  }
+
+  @Test
+  public void takeDetourAroundLongReservation() {
+    reserve(OTHER_VEHICLE_NAME, "B", 500, 5000);
+
+    SpaceTimeRoute route = planner.computeRoute(pointA, pointC, 0, 0, reservations, VEHICLE_NAME);
+
+    assertThat(pointNames(route), contains("D", "E", "C"));
+    assertThat(route.getArrivalTime(), is(4000L));
+  }
+
+  @Test
+  public void waitForShortReservation() {
+    reserve(OTHER_VEHICLE_NAME, "B", 500, 1200);
+
+    SpaceTimeRoute route = planner.computeRoute(pointA, pointC, 0, 0, reservations, VEHICLE_NAME);
+
+    assertThat(pointNames(route), contains("B", "C"));
+    assertThat(route.getArrivalTime(), is(3200L));
+  }
+
+  @Test
+  public void waitForReservedPath() {
+    reserve(OTHER_VEHICLE_NAME, "B --- C", 0, 1500);
+
+    SpaceTimeRoute route = planner.computeRoute(pointA, pointC, 0, 0, reservations, VEHICLE_NAME);
+
+    assertThat(pointNames(route), contains("B", "C"));
+    assertThat(route.getArrivalTime(), is(2500L));
+  }
+
+  @Test
+  public void ignoreOwnReservations() {
+    reserve(VEHICLE_NAME, "B", 500, 5000);
+
+    SpaceTimeRoute route = planner.computeRoute(pointA, pointC, 0, 0, reservations, VEHICLE_NAME);
+
+    assertThat(pointNames(route), contains("B", "C"));
+  }
+
+  @Test
+  public void arriveOnlyIfDestinationRemainsFreeForDwellTime() {
+    reserve(OTHER_VEHICLE_NAME, "C", 3000, 4000);
+
+    SpaceTimeRoute route
+        = planner.computeRoute(pointA, pointC, 0, 2000, reservations, VEHICLE_NAME);
+
+    assertThat(pointNames(route), contains("B", "C"));
+    assertThat(route.getArrivalTime(), is(5000L));
+  }
+
+  @Test
+  public void reservePointsAndPathsAlongRoute() {
+    SpaceTimeRoute route = planner.computeRoute(pointA, pointC, 0, 0, reservations, VEHICLE_NAME);
+
+    List<Reservation> result = planner.computeReservations(
+        VEHICLE_NAME,
+        Collections.singletonList(route.getSteps()),
+        0,
+        500,
+        0
+    );
+
+    assertThat(result.stream().map(this::describe).collect(Collectors.toList()),
+               contains("A 0-1000",
+                        "A --- B 0-1000",
+                        "B 0-2000",
+                        "B --- C 1000-2000",
+                        "C 1000-2500"));
+  }
+
+  @Test
+  public void computeTravelTimeFromLengthAndVelocities() {
+    Path path = new Path("X --- Y", pointA.getReference(), pointB.getReference())
+        .withLength(5000)
+        .withMaxVelocity(500)
+        .withMaxReverseVelocity(0);
+    Vehicle vehicle = new Vehicle("V").withMaxVelocity(1000).withMaxReverseVelocity(1000);
+
+    assertThat(SpaceTimePlanner.getTravelTime(path, false, vehicle), is(10000L));
+    assertThat(SpaceTimePlanner.getTravelTime(path, true, vehicle), is(-1L));
+  }
+
+  private void reserve(String vehicleName, String resourceName, long start, long end) {
+    reservations.setReservations(
+        vehicleName,
+        Collections.singletonList(new Reservation(resourceName, vehicleName, start, end))
+    );
+  }
+
+  private List<String> pointNames(SpaceTimeRoute route) {
+    return route.getSteps().stream()
+        .map(step -> step.getDestinationPoint().getName())
+        .collect(Collectors.toList());
+  }
+
+  private String describe(Reservation reservation) {
+    return reservation.getResourceName() + " " + reservation.getStart() + "-"
+        + reservation.getEnd();
+  }
+
+  private void addPath(Graph<String, ModelEdge> graph, Point source, Point dest, long length) {
+    Path path = new Path(source.getName() + " --- " + dest.getName(),
+                         source.getReference(),
+                         dest.getReference())
+        .withLength(length)
+        .withMaxVelocity(1000)
+        .withMaxReverseVelocity(0);
+    ModelEdge edge = new ModelEdge(path, false);
+    graph.addEdge(source.getName(), dest.getName(), edge);
+    graph.setEdgeWeight(edge, length);
+  }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.access.ResourceContention;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link ContentionStatistics}.
+ */
+public class ContentionStatisticsTest {
+
+  private ReservationPool reservationPool;
+
+  private Scheduler.Client clientA;
+
+  private Scheduler.Client clientB;
+
+  private Scheduler.Client clientC;
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private ContentionStatistics statistics;
+
+  @Before
+  public void setUp() {
+    reservationPool = new ReservationPool();
+    clientA = createClient("Vehicle-A");
+    clientB = createClient("Vehicle-B");
+    clientC = createClient("Vehicle-C");
+    pointA = new Point("A");
+    pointB = new Point("B");
+    reservationPool.allocate(clientA, setOf(pointA));
+    reservationPool.allocate(clientB, setOf(pointB));
+    statistics = new ContentionStatistics(reservationPool);
+  }
+
+  @Test
+  public void recordDeferralsWithWaitingAndHoldingClients() {
+    AllocatorCommand.Allocate first = new AllocatorCommand.Allocate(clientC, setOf(pointA));
+    AllocatorCommand.Allocate second = new AllocatorCommand.Allocate(clientC, setOf(pointA));
+
+    statistics.allocationDeferred(first, setOf(pointA));
+    statistics.allocationDeferred(second, setOf(pointA));
+
+    List<ResourceContention> hotResources = statistics.getHotResources(10);
+    assertThat(hotResources.size(), is(1));
+    assertThat(hotResources.get(0).getResourceName(), is("A"));
+    assertThat(hotResources.get(0).getDeferralCount(), is(2L));
+    assertThat(hotResources.get(0).getWaitingClients(), contains("Vehicle-C"));
+    assertThat(hotResources.get(0).getHoldingClients(), contains("Vehicle-A"));
+  }
+
+  @Test
+  public void countAllocationDeferredAgainAfterRetryOnlyOnce() {
+    AllocatorCommand.Allocate allocation
+        = new AllocatorCommand.Allocate(clientC, setOf(pointA, pointB));
+
+    statistics.allocationDeferred(allocation, setOf(pointA));
+    // Retried after a release, the allocation is deferred again, now also because of B.
+    statistics.allocationDeferred(allocation, setOf(pointA, pointB));
+
+    List<ResourceContention> hotResources = statistics.getHotResources(10);
+    assertThat(hotResources.size(), is(2));
+    assertThat(hotResources.get(0).getDeferralCount(), is(1L));
+    assertThat(hotResources.get(1).getDeferralCount(), is(1L));
+  }
+
+  @Test
+  public void recordWaitTimeOnceAllocationIsCompleted() {
+    AllocatorCommand.Allocate first = new AllocatorCommand.Allocate(clientC, setOf(pointA));
+    AllocatorCommand.Allocate second = new AllocatorCommand.Allocate(clientB, setOf(pointA));
+
+    statistics.allocationDeferred(first, setOf(pointA));
+    statistics.allocationDeferred(second, setOf(pointA));
+    assertThat(statistics.getHotResources(1).get(0).getTotalWaitTime(), is(0L));
+
+    statistics.allocationCompleted(first, first.getCreationTime() + 3000);
+    statistics.allocationCompleted(second, second.getCreationTime() + 1000);
+    // Completing an allocation twice must not count its waiting time twice.
+    statistics.allocationCompleted(second, second.getCreationTime() + 1000);
+
+    ResourceContention contention = statistics.getHotResources(1).get(0);
+    assertThat(contention.getTotalWaitTime(), is(4000L));
+    assertThat(contention.getMaxWaitTime(), is(3000L));
+    assertThat(contention.getWaitingClients(), containsInAnyOrder("Vehicle-B", "Vehicle-C"));
+  }
+
+  @Test
+  public void orderResourcesByTotalWaitTime() {
+    AllocatorCommand.Allocate waitingForA = new AllocatorCommand.Allocate(clientC, setOf(pointA));
+    AllocatorCommand.Allocate waitingForB = new AllocatorCommand.Allocate(clientC, setOf(pointB));
+
+    statistics.allocationDeferred(waitingForA, setOf(pointA));
+    statistics.allocationDeferred(waitingForB, setOf(pointB));
+    statistics.allocationCompleted(waitingForA, waitingForA.getCreationTime() + 1000);
+    statistics.allocationsCompleted(clientC, waitingForB.getCreationTime() + 5000);
+
+    List<ResourceContention> hotResources = statistics.getHotResources(10);
+    assertThat(hotResources.size(), is(2));
+    assertThat(hotResources.get(0).getResourceName(), is("B"));
+    assertThat(hotResources.get(1).getResourceName(), is("A"));
+    assertThat(statistics.getHotResources(1).size(), is(1));
+  }
+
+  @Test
+  public void ignoreDeferralsNotCausedByOtherClients() {
+    AllocatorCommand.Allocate allocation = new AllocatorCommand.Allocate(clientC, setOf(pointA));
+
+    statistics.allocationDeferred(allocation, new HashSet<>());
+    statistics.allocationCompleted(allocation, allocation.getCreationTime() + 1000);
+
+    assertThat(statistics.getHotResources(10), is(empty()));
+  }
+
+  private Scheduler.Client createClient(String id) {
+    Scheduler.Client client = mock(Scheduler.Client.class);
+    when(client.getId()).thenReturn(id);
+    return client;
+  }
+
+  private Set<TCSResource<?>> setOf(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+}
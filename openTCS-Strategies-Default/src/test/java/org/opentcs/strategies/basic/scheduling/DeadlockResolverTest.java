@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.components.kernel.services.NotificationService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.RerouteUtil;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockResolutionStrategy;
+
+/**
+ * Unit tests for {@link DeadlockResolver}.
+ */
+public class DeadlockResolverTest {
+
+  private InternalPlantModelService plantModelService;
+
+  private RerouteUtil rerouteUtil;
+
+  private NotificationService notificationService;
+
+  private ReservationPool reservationPool;
+
+  private DefaultSchedulerConfiguration configuration;
+
+  private Scheduler.Client clientA;
+
+  private Scheduler.Client clientB;
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private AllocatorCommand.Allocate allocationA;
+
+  private AllocatorCommand.Allocate allocationB;
+
+  private DeadlockResolver resolver;
+
+  @Before
+  public void setUp() {
+    plantModelService = mock(InternalPlantModelService.class);
+    rerouteUtil = mock(RerouteUtil.class);
+    notificationService = mock(NotificationService.class);
+    reservationPool = new ReservationPool();
+    configuration = mock(DefaultSchedulerConfiguration.class);
+    resolver = new DeadlockResolver(plantModelService,
+                                    () -> rerouteUtil,
+                                    notificationService,
+                                    reservationPool,
+                                    new Object(),
+                                    configuration);
+
+    clientA = createClient("Vehicle-A");
+    clientB = createClient("Vehicle-B");
+    pointA = new Point("A");
+    pointB = new Point("B");
+    reservationPool.allocate(clientA, setOf(pointA));
+    reservationPool.allocate(clientB, setOf(pointB));
+    allocationA = new AllocatorCommand.Allocate(clientA, setOf(pointB));
+    allocationB = new AllocatorCommand.Allocate(clientB, setOf(pointA));
+  }
+
+  @Test
+  public void notifyAboutDeadlockOnce() {
+    when(configuration.deadlockResolutionStrategy()).thenReturn(DeadlockResolutionStrategy.NOTIFY);
+
+    assertThat(resolver.resolve(createDeadlock()).isPresent(), is(false));
+    assertThat(resolver.resolve(createDeadlock()).isPresent(), is(false));
+
+    verify(notificationService, times(1)).publishUserNotification(any());
+    assertThat(resolver.getDeadlockCount(), is(1L));
+  }
+
+  @Test
+  public void countDeadlockAgainAfterAllocationWasGranted() {
+    when(configuration.deadlockResolutionStrategy()).thenReturn(DeadlockResolutionStrategy.NOTIFY);
+
+    resolver.resolve(createDeadlock());
+    resolver.allocationGranted(clientA);
+    resolver.resolve(createDeadlock());
+
+    assertThat(resolver.getDeadlockCount(), is(2L));
+  }
+
+  @Test
+  public void rerouteVehicleRequestingLast() {
+    when(configuration.deadlockResolutionStrategy())
+        .thenReturn(DeadlockResolutionStrategy.REROUTE);
+    Vehicle vehicleB = addVehicle("Vehicle-B");
+    when(rerouteUtil.routesEquals(any(), any())).thenReturn(false);
+
+    Optional<AllocatorCommand.Allocate> result = resolver.resolve(createDeadlock());
+
+    assertThat(result, is(Optional.of(allocationB)));
+    verify(rerouteUtil).reroute(vehicleB);
+    verify(notificationService, never()).publishUserNotification(any());
+    assertThat(resolver.getResolutionCount(), is(1L));
+  }
+
+  @Test
+  public void notifyIfReroutingDoesNotChangeRoutes() {
+    when(configuration.deadlockResolutionStrategy())
+        .thenReturn(DeadlockResolutionStrategy.REROUTE);
+    addVehicle("Vehicle-A");
+    addVehicle("Vehicle-B");
+    when(rerouteUtil.routesEquals(any(), any())).thenReturn(true);
+
+    assertThat(resolver.resolve(createDeadlock()).isPresent(), is(false));
+
+    verify(notificationService).publishUserNotification(any());
+  }
+
+  @Test
+  public void backOffToFreePointNotClaimedByOthers() {
+    when(configuration.deadlockResolutionStrategy())
+        .thenReturn(DeadlockResolutionStrategy.BACK_OFF);
+    Vehicle vehicleB = addVehicle("Vehicle-B");
+    Point pointC = new Point("C");
+    Point pointD = new Point("D");
+    Path pathBC = new Path("B --- C", pointB.getReference(), pointC.getReference())
+        .withLength(1000);
+    Path pathBD = new Path("B --- D", pointB.getReference(), pointD.getReference())
+        .withLength(2000);
+    Point position = pointB.withOutgoingPaths(
+        new HashSet<>(Arrays.asList(pathBC.getReference(), pathBD.getReference()))
+    );
+    when(plantModelService.fetchObject(Path.class, pathBC.getReference())).thenReturn(pathBC);
+    when(plantModelService.fetchObject(Path.class, pathBD.getReference())).thenReturn(pathBD);
+    when(plantModelService.fetchObject(Point.class, pointC.getReference())).thenReturn(pointC);
+    when(plantModelService.fetchObject(Point.class, pointD.getReference())).thenReturn(pointD);
+    when(rerouteUtil.getFutureOrCurrentPosition(vehicleB)).thenReturn(position);
+    when(rerouteUtil.rerouteVia(eq(vehicleB), any())).thenReturn(true);
+
+    // The shorter path leads to a point claimed by the other vehicle.
+    Map<Scheduler.Client, Set<TCSResource<?>>> resourcesByClient = new HashMap<>();
+    resourcesByClient.put(clientA, setOf(pointA, pointB, pointC));
+    resourcesByClient.put(clientB, setOf(pointB, pointA));
+    Deadlock deadlock = new Deadlock(Arrays.asList(allocationA, allocationB), resourcesByClient);
+
+    assertThat(resolver.resolve(deadlock), is(Optional.of(allocationB)));
+    verify(rerouteUtil).rerouteVia(eq(vehicleB),
+                                   argThat(step -> step.getPath().equals(pathBD)
+                                       && step.getDestinationPoint().equals(pointD)
+                                       && step.getVehicleOrientation()
+                                           == Vehicle.Orientation.FORWARD));
+  }
+
+  private Vehicle addVehicle(String name) {
+    TransportOrder order = new TransportOrder("Order-" + name, Collections.emptyList());
+    Vehicle vehicle = new Vehicle(name)
+        .withProcState(Vehicle.ProcState.PROCESSING_ORDER)
+        .withTransportOrder(order.getReference());
+    when(plantModelService.fetchObject(Vehicle.class, name)).thenReturn(vehicle);
+    when(plantModelService.fetchObject(TransportOrder.class, order.getReference()))
+        .thenReturn(order);
+    when(rerouteUtil.getUnfinishedDriveOrders(order))
+        .thenReturn(Collections.<DriveOrder>emptyList());
+    return vehicle;
+  }
+
+  private Deadlock createDeadlock() {
+    Map<Scheduler.Client, Set<TCSResource<?>>> resourcesByClient = new HashMap<>();
+    resourcesByClient.put(clientA, setOf(pointA, pointB));
+    resourcesByClient.put(clientB, setOf(pointB, pointA));
+    return new Deadlock(Arrays.asList(allocationA, allocationB), resourcesByClient);
+  }
+
+  private Scheduler.Client createClient(String id) {
+    Scheduler.Client client = mock(Scheduler.Client.class);
+    when(client.getId()).thenReturn(id);
+    return client;
+  }
+
+  private Set<TCSResource<?>> setOf(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link DeferredAllocations}.
+ */
+public class DeferredAllocationsTest {
+
+  private Scheduler.Client clientA;
+
+  private Scheduler.Client clientB;
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private DeferredAllocations deferredAllocations;
+
+  @Before
+  public void setUp() {
+    clientA = mock(Scheduler.Client.class);
+    when(clientA.getId()).thenReturn("Client-A");
+    clientB = mock(Scheduler.Client.class);
+    when(clientB.getId()).thenReturn("Client-B");
+    pointA = new Point("A");
+    pointB = new Point("B");
+    deferredAllocations = new DeferredAllocations();
+  }
+
+  @Test
+  public void retryOnlyAllocationsWaitingForReleasedResources() {
+    AllocatorCommand.Allocate waitingForA = new AllocatorCommand.Allocate(clientA, setOf(pointA));
+    AllocatorCommand.Allocate waitingForB = new AllocatorCommand.Allocate(clientB, setOf(pointB));
+    deferredAllocations.add(waitingForA, setOf(pointA));
+    deferredAllocations.add(waitingForB, setOf(pointB));
+
+    assertThat(deferredAllocations.removeRetriable(setOf(pointA)), contains(waitingForA));
+    assertThat(deferredAllocations.size(), is(1));
+    assertThat(deferredAllocations.getRetryCount(), is(1L));
+    assertThat(deferredAllocations.getSkippedRetryCount(), is(1L));
+  }
+
+  @Test
+  public void retryAllocationsWithoutBlockingResourcesOnEveryRelease() {
+    AllocatorCommand.Allocate vetoed = new AllocatorCommand.Allocate(clientA, setOf(pointA));
+    deferredAllocations.add(vetoed, Collections.emptySet());
+
+    assertThat(deferredAllocations.removeRetriable(setOf(pointB)), contains(vetoed));
+    assertThat(deferredAllocations.size(), is(0));
+  }
+
+  @Test
+  public void retryAllocationsInNaturalOrder() {
+    AllocatorCommand.Allocate first = new AllocatorCommand.Allocate(clientA, setOf(pointA));
+    AllocatorCommand.Allocate second = new AllocatorCommand.Allocate(clientB, setOf(pointA));
+    deferredAllocations.add(second, setOf(pointA));
+    deferredAllocations.add(first, setOf(pointA, pointB));
+
+    assertThat(deferredAllocations.removeRetriable(setOf(pointA, pointB)),
+               contains(first, second));
+    assertThat(deferredAllocations.removeRetriable(setOf(pointB)), is(empty()));
+  }
+
+  @Test
+  public void removeAllocationsOfClient() {
+    deferredAllocations.add(new AllocatorCommand.Allocate(clientA, setOf(pointA)), setOf(pointA));
+    AllocatorCommand.Allocate allocationB = new AllocatorCommand.Allocate(clientB, setOf(pointB));
+    deferredAllocations.add(allocationB, setOf(pointA));
+
+    deferredAllocations.removeAll(clientA);
+
+    assertThat(deferredAllocations.removeAll(), contains(allocationB));
+  }
+
+  private Set<TCSResource<?>> setOf(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+}
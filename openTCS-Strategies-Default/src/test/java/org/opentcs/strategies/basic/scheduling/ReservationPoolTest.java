@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link ReservationPool}.
+ */
+public class ReservationPoolTest {
+
+  private Scheduler.Client clientA;
+
+  private Scheduler.Client clientB;
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private Path pathAB;
+
+  private ReservationPool pool;
+
+  @Before
+  public void setUp() {
+    clientA = mock(Scheduler.Client.class);
+    when(clientA.getId()).thenReturn("Client-A");
+    clientB = mock(Scheduler.Client.class);
+    when(clientB.getId()).thenReturn("Client-B");
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pathAB = new Path("A --- B", pointA.getReference(), pointB.getReference());
+    pool = new ReservationPool();
+    pool.addResources(Arrays.asList(pointA, pointB, pathAB));
+  }
+
+  @Test
+  public void assignDenseIdsToPreallocatedEntries() {
+    for (int id = 0; id < 3; id++) {
+      ReservationEntry entry = pool.getReservationEntry(id);
+      assertThat(entry.getId(), is(id));
+      assertThat(pool.getReservationEntry(entry.getResource()), is(sameInstance(entry)));
+    }
+    assertThat(pool.getReservationEntry(new Point("C")).getId(), is(3));
+  }
+
+  @Test
+  public void keepTrackOfResourcesAllocatedByClient() {
+    pool.allocate(clientA, setOf(pointA, pathAB));
+    pool.allocate(clientB, setOf(pointB));
+
+    assertThat(pool.allocatedResources(clientA), containsInAnyOrder(pointA, pathAB));
+    assertThat(pool.getAllocations().get("Client-B"), containsInAnyOrder(pointB));
+  }
+
+  @Test
+  public void keepResourceAllocatedUntilFreedAsOftenAsAllocated() {
+    pool.allocate(clientA, setOf(pointA));
+    pool.allocate(clientA, setOf(pointA));
+
+    pool.free(clientA, setOf(pointA));
+    assertThat(pool.allocatedResources(clientA), containsInAnyOrder(pointA));
+
+    pool.free(clientA, setOf(pointA));
+    assertThat(pool.allocatedResources(clientA), is(empty()));
+    assertThat(pool.getAllocations(), not(hasKey("Client-A")));
+    assertThat(pool.resourcesAvailableForUser(setOf(pointA), clientB), is(true));
+  }
+
+  @Test
+  public void freeAllResourcesOfClientOnly() {
+    pool.allocate(clientA, setOf(pointA, pathAB));
+    pool.allocate(clientB, setOf(pointB));
+
+    pool.freeAll(clientA);
+
+    assertThat(pool.allocatedResources(clientA), is(empty()));
+    assertThat(pool.getReservationEntry(pointA).isFree(), is(true));
+    assertThat(pool.resourcesUnavailableForUser(setOf(pointA, pointB), clientA),
+               containsInAnyOrder(pointB));
+  }
+
+  @Test
+  public void checkAvailabilityByResourceIds() {
+    ResourceIdSet ids = pool.getResourceIds(setOf(pointA, pathAB));
+    assertThat(ids.contains(pool.getReservationEntry(pointA).getId()), is(true));
+    assertThat(ids.size(), is(2));
+
+    pool.allocate(clientA, setOf(pointA));
+    assertThat(pool.resourcesAvailableForUser(ids, clientA), is(true));
+    assertThat(pool.resourcesAvailableForUser(ids, clientB), is(false));
+    assertThat(pool.anyResourceAllocatedBy(ids, clientA), is(true));
+    assertThat(pool.anyResourceAllocatedBy(ids, clientB), is(false));
+
+    pool.free(clientA, setOf(pointA));
+    assertThat(pool.resourcesAvailableForUser(ids, clientB), is(true));
+    assertThat(pool.anyResourceAllocatedBy(ids, clientA), is(false));
+  }
+
+  @Test
+  public void releaseResourcesFreedCompletely() {
+    pool.allocate(clientA, setOf(pointA, pathAB));
+
+    pool.freeAll(clientA);
+
+    assertThat(pool.resourcesAvailableForUser(setOf(pointA, pathAB), clientB), is(true));
+  }
+
+  private Set<TCSResource<?>> setOf(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+}
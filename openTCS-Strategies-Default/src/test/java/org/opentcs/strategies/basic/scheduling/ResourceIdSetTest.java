@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import static org.hamcrest.Matchers.is;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for {@link ResourceIdSet}.
+ */
+public class ResourceIdSetTest {
+
+  @Test
+  public void growWhenAddingLargeIds() {
+    ResourceIdSet set = new ResourceIdSet(0);
+
+    set.add(3);
+    set.add(200);
+
+    assertThat(set.contains(3), is(true));
+    assertThat(set.contains(200), is(true));
+    assertThat(set.contains(4), is(false));
+    assertThat(set.contains(1000), is(false));
+    assertThat(set.size(), is(2));
+  }
+
+  @Test
+  public void iterateOverIdsInAscendingOrder() {
+    ResourceIdSet set = setOf(130, 0, 63, 64);
+
+    assertThat(set.nextId(0), is(0));
+    assertThat(set.nextId(1), is(63));
+    assertThat(set.nextId(64), is(64));
+    assertThat(set.nextId(65), is(130));
+    assertThat(set.nextId(131), is(-1));
+    assertThat(set.nextId(1000), is(-1));
+    assertThat(set.toString(), is("{0, 63, 64, 130}"));
+  }
+
+  @Test
+  public void becomeEmptyWhenRemovingAllIds() {
+    ResourceIdSet set = setOf(5, 70);
+
+    set.remove(5);
+    assertThat(set.isEmpty(), is(false));
+    set.remove(70);
+    set.remove(500);
+    assertThat(set.isEmpty(), is(true));
+  }
+
+  @Test
+  public void checkIntersectionWordWise() {
+    ResourceIdSet set = setOf(1, 100);
+
+    assertThat(set.intersects(setOf(2, 101)), is(false));
+    assertThat(set.intersects(setOf(2, 100)), is(true));
+    assertThat(set.intersects(new ResourceIdSet(0)), is(false));
+  }
+
+  @Test
+  public void ignoreExcludedIdsWhenCheckingIntersection() {
+    ResourceIdSet set = setOf(1, 100);
+
+    assertThat(set.intersectsExcluding(setOf(1, 100), setOf(1, 100)), is(false));
+    assertThat(set.intersectsExcluding(setOf(1, 100), setOf(1)), is(true));
+    assertThat(set.intersectsExcluding(setOf(1, 100), setOf(100)), is(true));
+    assertThat(set.intersectsExcluding(setOf(100), new ResourceIdSet(0)), is(true));
+  }
+
+  @Test
+  public void considerSetsWithSameIdsEqual() {
+    ResourceIdSet set = setOf(1, 2);
+    ResourceIdSet other = new ResourceIdSet(1000);
+    other.addAll(setOf(1, 2));
+
+    assertThat(set.equals(other), is(true));
+    assertThat(set.hashCode(), is(other.hashCode()));
+  }
+
+  private ResourceIdSet setOf(int... ids) {
+    ResourceIdSet result = new ResourceIdSet();
+    for (int id : ids) {
+      result.add(id);
+    }
+    return result;
+  }
+}
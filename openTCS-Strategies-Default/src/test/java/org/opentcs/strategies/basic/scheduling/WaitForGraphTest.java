@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import org.junit.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link WaitForGraph}.
+ */
+public class WaitForGraphTest {
+
+  private ReservationPool reservationPool;
+
+  private DeferredAllocations deferredAllocations;
+
+  private Map<Scheduler.Client, List<Set<TCSResource<?>>>> claimsByClient;
+
+  private Scheduler.Client clientA;
+
+  private Scheduler.Client clientB;
+
+  private Scheduler.Client clientC;
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private Point pointC;
+
+  private WaitForGraph waitForGraph;
+
+  @Before
+  public void setUp() {
+    reservationPool = new ReservationPool();
+    deferredAllocations = new DeferredAllocations();
+    claimsByClient = new HashMap<>();
+    clientA = createClient("Client-A");
+    clientB = createClient("Client-B");
+    clientC = createClient("Client-C");
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    reservationPool.allocate(clientA, setOf(pointA));
+    reservationPool.allocate(clientB, setOf(pointB));
+    reservationPool.allocate(clientC, setOf(pointC));
+    waitForGraph = new WaitForGraph(reservationPool, deferredAllocations, claimsByClient);
+  }
+
+  @Test
+  public void detectVehiclesWaitingForEachOther() {
+    AllocatorCommand.Allocate allocationA = defer(clientA, pointB);
+    AllocatorCommand.Allocate allocationB = defer(clientB, pointA);
+
+    Optional<Deadlock> deadlock = waitForGraph.findDeadlock(allocationB);
+
+    assertTrue(deadlock.isPresent());
+    assertThat(deadlock.get().getAllocations(), contains(allocationB, allocationA));
+    assertThat(deadlock.get().getClientIds(), contains("Client-A", "Client-B"));
+  }
+
+  @Test
+  public void detectLongerCycles() {
+    AllocatorCommand.Allocate allocationA = defer(clientA, pointB);
+    AllocatorCommand.Allocate allocationB = defer(clientB, pointC);
+    AllocatorCommand.Allocate allocationC = defer(clientC, pointA);
+
+    Optional<Deadlock> deadlock = waitForGraph.findDeadlock(allocationA);
+
+    assertTrue(deadlock.isPresent());
+    assertThat(deadlock.get().getAllocations(), contains(allocationA, allocationB, allocationC));
+  }
+
+  @Test
+  public void ignoreWaitingChainWithoutCycle() {
+    AllocatorCommand.Allocate allocationA = defer(clientA, pointB);
+    defer(clientB, pointC);
+
+    assertThat(waitForGraph.findDeadlock(allocationA).isPresent(), is(false));
+  }
+
+  @Test
+  public void ignoreResourcesFreedInTheMeantime() {
+    AllocatorCommand.Allocate allocationA = defer(clientA, pointB);
+    defer(clientB, pointA);
+    reservationPool.freeAll(clientB);
+
+    assertThat(waitForGraph.findDeadlock(allocationA).isPresent(), is(false));
+  }
+
+  @Test
+  public void includeClaimsInResourcesOfOthers() {
+    Point pointD = new Point("D");
+    claimsByClient.put(clientB, Collections.singletonList(setOf(pointD)));
+    defer(clientA, pointB);
+    AllocatorCommand.Allocate allocationB = defer(clientB, pointA);
+
+    Deadlock deadlock = waitForGraph.findDeadlock(allocationB).get();
+
+    assertThat(deadlock.getResourcesOfOthers(clientA), hasItem(pointD));
+    assertThat(deadlock.getResourcesOfOthers(clientB), not(hasItem(pointD)));
+  }
+
+  private AllocatorCommand.Allocate defer(Scheduler.Client client, TCSResource<?> resource) {
+    AllocatorCommand.Allocate allocation = new AllocatorCommand.Allocate(client, setOf(resource));
+    deferredAllocations.add(allocation,
+                            reservationPool.resourcesUnavailableForUser(setOf(resource), client));
+    return allocation;
+  }
+
+  private Scheduler.Client createClient(String id) {
+    Scheduler.Client client = mock(Scheduler.Client.class);
+    when(client.getId()).thenReturn(id);
+    return client;
+  }
+
+  private Set<TCSResource<?>> setOf(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling.modules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.ReservationPool;
+
+/**
+ * Unit tests for {@link PathTimeWindowModule}.
+ */
+public class PathTimeWindowModuleTest {
+
+  private ReservationPool reservationPool;
+
+  private PathTimeWindowModule module;
+
+  private Point[] points;
+
+  private Path[] paths;
+
+  private Scheduler.Client clientA;
+
+  private Scheduler.Client clientB;
+
+  private long now;
+
+  @Before
+  public void setUp() {
+    reservationPool = new ReservationPool();
+    points = new Point[4];
+    paths = new Path[3];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = new Point("C" + i);
+    }
+    for (int i = 0; i < paths.length; i++) {
+      paths[i] = new Path("C" + i + " --- C" + (i + 1),
+                          points[i].getReference(),
+                          points[i + 1].getReference())
+          .withLength(1000)
+          .withMaxVelocity(1000)
+          .withMaxReverseVelocity(1000);
+    }
+    now = 0;
+    module = createModule(3);
+    clientA = createClient("Vehicle-A");
+    clientB = createClient("Vehicle-B");
+  }
+
+  @Test
+  public void giveWayToClientHoldingOppositePath() {
+    claim(clientA, ascendingClaim());
+    claim(clientB, descendingClaim());
+    reservationPool.allocate(clientB, descendingClaim().get(0));
+
+    assertFalse(module.mayAllocate(clientA, ascendingClaim().get(0)));
+    assertTrue(module.mayAllocate(clientB, descendingClaim().get(1)));
+  }
+
+  @Test
+  public void letExactlyOneOfTwoOpposingClientsEnter() {
+    claim(clientA, ascendingClaim());
+    claim(clientB, descendingClaim());
+
+    assertTrue(module.mayAllocate(clientA, ascendingClaim().get(0)));
+    assertFalse(module.mayAllocate(clientB, descendingClaim().get(0)));
+  }
+
+  @Test
+  public void allowClientsTravellingInTheSameDirection() {
+    Scheduler.Client follower = createClient("Vehicle-C");
+    claim(clientA, ascendingClaim());
+    claim(follower, ascendingClaim());
+    reservationPool.allocate(clientA, ascendingClaim().get(0));
+
+    assertTrue(module.mayAllocate(follower, ascendingClaim().get(0)));
+  }
+
+  @Test
+  public void ignoreTimeWindowsBeyondHorizon() {
+    Point otherPoint = new Point("X0");
+    Path otherPath = new Path("X0 --- C3", otherPoint.getReference(), points[3].getReference())
+        .withLength(1000)
+        .withMaxVelocity(1000);
+    List<Set<TCSResource<?>>> longClaim = new ArrayList<>();
+    for (int i = 0; i < 70; i++) {
+      longClaim.add(setOf(otherPath, points[3]));
+    }
+    longClaim.addAll(descendingClaim());
+    claim(clientA, ascendingClaim());
+    claim(clientB, longClaim.subList(68, longClaim.size()));
+
+    assertFalse(module.mayAllocate(clientB, longClaim.get(0)));
+
+    claim(clientB, longClaim);
+
+    assertTrue(module.mayAllocate(clientB, longClaim.get(0)));
+  }
+
+  @Test
+  public void limitFollowersOvertakingWaitingClient() {
+    module = createModule(1);
+    Scheduler.Client firstFollower = createClient("Vehicle-C");
+    Scheduler.Client secondFollower = createClient("Vehicle-D");
+    claim(clientA, ascendingClaim());
+    claim(clientB, descendingClaim());
+    claim(firstFollower, ascendingClaim());
+    claim(secondFollower, ascendingClaim());
+    reservationPool.allocate(clientA, ascendingClaim().get(0));
+
+    assertFalse(module.mayAllocate(clientB, descendingClaim().get(0)));
+    assertTrue(module.mayAllocate(firstFollower, ascendingClaim().get(0)));
+    module.prepareAllocation(firstFollower, ascendingClaim().get(0));
+
+    assertFalse(module.mayAllocate(secondFollower, ascendingClaim().get(0)));
+    assertTrue(module.mayAllocate(firstFollower, ascendingClaim().get(1)));
+  }
+
+  @Test
+  public void forgetUnclaimedClients() {
+    claim(clientA, ascendingClaim());
+    claim(clientB, descendingClaim());
+    reservationPool.allocate(clientB, descendingClaim().get(0));
+    module.unclaim(clientB);
+
+    assertTrue(module.mayAllocate(clientA, ascendingClaim().get(0)));
+  }
+
+  @Test
+  public void giveWayToClientOccupyingPathJustTravelled() {
+    claim(clientA, ascendingClaim());
+    claim(clientB, descendingClaim());
+    reservationPool.allocate(clientB, descendingClaim().get(0));
+    module.setAllocationState(clientB, new HashSet<>(), descendingClaim());
+
+    assertFalse(module.mayAllocate(clientA, ascendingClaim().get(0)));
+    assertTrue(module.mayAllocate(clientB, descendingClaim().get(1)));
+  }
+
+  @Test
+  public void compareTimeWindowsEstimatedAtDifferentTimes() {
+    module = createModule(3, 0);
+    claim(clientA, ascendingClaim());
+    reservationPool.allocate(clientA, ascendingClaim().get(0));
+    // Vehicle A is about to leave the first path as estimated when vehicle B claims the second one.
+    now = 1000;
+    claim(clientB, descendingClaim().subList(1, 2));
+
+    assertFalse(module.mayAllocate(clientB, descendingClaim().get(1)));
+  }
+
+  @Test
+  public void postponeTimeWindowsOfStoppedClient() {
+    claim(clientA, ascendingClaim());
+    reservationPool.allocate(clientA, ascendingClaim().get(0));
+    // Vehicle A is still on the first path long after it should have left it.
+    now = 60000;
+    claim(clientB, descendingClaim());
+
+    assertFalse(module.mayAllocate(clientB, descendingClaim().get(0)));
+  }
+
+  @Test
+  public void postponeTimeWindowsOfWaitingClient() {
+    claim(clientA, ascendingClaim());
+    // Vehicle A has not been able to enter the first path, yet.
+    now = 60000;
+    claim(clientB, descendingClaim());
+    reservationPool.allocate(clientB, descendingClaim().get(0));
+
+    assertFalse(module.mayAllocate(clientA, ascendingClaim().get(0)));
+  }
+
+  private void claim(Scheduler.Client client, List<Set<TCSResource<?>>> claim) {
+    module.claim(client, claim);
+    module.setAllocationState(client, new HashSet<>(), claim);
+  }
+
+  private PathTimeWindowModule createModule(int maxFollowers) {
+    return createModule(maxFollowers, 2000);
+  }
+
+  private PathTimeWindowModule createModule(int maxFollowers, long margin) {
+    PathTimeWindowModule result = new PathTimeWindowModule(reservationPool,
+                                                           mock(InternalPlantModelService.class),
+                                                           new Object(),
+                                                           60000,
+                                                           margin,
+                                                           maxFollowers,
+                                                           () -> now);
+    result.initialize();
+    return result;
+  }
+
+  private List<Set<TCSResource<?>>> ascendingClaim() {
+    List<Set<TCSResource<?>>> result = new ArrayList<>();
+    for (int i = 0; i < paths.length; i++) {
+      result.add(setOf(paths[i], points[i + 1]));
+    }
+    return result;
+  }
+
+  private List<Set<TCSResource<?>>> descendingClaim() {
+    List<Set<TCSResource<?>>> result = new ArrayList<>();
+    for (int i = paths.length - 1; i >= 0; i--) {
+      result.add(setOf(paths[i], points[i]));
+    }
+    return result;
+  }
+
+  private Scheduler.Client createClient(String id) {
+    Scheduler.Client client = mock(Scheduler.Client.class);
+    when(client.getId()).thenReturn(id);
+    return client;
+  }
+
+  private Set<TCSResource<?>> setOf(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+}
@@ -42,7 +42,7 @@ public class SingleVehicleBlockModuleTest {
   private final InternalPlantModelService plantModelService;
 
   public SingleVehicleBlockModuleTest() {
-    reservationPool = mock(ReservationPool.class);
+    reservationPool = new ReservationPool();
     plantModelService = mock(InternalPlantModelService.class);
     module = new SingleVehicleBlockModule(reservationPool, plantModelService, new Object());
   }
@@ -60,7 +60,8 @@ public class SingleVehicleBlockModuleTest {
     Scheduler.Client client = new SampleClient();
     ModelData model = new ModelData();
 
-    when(plantModelService.fetchObjects(eq(Block.class), any())).thenReturn(new HashSet<>());
+    when(plantModelService.fetchObjects(eq(Block.class))).thenReturn(new HashSet<>());
+    module.initialize();
     assertTrue(module.mayAllocate(client, model.resourcesToAllocate));
   }
 
@@ -69,11 +70,10 @@ public class SingleVehicleBlockModuleTest {
     Scheduler.Client client = new SampleClient();
     ModelData model = new ModelData();
 
-    when(plantModelService.fetchObjects(eq(Block.class), any()))
+    when(plantModelService.fetchObjects(eq(Block.class)))
         .thenReturn(new HashSet<>(Arrays.asList(model.getBlock())));
     when(plantModelService.expandResources(any())).thenReturn(model.getBlockResources());
-    when(reservationPool.resourcesAvailableForUser(model.getBlockResources(), client))
-        .thenReturn(true);
+    module.initialize();
     assertTrue(module.mayAllocate(client, model.getResourcesToAllocate()));
   }
 
@@ -82,11 +82,11 @@ public class SingleVehicleBlockModuleTest {
     Scheduler.Client client = new SampleClient();
     ModelData model = new ModelData();
 
-    when(plantModelService.fetchObjects(eq(Block.class), any()))
+    when(plantModelService.fetchObjects(eq(Block.class)))
         .thenReturn(new HashSet<>(Arrays.asList(model.getBlock())));
     when(plantModelService.expandResources(any())).thenReturn(model.getBlockResources());
-    when(reservationPool.resourcesAvailableForUser(model.getBlockResources(), client))
-        .thenReturn(false);
+    module.initialize();
+    reservationPool.allocate(new SampleClient("OtherClient"), model.getOtherBlockResources());
     assertFalse(module.mayAllocate(client, model.getResourcesToAllocate()));
   }
 
@@ -94,6 +94,7 @@ public class SingleVehicleBlockModuleTest {
 
     private final Set<TCSResource<?>> blockResources = new HashSet<>();
     private final Set<TCSResource<?>> resourcesToAllocate = new HashSet<>();
+    private final Set<TCSResource<?>> otherBlockResources = new HashSet<>();
     private final Block block;
 
     public ModelData() {
@@ -119,6 +120,8 @@ public class SingleVehicleBlockModuleTest {
 
       resourcesToAllocate.add(pathAB);
       resourcesToAllocate.add(pointB);
+
+      otherBlockResources.add(pointC);
     }
 
     public Set<TCSResource<?>> getBlockResources() {
@@ -129,6 +132,10 @@ public class SingleVehicleBlockModuleTest {
       return resourcesToAllocate;
     }
 
+    public Set<TCSResource<?>> getOtherBlockResources() {
+      return otherBlockResources;
+    }
+
     public Block getBlock() {
       return block;
     }
@@ -137,9 +144,19 @@ public class SingleVehicleBlockModuleTest {
   private class SampleClient
       implements Scheduler.Client {
 
+    private final String id;
+
+    SampleClient() {
+      this("SampleClient");
+    }
+
+    SampleClient(String id) {
+      this.id = id;
+    }
+
     @Override
     public String getId() {
-      return "SampleClient";
+      return id;
     }
 
     @Override